@@ -0,0 +1,117 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.NexignBootcampTaskApplication;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.service.CallColumnService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.service.UsageRollupService;
+import org.example.nexignbootcamptask.util.PeriodUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Starts the application against a private in-memory H2 database and seeds it
+ * with a deterministic synthetic call history for benchmarks.
+ */
+public final class BenchmarkData {
+
+    public static final long FIRST_MSISDN = 79_500_000_000L;
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    private BenchmarkData() {}
+
+    public static ConfigurableApplicationContext startApplication(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Starts the application with its web server on a random port, see {@link #port}.
+     */
+    public static ConfigurableApplicationContext startWebApplication(String... properties) {
+        return start(WebApplicationType.SERVLET, properties);
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+        return new SpringApplicationBuilder(NexignBootcampTaskApplication.class)
+                .web(type)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";LOCK_TIMEOUT=10000",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    public static String msisdn(int index) {
+        return Long.toString(FIRST_MSISDN + index);
+    }
+
+    /**
+     * Inserts {@code subscribers} subscribers and {@code callsPerSubscriber} outgoing and incoming
+     * calls each, all starting within the given month. Calls are inserted with plain JDBC,
+     * bypassing ingestion, so the monthly usage rollup and the in-memory subscribers and calls are reloaded afterwards.
+     */
+    public static void seed(ConfigurableApplicationContext context, int subscribers, int callsPerSubscriber,
+                            LocalDateTime monthStart, long seed) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<Object[]> subscriberRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < subscribers; i++) {
+            subscriberRows.add(new Object[]{msisdn(i)});
+            if (subscriberRows.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO subscriber (msisdn) VALUES (?)", subscriberRows);
+                subscriberRows.clear();
+            }
+        }
+        if (!subscriberRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO subscriber (msisdn) VALUES (?)", subscriberRows);
+        }
+
+        int secondsInMonth = monthStart.toLocalDate().lengthOfMonth() * 24 * 3600 - 3600;
+        List<Object[]> callRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < subscribers; i++) {
+            for (int c = 0; c < callsPerSubscriber; c++) {
+                String caller = msisdn(i);
+                String receiver = msisdn((i + 1 + random.nextInt(Math.max(1, subscribers - 1))) % subscribers);
+                CallType callType = random.nextBoolean() ? CallType.OUTCOMING : CallType.INCOMING;
+                LocalDateTime callStart = monthStart.plusSeconds(random.nextInt(secondsInMonth));
+                LocalDateTime callEnd = callStart.plusSeconds(10 + random.nextInt(1791));
+
+                callRows.add(new Object[]{callType.name(), caller, receiver,
+                        Timestamp.valueOf(callStart), Timestamp.valueOf(callEnd), PeriodUtil.partitionOf(callStart)});
+                if (callRows.size() == INSERT_BATCH_SIZE) {
+                    insertCalls(jdbcTemplate, callRows);
+                    callRows.clear();
+                }
+            }
+        }
+        if (!callRows.isEmpty()) {
+            insertCalls(jdbcTemplate, callRows);
+        }
+
+        context.getBean(UsageRollupService.class).rebuildRollups();
+        context.getBean(SubscriberDirectoryService.class).reload();
+        context.getBean(CallColumnService.class).reload();
+    }
+
+    private static void insertCalls(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO cdrecord (id, call_type, calling_subscriber_msisdn, " +
+                "receiving_subscriber_msisdn, call_start, call_end, call_month) " +
+                "VALUES (NEXT VALUE FOR cdrecord_seq, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.service.CDRService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the month's CDR reports of a batch of subscribers, with one range query per subscriber
+ * against one query per chunk of subscribers over the month's partition followed by parallel file writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CDRBatchReportBenchmark {
+
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+    @Param({"10000"})
+    private int subscribers;
+
+    @Param({"10"})
+    private int callsPerSubscriber;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({"single", "batch"})
+    private String mode;
+
+    @Param({"4"})
+    private int workers;
+
+    private ConfigurableApplicationContext context;
+    private CDRService cdrService;
+    private List<CDRGenerationRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("cdr.report.batch.workers=" + workers);
+        BenchmarkData.seed(context, subscribers, callsPerSubscriber, MONTH_START, 42L);
+        cdrService = context.getBean(CDRService.class);
+        requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            requests.add(new CDRGenerationRequest(BenchmarkData.msisdn(i * (subscribers / batchSize)),
+                    MONTH_START, MONTH_START.plusMonths(1)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long generateCDRReports() throws IOException {
+        List<Path> reports = new ArrayList<>(batchSize);
+        if (mode.equals("batch")) {
+            Map<UUID, CDRGenerationRequest> batch = new LinkedHashMap<>();
+            requests.forEach(request -> batch.put(UUID.randomUUID(), request));
+            reports.addAll(cdrService.generateCDRReports(batch).values());
+        } else {
+            for (CDRGenerationRequest request : requests) {
+                reports.add(cdrService.generateCDRReport(UUID.randomUUID(), request));
+            }
+        }
+
+        long size = 0;
+        for (Path report : reports) {
+            size += Files.size(report);
+            Files.delete(report);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.service.CDRService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the sample CDR generation run on startup: 500 to 1000 random calls between
+ * the sample subscribers, ingested with their usage rollup. Calls are removed after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CDRGenerationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CDRService cdrService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        cdrService = context.getBean(CDRService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        cdrService.initializeSubscribers();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeCalls() {
+        jdbcTemplate.execute("TRUNCATE TABLE cdrecord");
+        jdbcTemplate.execute("TRUNCATE TABLE subscriber_monthly_usage");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void generateCDRecords() {
+        cdrService.generateCDRecords();
+    }
+}
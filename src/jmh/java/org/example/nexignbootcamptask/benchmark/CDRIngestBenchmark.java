@@ -0,0 +1,82 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CDR ingestion throughput in records per second:
+ * the flushing and clearing bulk insert against a plain {@code saveAll}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CDRIngestBenchmark {
+
+    private static final int SUBSCRIBERS = 1000;
+    private static final int RECORDS_PER_INVOCATION = 100_000;
+
+    private ConfigurableApplicationContext context;
+    private CDRecordRepository cdRecordRepository;
+    private JdbcTemplate jdbcTemplate;
+    private List<CDRecord> records;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        BenchmarkData.seed(context, SUBSCRIBERS, 0, LocalDateTime.of(2025, 5, 1, 0, 0), 42L);
+        cdRecordRepository = context.getBean(CDRecordRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareRecords() {
+        jdbcTemplate.execute("TRUNCATE TABLE cdrecord");
+
+        SplittableRandom random = new SplittableRandom(42L);
+        LocalDateTime monthStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+        records = new ArrayList<>(RECORDS_PER_INVOCATION);
+        for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+            int caller = random.nextInt(SUBSCRIBERS);
+            int receiver = (caller + 1 + random.nextInt(SUBSCRIBERS - 1)) % SUBSCRIBERS;
+            LocalDateTime callStart = monthStart.plusSeconds(i * 20L);
+            records.add(CDRecord.builder()
+                    .callType(random.nextBoolean() ? CallType.OUTCOMING : CallType.INCOMING)
+                    .callingSubscriber(Subscriber.builder().msisdn(BenchmarkData.msisdn(caller)).build())
+                    .receivingSubscriber(Subscriber.builder().msisdn(BenchmarkData.msisdn(receiver)).build())
+                    .callStart(callStart)
+                    .callEnd(callStart.plusSeconds(10 + random.nextInt(1791)))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public long bulkInsert() {
+        return cdRecordRepository.bulkInsert(records);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public int saveAll() {
+        return cdRecordRepository.saveAll(records).size();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.service.CDRIngestBufferService;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ingestion throughput in records per second of 16 threads each sending a few CDRs at a time:
+ * one transaction per call against the ingest buffer's group commits, acknowledged after commit.
+ * Acknowledging on enqueue is left out: producers outrun the writer until the buffer fills, so the score would
+ * measure the buffer rather than stored records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class CDRIngestBufferBenchmark {
+
+    private static final int SUBSCRIBERS = 1000;
+    private static final int RECORDS_PER_CALL = 10;
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+    @Param({"direct", "commit"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private CDRIngestService cdrIngestService;
+    private CDRIngestBufferService cdrIngestBufferService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("cdr.ingest.buffer.offer-timeout=1m");
+        BenchmarkData.seed(context, SUBSCRIBERS, 0, MONTH_START, 42L);
+        cdrIngestService = context.getBean(CDRIngestService.class);
+        cdrIngestBufferService = context.getBean(CDRIngestBufferService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_CALL)
+    public long ingest() {
+        List<CDRecordRequest> records = records();
+        if (mode.equals("direct")) {
+            List<CDRecord> entities = new ArrayList<>(records.size());
+            for (CDRecordRequest record : records) {
+                entities.add(CDRecord.builder()
+                        .callType(record.getCallType())
+                        .callingSubscriber(Subscriber.builder().msisdn(record.getCallingMsisdn()).build())
+                        .receivingSubscriber(Subscriber.builder().msisdn(record.getReceivingMsisdn()).build())
+                        .callStart(record.getCallStart())
+                        .callEnd(record.getCallEnd())
+                        .build());
+            }
+            return cdrIngestService.ingestCDRecords(entities);
+        }
+        return cdrIngestBufferService.ingest(records).getRecordCount();
+    }
+
+    private List<CDRecordRequest> records() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<CDRecordRequest> records = new ArrayList<>(RECORDS_PER_CALL);
+        for (int i = 0; i < RECORDS_PER_CALL; i++) {
+            int caller = random.nextInt(SUBSCRIBERS);
+            int receiver = (caller + 1 + random.nextInt(SUBSCRIBERS - 1)) % SUBSCRIBERS;
+            LocalDateTime callStart = MONTH_START.plusSeconds(random.nextInt(28 * 24 * 3600));
+            records.add(new CDRecordRequest(random.nextBoolean() ? CallType.OUTCOMING : CallType.INCOMING,
+                    BenchmarkData.msisdn(caller), BenchmarkData.msisdn(receiver),
+                    callStart, callStart.plusSeconds(10 + random.nextInt(1791))));
+        }
+        return records;
+    }
+}
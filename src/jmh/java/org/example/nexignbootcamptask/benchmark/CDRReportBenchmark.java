@@ -0,0 +1,63 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.service.CDRService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing one subscriber's CDR report file, with the rows read from the database
+ * or from the in-memory call columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CDRReportBenchmark {
+
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+    @Param({"10000"})
+    private int subscribers;
+
+    @Param({"10", "100"})
+    private int callsPerSubscriber;
+
+    @Param({"database", "columns"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private CDRService cdrService;
+    private CDRGenerationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("cdr.columnar.enabled=" + source.equals("columns"));
+        BenchmarkData.seed(context, subscribers, callsPerSubscriber, MONTH_START, 42L);
+        cdrService = context.getBean(CDRService.class);
+        request = new CDRGenerationRequest(BenchmarkData.msisdn(subscribers / 2),
+                MONTH_START, MONTH_START.plusMonths(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long generateCDRReport() throws IOException {
+        Path report = cdrService.generateCDRReport(UUID.randomUUID(), request);
+        long size = Files.size(report);
+        Files.delete(report);
+        return size;
+    }
+}
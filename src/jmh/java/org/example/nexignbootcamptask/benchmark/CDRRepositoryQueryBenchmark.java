@@ -0,0 +1,91 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.CDRReportRow;
+import org.example.nexignbootcamptask.dto.CallDurationSummary;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the CDR repository queries behind the UDR and CDR endpoints against a seeded H2 database:
+ * one subscriber's calls and totals, and the grouped totals of all subscribers for a month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CDRRepositoryQueryBenchmark {
+
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 5, 1, 0, 0);
+    private static final LocalDateTime MONTH_END = MONTH_START.plusMonths(1);
+
+    @Param({"10000"})
+    private int subscribers;
+
+    @Param({"10"})
+    private int callsPerSubscriber;
+
+    private ConfigurableApplicationContext context;
+    private CDRecordRepository cdRecordRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private String msisdn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        BenchmarkData.seed(context, subscribers, callsPerSubscriber, MONTH_START, 42L);
+        cdRecordRepository = context.getBean(CDRecordRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        msisdn = BenchmarkData.msisdn(subscribers / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CDRecord> findAllBySubscriberMsisdnAndDateRange() {
+        return cdRecordRepository.findAllBySubscriberMsisdnAndDateRange(msisdn, MONTH_START, MONTH_END);
+    }
+
+    @Benchmark
+    public List<CDRecord> findByCallingSubscriberAndCallTypeAndPeriod() {
+        return cdRecordRepository.findByCallingSubscriber_MsisdnAndCallTypeAndPeriod(
+                msisdn, CallType.OUTCOMING, MONTH_START, MONTH_END);
+    }
+
+    @Benchmark
+    public long streamReportRows() {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<CDRReportRow> rows = cdRecordRepository.streamReportRowsBySubscriberMsisdnAndDateRange(
+                    msisdn, MONTH_START, MONTH_END)) {
+                return rows.count();
+            }
+        });
+    }
+
+    @Benchmark
+    public CallDurationTotals sumDurationsBySubscriberAndPeriod() {
+        return cdRecordRepository.sumDurationsBySubscriberAndPeriod(msisdn, MONTH_START, MONTH_END);
+    }
+
+    @Benchmark
+    public List<CallDurationSummary> sumDurationByCallingSubscriberAndPeriod() {
+        return cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriod(
+                CallType.OUTCOMING, MONTH_START, MONTH_END);
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.service.impl.CallColumnServiceImpl;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.CharFormatUtil;
+import org.example.nexignbootcamptask.util.SubscriberCallTotals;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares analytics over loaded {@link CDRecord} entities with the same analytics over
+ * in-memory call columns: monthly totals of all subscribers, totals of one subscriber
+ * and the rows of one subscriber's CDR report. Run with {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CallColumnsBenchmark {
+
+    private static final int MONTHS = 12;
+    private static final LocalDateTime FIRST_MONTH = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final LocalDateTime MONTH_START = FIRST_MONTH.plusMonths(6);
+    private static final LocalDateTime MONTH_END = MONTH_START.plusMonths(1);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    @Param({"1000000"})
+    private int calls;
+
+    @Param({"10000"})
+    private int subscribers;
+
+    private List<CDRecord> records;
+    private CallColumnServiceImpl callColumnService;
+    private String reportMsisdn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Subscriber> subscriberEntities = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            subscriberEntities.add(Subscriber.builder().msisdn(BenchmarkData.msisdn(i)).build());
+        }
+        reportMsisdn = BenchmarkData.msisdn(subscribers / 2);
+
+        SplittableRandom random = new SplittableRandom(42L);
+        long windowSeconds = FIRST_MONTH.plusMonths(MONTHS).toEpochSecond(ZoneOffset.UTC)
+                - FIRST_MONTH.toEpochSecond(ZoneOffset.UTC);
+        records = new ArrayList<>(calls);
+        CallColumns columns = new CallColumns(calls);
+        for (int i = 0; i < calls; i++) {
+            int caller = random.nextInt(subscribers);
+            int receiver = (caller + 1 + random.nextInt(subscribers - 1)) % subscribers;
+            LocalDateTime callStart = FIRST_MONTH.plusSeconds(random.nextLong(windowSeconds));
+            CDRecord record = CDRecord.builder()
+                    .callType(random.nextBoolean() ? CallType.OUTCOMING : CallType.INCOMING)
+                    .callingSubscriber(subscriberEntities.get(caller))
+                    .receivingSubscriber(subscriberEntities.get(receiver))
+                    .callStart(callStart)
+                    .callEnd(callStart.plusSeconds(10 + random.nextInt(1790)))
+                    .build();
+            records.add(record);
+            columns.add((byte) record.getCallType().ordinal(),
+                    Long.parseLong(record.getCallingSubscriber().getMsisdn()),
+                    Long.parseLong(record.getReceivingSubscriber().getMsisdn()),
+                    callStart.toEpochSecond(ZoneOffset.UTC), (int) record.getDurationInSeconds());
+        }
+
+        callColumnService = new CallColumnServiceImpl(null, null, true);
+        callColumnService.onCDRecordsIngested(new CDRecordsIngestedEvent(calls, Set.of(), columns, 1));
+    }
+
+    @Benchmark
+    public Map<String, long[]> monthTotalsEntities() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (CDRecord record : records) {
+            if (record.getCallStart().isBefore(MONTH_START) || !record.getCallStart().isBefore(MONTH_END)) {
+                continue;
+            }
+            if (record.getCallType() == CallType.INCOMING) {
+                totals.computeIfAbsent(record.getReceivingSubscriber().getMsisdn(), key -> new long[2])[0]
+                        += record.getDurationInSeconds();
+            } else {
+                totals.computeIfAbsent(record.getCallingSubscriber().getMsisdn(), key -> new long[2])[1]
+                        += record.getDurationInSeconds();
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public SubscriberCallTotals monthTotalsColumns() {
+        return callColumnService.sumDurationsByAllSubscribers(MONTH_START, MONTH_END);
+    }
+
+    @Benchmark
+    public long subscriberTotalsEntities() {
+        long seconds = 0;
+        for (CDRecord record : records) {
+            if ((record.getCallType() == CallType.INCOMING
+                    && record.getReceivingSubscriber().getMsisdn().equals(reportMsisdn))
+                    || (record.getCallType() == CallType.OUTCOMING
+                    && record.getCallingSubscriber().getMsisdn().equals(reportMsisdn))) {
+                seconds += record.getDurationInSeconds();
+            }
+        }
+        return seconds;
+    }
+
+    @Benchmark
+    public Object subscriberTotalsColumns() {
+        return callColumnService.sumDurationsBySubscriber(reportMsisdn, null, null);
+    }
+
+    @Benchmark
+    public void reportRowsEntities(Blackhole blackhole) {
+        List<CDRecord> matching = new ArrayList<>();
+        for (CDRecord record : records) {
+            if (record.getCallingSubscriber().getMsisdn().equals(reportMsisdn)
+                    || record.getReceivingSubscriber().getMsisdn().equals(reportMsisdn)) {
+                matching.add(record);
+            }
+        }
+        matching.sort(Comparator.comparing(CDRecord::getCallStart));
+        for (CDRecord record : matching) {
+            blackhole.consume(record.getCallType().getIndex() + ',' + record.getCallingSubscriber().getMsisdn()
+                    + ',' + record.getReceivingSubscriber().getMsisdn()
+                    + ',' + DATE_TIME_FORMATTER.format(record.getCallStart())
+                    + ',' + DATE_TIME_FORMATTER.format(record.getCallEnd()));
+        }
+    }
+
+    @Benchmark
+    public void reportRowsColumns(Blackhole blackhole) {
+        char[] line = new char[96];
+        callColumnService.forEachCallBySubscriber(reportMsisdn, FIRST_MONTH, FIRST_MONTH.plusMonths(MONTHS),
+                (callType, callingMsisdn, receivingMsisdn, callStart, duration) -> {
+                    int position = CharFormatUtil.appendLong(line, 0, callingMsisdn);
+                    position = CharFormatUtil.appendLong(line, position, receivingMsisdn);
+                    position = CharFormatUtil.appendIsoLocalDateTime(line, position, callStart);
+                    position = CharFormatUtil.appendIsoLocalDateTime(line, position, callStart + duration);
+                    blackhole.consume(position);
+                });
+        blackhole.consume(line);
+    }
+}
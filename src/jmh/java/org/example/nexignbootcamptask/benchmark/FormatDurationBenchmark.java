@@ -0,0 +1,61 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.util.DurationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting of UDR call totals, once per UDR direction for every subscriber.
+ * Durations cover single calls up to a busy month of calls.
+ * Compares {@link DurationUtil} against the {@code String.format} it replaced; best run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatDurationBenchmark {
+
+    private static final int DURATIONS = 1024;
+
+    private long[] durations;
+    private final char[] buffer = new char[DurationUtil.MAX_DURATION_LENGTH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        durations = new long[DURATIONS];
+        for (int i = 0; i < DURATIONS; i++) {
+            durations[i] = random.nextLong(0, 400 * 3600L);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DURATIONS)
+    public void formatDuration(Blackhole blackhole) {
+        for (long duration : durations) {
+            blackhole.consume(DurationUtil.formatDuration(duration));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DURATIONS)
+    public void appendDuration(Blackhole blackhole) {
+        for (long duration : durations) {
+            blackhole.consume(DurationUtil.appendDuration(buffer, 0, duration));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DURATIONS)
+    public void stringFormat(Blackhole blackhole) {
+        for (long duration : durations) {
+            blackhole.consume(String.format("%02d:%02d:%02d",
+                    duration / 3600, (duration % 3600) / 60, duration % 60));
+        }
+    }
+}
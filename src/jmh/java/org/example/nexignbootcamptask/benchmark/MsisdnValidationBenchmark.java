@@ -0,0 +1,52 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.util.ValidationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures MSISDN validation, which runs on every UDR and CDR request,
+ * for valid numbers and for numbers rejected on the last digit,
+ * against the {@code String.matches} check it replaced. Best run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MsisdnValidationBenchmark {
+
+    private final String[] valid = {"79001112233", "79002223344", "79500000000", "79999999999"};
+    private final String[] invalid = {"7900111223x", "89002223344", "7950000000", "799999999999"};
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void validMsisdn() {
+        for (String msisdn : valid) {
+            ValidationUtil.validateMsisdn(msisdn);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void invalidMsisdn(Blackhole blackhole) {
+        for (String msisdn : invalid) {
+            try {
+                ValidationUtil.validateMsisdn(msisdn);
+            } catch (IllegalArgumentException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void validMsisdnRegex(Blackhole blackhole) {
+        for (String msisdn : valid) {
+            blackhole.consume(msisdn.matches("^7\\d{10}$"));
+        }
+    }
+}
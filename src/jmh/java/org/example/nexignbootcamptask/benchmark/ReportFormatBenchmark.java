@@ -0,0 +1,82 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.ReportWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing a CDR report file per report format, in rows per second.
+ * The {@code bytes} and {@code rows} secondary results count the measured output, so their ratio
+ * is the file size per row. Rows are one subscriber's calls ordered by call start, as in a report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportFormatBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final long SUBSCRIBER = 79_000_000_000L;
+
+    @Param({"CSV", "CSV_GZIP", "COLUMNAR"})
+    private ReportFormat format;
+
+    @Param({"1000"})
+    private int counterparts;
+
+    private CallColumns calls;
+    private Path file;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+        public long bytes;
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42L);
+        calls = new CallColumns(ROWS);
+        long callStart = 1_746_057_600L; // 2025-05-01T00:00:00
+        for (int i = 0; i < ROWS; i++) {
+            long counterpart = SUBSCRIBER + 1 + random.nextInt(counterparts);
+            boolean outgoing = random.nextBoolean();
+            callStart += random.nextInt(60);
+            calls.add((byte) (outgoing ? 0 : 1),
+                    outgoing ? SUBSCRIBER : counterpart,
+                    outgoing ? counterpart : SUBSCRIBER,
+                    callStart, 10 + random.nextInt(1791));
+        }
+        file = Files.createTempFile("cdr-report-", format.getExtension());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long write(Output output) throws IOException {
+        try (ReportWriter writer = ReportWriter.open(format, Files.newOutputStream(file))) {
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(calls.callType(i), calls.callingMsisdn(i), calls.receivingMsisdn(i),
+                        calls.callStart(i), calls.duration(i));
+            }
+        }
+        long size = Files.size(file);
+        output.bytes += size;
+        output.rows += ROWS;
+        return size;
+    }
+}
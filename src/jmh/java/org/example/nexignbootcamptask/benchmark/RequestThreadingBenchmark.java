@@ -0,0 +1,85 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of UDR requests over HTTP with many more concurrent clients than request threads,
+ * against Tomcat on a platform-thread pool or on virtual threads. The UDR cache and rollup are off,
+ * so every request blocks on a JDBC aggregation. Throughput mode gives requests per millisecond,
+ * sample time mode the latency percentiles (p50 ... p99.99).
+ * The virtual mode needs a Java 21 runtime: build with {@code -Pbenchmark,java21}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(256)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    /**
+     * Request threads of the platform pool; virtual threads are not pooled.
+     */
+    @Param({"64"})
+    private int maxThreads;
+
+    @Param({"10000"})
+    private int subscribers;
+
+    @Param({"10"})
+    private int callsPerSubscriber;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = threading.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, build with -Pbenchmark,java21");
+        }
+        context = BenchmarkData.startWebApplication(
+                "spring.threads.virtual.enabled=" + virtual,
+                "server.tomcat.threads.max=" + maxThreads,
+                "server.tomcat.accept-count=1000",
+                "cdr.udr.cache.enabled=false",
+                "cdr.udr.rollup.enabled=false");
+        BenchmarkData.seed(context, subscribers, callsPerSubscriber, MONTH_START, 42L);
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        baseUrl = "http://localhost:" + BenchmarkData.port(context) + "/api/udr/subscriber/";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int subscriberMonthUDR() throws IOException, InterruptedException {
+        String msisdn = BenchmarkData.msisdn(ThreadLocalRandom.current().nextInt(subscribers));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + msisdn + "?month=5&year=2025")).build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
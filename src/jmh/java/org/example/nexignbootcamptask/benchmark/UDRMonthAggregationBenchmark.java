@@ -0,0 +1,75 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.UDRResponse;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.UDRService;
+import org.example.nexignbootcamptask.service.impl.UDRServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares monthly UDR computation read from the usage rollup, aggregated from raw CDRs
+ * sequentially or in parallel MSISDN ranges, and the per-subscriber loop it all replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UDRMonthAggregationBenchmark {
+
+    private static final int MONTH = 5;
+    private static final int YEAR = 2025;
+
+    @Param({"1000", "10000"})
+    private int subscribers;
+
+    @Param({"10"})
+    private int callsPerSubscriber;
+
+    @Param({"rollup", "raw", "parallel"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private UDRService udrService;
+    private SubscriberRepository subscriberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication(
+                "cdr.udr.rollup.enabled=" + source.equals("rollup"),
+                "cdr.udr.parallel.enabled=" + source.equals("parallel"),
+                "cdr.udr.parallel.chunk-size=" + Math.max(1, subscribers / 8));
+        BenchmarkData.seed(context, subscribers, callsPerSubscriber,
+                LocalDateTime.of(YEAR, MONTH, 1, 0, 0), 42L);
+        udrService = context.getBean(UDRServiceImpl.class);
+        subscriberRepository = context.getBean(SubscriberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UDRResponse> groupedAggregation() {
+        return udrService.getAllUDRsForMonth(MONTH, YEAR);
+    }
+
+    @Benchmark
+    public void perSubscriberLoop(Blackhole blackhole) {
+        for (Subscriber subscriber : subscriberRepository.findAll()) {
+            try {
+                blackhole.consume(udrService.getUDRForSubscriber(subscriber.getMsisdn(), MONTH, YEAR));
+            } catch (ResourceNotFoundException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.nexignbootcamptask.benchmark;
+
+import org.example.nexignbootcamptask.dto.UDRResponse;
+import org.example.nexignbootcamptask.service.UDRService;
+import org.example.nexignbootcamptask.service.impl.UDRServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single-subscriber UDRs, bypassing the UDR cache, from 4 threads: read from the usage rollup,
+ * summed from the call columns, or looked up in the live totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class UDRSubscriberLookupBenchmark {
+
+    private static final int MONTH = 5;
+    private static final int YEAR = 2025;
+
+    @Param({"10000"})
+    private int subscribers;
+
+    @Param({"10"})
+    private int callsPerSubscriber;
+
+    @Param({"rollup", "columns", "live"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private UDRService udrService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication(
+                "cdr.udr.rollup.enabled=" + source.equals("rollup"),
+                "cdr.columnar.enabled=" + source.equals("columns"),
+                "cdr.udr.live.enabled=" + source.equals("live"));
+        BenchmarkData.seed(context, subscribers, callsPerSubscriber,
+                LocalDateTime.of(YEAR, MONTH, 1, 0, 0), 42L);
+        udrService = context.getBean(UDRServiceImpl.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UDRResponse monthUDR() {
+        return udrService.getUDRForSubscriber(
+                BenchmarkData.msisdn(ThreadLocalRandom.current().nextInt(subscribers)), MONTH, YEAR);
+    }
+
+    @Benchmark
+    public UDRResponse allTimeUDR() {
+        return udrService.getUDRForSubscriber(
+                BenchmarkData.msisdn(ThreadLocalRandom.current().nextInt(subscribers)), null, null);
+    }
+}
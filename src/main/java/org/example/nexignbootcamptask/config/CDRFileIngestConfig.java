@@ -0,0 +1,36 @@
+package org.example.nexignbootcamptask.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for parsing the chunks of ingested CDR files, shared by all files so the number of chunks
+ * parsed at once stays bounded however many files are dropped at the same time.
+ * The queue is unbounded, as a file only keeps twice as many chunks in flight as there are workers.
+ * With {@code spring.threads.virtual.enabled} on Java 21 the workers are virtual threads.
+ */
+@Configuration
+public class CDRFileIngestConfig {
+
+    @Bean(name = "fileIngestExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor fileIngestExecutor(@Value("${cdr.ingest.file.workers:4}") int workers,
+                                                     Environment environment) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("CDR file workers must be positive");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("cdr-file-ingest-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("cdr-file-ingest-").getVirtualThreadFactory());
+        }
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.nexignbootcamptask.config;
+
+import jakarta.annotation.PreDestroy;
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+import org.example.nexignbootcamptask.service.CDRFileIngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Watches the inbox directory for switch CSV drops and ingests them one at a time in name order.
+ * Switches should write files elsewhere (or under another extension) and move them in as {@code *.csv},
+ * so a file is never read while it is still being written.
+ * Ingested files are moved to {@code processed/}, files that could not be ingested to {@code failed/};
+ * moving a failed file back into the inbox resumes it after its last committed chunk.
+ */
+@Component
+public class CDRFileWatcher {
+
+    static final String PROCESSED_DIRECTORY = "processed";
+    static final String FAILED_DIRECTORY = "failed";
+
+    private final CDRFileIngestService cdrFileIngestService;
+    private final boolean enabled;
+    private final Path inbox;
+
+    private volatile WatchService watchService;
+
+    @Autowired
+    CDRFileWatcher(CDRFileIngestService cdrFileIngestService,
+                   @Value("${cdr.ingest.file.watch.enabled:false}") boolean enabled,
+                   @Value("${cdr.ingest.file.directory:inbox}") Path inbox) {
+        this.cdrFileIngestService = cdrFileIngestService;
+        this.enabled = enabled;
+        this.inbox = inbox;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(inbox.resolve(PROCESSED_DIRECTORY));
+        Files.createDirectories(inbox.resolve(FAILED_DIRECTORY));
+
+        watchService = inbox.getFileSystem().newWatchService();
+        inbox.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+
+        Thread thread = new Thread(this::watch, "cdr-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Ingests the files already in the inbox, then rescans it whenever files are created.
+     * Events only trigger a rescan, so files are not missed when events overflow.
+     */
+    private void watch() {
+        try {
+            ingestPendingFiles();
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                ingestPendingFiles();
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // application is shutting down
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void ingestPendingFiles() {
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(inbox)) {
+            files = entries
+                    .filter(file -> file.getFileName().toString().endsWith(".csv") && Files.isRegularFile(file))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            // the inbox is unreadable for now, retried on the next event
+            return;
+        }
+
+        for (Path file : files) {
+            boolean done;
+            try {
+                CDRFileResponse response = cdrFileIngestService.ingestFile(file);
+                done = response.getStatus() == CDRFileStatus.DONE;
+            } catch (RuntimeException e) {
+                done = false;
+            }
+            move(file, done ? PROCESSED_DIRECTORY : FAILED_DIRECTORY);
+        }
+    }
+
+    /**
+     * A file that cannot be moved stays in the inbox; rescanning it again is harmless,
+     * since ingested content is recognized by its checksum.
+     */
+    private void move(Path file, String directory) {
+        try {
+            Files.move(file, inbox.resolve(directory).resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // left in the inbox
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.nexignbootcamptask.config;
 
 import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.service.LoadGeneratorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -10,14 +12,24 @@ import org.springframework.stereotype.Component;
 public class DataInitializer {
 
     private final CDRService cdrService;
+    private final LoadGeneratorService loadGeneratorService;
+    private final String generatorMode;
 
     @Autowired
-    DataInitializer(CDRService cdrService){
+    DataInitializer(CDRService cdrService,
+                    LoadGeneratorService loadGeneratorService,
+                    @Value("${cdr.generator.mode:sample}") String generatorMode){
         this.cdrService = cdrService;
+        this.loadGeneratorService = loadGeneratorService;
+        this.generatorMode = generatorMode;
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void initDatabase() {
+        if ("load".equalsIgnoreCase(generatorMode)) {
+            loadGeneratorService.generateLoad(null);
+            return;
+        }
         cdrService.initializeSubscribers();
         cdrService.generateCDRecords();
     }
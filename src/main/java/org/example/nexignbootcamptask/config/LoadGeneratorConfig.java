@@ -0,0 +1,28 @@
+package org.example.nexignbootcamptask.config;
+
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Default parameters of the synthetic switch load generator, bound from {@code cdr.generator.load.*}.
+ */
+@Configuration
+public class LoadGeneratorConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "cdr.generator.load")
+    public LoadGenerationRequest loadGenerationDefaults() {
+        return LoadGenerationRequest.builder()
+                .subscriberCount(1_000)
+                .callCount(100_000L)
+                .durationDistribution(LoadGenerationRequest.DurationDistribution.LOG_NORMAL)
+                .minDurationSeconds(10)
+                .maxDurationSeconds(1800)
+                .meanDurationSeconds(180)
+                .parallelism(Runtime.getRuntime().availableProcessors())
+                .chunkSize(10_000)
+                .build();
+    }
+}
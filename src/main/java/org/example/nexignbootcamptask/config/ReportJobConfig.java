@@ -0,0 +1,67 @@
+package org.example.nexignbootcamptask.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for asynchronous CDR report generation.
+ * The pool and its queue are both bounded; once the queue is full new submissions are rejected
+ * instead of piling up, which keeps request threads free under burst load.
+ * With {@code spring.threads.virtual.enabled} on Java 21 the workers are virtual threads, so reports
+ * blocked on JDBC or file I/O do not hold a platform thread; the pool still bounds concurrent reports.
+ */
+@Configuration
+@EnableScheduling
+public class ReportJobConfig {
+
+    @Bean(name = "reportExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor reportExecutor(
+            @Value("${cdr.report.executor.pool-size:4}") int poolSize,
+            @Value("${cdr.report.executor.queue-capacity:100}") int queueCapacity,
+            Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cdr-report-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("cdr-report-").getVirtualThreadFactory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes the report files of batches, shared by all batches so the number of files written at once stays
+     * bounded however many batches run. Separate from the report executor, whose workers wait for these writes,
+     * so a batch never waits for work queued behind itself. The queue is unbounded, as a batch only submits
+     * one chunk of subscribers at a time.
+     */
+    @Bean(name = "reportWriteExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor reportWriteExecutor(
+            @Value("${cdr.report.batch.workers:4}") int workers,
+            Environment environment) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Report batch workers must be positive");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("cdr-report-write-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("cdr-report-write-").getVirtualThreadFactory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.nexignbootcamptask.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executor for parallel monthly UDR aggregation.
+ * Every worker holds a database connection while its chunk is aggregated,
+ * so the worker count should not exceed the connection pool size.
+ * With {@code spring.threads.virtual.enabled} on Java 21 every chunk runs on its own virtual thread,
+ * and at most {@code workers} chunks run at once; further submissions wait for a free slot.
+ */
+@Configuration
+public class UDRConfig {
+
+    @Bean(name = "udrExecutor")
+    public Executor udrExecutor(@Value("${cdr.udr.parallel.workers:4}") int workers, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("udr-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(workers);
+            return executor;
+        }
+        return new ForkJoinPool(workers);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.nexignbootcamptask.controller;
+
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+import org.example.nexignbootcamptask.dto.CDRPartitionResponse;
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.example.nexignbootcamptask.dto.LoadGenerationResponse;
+import org.example.nexignbootcamptask.dto.RollupRebuildResponse;
+import org.example.nexignbootcamptask.dto.UsageReconciliationResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Interface for the Admin Controller.
+ */
+public interface AdminController {
+    /**
+     * Generates a synthetic switch load.
+     *
+     * @param request Load parameters; empty fields fall back to the configured defaults
+     * @return ResponseEntity containing LoadGenerationResponse with the summary of the run
+     */
+    ResponseEntity<LoadGenerationResponse> generateLoad(LoadGenerationRequest request);
+
+    /**
+     * Recomputes the monthly usage rollup from raw CDR records.
+     *
+     * @return ResponseEntity containing RollupRebuildResponse with the summary of the rebuild
+     */
+    ResponseEntity<RollupRebuildResponse> rebuildRollups();
+
+    /**
+     * Checks the live UDR totals against the CDR records and repairs differences found by the previous check too.
+     *
+     * @return ResponseEntity containing UsageReconciliationResponse with the summary of the check
+     */
+    ResponseEntity<UsageReconciliationResponse> reconcileUsageTotals();
+
+    /**
+     * Retrieves hit, miss and eviction statistics of the UDR cache.
+     *
+     * @return ResponseEntity containing CacheStatsResponse with the cache statistics
+     */
+    ResponseEntity<CacheStatsResponse> getUDRCacheStats();
+
+    /**
+     * Retrieves hit, miss and eviction statistics of the CDR report cache.
+     *
+     * @return ResponseEntity containing CacheStatsResponse with the cache statistics
+     */
+    ResponseEntity<CacheStatsResponse> getReportCacheStats();
+
+    /**
+     * Retrieves the ingestion progress of switch CSV files, most recently started first.
+     *
+     * @return ResponseEntity containing a list of CDRFileResponse objects
+     */
+    ResponseEntity<List<CDRFileResponse>> getCDRFiles();
+
+    /**
+     * Retrieves the month partitions of the CDR table and the archives and drops of past months.
+     *
+     * @return ResponseEntity containing a list of CDRPartitionResponse objects ordered by month
+     */
+    ResponseEntity<List<CDRPartitionResponse>> getCDRPartitions();
+
+    /**
+     * Archives the CDRs of a past month to a CSV file and removes them from the database.
+     *
+     * @param month The month, as yyyy-MM
+     * @return ResponseEntity containing CDRPartitionResponse with the archive
+     */
+    ResponseEntity<CDRPartitionResponse> archiveCDRPartition(YearMonth month);
+
+    /**
+     * Removes the CDRs of a past month from the database without archiving them.
+     *
+     * @param month The month, as yyyy-MM
+     * @return ResponseEntity containing CDRPartitionResponse with the drop
+     */
+    ResponseEntity<CDRPartitionResponse> dropCDRPartition(YearMonth month);
+}
@@ -1,18 +1,69 @@
 package org.example.nexignbootcamptask.controller;
 
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationResponse;
 import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
 import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse;
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Interface for the CDR Controller.
  */
 public interface CDRController {
     /**
-     * Generates a CDR report for a subscriber based on provided criteria.
+     * Stores call records sent by a switch through the ingest buffer.
+     *
+     * @param records The call records
+     * @return ResponseEntity containing CDRIngestResponse; 200 once committed, or 202 once buffered
+     */
+    ResponseEntity<CDRIngestResponse> ingestCDRecords(List<CDRecordRequest> records);
+
+    /**
+     * Queues generation of a CDR report for a subscriber based on provided criteria.
+     * Returns as soon as the request is validated and queued.
      *
      * @param request The request containing MSISDN and date range for report generation
      * @return ResponseEntity containing CDRGenerationResponse with request ID
      */
     ResponseEntity<CDRGenerationResponse> generateCDRReport(CDRGenerationRequest request);
+
+    /**
+     * Queues generation of CDR reports for many subscribers over one date range.
+     * Returns as soon as the batch is validated and queued.
+     *
+     * @param request The request containing the MSISDNs and the date range for report generation
+     * @return ResponseEntity containing the batch manifest with the request ID and download location of each report
+     */
+    ResponseEntity<CDRBatchGenerationResponse> generateCDRBatchReport(CDRBatchGenerationRequest request);
+
+    /**
+     * Retrieves the manifest of a batch with the state of its reports.
+     *
+     * @param batchId The unique ID of the batch
+     * @return ResponseEntity containing the batch manifest with the request ID and download location of each report
+     */
+    ResponseEntity<CDRBatchGenerationResponse> getBatchReport(UUID batchId);
+
+    /**
+     * Retrieves the state of a CDR report request.
+     *
+     * @param requestId The unique ID of the report request
+     * @return ResponseEntity containing ReportStatusResponse with the state of the request
+     */
+    ResponseEntity<ReportStatusResponse> getReportStatus(UUID requestId);
+
+    /**
+     * Downloads a generated CDR report.
+     *
+     * @param requestId The unique ID of the report request
+     * @return ResponseEntity containing the report file
+     */
+    ResponseEntity<Resource> downloadReport(UUID requestId);
 }
@@ -1,7 +1,9 @@
 package org.example.nexignbootcamptask.controller;
 
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
 import org.example.nexignbootcamptask.dto.UDRResponse;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,15 +16,38 @@ public interface UDRController {
      *
      * @param msisdn The subscriber's mobile number
      * @param month Optional month filter (1-12)
+     * @param year Optional year of the month; defaults to the most recent such month
      * @return ResponseEntity containing UDRResponse with usage statistics
      */
-    ResponseEntity<UDRResponse> getUDRForSubscriber(String msisdn, Integer month);
+    ResponseEntity<UDRResponse> getUDRForSubscriber(String msisdn, Integer month, Integer year);
 
     /**
      * Retrieves call usage statistics for all subscribers for a specific month.
      *
      * @param month The month (1-12) to retrieve statistics for
+     * @param year Optional year of the month; defaults to the most recent such month
      * @return ResponseEntity containing a list of UDRResponse objects with usage statistics
      */
-    ResponseEntity<List<UDRResponse>> getAllUDRsForMonth(Integer month);
+    ResponseEntity<List<UDRResponse>> getAllUDRsForMonth(Integer month, Integer year);
+
+    /**
+     * Retrieves one page of call usage statistics for all subscribers for a specific month.
+     *
+     * @param month The month (1-12) to retrieve statistics for
+     * @param year Optional year of the month; defaults to the most recent such month
+     * @param after Optional MSISDN cursor returned as {@code nextCursor} by the previous page
+     * @param limit The maximum number of subscribers per page (1-1000)
+     * @return ResponseEntity containing the page of UDRs and the cursor of the next page
+     */
+    ResponseEntity<UDRPageResponse> getUDRsForMonthPage(Integer month, Integer year, String after, Integer limit);
+
+    /**
+     * Streams call usage statistics for all subscribers for a specific month
+     * as newline-delimited JSON, one UDRResponse per line, written as they are computed.
+     *
+     * @param month The month (1-12) to retrieve statistics for
+     * @param year Optional year of the month; defaults to the most recent such month
+     * @return ResponseEntity with a body that writes the UDRs to the response stream
+     */
+    ResponseEntity<StreamingResponseBody> streamAllUDRsForMonth(Integer month, Integer year);
 }
@@ -0,0 +1,108 @@
+package org.example.nexignbootcamptask.controller.impl;
+
+import org.example.nexignbootcamptask.controller.AdminController;
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+import org.example.nexignbootcamptask.dto.CDRPartitionResponse;
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.example.nexignbootcamptask.dto.LoadGenerationResponse;
+import org.example.nexignbootcamptask.dto.RollupRebuildResponse;
+import org.example.nexignbootcamptask.dto.UsageReconciliationResponse;
+import org.example.nexignbootcamptask.service.CDRFileIngestService;
+import org.example.nexignbootcamptask.service.CDRPartitionService;
+import org.example.nexignbootcamptask.service.LoadGeneratorService;
+import org.example.nexignbootcamptask.service.ReportCacheService;
+import org.example.nexignbootcamptask.service.UDRCacheService;
+import org.example.nexignbootcamptask.service.UsageRollupService;
+import org.example.nexignbootcamptask.service.UsageTotalsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminControllerImpl implements AdminController {
+
+    private final LoadGeneratorService loadGeneratorService;
+    private final UsageRollupService usageRollupService;
+    private final UsageTotalsService usageTotalsService;
+    private final UDRCacheService udrCacheService;
+    private final ReportCacheService reportCacheService;
+    private final CDRFileIngestService cdrFileIngestService;
+    private final CDRPartitionService cdrPartitionService;
+
+    @Autowired
+    public AdminControllerImpl(LoadGeneratorService loadGeneratorService,
+                               UsageRollupService usageRollupService,
+                               UsageTotalsService usageTotalsService,
+                               UDRCacheService udrCacheService,
+                               ReportCacheService reportCacheService,
+                               CDRFileIngestService cdrFileIngestService,
+                               CDRPartitionService cdrPartitionService) {
+        this.loadGeneratorService = loadGeneratorService;
+        this.usageRollupService = usageRollupService;
+        this.usageTotalsService = usageTotalsService;
+        this.udrCacheService = udrCacheService;
+        this.reportCacheService = reportCacheService;
+        this.cdrFileIngestService = cdrFileIngestService;
+        this.cdrPartitionService = cdrPartitionService;
+    }
+
+    @PostMapping("/load")
+    public ResponseEntity<LoadGenerationResponse> generateLoad(
+            @RequestBody(required = false) LoadGenerationRequest request) {
+        LoadGenerationResponse response = loadGeneratorService.generateLoad(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<RollupRebuildResponse> rebuildRollups() {
+        RollupRebuildResponse response = usageRollupService.rebuildRollups();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/udr/reconcile")
+    public ResponseEntity<UsageReconciliationResponse> reconcileUsageTotals() {
+        UsageReconciliationResponse response = usageTotalsService.reconcile();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cache/udr")
+    public ResponseEntity<CacheStatsResponse> getUDRCacheStats() {
+        CacheStatsResponse response = udrCacheService.getCacheStats();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cache/reports")
+    public ResponseEntity<CacheStatsResponse> getReportCacheStats() {
+        CacheStatsResponse response = reportCacheService.getCacheStats();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/ingest/files")
+    public ResponseEntity<List<CDRFileResponse>> getCDRFiles() {
+        List<CDRFileResponse> response = cdrFileIngestService.getFiles();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/partitions")
+    public ResponseEntity<List<CDRPartitionResponse>> getCDRPartitions() {
+        List<CDRPartitionResponse> response = cdrPartitionService.getPartitions();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/partitions/{month}/archive")
+    public ResponseEntity<CDRPartitionResponse> archiveCDRPartition(@PathVariable YearMonth month) {
+        CDRPartitionResponse response = cdrPartitionService.archivePartition(month);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/partitions/{month}")
+    public ResponseEntity<CDRPartitionResponse> dropCDRPartition(@PathVariable YearMonth month) {
+        CDRPartitionResponse response = cdrPartitionService.dropPartition(month);
+        return ResponseEntity.ok(response);
+    }
+}
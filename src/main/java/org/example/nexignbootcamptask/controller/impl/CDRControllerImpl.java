@@ -1,30 +1,92 @@
 package org.example.nexignbootcamptask.controller.impl;
 
 import org.example.nexignbootcamptask.controller.CDRController;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationResponse;
 import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
 import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
-import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse.Durability;
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse;
+import org.example.nexignbootcamptask.service.CDRIngestBufferService;
+import org.example.nexignbootcamptask.service.ReportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/cdr")
 public class CDRControllerImpl implements CDRController {
 
-    private final CDRService cdrService;
+    private final ReportJobService reportJobService;
+    private final CDRIngestBufferService cdrIngestBufferService;
 
     @Autowired
-    public CDRControllerImpl(CDRService cdrService) {
-        this.cdrService = cdrService;
+    public CDRControllerImpl(ReportJobService reportJobService, CDRIngestBufferService cdrIngestBufferService) {
+        this.reportJobService = reportJobService;
+        this.cdrIngestBufferService = cdrIngestBufferService;
+    }
+
+    @PostMapping("/records")
+    public ResponseEntity<CDRIngestResponse> ingestCDRecords(@RequestBody List<CDRecordRequest> records) {
+        CDRIngestResponse response = cdrIngestBufferService.ingest(records);
+        return response.getDurability() == Durability.COMMIT
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.accepted().body(response);
     }
 
     @PostMapping("/generate")
     public ResponseEntity<CDRGenerationResponse> generateCDRReport(@RequestBody CDRGenerationRequest request) {
-        CDRGenerationResponse response = cdrService.generateCDRReport(request);
+        CDRGenerationResponse response = reportJobService.submitCDRReport(request);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<CDRBatchGenerationResponse> generateCDRBatchReport(
+            @RequestBody CDRBatchGenerationRequest request) {
+        CDRBatchGenerationResponse response = reportJobService.submitCDRBatchReport(request);
+        return ResponseEntity.accepted().body(withLocations(response));
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<CDRBatchGenerationResponse> getBatchReport(@PathVariable("batchId") UUID batchId) {
+        CDRBatchGenerationResponse response = reportJobService.getBatchReport(batchId);
+        return ResponseEntity.ok(withLocations(response));
+    }
+
+    @GetMapping("/report/{requestId}")
+    public ResponseEntity<ReportStatusResponse> getReportStatus(@PathVariable("requestId") UUID requestId) {
+        ReportStatusResponse response = reportJobService.getReportStatus(requestId);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/report/{requestId}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable("requestId") UUID requestId) {
+        Path reportFile = reportJobService.getReportFile(requestId);
+        ReportFormat format = ReportFormat.ofFileName(reportFile.getFileName().toString());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(requestId + format.getExtension())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(reportFile));
+    }
+
+    private static CDRBatchGenerationResponse withLocations(CDRBatchGenerationResponse response) {
+        response.getReports().forEach(report ->
+                report.setLocation("/api/cdr/report/" + report.getRequestId() + "/download"));
+        return response;
+    }
 }
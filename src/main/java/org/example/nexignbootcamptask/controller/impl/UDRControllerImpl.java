@@ -1,37 +1,81 @@
 package org.example.nexignbootcamptask.controller.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.example.nexignbootcamptask.controller.UDRController;
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
 import org.example.nexignbootcamptask.dto.UDRResponse;
 import org.example.nexignbootcamptask.service.UDRService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/udr")
 public class UDRControllerImpl implements UDRController {
 
     private final UDRService udrService;
+    private final ObjectWriter udrWriter;
 
     @Autowired
-    public UDRControllerImpl(UDRService udrService) {
+    public UDRControllerImpl(UDRService udrService, ObjectMapper objectMapper) {
         this.udrService = udrService;
+        // Streamed lines are left in the response buffer instead of being flushed one by one
+        this.udrWriter = objectMapper.writerFor(UDRResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
     }
 
     @GetMapping("/subscriber/{msisdn}")
     public ResponseEntity<UDRResponse> getUDRForSubscriber(
             @PathVariable("msisdn") String msisdn,
-            @RequestParam(required = false) Integer month) {
-        UDRResponse udrResponse = udrService.getUDRForSubscriber(msisdn, month);
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer year) {
+        UDRResponse udrResponse = udrService.getUDRForSubscriber(msisdn, month, year);
         return ResponseEntity.ok(udrResponse);
     }
 
     @GetMapping("/month/{month}")
     public ResponseEntity<List<UDRResponse>> getAllUDRsForMonth(
-            @PathVariable Integer month) {
-        List<UDRResponse> udrResponses = udrService.getAllUDRsForMonth(month);
+            @PathVariable Integer month,
+            @RequestParam(required = false) Integer year) {
+        List<UDRResponse> udrResponses = udrService.getAllUDRsForMonth(month, year);
         return ResponseEntity.ok(udrResponses);
     }
+
+    @GetMapping("/month/{month}/page")
+    public ResponseEntity<UDRPageResponse> getUDRsForMonthPage(
+            @PathVariable Integer month,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") Integer limit) {
+        UDRPageResponse page = udrService.getUDRsForMonthPage(month, year, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/month/{month}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUDRsForMonth(
+            @PathVariable Integer month,
+            @RequestParam(required = false) Integer year) {
+        Stream<UDRResponse> udrResponses = udrService.streamAllUDRsForMonth(month, year);
+        StreamingResponseBody body = outputStream -> {
+            try (udrResponses) {
+                Iterator<UDRResponse> iterator = udrResponses.iterator();
+                while (iterator.hasNext()) {
+                    udrWriter.writeValue(outputStream, iterator.next());
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
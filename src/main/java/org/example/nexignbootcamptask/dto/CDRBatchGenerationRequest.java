@@ -0,0 +1,23 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Parameters of CDR reports for many subscribers over one date range, one report per subscriber.
+ * Reports are written as plain CSV when no format is given.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDRBatchGenerationRequest {
+    private List<String> msisdns;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private ReportFormat format;
+}
@@ -0,0 +1,27 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Manifest of a batch of CDR reports: the report request of every subscriber in the batch,
+ * in the order the MSISDNs were submitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CDRBatchGenerationResponse {
+    private UUID batchId;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private ReportFormat format;
+    private List<CDRBatchReportEntry> reports;
+}
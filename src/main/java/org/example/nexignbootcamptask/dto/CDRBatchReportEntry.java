@@ -0,0 +1,24 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse.Status;
+
+import java.util.UUID;
+
+/**
+ * Report request of one subscriber in a batch.
+ * Its state is also available by request ID, and the report is downloaded from {@code location} once it is done.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CDRBatchReportEntry {
+    private String msisdn;
+    private UUID requestId;
+    private Status status;
+    private String location;
+}
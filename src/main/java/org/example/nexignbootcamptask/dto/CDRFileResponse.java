@@ -0,0 +1,31 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ingestion progress of a switch CSV file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CDRFileResponse {
+    private String checksum;
+    private String fileName;
+    private long size;
+    private CDRFileStatus status;
+    private long committedBytes;
+    private double progress;
+    private long recordCount;
+    private long rejectedCount;
+    private String firstRejection;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -2,11 +2,14 @@ package org.example.nexignbootcamptask.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.NonNull;
 
 import java.time.LocalDateTime;
 
+/**
+ * Parameters of a CDR report. Reports are written as plain CSV when no format is given.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,4 +17,32 @@ public class CDRGenerationRequest {
     private String msisdn;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
+    private ReportFormat format;
+
+    public CDRGenerationRequest(String msisdn, LocalDateTime startDate, LocalDateTime endDate) {
+        this(msisdn, startDate, endDate, null);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum ReportFormat {
+        CSV(".csv", "text/csv"),
+        CSV_GZIP(".csv.gz", "application/gzip"),
+        COLUMNAR(".cdrc", "application/octet-stream");
+
+        private final String extension;
+        private final String mediaType;
+
+        /**
+         * @return Format of a report file, recognized by its extension
+         */
+        public static ReportFormat ofFileName(String fileName) {
+            for (ReportFormat format : values()) {
+                if (fileName.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown report file format: " + fileName);
+        }
+    }
 }
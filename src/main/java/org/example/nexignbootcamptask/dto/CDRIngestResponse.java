@@ -0,0 +1,29 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Acknowledgement of call records appended to the ingest buffer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CDRIngestResponse {
+    private long recordCount;
+    private Durability durability;
+
+    public enum Durability {
+        /**
+         * Acknowledged once the records are committed to the database.
+         */
+        COMMIT,
+        /**
+         * Acknowledged once the records are in the ingest buffer; they are lost if the process stops before the commit.
+         */
+        ENQUEUE
+    }
+}
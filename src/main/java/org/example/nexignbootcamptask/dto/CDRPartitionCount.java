@@ -0,0 +1,16 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of call records in a month partition, counted on the database side.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDRPartitionCount {
+    private Integer partition;
+    private Long recordCount;
+}
@@ -0,0 +1,26 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.entity.enums.CDRPartitionStatus;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * A month partition of the CDR table: either active with its current record count,
+ * or an archive or drop of it with the number of records removed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CDRPartitionResponse {
+    private YearMonth month;
+    private CDRPartitionStatus status;
+    private long recordCount;
+    private String archiveFile;
+    private LocalDateTime removedAt;
+}
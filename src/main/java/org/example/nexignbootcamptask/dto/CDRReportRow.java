@@ -0,0 +1,30 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a call record for CDR reports.
+ * Subscriber MSISDNs are read straight from the foreign key columns, so no Subscriber is loaded.
+ * The record id is only selected where it is needed, and null otherwise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDRReportRow {
+    private Long id;
+    private CallType callType;
+    private String callingMsisdn;
+    private String receivingMsisdn;
+    private LocalDateTime callStart;
+    private LocalDateTime callEnd;
+
+    public CDRReportRow(CallType callType, String callingMsisdn, String receivingMsisdn,
+                        LocalDateTime callStart, LocalDateTime callEnd) {
+        this(null, callType, callingMsisdn, receivingMsisdn, callStart, callEnd);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A call record sent by a switch, referring to its subscribers by MSISDN.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDRecordRequest {
+    private CallType callType;
+    private String callingMsisdn;
+    private String receivingMsisdn;
+    private LocalDateTime callStart;
+    private LocalDateTime callEnd;
+}
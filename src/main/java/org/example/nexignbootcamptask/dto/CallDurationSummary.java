@@ -0,0 +1,16 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total call duration of a single subscriber, aggregated on the database side.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallDurationSummary {
+    private String msisdn;
+    private Long totalSeconds;
+}
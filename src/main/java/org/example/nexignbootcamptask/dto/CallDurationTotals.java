@@ -0,0 +1,18 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Incoming and outgoing call duration totals of one subscriber,
+ * aggregated on the database side in a single query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallDurationTotals {
+    private Long incomingSeconds;
+    private Long outgoingSeconds;
+    private Long callCount;
+}
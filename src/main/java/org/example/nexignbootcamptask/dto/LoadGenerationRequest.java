@@ -0,0 +1,36 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parameters of a synthetic switch load run. Fields left empty are taken
+ * from the {@code cdr.generator.load.*} properties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class LoadGenerationRequest {
+    private Integer subscriberCount;
+    private Long callCount;
+    private DurationDistribution durationDistribution;
+    private Integer minDurationSeconds;
+    private Integer maxDurationSeconds;
+    private Integer meanDurationSeconds;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long seed;
+    private Integer parallelism;
+    private Integer chunkSize;
+
+    public enum DurationDistribution {
+        UNIFORM,
+        EXPONENTIAL,
+        LOG_NORMAL
+    }
+}
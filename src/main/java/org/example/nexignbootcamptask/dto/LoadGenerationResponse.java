@@ -0,0 +1,27 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of a finished synthetic switch load run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadGenerationResponse {
+    private int subscriberCount;
+    private long createdSubscriberCount;
+    private long callCount;
+    private int chunkCount;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private long seed;
+    private long elapsedMillis;
+    private long recordsPerSecond;
+}
@@ -0,0 +1,20 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total call duration and number of calls of a single subscriber in one month,
+ * aggregated on the database side.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyCallDurationSummary {
+    private String msisdn;
+    private Integer year;
+    private Integer month;
+    private Long totalSeconds;
+    private Long callCount;
+}
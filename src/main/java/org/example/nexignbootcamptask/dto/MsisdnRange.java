@@ -0,0 +1,16 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inclusive range of subscriber MSISDNs, used to partition work across subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MsisdnRange {
+    private String fromMsisdn;
+    private String toMsisdn;
+}
@@ -0,0 +1,22 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of monthly UDRs ordered by MSISDN.
+ * The next page is requested with {@code nextCursor} as the {@code after} cursor;
+ * it is null once all subscribers have been returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UDRPageResponse {
+    private List<UDRResponse> udrs;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package org.example.nexignbootcamptask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of a check of the live usage totals against the call records.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageReconciliationResponse {
+    private long checkedCount;
+    private long mismatchCount;
+    private long repairedCount;
+    private long elapsedMillis;
+}
@@ -0,0 +1,42 @@
+package org.example.nexignbootcamptask.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ingestion bookkeeping of a switch CSV file, identified by the SHA-256 of its content,
+ * so a file dropped twice under any name is ingested once.
+ * {@code committedBytes} advances in the same transaction as the records of each chunk,
+ * so an interrupted ingestion resumes after the last committed line.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDRFile {
+    @Id
+    @Column(length = 64)
+    private String checksum;
+
+    private String fileName;
+    private long size;
+
+    @Enumerated(EnumType.STRING)
+    private CDRFileStatus status;
+
+    private long committedBytes;
+    private long recordCount;
+    private long rejectedCount;
+    private String firstRejection;
+    private String error;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
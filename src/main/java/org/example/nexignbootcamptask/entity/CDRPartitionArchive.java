@@ -0,0 +1,38 @@
+package org.example.nexignbootcamptask.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nexignbootcamptask.entity.enums.CDRPartitionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a month partition removed from the CDR table, either archived to a CSV file or dropped.
+ * A month may be removed more than once if late calls were ingested into it afterwards.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CDRPartitionArchive {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Partition key of the removed month, as yyyyMM.
+     */
+    @Column(name = "call_month")
+    private int callMonth;
+
+    @Enumerated(EnumType.STRING)
+    private CDRPartitionStatus status;
+
+    private long recordCount;
+    private String archiveFile;
+    private LocalDateTime removedAt;
+}
@@ -0,0 +1,50 @@
+package org.example.nexignbootcamptask.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monthly call usage of a subscriber, kept up to date on CDR ingest so that UDRs
+ * do not have to be summed from raw call records. Incoming usage counts INCOMING calls
+ * received by the subscriber, outgoing usage counts OUTCOMING calls made by the subscriber,
+ * and calls are attributed to the month in which they started.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_usage_month_msisdn", columnList = "usage_year, usage_month, msisdn"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriberMonthlyUsage {
+    @EmbeddedId
+    private SubscriberMonthlyUsageId id;
+
+    private long incomingSeconds;
+    private long incomingCallCount;
+    private long outgoingSeconds;
+    private long outgoingCallCount;
+
+    /**
+     * Bumped by every usage increment too, so a rollup loaded before one is not saved over it.
+     * Also tells Spring Data whether the row is new, so saving one does not select it first.
+     */
+    @Version
+    private Long version;
+
+    public void addIncoming(long seconds, long callCount) {
+        incomingSeconds += seconds;
+        incomingCallCount += callCount;
+    }
+
+    public void addOutgoing(long seconds, long callCount) {
+        outgoingSeconds += seconds;
+        outgoingCallCount += callCount;
+    }
+
+    public long getCallCount() {
+        return incomingCallCount + outgoingCallCount;
+    }
+}
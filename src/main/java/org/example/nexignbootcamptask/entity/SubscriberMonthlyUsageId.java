@@ -0,0 +1,23 @@
+package org.example.nexignbootcamptask.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriberMonthlyUsageId implements Serializable {
+    private String msisdn;
+
+    @Column(name = "usage_year")
+    private int year;
+
+    @Column(name = "usage_month")
+    private int month;
+}
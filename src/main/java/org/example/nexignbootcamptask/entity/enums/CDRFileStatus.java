@@ -0,0 +1,7 @@
+package org.example.nexignbootcamptask.entity.enums;
+
+public enum CDRFileStatus {
+    IN_PROGRESS,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,17 @@
+package org.example.nexignbootcamptask.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.YearMonth;
+
+/**
+ * Published when the call records of a month partition have been archived or dropped,
+ * so neither they nor the month's usage rollups are in the database any more.
+ */
+@Getter
+@AllArgsConstructor
+public class CDRPartitionDroppedEvent {
+    private final YearMonth month;
+    private final long recordCount;
+}
@@ -0,0 +1,22 @@
+package org.example.nexignbootcamptask.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.util.CallColumns;
+
+import java.util.Set;
+
+/**
+ * Published when new call records have been ingested.
+ * Lists the subscriber months whose usage changed and carries the ingested calls in columnar form.
+ * The records of one event commit together, so the id of the first one tells whether a reader saw them all.
+ */
+@Getter
+@AllArgsConstructor
+public class CDRecordsIngestedEvent {
+    private final long recordCount;
+    private final Set<SubscriberMonthlyUsageId> usageIds;
+    private final CallColumns calls;
+    private final long firstRecordId;
+}
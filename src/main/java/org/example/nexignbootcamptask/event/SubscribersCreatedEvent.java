@@ -0,0 +1,15 @@
+package org.example.nexignbootcamptask.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when new subscribers have been inserted.
+ */
+@Getter
+@AllArgsConstructor
+public class SubscribersCreatedEvent {
+    private final List<String> msisdns;
+}
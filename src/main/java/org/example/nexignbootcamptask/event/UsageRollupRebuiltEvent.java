@@ -0,0 +1,14 @@
+package org.example.nexignbootcamptask.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when the monthly usage rollup has been recomputed from raw call records,
+ * so the usage of any subscriber month may have changed.
+ */
+@Getter
+@AllArgsConstructor
+public class UsageRollupRebuiltEvent {
+    private final long rollupCount;
+}
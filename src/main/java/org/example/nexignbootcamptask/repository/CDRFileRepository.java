@@ -0,0 +1,66 @@
+package org.example.nexignbootcamptask.repository;
+
+import org.example.nexignbootcamptask.entity.CDRFile;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for switch CSV file ingestion bookkeeping.
+ */
+@Repository
+public interface CDRFileRepository extends JpaRepository<CDRFile, String> {
+
+    /**
+     * Retrieves all ingested files, most recently started first.
+     *
+     * @return List of CDRFile entities
+     */
+    List<CDRFile> findAllByOrderByStartedAtDesc();
+
+    /**
+     * Advances the committed offset of a file after one chunk, in the transaction that stores the chunk's records.
+     * Only succeeds if no one else has committed past {@code fromOffset} in the meantime.
+     *
+     * @param checksum The file's content checksum
+     * @param fromOffset The committed offset the chunk starts at
+     * @param toOffset The offset after the chunk's last line
+     * @param recordCount Number of stored records of the chunk
+     * @param rejectedCount Number of rejected lines of the chunk
+     * @param rejection Reason of the chunk's first rejected line, kept if the file has none yet
+     * @return 1 if the offset was advanced, 0 if the file was advanced concurrently
+     */
+    @Modifying
+    @Query("UPDATE CDRFile f SET f.committedBytes = :toOffset, f.recordCount = f.recordCount + :recordCount, " +
+            "f.rejectedCount = f.rejectedCount + :rejectedCount, " +
+            "f.firstRejection = COALESCE(f.firstRejection, :rejection) " +
+            "WHERE f.checksum = :checksum AND f.committedBytes = :fromOffset")
+    int commitChunk(@Param("checksum") String checksum,
+                    @Param("fromOffset") long fromOffset,
+                    @Param("toOffset") long toOffset,
+                    @Param("recordCount") long recordCount,
+                    @Param("rejectedCount") long rejectedCount,
+                    @Param("rejection") String rejection);
+
+    /**
+     * Records the final state of a file ingestion.
+     *
+     * @param checksum The file's content checksum
+     * @param status DONE or FAILED
+     * @param error The failure message, or null
+     * @param finishedAt When the ingestion finished
+     */
+    @Modifying
+    @Query("UPDATE CDRFile f SET f.status = :status, f.error = :error, f.finishedAt = :finishedAt " +
+            "WHERE f.checksum = :checksum")
+    void finish(@Param("checksum") String checksum,
+                @Param("status") CDRFileStatus status,
+                @Param("error") String error,
+                @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,16 @@
+package org.example.nexignbootcamptask.repository;
+
+import org.example.nexignbootcamptask.entity.CDRPartitionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for archived and dropped CDR partitions.
+ */
+@Repository
+public interface CDRPartitionArchiveRepository extends JpaRepository<CDRPartitionArchive, Long> {
+
+    List<CDRPartitionArchive> findAllByOrderByCallMonthAscRemovedAtAsc();
+}
@@ -0,0 +1,21 @@
+package org.example.nexignbootcamptask.repository;
+
+import org.example.nexignbootcamptask.entity.CDRecord;
+
+/**
+ * Bulk insert operations for CDRecord entities, mixed into {@link CDRecordRepository}.
+ */
+public interface CDRecordBulkRepository {
+
+    /**
+     * Inserts call records in JDBC batches within a single transaction.
+     * The persistence context is flushed and cleared every {@code cdr.ingest.flush-size} rows,
+     * so memory use does not grow with the number of records.
+     * Records are detached once inserted. Referenced subscribers must already exist and are
+     * replaced with references, so they are not looked up one by one.
+     *
+     * @param records The new call records to insert, which may be produced lazily
+     * @return Number of inserted records
+     */
+    long bulkInsert(Iterable<CDRecord> records);
+}
@@ -0,0 +1,52 @@
+package org.example.nexignbootcamptask.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+class CDRecordBulkRepositoryImpl implements CDRecordBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int flushSize;
+
+    CDRecordBulkRepositoryImpl(@Value("${cdr.ingest.flush-size:1000}") int flushSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("Ingest flush size must be positive");
+        }
+        this.flushSize = flushSize;
+    }
+
+    @Override
+    @Transactional
+    public long bulkInsert(Iterable<CDRecord> records) {
+        long count = 0;
+        for (CDRecord record : records) {
+            record.setCallingSubscriber(reference(record.getCallingSubscriber()));
+            record.setReceivingSubscriber(reference(record.getReceivingSubscriber()));
+            entityManager.persist(record);
+            if (++count % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+
+    /**
+     * Subscribers are not managed after a clear and their ids are assigned, so Hibernate would
+     * select each one to find out whether it is transient. A reference proxy needs no query.
+     */
+    private Subscriber reference(Subscriber subscriber) {
+        if (subscriber == null || entityManager.contains(subscriber)) {
+            return subscriber;
+        }
+        return entityManager.getReference(Subscriber.class, subscriber.getMsisdn());
+    }
+}
@@ -1,37 +1,137 @@
 package org.example.nexignbootcamptask.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.nexignbootcamptask.dto.CallDurationSummary;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.CDRPartitionCount;
+import org.example.nexignbootcamptask.dto.CDRReportRow;
+import org.example.nexignbootcamptask.dto.MonthlyCallDurationSummary;
 import org.example.nexignbootcamptask.entity.CDRecord;
 import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for CDRecord entity operations.
+ * Bulk inserts are provided by {@link CDRecordBulkRepository}.
  */
 @Repository
-public interface CDRecordRepository extends JpaRepository<CDRecord, Long> {
+public interface CDRecordRepository extends JpaRepository<CDRecord, Long>, CDRecordBulkRepository {
+
+    /**
+     * Number of rows fetched per database round trip when streaming report rows.
+     */
+    String REPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Limits a query on {@code r} to the partitions of the half-open period [:periodStart, :periodEnd).
+     * The bounds are computed from the period parameters, so the partition key leads the index lookup.
+     */
+    String PERIOD_PARTITIONS = "r.callMonth BETWEEN " +
+            ":#{T(org.example.nexignbootcamptask.util.PeriodUtil).partitionOf(#periodStart)} AND " +
+            ":#{T(org.example.nexignbootcamptask.util.PeriodUtil).lastPartitionBefore(#periodEnd)} ";
+
+    /**
+     * Limits a query on {@code c} to the partitions of the inclusive date range [:startDate, :endDate].
+     */
+    String DATE_RANGE_PARTITIONS = "c.callMonth BETWEEN " +
+            ":#{T(org.example.nexignbootcamptask.util.PeriodUtil).partitionOf(#startDate)} AND " +
+            ":#{T(org.example.nexignbootcamptask.util.PeriodUtil).partitionOf(#endDate)} ";
 
     /**
      * Retrieves all call records for a specific subscriber within a date range.
      * Finds records where the subscriber is either the caller or receiver.
+     * Each side is looked up separately so that both subscriber indexes can be used.
      *
      * @param msisdn The subscriber's mobile number
      * @param startDate The start date and time for filtering records
      * @param endDate The end date and time for filtering records
      * @return List of CDRecord entities ordered by call start time
      */
-    @Query("SELECT r FROM CDRecord r WHERE (r.callingSubscriber.msisdn = :msisdn OR r.receivingSubscriber.msisdn = :msisdn) " +
-            "AND r.callStart >= :startDate AND r.callStart <= :endDate ORDER BY r.callStart")
+    @Query("SELECT r FROM CDRecord r WHERE r.id IN (" +
+            "SELECT c.id FROM CDRecord c WHERE c.callingSubscriber.msisdn = :msisdn AND " + DATE_RANGE_PARTITIONS +
+            "AND c.callStart >= :startDate AND c.callStart <= :endDate " +
+            "UNION ALL " +
+            "SELECT c.id FROM CDRecord c WHERE c.receivingSubscriber.msisdn = :msisdn AND " + DATE_RANGE_PARTITIONS +
+            "AND c.callStart >= :startDate AND c.callStart <= :endDate) " +
+            "ORDER BY r.callStart")
+    @EntityGraph(attributePaths = {"callingSubscriber", "receivingSubscriber"})
     List<CDRecord> findAllBySubscriberMsisdnAndDateRange(
             @Param("msisdn") String msisdn,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Streams report rows for a specific subscriber within a date range from a single statement.
+     * Rows are fetched from the database in chunks of {@link #REPORT_FETCH_SIZE}, and as they are
+     * projections rather than entities nothing accumulates in the persistence context.
+     * The stream must be consumed inside a transaction and closed by the caller.
+     *
+     * @param msisdn The subscriber's mobile number
+     * @param startDate The start date and time for filtering records
+     * @param endDate The end date and time for filtering records
+     * @return Stream of CDRReportRow projections ordered by call start time
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CDRReportRow(" +
+            "r.callType, r.callingSubscriber.msisdn, r.receivingSubscriber.msisdn, r.callStart, r.callEnd) " +
+            "FROM CDRecord r WHERE r.id IN (" +
+            "SELECT c.id FROM CDRecord c WHERE c.callingSubscriber.msisdn = :msisdn AND " + DATE_RANGE_PARTITIONS +
+            "AND c.callStart >= :startDate AND c.callStart <= :endDate " +
+            "UNION ALL " +
+            "SELECT c.id FROM CDRecord c WHERE c.receivingSubscriber.msisdn = :msisdn AND " + DATE_RANGE_PARTITIONS +
+            "AND c.callStart >= :startDate AND c.callStart <= :endDate) " +
+            "ORDER BY r.callStart")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    Stream<CDRReportRow> streamReportRowsBySubscriberMsisdnAndDateRange(
+            @Param("msisdn") String msisdn,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Streams report rows of many subscribers within a date range from a single statement over the range's
+     * partitions, for generating their reports at once. A call between two of the subscribers is returned once.
+     * The stream must be consumed inside a transaction and closed by the caller.
+     *
+     * @param msisdns The subscribers' mobile numbers
+     * @param startDate The start date and time for filtering records
+     * @param endDate The end date and time for filtering records
+     * @return Stream of CDRReportRow projections ordered by call start time
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CDRReportRow(" +
+            "c.callType, c.callingSubscriber.msisdn, c.receivingSubscriber.msisdn, c.callStart, c.callEnd) " +
+            "FROM CDRecord c WHERE (c.callingSubscriber.msisdn IN :msisdns " +
+            "OR c.receivingSubscriber.msisdn IN :msisdns) AND " + DATE_RANGE_PARTITIONS +
+            "AND c.callStart >= :startDate AND c.callStart <= :endDate " +
+            "ORDER BY c.callStart, c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    Stream<CDRReportRow> streamReportRowsBySubscriberMsisdnsAndDateRange(
+            @Param("msisdns") Collection<String> msisdns,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Streams all call records as report rows with their ids, for loading them into memory.
+     * The stream must be consumed inside a transaction and closed by the caller.
+     *
+     * @return Stream of CDRReportRow projections ordered by id
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CDRReportRow(r.id, " +
+            "r.callType, r.callingSubscriber.msisdn, r.receivingSubscriber.msisdn, r.callStart, r.callEnd) " +
+            "FROM CDRecord r ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    Stream<CDRReportRow> streamAllReportRows();
+
     /**
      * Finds all outgoing calls made by a specific subscriber.
      *
@@ -39,6 +139,7 @@ public interface CDRecordRepository extends JpaRepository<CDRecord, Long> {
      * @param callType The call type (should be OUTCOMING)
      * @return List of CDRecord entities representing outgoing calls
      */
+    @EntityGraph(attributePaths = {"callingSubscriber", "receivingSubscriber"})
     List<CDRecord> findByCallingSubscriber_MsisdnAndCallType(String msisdn, CallType callType);
 
     /**
@@ -48,35 +149,245 @@ public interface CDRecordRepository extends JpaRepository<CDRecord, Long> {
      * @param callType The call type (should be INCOMING)
      * @return List of CDRecord entities representing incoming calls
      */
+    @EntityGraph(attributePaths = {"callingSubscriber", "receivingSubscriber"})
     List<CDRecord> findByReceivingSubscriber_MsisdnAndCallType(String msisdn, CallType callType);
 
     /**
-     * Finds all outgoing calls made by a specific subscriber during a particular month.
+     * Finds all outgoing calls made by a specific subscriber within a period.
+     * The period is half-open, so a calendar month is [first day of month, first day of next month).
      *
      * @param msisdn The caller's mobile number
      * @param callType The call type (should be OUTCOMING)
-     * @param month The month (1-12) to filter calls by
-     * @return List of CDRecord entities representing outgoing calls for the specified month
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @return List of CDRecord entities representing outgoing calls for the specified period
      */
     @Query("SELECT r FROM CDRecord r WHERE r.callingSubscriber.msisdn = :msisdn " +
-            "AND r.callType = :callType AND MONTH(r.callStart) = :month")
-    List<CDRecord> findByCallingSubscriber_MsisdnAndCallTypeAndMonth(
+            "AND r.callType = :callType AND " + PERIOD_PARTITIONS +
+            "AND r.callStart >= :periodStart AND r.callStart < :periodEnd")
+    @EntityGraph(attributePaths = {"callingSubscriber", "receivingSubscriber"})
+    List<CDRecord> findByCallingSubscriber_MsisdnAndCallTypeAndPeriod(
             @Param("msisdn") String msisdn,
             @Param("callType") CallType callType,
-            @Param("month") Integer month);
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
 
     /**
-     * Finds all incoming calls received by a specific subscriber during a particular month.
+     * Finds all incoming calls received by a specific subscriber within a period.
+     * The period is half-open, so a calendar month is [first day of month, first day of next month).
      *
      * @param msisdn The receiver's mobile number
      * @param callType The call type (should be INCOMING)
-     * @param month The month (1-12) to filter calls by
-     * @return List of CDRecord entities representing incoming calls for the specified month
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @return List of CDRecord entities representing incoming calls for the specified period
      */
     @Query("SELECT r FROM CDRecord r WHERE r.receivingSubscriber.msisdn = :msisdn " +
-            "AND r.callType = :callType AND MONTH(r.callStart) = :month")
-    List<CDRecord> findByReceivingSubscriber_MsisdnAndCallTypeAndMonth(
+            "AND r.callType = :callType AND " + PERIOD_PARTITIONS +
+            "AND r.callStart >= :periodStart AND r.callStart < :periodEnd")
+    @EntityGraph(attributePaths = {"callingSubscriber", "receivingSubscriber"})
+    List<CDRecord> findByReceivingSubscriber_MsisdnAndCallTypeAndPeriod(
+            @Param("msisdn") String msisdn,
+            @Param("callType") CallType callType,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
+
+    /**
+     * Sums incoming and outgoing call durations of a specific subscriber in a single query.
+     * Incoming calls are INCOMING records received by the subscriber,
+     * outgoing calls are OUTCOMING records made by the subscriber.
+     *
+     * @param msisdn The subscriber's mobile number
+     * @return Duration totals in seconds and the number of matching calls
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationTotals(" +
+            "COALESCE(SUM(CASE WHEN r.callType = org.example.nexignbootcamptask.entity.enums.CallType.INCOMING " +
+            "THEN (r.callEnd - r.callStart) BY SECOND ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN r.callType = org.example.nexignbootcamptask.entity.enums.CallType.OUTCOMING " +
+            "THEN (r.callEnd - r.callStart) BY SECOND ELSE 0 END), 0), " +
+            "COUNT(r)) " +
+            "FROM CDRecord r WHERE " +
+            "(r.receivingSubscriber.msisdn = :msisdn " +
+            "AND r.callType = org.example.nexignbootcamptask.entity.enums.CallType.INCOMING) " +
+            "OR (r.callingSubscriber.msisdn = :msisdn " +
+            "AND r.callType = org.example.nexignbootcamptask.entity.enums.CallType.OUTCOMING)")
+    CallDurationTotals sumDurationsBySubscriber(@Param("msisdn") String msisdn);
+
+    /**
+     * Sums incoming and outgoing call durations of a specific subscriber
+     * within a half-open period in a single query.
+     *
+     * @param msisdn The subscriber's mobile number
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @return Duration totals in seconds and the number of matching calls
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationTotals(" +
+            "COALESCE(SUM(CASE WHEN r.callType = org.example.nexignbootcamptask.entity.enums.CallType.INCOMING " +
+            "THEN (r.callEnd - r.callStart) BY SECOND ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN r.callType = org.example.nexignbootcamptask.entity.enums.CallType.OUTCOMING " +
+            "THEN (r.callEnd - r.callStart) BY SECOND ELSE 0 END), 0), " +
+            "COUNT(r)) " +
+            "FROM CDRecord r WHERE " +
+            "((r.receivingSubscriber.msisdn = :msisdn " +
+            "AND r.callType = org.example.nexignbootcamptask.entity.enums.CallType.INCOMING) " +
+            "OR (r.callingSubscriber.msisdn = :msisdn " +
+            "AND r.callType = org.example.nexignbootcamptask.entity.enums.CallType.OUTCOMING)) " +
+            "AND " + PERIOD_PARTITIONS + "AND r.callStart >= :periodStart AND r.callStart < :periodEnd")
+    CallDurationTotals sumDurationsBySubscriberAndPeriod(
             @Param("msisdn") String msisdn,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
+
+    /**
+     * Sums call durations of the given type per calling subscriber within a half-open period.
+     * The aggregation is done by the database in a single grouped query.
+     *
+     * @param callType The call type (should be OUTCOMING)
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @return Total duration in seconds per calling subscriber, ordered by MSISDN
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationSummary(" +
+            "r.callingSubscriber.msisdn, SUM((r.callEnd - r.callStart) BY SECOND)) " +
+            "FROM CDRecord r WHERE " + PERIOD_PARTITIONS + "AND r.callType = :callType " +
+            "AND r.callStart >= :periodStart AND r.callStart < :periodEnd " +
+            "GROUP BY r.callingSubscriber.msisdn ORDER BY r.callingSubscriber.msisdn")
+    List<CallDurationSummary> sumDurationByCallingSubscriberAndCallTypeAndPeriod(
+            @Param("callType") CallType callType,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
+
+    /**
+     * Sums call durations of the given type per receiving subscriber within a half-open period.
+     * The aggregation is done by the database in a single grouped query.
+     *
+     * @param callType The call type (should be INCOMING)
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @return Total duration in seconds per receiving subscriber, ordered by MSISDN
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationSummary(" +
+            "r.receivingSubscriber.msisdn, SUM((r.callEnd - r.callStart) BY SECOND)) " +
+            "FROM CDRecord r WHERE " + PERIOD_PARTITIONS + "AND r.callType = :callType " +
+            "AND r.callStart >= :periodStart AND r.callStart < :periodEnd " +
+            "GROUP BY r.receivingSubscriber.msisdn ORDER BY r.receivingSubscriber.msisdn")
+    List<CallDurationSummary> sumDurationByReceivingSubscriberAndCallTypeAndPeriod(
+            @Param("callType") CallType callType,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
+
+    /**
+     * Sums call durations of the given type per calling subscriber within a half-open period,
+     * limited to calling subscribers in an inclusive MSISDN range.
+     *
+     * @param callType The call type (should be OUTCOMING)
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @param fromMsisdn The first MSISDN of the range
+     * @param toMsisdn The last MSISDN of the range
+     * @return Total duration in seconds per calling subscriber, ordered by MSISDN
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationSummary(" +
+            "r.callingSubscriber.msisdn, SUM((r.callEnd - r.callStart) BY SECOND)) " +
+            "FROM CDRecord r WHERE r.callingSubscriber.msisdn BETWEEN :fromMsisdn AND :toMsisdn " +
+            "AND " + PERIOD_PARTITIONS + "AND r.callType = :callType " +
+            "AND r.callStart >= :periodStart AND r.callStart < :periodEnd " +
+            "GROUP BY r.callingSubscriber.msisdn ORDER BY r.callingSubscriber.msisdn")
+    List<CallDurationSummary> sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+            @Param("callType") CallType callType,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd,
+            @Param("fromMsisdn") String fromMsisdn,
+            @Param("toMsisdn") String toMsisdn);
+
+    /**
+     * Sums call durations of the given type per receiving subscriber within a half-open period,
+     * limited to receiving subscribers in an inclusive MSISDN range.
+     *
+     * @param callType The call type (should be INCOMING)
+     * @param periodStart The inclusive start of the period
+     * @param periodEnd The exclusive end of the period
+     * @param fromMsisdn The first MSISDN of the range
+     * @param toMsisdn The last MSISDN of the range
+     * @return Total duration in seconds per receiving subscriber, ordered by MSISDN
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationSummary(" +
+            "r.receivingSubscriber.msisdn, SUM((r.callEnd - r.callStart) BY SECOND)) " +
+            "FROM CDRecord r WHERE r.receivingSubscriber.msisdn BETWEEN :fromMsisdn AND :toMsisdn " +
+            "AND " + PERIOD_PARTITIONS + "AND r.callType = :callType " +
+            "AND r.callStart >= :periodStart AND r.callStart < :periodEnd " +
+            "GROUP BY r.receivingSubscriber.msisdn ORDER BY r.receivingSubscriber.msisdn")
+    List<CallDurationSummary> sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
             @Param("callType") CallType callType,
-            @Param("month") Integer month);
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd,
+            @Param("fromMsisdn") String fromMsisdn,
+            @Param("toMsisdn") String toMsisdn);
+
+    /**
+     * Sums call durations of the given type per calling subscriber and calendar month of the call start.
+     * Used to rebuild the monthly usage rollup from raw records.
+     *
+     * @param callType The call type (should be OUTCOMING)
+     * @return Total duration in seconds and number of calls per calling subscriber and month,
+     *         ordered by MSISDN, year and month
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.MonthlyCallDurationSummary(" +
+            "r.callingSubscriber.msisdn, EXTRACT(YEAR FROM r.callStart), EXTRACT(MONTH FROM r.callStart), " +
+            "SUM((r.callEnd - r.callStart) BY SECOND), COUNT(r)) " +
+            "FROM CDRecord r WHERE r.callType = :callType " +
+            "GROUP BY r.callingSubscriber.msisdn, EXTRACT(YEAR FROM r.callStart), EXTRACT(MONTH FROM r.callStart) " +
+            "ORDER BY r.callingSubscriber.msisdn, EXTRACT(YEAR FROM r.callStart), EXTRACT(MONTH FROM r.callStart)")
+    List<MonthlyCallDurationSummary> sumMonthlyDurationByCallingSubscriberAndCallType(
+            @Param("callType") CallType callType);
+
+    /**
+     * Sums call durations of the given type per receiving subscriber and calendar month of the call start.
+     * Used to rebuild the monthly usage rollup from raw records.
+     *
+     * @param callType The call type (should be INCOMING)
+     * @return Total duration in seconds and number of calls per receiving subscriber and month,
+     *         ordered by MSISDN, year and month
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.MonthlyCallDurationSummary(" +
+            "r.receivingSubscriber.msisdn, EXTRACT(YEAR FROM r.callStart), EXTRACT(MONTH FROM r.callStart), " +
+            "SUM((r.callEnd - r.callStart) BY SECOND), COUNT(r)) " +
+            "FROM CDRecord r WHERE r.callType = :callType " +
+            "GROUP BY r.receivingSubscriber.msisdn, EXTRACT(YEAR FROM r.callStart), EXTRACT(MONTH FROM r.callStart) " +
+            "ORDER BY r.receivingSubscriber.msisdn, EXTRACT(YEAR FROM r.callStart), EXTRACT(MONTH FROM r.callStart)")
+    List<MonthlyCallDurationSummary> sumMonthlyDurationByReceivingSubscriberAndCallType(
+            @Param("callType") CallType callType);
+
+    /**
+     * Counts call records per partition.
+     *
+     * @return Record count per month partition, ordered by partition
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CDRPartitionCount(r.callMonth, COUNT(r)) " +
+            "FROM CDRecord r GROUP BY r.callMonth ORDER BY r.callMonth")
+    List<CDRPartitionCount> countByPartition();
+
+    /**
+     * Streams the report rows of one partition, for archiving it.
+     * The stream must be consumed inside a transaction and closed by the caller.
+     *
+     * @param partition The partition key, as yyyyMM
+     * @return Stream of CDRReportRow projections ordered by call start time
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CDRReportRow(" +
+            "r.callType, r.callingSubscriber.msisdn, r.receivingSubscriber.msisdn, r.callStart, r.callEnd) " +
+            "FROM CDRecord r WHERE r.callMonth = :partition ORDER BY r.callStart, r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    Stream<CDRReportRow> streamReportRowsByPartition(@Param("partition") int partition);
+
+    /**
+     * Deletes every call record of one partition in a single statement over the partition index.
+     *
+     * @param partition The partition key, as yyyyMM
+     * @return Number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM CDRecord r WHERE r.callMonth = :partition")
+    int deletePartition(@Param("partition") int partition);
 }
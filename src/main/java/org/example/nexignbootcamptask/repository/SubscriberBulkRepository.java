@@ -0,0 +1,19 @@
+package org.example.nexignbootcamptask.repository;
+
+import org.example.nexignbootcamptask.entity.Subscriber;
+
+/**
+ * Bulk insert operations for Subscriber entities, mixed into {@link SubscriberRepository}.
+ */
+public interface SubscriberBulkRepository {
+
+    /**
+     * Inserts new subscribers in JDBC batches within a single transaction.
+     * Unlike {@code saveAll}, the subscribers are not looked up first, so none of them may exist yet.
+     * Publishes a {@link org.example.nexignbootcamptask.event.SubscribersCreatedEvent} for the inserted subscribers.
+     *
+     * @param subscribers The new subscribers to insert
+     * @return Number of inserted subscribers
+     */
+    long bulkInsert(Iterable<Subscriber> subscribers);
+}
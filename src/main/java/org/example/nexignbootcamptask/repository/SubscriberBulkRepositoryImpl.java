@@ -0,0 +1,49 @@
+package org.example.nexignbootcamptask.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.event.SubscribersCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SubscriberBulkRepositoryImpl implements SubscriberBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final int flushSize;
+
+    SubscriberBulkRepositoryImpl(ApplicationEventPublisher eventPublisher,
+                                 @Value("${cdr.ingest.flush-size:1000}") int flushSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("Ingest flush size must be positive");
+        }
+        this.eventPublisher = eventPublisher;
+        this.flushSize = flushSize;
+    }
+
+    @Override
+    @Transactional
+    public long bulkInsert(Iterable<Subscriber> subscribers) {
+        List<String> msisdns = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            entityManager.persist(subscriber);
+            msisdns.add(subscriber.getMsisdn());
+            if (msisdns.size() % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        eventPublisher.publishEvent(new SubscribersCreatedEvent(msisdns));
+        return msisdns.size();
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.nexignbootcamptask.repository;
+
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+
+import java.util.Collection;
+
+/**
+ * Atomic usage increments for SubscriberMonthlyUsage rollups, mixed into {@link SubscriberMonthlyUsageRepository}.
+ */
+public interface SubscriberMonthlyUsageBulkRepository {
+
+    /**
+     * Adds usage deltas to the stored rollups with {@code SET seconds = seconds + ?} updates, inserting the rollups
+     * of subscriber months seen for the first time. Concurrent transactions adding to the same rollup wait for
+     * each other's row lock instead of failing, and an insert that loses to a concurrent insert of the same
+     * subscriber month is rolled back to a savepoint and retried as an update. Rollups are written one by one
+     * in key order, so transactions sharing rollups lock them in the same order and cannot deadlock.
+     *
+     * @param usage Usage deltas, at most one per subscriber month
+     * @return Number of inserted rollups
+     */
+    long addUsage(Collection<SubscriberMonthlyUsage> usage);
+}
@@ -0,0 +1,104 @@
+package org.example.nexignbootcamptask.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+class SubscriberMonthlyUsageBulkRepositoryImpl implements SubscriberMonthlyUsageBulkRepository {
+
+    private static final String ADD_USAGE = "UPDATE subscriber_monthly_usage SET " +
+            "incoming_seconds = incoming_seconds + ?, incoming_call_count = incoming_call_count + ?, " +
+            "outgoing_seconds = outgoing_seconds + ?, outgoing_call_count = outgoing_call_count + ?, " +
+            "version = version + 1 WHERE msisdn = ? AND usage_year = ? AND usage_month = ?";
+    private static final String INSERT_USAGE = "INSERT INTO subscriber_monthly_usage (" +
+            "incoming_seconds, incoming_call_count, outgoing_seconds, outgoing_call_count, " +
+            "msisdn, usage_year, usage_month, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INTEGRITY_VIOLATION = "23";
+
+    private static final Comparator<SubscriberMonthlyUsageId> KEY_ORDER =
+            Comparator.comparing(SubscriberMonthlyUsageId::getMsisdn)
+                    .thenComparingInt(SubscriberMonthlyUsageId::getYear)
+                    .thenComparingInt(SubscriberMonthlyUsageId::getMonth);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Statements are not batched, since a batch would carry on past a failed insert
+     * and lock the following rollups before the failed one is updated.
+     */
+    @Override
+    @Transactional
+    public long addUsage(Collection<SubscriberMonthlyUsage> usage) {
+        List<SubscriberMonthlyUsage> sorted = new ArrayList<>(usage);
+        sorted.sort(Comparator.comparing(SubscriberMonthlyUsage::getId, KEY_ORDER));
+
+        entityManager.flush();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            long inserted = 0;
+            try (PreparedStatement update = connection.prepareStatement(ADD_USAGE);
+                 PreparedStatement insert = connection.prepareStatement(INSERT_USAGE)) {
+                for (SubscriberMonthlyUsage delta : sorted) {
+                    if (execute(update, delta) > 0) {
+                        continue;
+                    }
+                    if (insert(connection, insert, delta)) {
+                        inserted++;
+                    } else if (execute(update, delta) == 0) {
+                        throw new SQLException(
+                                "Usage rollup " + delta.getId() + " could neither be inserted nor updated");
+                    }
+                }
+            }
+            return inserted;
+        });
+    }
+
+    /**
+     * An insert of a rollup that a concurrent transaction has inserted meanwhile waits for that transaction
+     * and fails on the primary key once it commits, after which the rollup can be updated. The insert runs
+     * under a savepoint that the failure is rolled back to, since databases such as PostgreSQL abort the whole
+     * transaction on a failed statement otherwise.
+     *
+     * @return false if the rollup exists by now
+     */
+    private static boolean insert(Connection connection, PreparedStatement insert, SubscriberMonthlyUsage delta)
+            throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            execute(insert, delta);
+        } catch (SQLException e) {
+            if (e.getSQLState() == null || !e.getSQLState().startsWith(INTEGRITY_VIOLATION)) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    private static int execute(PreparedStatement statement, SubscriberMonthlyUsage delta) throws SQLException {
+        SubscriberMonthlyUsageId id = delta.getId();
+        statement.setLong(1, delta.getIncomingSeconds());
+        statement.setLong(2, delta.getIncomingCallCount());
+        statement.setLong(3, delta.getOutgoingSeconds());
+        statement.setLong(4, delta.getOutgoingCallCount());
+        statement.setString(5, id.getMsisdn());
+        statement.setInt(6, id.getYear());
+        statement.setInt(7, id.getMonth());
+        return statement.executeUpdate();
+    }
+}
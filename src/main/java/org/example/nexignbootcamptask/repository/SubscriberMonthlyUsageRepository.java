@@ -0,0 +1,79 @@
+package org.example.nexignbootcamptask.repository;
+
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for SubscriberMonthlyUsage rollup operations.
+ */
+@Repository
+public interface SubscriberMonthlyUsageRepository
+        extends JpaRepository<SubscriberMonthlyUsage, SubscriberMonthlyUsageId>, SubscriberMonthlyUsageBulkRepository {
+
+    /**
+     * Finds the usage of all subscribers with calls in a specific month.
+     *
+     * @param year The year of the month
+     * @param month The month (1-12)
+     * @return List of SubscriberMonthlyUsage entities ordered by MSISDN
+     */
+    @Query("SELECT u FROM SubscriberMonthlyUsage u WHERE u.id.year = :year AND u.id.month = :month " +
+            "ORDER BY u.id.msisdn")
+    List<SubscriberMonthlyUsage> findByMonth(@Param("year") int year, @Param("month") int month);
+
+    /**
+     * Finds the next page of monthly usage after a keyset cursor, using the month and MSISDN index.
+     *
+     * @param year The year of the month
+     * @param month The month (1-12)
+     * @param after The last MSISDN already seen; an empty string starts at the first subscriber
+     * @param limit The maximum number of rows
+     * @return List of SubscriberMonthlyUsage entities ordered by MSISDN
+     */
+    @Query("SELECT u FROM SubscriberMonthlyUsage u WHERE u.id.year = :year AND u.id.month = :month " +
+            "AND u.id.msisdn > :after ORDER BY u.id.msisdn")
+    List<SubscriberMonthlyUsage> findByMonthAfterMsisdn(
+            @Param("year") int year,
+            @Param("month") int month,
+            @Param("after") String after,
+            Limit limit);
+
+    /**
+     * Sums the usage of a specific subscriber over all months.
+     *
+     * @param msisdn The subscriber's mobile number
+     * @return Duration totals in seconds and the number of calls
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.CallDurationTotals(" +
+            "COALESCE(SUM(u.incomingSeconds), 0), COALESCE(SUM(u.outgoingSeconds), 0), " +
+            "COALESCE(SUM(u.incomingCallCount + u.outgoingCallCount), 0)) " +
+            "FROM SubscriberMonthlyUsage u WHERE u.id.msisdn = :msisdn")
+    CallDurationTotals sumUsageBySubscriber(@Param("msisdn") String msisdn);
+
+    /**
+     * Deletes the rollups of all subscribers in a specific month.
+     *
+     * @param year The year of the month
+     * @param month The month (1-12)
+     * @return Number of deleted rollups
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM SubscriberMonthlyUsage u WHERE u.id.year = :year AND u.id.month = :month")
+    int deleteByMonth(@Param("year") int year, @Param("month") int month);
+
+    /**
+     * Deletes all rollups in one statement and detaches any loaded ones.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM SubscriberMonthlyUsage u")
+    void deleteAllUsage();
+}
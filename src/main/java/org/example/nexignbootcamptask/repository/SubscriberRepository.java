@@ -1,12 +1,50 @@
 package org.example.nexignbootcamptask.repository;
 
+import org.example.nexignbootcamptask.dto.MsisdnRange;
 import org.example.nexignbootcamptask.entity.Subscriber;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repository interface for Subscriber entity operations.
  * Uses the subscriber's MSISDN as the primary key.
+ * Bulk inserts are provided by {@link SubscriberBulkRepository}.
  */
 @Repository
-public interface SubscriberRepository extends JpaRepository<Subscriber, String> {}
+public interface SubscriberRepository extends JpaRepository<Subscriber, String>, SubscriberBulkRepository {
+
+    /**
+     * Splits the ordered MSISDN keyspace into consecutive ranges of at most {@code chunkSize} subscribers.
+     * Ranges are inclusive on both ends and together cover every subscriber.
+     *
+     * @param chunkSize The maximum number of subscribers per range
+     * @return MSISDN ranges ordered by MSISDN
+     */
+    @Query("SELECT new org.example.nexignbootcamptask.dto.MsisdnRange(MIN(p.msisdn), MAX(p.msisdn)) " +
+            "FROM (SELECT s.msisdn AS msisdn, ROW_NUMBER() OVER (ORDER BY s.msisdn) AS rn FROM Subscriber s) p " +
+            "GROUP BY (p.rn - 1) / :chunkSize ORDER BY MIN(p.msisdn)")
+    List<MsisdnRange> findMsisdnRanges(@Param("chunkSize") long chunkSize);
+
+    /**
+     * Retrieves the MSISDNs of all subscribers without loading the entities.
+     *
+     * @return MSISDNs of all subscribers
+     */
+    @Query("SELECT s.msisdn FROM Subscriber s")
+    List<String> findAllMsisdns();
+
+    /**
+     * Retrieves the next MSISDNs in order after a keyset cursor.
+     *
+     * @param after The last MSISDN already seen; an empty string starts at the first subscriber
+     * @param limit The maximum number of MSISDNs
+     * @return MSISDNs greater than {@code after} in ascending order
+     */
+    @Query("SELECT s.msisdn FROM Subscriber s WHERE s.msisdn > :after ORDER BY s.msisdn")
+    List<String> findMsisdnsAfter(@Param("after") String after, Limit limit);
+}
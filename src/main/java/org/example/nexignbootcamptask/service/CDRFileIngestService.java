@@ -0,0 +1,30 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Interface for ingesting switch CSV drops in the CDR report layout.
+ */
+public interface CDRFileIngestService {
+    /**
+     * Ingests a CSV file exactly once. The file is split into chunks that are parsed in parallel
+     * from memory-mapped reads and stored in file order through {@link CDRIngestService},
+     * one transaction per chunk together with the file's committed offset.
+     * A file whose content was already ingested is skipped; an interrupted one resumes after its last committed chunk.
+     * Invalid lines and calls of unknown subscribers are counted and skipped.
+     *
+     * @param file The CSV file; it must not change while it is ingested
+     * @return Final state of the file's ingestion
+     */
+    CDRFileResponse ingestFile(Path file);
+
+    /**
+     * Retrieves the ingestion progress of all known files, most recently started first.
+     *
+     * @return List of CDRFileResponse objects
+     */
+    List<CDRFileResponse> getFiles();
+}
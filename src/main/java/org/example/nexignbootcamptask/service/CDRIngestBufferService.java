@@ -0,0 +1,32 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CDRIngestResponse;
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.exception.IngestBufferFullException;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.exception.ServiceException;
+
+import java.util.List;
+
+/**
+ * Interface for the concurrent CDR ingest front-end.
+ * Any number of threads append call records to a bounded in-memory buffer; a single writer drains it
+ * and stores the records through {@link CDRIngestService}, one transaction per group of records.
+ */
+public interface CDRIngestBufferService {
+    /**
+     * Validates call records and appends them to the ingest buffer. The writer commits a group once it holds
+     * the configured batch size or its first record has waited for the configured delay.
+     * While the buffer is full the caller waits, up to the configured offer timeout.
+     * With COMMIT durability returns once the records are committed, with ENQUEUE once they are buffered.
+     *
+     * @param records Call records of existing subscribers, at most the buffer capacity
+     * @return CDRIngestResponse with the number of records and the durability they were acknowledged with
+     * @throws IllegalArgumentException if a record is invalid or there are more records than the buffer holds
+     * @throws ResourceNotFoundException if a subscriber does not exist
+     * @throws IngestBufferFullException if the buffer stays full for the offer timeout
+     * @throws ServiceException if the records could not be committed
+     * @throws IllegalStateException if the ingest buffer is disabled or stopped
+     */
+    CDRIngestResponse ingest(List<CDRecordRequest> records);
+}
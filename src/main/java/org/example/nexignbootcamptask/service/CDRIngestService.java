@@ -0,0 +1,20 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+
+/**
+ * Interface for CDR ingestion.
+ * Every path that stores new call records should go through this service
+ * so that derived data stays consistent with the raw records.
+ */
+public interface CDRIngestService {
+    /**
+     * Stores new call records in JDBC batches and adds them to the monthly usage rollup,
+     * both in one transaction, then publishes a {@link CDRecordsIngestedEvent} with the changed subscriber months.
+     *
+     * @param records The new call records, which may be produced lazily; referenced subscribers must exist
+     * @return Number of stored records
+     */
+    long ingestCDRecords(Iterable<CDRecord> records);
+}
@@ -0,0 +1,36 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CDRPartitionResponse;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Interface for managing the month partitions of the CDR table.
+ * The monthly usage rollups of a removed month are deleted with its CDRs, so the month no longer has UDRs.
+ */
+public interface CDRPartitionService {
+    /**
+     * Retrieves the active partitions with their record counts, followed by the archives and drops of each month.
+     *
+     * @return List of CDRPartitionResponse objects ordered by month
+     */
+    List<CDRPartitionResponse> getPartitions();
+
+    /**
+     * Writes the call records of a past month to a CSV file in the CDR report layout, which the file
+     * ingestion accepts back, and then deletes them. The delete fails if the month's records changed meanwhile.
+     *
+     * @param month A month before the current one
+     * @return The archive of the partition
+     */
+    CDRPartitionResponse archivePartition(YearMonth month);
+
+    /**
+     * Deletes the call records of a past month without archiving them.
+     *
+     * @param month A month before the current one
+     * @return The drop of the partition
+     */
+    CDRPartitionResponse dropPartition(YearMonth month);
+}
@@ -1,13 +1,15 @@
 package org.example.nexignbootcamptask.service;
 
 import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
-import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
 import org.example.nexignbootcamptask.entity.CDRecord;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
 import org.example.nexignbootcamptask.exception.ServiceException;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Interface for CDR Service.
@@ -43,27 +45,55 @@ public interface CDRService {
      *
      * @param msisdn The subscriber's mobile number
      * @param month Optional month filter (1-12)
+     * @param year Optional year of the month; defaults to the most recent such month
      * @return List of CDRecord entities representing outgoing calls
      */
-    List<CDRecord> getOutgoingCallsBySubscriber(String msisdn, Integer month);
+    List<CDRecord> getOutgoingCallsBySubscriber(String msisdn, Integer month, Integer year);
 
     /**
      * Retrieves incoming call records for a specific subscriber.
      *
      * @param msisdn The subscriber's mobile number
      * @param month Optional month filter (1-12)
+     * @param year Optional year of the month; defaults to the most recent such month
      * @return List of CDRecord entities representing incoming calls
      */
-    List<CDRecord> getIncomingCallsBySubscriber(String msisdn, Integer month);
+    List<CDRecord> getIncomingCallsBySubscriber(String msisdn, Integer month, Integer year);
+
+    /**
+     * Checks that a CDR report request is valid and refers to an existing subscriber.
+     *
+     * @param request The request containing MSISDN and date range for report generation
+     * @throws IllegalArgumentException if the MSISDN or the date range is invalid
+     * @throws ResourceNotFoundException if the subscriber does not exist
+     */
+    void validateCDRReportRequest(CDRGenerationRequest request);
 
     /**
      * Generates a CDR report for a subscriber based on provided criteria.
+     * Runs synchronously; the report file is named after the MSISDN and the request ID.
      *
+     * @param requestId The unique ID of the report request
      * @param request The request containing MSISDN and date range for report generation
-     * @return CDRGenerationResponse containing the unique UUID for the generated report
+     * @return Path of the generated report file
      * @throws ResourceNotFoundException if the subscriber does not exist
      * @throws ServiceException if report generation fails
      */
-    CDRGenerationResponse generateCDRReport(CDRGenerationRequest request);
+    Path generateCDRReport(UUID requestId, CDRGenerationRequest request);
+
+    /**
+     * Generates the CDR reports of many subscribers over the same date range and in the same format.
+     * Subscribers are taken in chunks: the calls of a chunk's subscribers are read with one query over the range's
+     * partitions,
+     * then its report files are written in parallel on the shared report write executor, one task per subscriber.
+     * Runs synchronously; each report file is named like a single report.
+     *
+     * @param requests The report requests by request ID, differing only in MSISDN
+     * @return Path of the generated report file by request ID; subscribers without calls in the range have none
+     * @throws IllegalArgumentException if a request is invalid or the requests differ in date range or format
+     * @throws ResourceNotFoundException if a subscriber does not exist
+     * @throws ServiceException if report generation fails
+     */
+    Map<UUID, Path> generateCDRReports(Map<UUID, CDRGenerationRequest> requests);
 }
 
@@ -0,0 +1,63 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.util.SubscriberCallTotals;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface for call analytics over an in-memory columnar copy of all call records.
+ * Call times are kept with second precision.
+ */
+public interface CallColumnService {
+    /**
+     * @return true if call records are kept in memory and analytics should use them
+     */
+    boolean isEnabled();
+
+    /**
+     * Reloads all call records from the database, for example after they were inserted directly into it.
+     *
+     * @return Number of call records in memory
+     */
+    long reload();
+
+    /**
+     * Sums the call durations billed to a subscriber: received INCOMING and placed OUTCOMING calls.
+     *
+     * @param msisdn The subscriber's phone number
+     * @param periodStart Start of the period (inclusive), or null for all time
+     * @param periodEnd End of the period (exclusive), or null for all time
+     * @return CallDurationTotals of the subscriber
+     */
+    CallDurationTotals sumDurationsBySubscriber(String msisdn, LocalDateTime periodStart, LocalDateTime periodEnd);
+
+    /**
+     * Sums the billed call durations of every subscriber with calls in the period.
+     *
+     * @param periodStart Start of the period (inclusive)
+     * @param periodEnd End of the period (exclusive)
+     * @return SubscriberCallTotals of all subscribers with calls in the period
+     */
+    SubscriberCallTotals sumDurationsByAllSubscribers(LocalDateTime periodStart, LocalDateTime periodEnd);
+
+    /**
+     * Visits every call placed or received by a subscriber in the date range, ordered by call start.
+     *
+     * @param msisdn The subscriber's phone number
+     * @param startDate Start of the date range (inclusive)
+     * @param endDate End of the date range (inclusive)
+     * @param visitor Receives the calls as primitives
+     * @return Number of visited calls
+     */
+    long forEachCallBySubscriber(String msisdn, LocalDateTime startDate, LocalDateTime endDate, CallVisitor visitor);
+
+    @FunctionalInterface
+    interface CallVisitor {
+        /**
+         * @param callType Ordinal of the call's {@link org.example.nexignbootcamptask.entity.enums.CallType}
+         * @param callStart Call start in epoch seconds of the local call time at UTC
+         */
+        void visit(byte callType, long callingMsisdn, long receivingMsisdn, long callStart, int duration);
+    }
+}
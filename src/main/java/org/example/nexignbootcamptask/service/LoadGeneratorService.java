@@ -0,0 +1,23 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.example.nexignbootcamptask.dto.LoadGenerationResponse;
+
+/**
+ * Interface for the synthetic switch load generator.
+ * Produces large volumes of CDR records for load-testing billing.
+ */
+public interface LoadGeneratorService {
+    /**
+     * Generates synthetic subscribers and calls.
+     * The time window is split into chunks of consecutive calls that are generated in parallel
+     * and inserted in time order, so only a few chunks are held in memory at once.
+     * Runs synchronously; only one run may be in progress at a time.
+     *
+     * @param request Load parameters; empty fields fall back to the configured defaults
+     * @return Summary of the generated load
+     * @throws IllegalArgumentException if the parameters are invalid
+     * @throws IllegalStateException if another run is in progress
+     */
+    LoadGenerationResponse generateLoad(LoadGenerationRequest request);
+}
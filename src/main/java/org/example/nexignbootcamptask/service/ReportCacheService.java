@@ -0,0 +1,59 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for the CDR report file cache.
+ * Reuses the report file of an identical request (same MSISDN, date range and format) while its CDRs are unchanged,
+ * and lets identical requests share one generation while it is in progress.
+ */
+public interface ReportCacheService {
+    /**
+     * Looks up the report of an identical earlier request whose CDRs have not changed since it was generated.
+     *
+     * @param request A validated report request
+     * @return File of the cached report, or empty if there is none
+     */
+    Optional<Path> getReport(CDRGenerationRequest request);
+
+    /**
+     * Registers a report generation unless an identical one is already in progress.
+     *
+     * @param request    A validated report request
+     * @param generation Future of a new generation
+     * @return The generation in progress, or the given one, which the caller then has to run
+     */
+    CompletableFuture<Path> joinGeneration(CDRGenerationRequest request, CompletableFuture<Path> generation);
+
+    /**
+     * Stores a generated report file under the SHA-256 of its content, sharing an existing file with the same content,
+     * and completes the generation with the stored file. The report is reused for later requests unless
+     * its CDRs changed while it was generated.
+     *
+     * @param request    The request the report was generated for
+     * @param generation The generation registered by {@link #joinGeneration}
+     * @param file       The generated report file
+     */
+    void completeGeneration(CDRGenerationRequest request, CompletableFuture<Path> generation, Path file);
+
+    /**
+     * Completes a generation exceptionally, so identical requests submitted later generate the report again.
+     *
+     * @param request    The request the report was generated for
+     * @param generation The generation registered by {@link #joinGeneration}
+     * @param error      The reason the generation failed
+     */
+    void failGeneration(CDRGenerationRequest request, CompletableFuture<Path> generation, Throwable error);
+
+    /**
+     * Retrieves hit, miss and eviction statistics of the report cache.
+     *
+     * @return CacheStatsResponse with the cache statistics
+     */
+    CacheStatsResponse getCacheStats();
+}
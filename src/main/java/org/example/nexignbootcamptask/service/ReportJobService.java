@@ -0,0 +1,74 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse;
+import org.example.nexignbootcamptask.exception.ReportNotReadyException;
+import org.example.nexignbootcamptask.exception.ReportQueueFullException;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Interface for the CDR report job service.
+ * Runs CDR report generation in the background and tracks the state of each request.
+ */
+public interface ReportJobService {
+    /**
+     * Validates a report request and queues it for background generation.
+     * The report of an identical request is reused while its CDRs are unchanged, and identical requests
+     * submitted while it is generated share that generation.
+     *
+     * @param request The request containing MSISDN and date range for report generation
+     * @return CDRGenerationResponse containing the unique UUID of the queued report
+     * @throws IllegalArgumentException if the MSISDN or the date range is invalid
+     * @throws ResourceNotFoundException if the subscriber does not exist
+     * @throws ReportQueueFullException if the report queue is full
+     */
+    CDRGenerationResponse submitCDRReport(CDRGenerationRequest request);
+
+    /**
+     * Validates a batch of report requests for many subscribers and queues their generation as one task,
+     * which reads the calls of its subscribers with one query per chunk of subscribers.
+     * Every subscriber gets its own report request; cached reports and generations in progress are reused
+     * as for single requests, and repeated MSISDNs get one request.
+     *
+     * @param request The request containing the MSISDNs and the date range for report generation
+     * @return CDRBatchGenerationResponse with the manifest of the batch's report requests
+     * @throws IllegalArgumentException if there are no or too many MSISDNs, or an MSISDN or the date range is invalid
+     * @throws ResourceNotFoundException if a subscriber does not exist
+     * @throws ReportQueueFullException if the report queue is full
+     */
+    CDRBatchGenerationResponse submitCDRBatchReport(CDRBatchGenerationRequest request);
+
+    /**
+     * Retrieves the manifest of a batch with the current state of its report requests.
+     *
+     * @param batchId The unique ID of the batch
+     * @return CDRBatchGenerationResponse with the manifest of the batch's report requests
+     * @throws ResourceNotFoundException if the batch is unknown or all its requests have expired
+     */
+    CDRBatchGenerationResponse getBatchReport(UUID batchId);
+
+    /**
+     * Retrieves the current state of a report request.
+     *
+     * @param requestId The unique ID of the report request
+     * @return ReportStatusResponse with the state of the request
+     * @throws ResourceNotFoundException if the request is unknown or has expired
+     */
+    ReportStatusResponse getReportStatus(UUID requestId);
+
+    /**
+     * Retrieves the file of a generated report.
+     *
+     * @param requestId The unique ID of the report request
+     * @return Path of the report file
+     * @throws ResourceNotFoundException if the request is unknown or has expired, or its report file has been evicted
+     * @throws ReportNotReadyException if the report has not been generated successfully
+     */
+    Path getReportFile(UUID requestId);
+}
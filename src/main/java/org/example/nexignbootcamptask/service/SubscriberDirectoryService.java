@@ -0,0 +1,30 @@
+package org.example.nexignbootcamptask.service;
+
+/**
+ * Interface for in-memory subscriber existence checks.
+ */
+public interface SubscriberDirectoryService {
+    /**
+     * Checks whether a subscriber exists without querying the database.
+     *
+     * @param msisdn The validated subscriber's phone number
+     * @return true if the subscriber exists
+     */
+    boolean exists(String msisdn);
+
+    /**
+     * Checks whether a subscriber exists, for MSISDNs already parsed into numbers.
+     *
+     * @param msisdn The subscriber's phone number as a number
+     * @return true if the subscriber exists
+     */
+    boolean exists(long msisdn);
+
+    /**
+     * Reloads all subscribers from the database, for example after subscribers
+     * were inserted directly into the database.
+     *
+     * @return Number of known subscribers
+     */
+    int reload();
+}
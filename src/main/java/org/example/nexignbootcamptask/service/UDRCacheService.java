@@ -0,0 +1,15 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+
+/**
+ * Interface for the UDR result cache.
+ */
+public interface UDRCacheService {
+    /**
+     * Retrieves hit, miss and eviction statistics of the UDR cache.
+     *
+     * @return CacheStatsResponse with the cache statistics
+     */
+    CacheStatsResponse getCacheStats();
+}
@@ -1,9 +1,11 @@
 package org.example.nexignbootcamptask.service;
 
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
 import org.example.nexignbootcamptask.dto.UDRResponse;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface for UDR Service.
@@ -13,21 +15,52 @@ import java.util.List;
 public interface UDRService {
     /**
      * Retrieves call usage statistics for a specific subscriber.
-     * Calculates total durations for incoming and outgoing calls.
+     * Totals are read from the monthly usage rollup, or summed from raw call records
+     * when the rollup is disabled.
      *
      * @param msisdn The subscriber's mobile number
      * @param month Optional month filter (1-12)
+     * @param year Optional year of the month; defaults to the most recent such month
      * @return UDRResponse containing formatted call statistics
      * @throws ResourceNotFoundException if subscriber or records are not found
      */
-    UDRResponse getUDRForSubscriber(String msisdn, Integer month);
+    UDRResponse getUDRForSubscriber(String msisdn, Integer month, Integer year);
 
     /**
      * Retrieves call usage statistics for all subscribers for a specific month.
-     * Aggregates call data and formats durations.
+     * Usage is read from the monthly usage rollup. When the rollup is disabled,
+     * call durations are summed by the database in grouped queries
+     * instead of one query per subscriber. In parallel mode the subscriber keyspace is split
+     * into MSISDN ranges that are aggregated concurrently and merged in MSISDN order.
      *
      * @param month The month (1-12) to retrieve statistics for
+     * @param year Optional year of the month; defaults to the most recent such month
      * @return List of UDRResponse objects with usage statistics
      */
-    List<UDRResponse> getAllUDRsForMonth(Integer month);
+    List<UDRResponse> getAllUDRsForMonth(Integer month, Integer year);
+
+    /**
+     * Retrieves one page of monthly UDRs with keyset pagination on MSISDN, so every page costs
+     * the same regardless of how deep into the subscriber base it is.
+     * When UDRs are summed from raw CDRs, a page covers the next {@code limit} subscribers
+     * and may hold fewer UDRs if some of them had no calls in the month.
+     *
+     * @param month The month (1-12) to retrieve statistics for
+     * @param year Optional year of the month; defaults to the most recent such month
+     * @param after Optional MSISDN cursor from the previous page's {@code nextCursor}
+     * @param limit The maximum number of subscribers per page (1-1000)
+     * @return Page of UDRs ordered by MSISDN with the cursor of the next page
+     */
+    UDRPageResponse getUDRsForMonthPage(Integer month, Integer year, String after, Integer limit);
+
+    /**
+     * Lazily streams the UDRs of all subscribers for a month in MSISDN order,
+     * computing them page by page as the stream is consumed. Arguments are validated
+     * before the stream is returned. The stream must be closed after use.
+     *
+     * @param month The month (1-12) to retrieve statistics for
+     * @param year Optional year of the month; defaults to the most recent such month
+     * @return Stream of UDRs ordered by MSISDN
+     */
+    Stream<UDRResponse> streamAllUDRsForMonth(Integer month, Integer year);
 }
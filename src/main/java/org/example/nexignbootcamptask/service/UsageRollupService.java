@@ -0,0 +1,29 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.RollupRebuildResponse;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.event.UsageRollupRebuiltEvent;
+
+import java.util.Collection;
+
+/**
+ * Interface for the monthly usage rollup.
+ * Maintains pre-aggregated per-subscriber monthly usage that UDRs are answered from.
+ */
+public interface UsageRollupService {
+    /**
+     * Adds usage deltas to the stored rollups, creating rollups for subscriber months seen for the first time.
+     *
+     * @param usage Usage deltas, at most one per subscriber month
+     */
+    void applyUsage(Collection<SubscriberMonthlyUsage> usage);
+
+    /**
+     * Recomputes all rollups from raw CDR records, replacing the stored ones.
+     * Meant for repair, for example after records were loaded bypassing ingestion.
+     * Publishes a {@link UsageRollupRebuiltEvent} once done.
+     *
+     * @return Summary of the rebuild
+     */
+    RollupRebuildResponse rebuildRollups();
+}
@@ -0,0 +1,44 @@
+package org.example.nexignbootcamptask.service;
+
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.UsageReconciliationResponse;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+
+import java.time.YearMonth;
+
+/**
+ * Interface for live usage totals.
+ * Keeps the billed call durations of every subscriber month and of every subscriber in memory,
+ * updated from each {@link CDRecordsIngestedEvent}, so a UDR is a lookup instead of an aggregation.
+ */
+public interface UsageTotalsService {
+    /**
+     * @return true if live totals are kept and UDRs should be answered from them
+     */
+    boolean isEnabled();
+
+    /**
+     * Reloads all totals from the call records, for example after they were inserted directly into the database.
+     *
+     * @return Number of subscriber months with calls
+     */
+    long reload();
+
+    /**
+     * Looks up the call durations billed to a subscriber: received INCOMING and placed OUTCOMING calls.
+     *
+     * @param msisdn The subscriber's phone number
+     * @param month The month, or null for all time
+     * @return CallDurationTotals of the subscriber, or null if no calls were billed to it
+     */
+    CallDurationTotals getTotals(String msisdn, YearMonth month);
+
+    /**
+     * Compares the live totals with totals aggregated from the call records. A difference also found,
+     * unchanged, by the previous reconciliation is not caused by calls still being applied and is repaired.
+     *
+     * @return Summary of the reconciliation
+     * @throws IllegalStateException if live totals are disabled
+     */
+    UsageReconciliationResponse reconcile();
+}
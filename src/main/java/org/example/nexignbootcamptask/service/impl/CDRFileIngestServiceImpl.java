@@ -0,0 +1,256 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+import org.example.nexignbootcamptask.entity.CDRFile;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.repository.CDRFileRepository;
+import org.example.nexignbootcamptask.service.CDRFileIngestService;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.util.CDRCsvParser;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+@Service
+public class CDRFileIngestServiceImpl implements CDRFileIngestService {
+
+    private static final long CHECKSUM_MAPPING_SIZE = 1L << 30;
+
+    private final CDRIngestService cdrIngestService;
+    private final CDRFileRepository cdrFileRepository;
+    private final SubscriberDirectoryService subscriberDirectoryService;
+    private final TransactionTemplate transaction;
+    private final Executor parseExecutor;
+    private final long chunkSize;
+    private final int workers;
+
+    @Autowired
+    public CDRFileIngestServiceImpl(CDRIngestService cdrIngestService,
+                                    CDRFileRepository cdrFileRepository,
+                                    SubscriberDirectoryService subscriberDirectoryService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("fileIngestExecutor") Executor parseExecutor,
+                                    @Value("${cdr.ingest.file.chunk-size:8MB}") DataSize chunkSize,
+                                    @Value("${cdr.ingest.file.workers:4}") int workers) {
+        if (chunkSize.toBytes() < 1 || chunkSize.toBytes() > Integer.MAX_VALUE - CDRCsvParser.MAX_LINE_LENGTH - 2) {
+            throw new IllegalArgumentException("CDR file chunk size must be between 1 byte and 2 GB");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("CDR file workers must be positive");
+        }
+        this.cdrIngestService = cdrIngestService;
+        this.cdrFileRepository = cdrFileRepository;
+        this.subscriberDirectoryService = subscriberDirectoryService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.parseExecutor = parseExecutor;
+        this.chunkSize = chunkSize.toBytes();
+        this.workers = workers;
+    }
+
+    public CDRFileResponse ingestFile(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            String checksum = checksum(channel, size);
+
+            CDRFile cdrFile = transaction.execute(status -> start(checksum, file, size));
+            if (cdrFile.getStatus() == CDRFileStatus.DONE) {
+                return toResponse(cdrFile);
+            }
+
+            try {
+                ingestChunks(channel, checksum, cdrFile.getCommittedBytes(), size);
+                finish(checksum, CDRFileStatus.DONE, null);
+            } catch (RuntimeException e) {
+                finish(checksum, CDRFileStatus.FAILED, e.getMessage());
+            }
+            return toResponse(cdrFileRepository.findById(checksum).orElseThrow());
+        } catch (IOException e) {
+            throw new ServiceException("Failed to ingest CDR file " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    public List<CDRFileResponse> getFiles() {
+        return cdrFileRepository.findAllByOrderByStartedAtDesc().stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * Registers a new file, or reopens the bookkeeping of a file with the same content.
+     */
+    private CDRFile start(String checksum, Path file, long size) {
+        CDRFile cdrFile = cdrFileRepository.findById(checksum).orElse(null);
+        if (cdrFile == null) {
+            cdrFile = CDRFile.builder()
+                    .checksum(checksum)
+                    .size(size)
+                    .startedAt(LocalDateTime.now())
+                    .build();
+        } else if (cdrFile.getStatus() == CDRFileStatus.DONE) {
+            return cdrFile;
+        }
+        cdrFile.setFileName(file.getFileName().toString());
+        cdrFile.setStatus(CDRFileStatus.IN_PROGRESS);
+        cdrFile.setError(null);
+        cdrFile.setFinishedAt(null);
+        return cdrFileRepository.save(cdrFile);
+    }
+
+    /**
+     * Parses chunks after the committed offset on the shared parse executor, while the calling thread stores them
+     * strictly in file order. At most twice as many chunks as there are workers are held in memory per file;
+     * chunks still being parsed when the file fails are interrupted.
+     */
+    private void ingestChunks(FileChannel channel, String checksum, long committedBytes, long size) {
+        if (committedBytes >= size) {
+            return;
+        }
+
+        Deque<FutureTask<ParsedChunk>> pending = new ArrayDeque<>();
+        try {
+            long nextStart = committedBytes;
+            long committed = committedBytes;
+
+            while (nextStart < size || !pending.isEmpty()) {
+                while (nextStart < size && pending.size() < workers * 2) {
+                    long start = nextStart;
+                    long end = Math.min(size, start + chunkSize);
+                    FutureTask<ParsedChunk> chunk = new FutureTask<>(() -> parseChunk(channel, start, end, size));
+                    pending.add(chunk);
+                    parseExecutor.execute(chunk);
+                    nextStart = end;
+                }
+                ParsedChunk chunk = pending.poll().get();
+                commitChunk(checksum, committed, chunk);
+                committed = chunk.endOffset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("CDR file ingestion was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ServiceException("Failed to parse CDR file: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pending.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    private ParsedChunk parseChunk(FileChannel channel, long start, long end, long size) throws IOException {
+        // one byte before the chunk tells whether it starts on a line, and one line past it finishes the last one
+        long mappingStart = start == 0 ? 0 : start - 1;
+        long mappingEnd = Math.min(size, end + CDRCsvParser.MAX_LINE_LENGTH + 1);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mappingStart, mappingEnd - mappingStart);
+
+        CDRCsvParser parser = new CDRCsvParser(subscriberDirectoryService::exists);
+        CallColumns calls = parser.parse(buffer, mappingStart, start, end);
+        return new ParsedChunk(calls, parser.getRejectedCount(), parser.getFirstRejection(), parser.getEndOffset());
+    }
+
+    /**
+     * Stores the chunk's records and advances the file's committed offset in one transaction,
+     * so each line is stored exactly once even if ingestion stops between chunks.
+     */
+    private void commitChunk(String checksum, long committed, ParsedChunk chunk) {
+        transaction.executeWithoutResult(status -> {
+            long stored = chunk.calls().size() == 0 ? 0 : cdrIngestService.ingestCDRecords(toRecords(chunk.calls()));
+            if (cdrFileRepository.commitChunk(checksum, committed, chunk.endOffset(),
+                    stored, chunk.rejectedCount(), chunk.firstRejection()) != 1) {
+                throw new IllegalStateException("CDR file was ingested concurrently");
+            }
+        });
+    }
+
+    private void finish(String checksum, CDRFileStatus status, String error) {
+        transaction.executeWithoutResult(
+                transactionStatus -> cdrFileRepository.finish(checksum, status, error, LocalDateTime.now()));
+    }
+
+    private static Iterable<CDRecord> toRecords(CallColumns calls) {
+        CallType[] callTypes = CallType.values();
+        return () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < calls.size();
+            }
+
+            @Override
+            public CDRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = index++;
+                long callStart = calls.callStart(i);
+                return CDRecord.builder()
+                        .callType(callTypes[calls.callType(i)])
+                        .callingSubscriber(Subscriber.builder().msisdn(Long.toString(calls.callingMsisdn(i))).build())
+                        .receivingSubscriber(Subscriber.builder().msisdn(Long.toString(calls.receivingMsisdn(i))).build())
+                        .callStart(LocalDateTime.ofEpochSecond(callStart, 0, ZoneOffset.UTC))
+                        .callEnd(LocalDateTime.ofEpochSecond(callStart + calls.duration(i), 0, ZoneOffset.UTC))
+                        .build();
+            }
+        };
+    }
+
+    private static String checksum(FileChannel channel, long size) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (long position = 0; position < size; position += CHECKSUM_MAPPING_SIZE) {
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(CHECKSUM_MAPPING_SIZE, size - position)));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private CDRFileResponse toResponse(CDRFile cdrFile) {
+        return CDRFileResponse.builder()
+                .checksum(cdrFile.getChecksum())
+                .fileName(cdrFile.getFileName())
+                .size(cdrFile.getSize())
+                .status(cdrFile.getStatus())
+                .committedBytes(cdrFile.getCommittedBytes())
+                .progress(cdrFile.getSize() == 0 ? 1.0 : (double) cdrFile.getCommittedBytes() / cdrFile.getSize())
+                .recordCount(cdrFile.getRecordCount())
+                .rejectedCount(cdrFile.getRejectedCount())
+                .firstRejection(cdrFile.getFirstRejection())
+                .error(cdrFile.getError())
+                .startedAt(cdrFile.getStartedAt())
+                .finishedAt(cdrFile.getFinishedAt())
+                .build();
+    }
+
+    private record ParsedChunk(CallColumns calls, long rejectedCount, String firstRejection, long endOffset) {}
+}
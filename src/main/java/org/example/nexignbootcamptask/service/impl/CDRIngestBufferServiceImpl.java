@@ -0,0 +1,354 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse.Durability;
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.exception.IngestBufferFullException;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.service.CDRIngestBufferService;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.util.MpscRingBuffer;
+import org.example.nexignbootcamptask.util.ValidationUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffers call records in a {@link MpscRingBuffer} drained by one writer thread. Producers never take a lock:
+ * they claim slots with a CAS and only wake the writer when it is idle. The writer commits a group when it reaches
+ * the batch size or when its oldest record has waited for the maximum delay, then acknowledges every producer
+ * waiting on the group. The records of one call always share a group, so they are stored or rejected together.
+ * On shutdown the writer commits everything still buffered before it exits; records it can no longer store,
+ * because it was stopped or died, are failed, so no producer waits for them beyond the commit timeout.
+ */
+@Service
+public class CDRIngestBufferServiceImpl implements CDRIngestBufferService {
+
+    private static final long FULL_BUFFER_PARK_NANOS = 100_000;
+    private static final long IDLE_PARK_NANOS = 1_000_000_000;
+    private static final String STOPPED = "CDR ingest buffer stopped before the call records were stored";
+
+    private final CDRIngestService cdrIngestService;
+    private final SubscriberDirectoryService subscriberDirectoryService;
+    private final boolean enabled;
+    private final MpscRingBuffer<PendingRecord> buffer;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final long commitTimeoutNanos;
+    private final Durability durability;
+    private final DistributionSummary groupSize;
+    private final Counter rejectedRecords;
+    private final Counter failedRecords;
+
+    private volatile boolean running;
+    private volatile boolean writerIdle;
+    private Thread writer;
+    private boolean writerDrained;
+
+    @Autowired
+    public CDRIngestBufferServiceImpl(CDRIngestService cdrIngestService,
+                                      SubscriberDirectoryService subscriberDirectoryService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${cdr.ingest.buffer.enabled:true}") boolean enabled,
+                                      @Value("${cdr.ingest.buffer.capacity:65536}") int capacity,
+                                      @Value("${cdr.ingest.buffer.batch-size:1000}") int batchSize,
+                                      @Value("${cdr.ingest.buffer.max-delay:5ms}") Duration maxDelay,
+                                      @Value("${cdr.ingest.buffer.offer-timeout:1s}") Duration offerTimeout,
+                                      @Value("${cdr.ingest.buffer.commit-timeout:30s}") Duration commitTimeout,
+                                      @Value("${cdr.ingest.buffer.durability:COMMIT}") Durability durability) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Ingest batch size must be positive");
+        }
+        if (maxDelay.isNegative() || offerTimeout.isNegative() || commitTimeout.isNegative()) {
+            throw new IllegalArgumentException("Ingest delays must not be negative");
+        }
+        this.cdrIngestService = cdrIngestService;
+        this.subscriberDirectoryService = subscriberDirectoryService;
+        this.enabled = enabled;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.commitTimeoutNanos = commitTimeout.toNanos();
+        this.durability = durability;
+        this.groupSize = DistributionSummary.builder("cdr.ingest.buffer.group")
+                .description("Call records stored per group commit of the ingest buffer")
+                .baseUnit("records")
+                .register(meterRegistry);
+        this.rejectedRecords = Counter.builder("cdr.ingest.buffer.rejected")
+                .description("Call records rejected because the ingest buffer stayed full")
+                .baseUnit("records")
+                .register(meterRegistry);
+        this.failedRecords = Counter.builder("cdr.ingest.buffer.failed")
+                .description("Buffered call records whose group commit failed")
+                .baseUnit("records")
+                .register(meterRegistry);
+        Gauge.builder("cdr.ingest.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Call records waiting in the ingest buffer")
+                .baseUnit("records")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writerDrained = false;
+        writer = new Thread(this::runWriter, "cdr-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records appended by producers that passed the running check just before the writer exited are failed here.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread stopped;
+        synchronized (this) {
+            running = false;
+            stopped = writer;
+        }
+        if (stopped != null) {
+            LockSupport.unpark(stopped);
+            stopped.join();
+        }
+        failBuffered(new IllegalStateException(STOPPED));
+    }
+
+    public CDRIngestResponse ingest(List<CDRecordRequest> records) {
+        if (!enabled) {
+            throw new IllegalStateException("CDR ingest buffer is disabled");
+        }
+        if (records == null || records.isEmpty()) {
+            throw new IllegalArgumentException("No call records to ingest");
+        }
+        if (records.size() > buffer.capacity()) {
+            throw new IllegalArgumentException("At most " + buffer.capacity() + " call records can be ingested at once");
+        }
+
+        Acknowledgement acknowledgement = new Acknowledgement(records.size());
+        List<PendingRecord> pending = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            pending.add(new PendingRecord(toCDRecord(records.get(i)), acknowledgement, records.size() - 1 - i));
+        }
+
+        offer(pending);
+        if (durability == Durability.COMMIT || !running) {
+            awaitCommit(acknowledgement);
+        }
+
+        return CDRIngestResponse.builder()
+                .recordCount(records.size())
+                .durability(durability)
+                .build();
+    }
+
+    /**
+     * Retries a full buffer with short parks until the offer timeout, so the writer can free slots.
+     * The records may be appended just as the writer stops; if it has drained the buffer for the last time
+     * already, they are failed here.
+     */
+    private void offer(List<PendingRecord> pending) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (true) {
+            if (!running) {
+                throw new IllegalStateException("CDR ingest buffer is stopped");
+            }
+            if (buffer.offerAll(pending)) {
+                break;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                rejectedRecords.increment(pending.size());
+                throw new IngestBufferFullException("CDR ingest buffer is full, try again later");
+            }
+            LockSupport.parkNanos(FULL_BUFFER_PARK_NANOS);
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+        if (!running) {
+            failBuffered(new IllegalStateException(STOPPED));
+        }
+    }
+
+    /**
+     * Records acknowledged on enqueue are only waited for when the buffer stopped while they were appended,
+     * as they may have been failed instead of stored.
+     */
+    private void awaitCommit(Acknowledgement acknowledgement) {
+        try {
+            acknowledgement.future.get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new ServiceException("Failed to store call records", e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceException("Timed out waiting for call records to be stored, they may still be stored", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted waiting for call records to be stored", e);
+        }
+    }
+
+    private CDRecord toCDRecord(CDRecordRequest record) {
+        if (record == null || record.getCallType() == null) {
+            throw new IllegalArgumentException("Call type cannot be null");
+        }
+        ValidationUtil.validateMsisdn(record.getCallingMsisdn());
+        ValidationUtil.validateMsisdn(record.getReceivingMsisdn());
+        ValidationUtil.validateDateRange(record.getCallStart(), record.getCallEnd());
+        for (String msisdn : List.of(record.getCallingMsisdn(), record.getReceivingMsisdn())) {
+            if (!subscriberDirectoryService.exists(msisdn)) {
+                throw new ResourceNotFoundException("Subscriber", "msisdn", msisdn);
+            }
+        }
+
+        return CDRecord.builder()
+                .callType(record.getCallType())
+                .callingSubscriber(Subscriber.builder().msisdn(record.getCallingMsisdn()).build())
+                .receivingSubscriber(Subscriber.builder().msisdn(record.getReceivingMsisdn()).build())
+                .callStart(record.getCallStart())
+                .callEnd(record.getCallEnd())
+                .build();
+    }
+
+    /**
+     * Producers only unpark the writer after it announced it is idle and found the buffer empty,
+     * so a record appended meanwhile is either drained or wakes it up. A group only ends with the last
+     * record of a call; the rest of a call still being published is waited for with short parks.
+     * If the writer dies, the buffer stops and the records it holds or that are still buffered are failed.
+     */
+    private void runWriter() {
+        List<PendingRecord> group = new ArrayList<>(batchSize);
+        Throwable failure = null;
+        try {
+            writeGroups(group);
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            running = false;
+            IllegalStateException stopped = new IllegalStateException(STOPPED, failure);
+            fail(group, stopped);
+            failBuffered(stopped);
+        }
+    }
+
+    private void writeGroups(List<PendingRecord> group) {
+        long groupDeadline = 0;
+        while (running || buffer.size() > 0 || !group.isEmpty()) {
+            int following = following(group);
+            int limit = following > 0 ? following : batchSize - group.size();
+            int taken = limit > 0 ? buffer.drain(group::add, limit) : 0;
+            if (taken > 0 && taken == group.size()) {
+                groupDeadline = System.nanoTime() + maxDelayNanos;
+            }
+
+            following = following(group);
+            if (group.isEmpty()) {
+                writerIdle = true;
+                if (running && buffer.size() == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+            } else if (following == 0
+                    && (group.size() >= batchSize || !running || System.nanoTime() - groupDeadline >= 0)) {
+                commit(group);
+            } else if (taken == 0) {
+                LockSupport.parkNanos(this, following > 0 ? FULL_BUFFER_PARK_NANOS : groupDeadline - System.nanoTime());
+            }
+        }
+    }
+
+    private static int following(List<PendingRecord> group) {
+        return group.isEmpty() ? 0 : group.get(group.size() - 1).following();
+    }
+
+    private void commit(List<PendingRecord> group) {
+        try {
+            cdrIngestService.ingestCDRecords(() -> group.stream().map(PendingRecord::record).iterator());
+        } catch (RuntimeException e) {
+            fail(group, e);
+            group.clear();
+            return;
+        }
+
+        groupSize.record(group.size());
+        for (PendingRecord record : group) {
+            record.acknowledgement().recordStored();
+        }
+        group.clear();
+    }
+
+    private void fail(List<PendingRecord> records, Throwable cause) {
+        if (records.isEmpty()) {
+            return;
+        }
+        failedRecords.increment(records.size());
+        for (PendingRecord record : records) {
+            record.acknowledgement().future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Drains from the writer as it exits, or from any thread once the writer has drained for the last time;
+     * synchronized, so the buffer keeps a single consumer. Records appended before the writer's last drain
+     * are failed by it, later ones by the thread that appended them.
+     */
+    private synchronized void failBuffered(Throwable cause) {
+        if (Thread.currentThread() == writer) {
+            writerDrained = true;
+        } else if (!writerDrained) {
+            return;
+        }
+        List<PendingRecord> buffered = new ArrayList<>();
+        buffer.drain(buffered::add, Integer.MAX_VALUE);
+        fail(buffered, cause);
+    }
+
+    /**
+     * @param acknowledgement Shared by the records of one call
+     * @param following Number of records of the same call appended after this one
+     */
+    private record PendingRecord(CDRecord record, Acknowledgement acknowledgement, int following) {}
+
+    /**
+     * Completes once all records of one call are stored, or fails with the first of them that is not.
+     * Only the writer thread counts down.
+     */
+    private static final class Acknowledgement {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int remaining;
+
+        Acknowledgement(int recordCount) {
+            this.remaining = recordCount;
+        }
+
+        void recordStored() {
+            if (--remaining == 0) {
+                future.complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.UsageRollupService;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class CDRIngestServiceImpl implements CDRIngestService {
+
+    private final CDRecordRepository cdRecordRepository;
+    private final UsageRollupService usageRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer ingestTimer;
+    private final Counter ingestedRecords;
+
+    @Autowired
+    public CDRIngestServiceImpl(CDRecordRepository cdRecordRepository,
+                                UsageRollupService usageRollupService,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.cdRecordRepository = cdRecordRepository;
+        this.usageRollupService = usageRollupService;
+        this.eventPublisher = eventPublisher;
+        this.ingestTimer = Timer.builder("cdr.ingest")
+                .description("Time to insert a batch of call records and update their usage rollup")
+                .register(meterRegistry);
+        this.ingestedRecords = Counter.builder("cdr.ingest.records")
+                .description("Ingested call records")
+                .baseUnit("records")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public long ingestCDRecords(Iterable<CDRecord> records) {
+        long started = System.nanoTime();
+        Map<SubscriberMonthlyUsageId, SubscriberMonthlyUsage> usage = new HashMap<>();
+        CallColumns calls = new CallColumns(1024);
+        CDRecord[] first = new CDRecord[1];
+
+        long count = cdRecordRepository.bulkInsert(() -> new Iterator<>() {
+            private final Iterator<CDRecord> iterator = records.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public CDRecord next() {
+                CDRecord record = iterator.next();
+                if (first[0] == null) {
+                    first[0] = record;
+                }
+                addUsage(usage, record);
+                CallColumnServiceImpl.addCall(calls, record);
+                return record;
+            }
+        });
+
+        usageRollupService.applyUsage(usage.values());
+        eventPublisher.publishEvent(new CDRecordsIngestedEvent(count, Set.copyOf(usage.keySet()), calls,
+                first[0] == null ? 0 : first[0].getId()));
+
+        ingestTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        ingestedRecords.increment(count);
+        return count;
+    }
+
+    /**
+     * Adds a call to the usage of the subscriber it is billed to:
+     * the receiver of an INCOMING call or the caller of an OUTCOMING call.
+     */
+    private void addUsage(Map<SubscriberMonthlyUsageId, SubscriberMonthlyUsage> usage, CDRecord record) {
+        boolean incoming = record.getCallType() == CallType.INCOMING;
+        String msisdn = incoming
+                ? record.getReceivingSubscriber().getMsisdn()
+                : record.getCallingSubscriber().getMsisdn();
+        SubscriberMonthlyUsageId id = new SubscriberMonthlyUsageId(
+                msisdn, record.getCallStart().getYear(), record.getCallStart().getMonthValue());
+
+        SubscriberMonthlyUsage monthlyUsage = usage.computeIfAbsent(id,
+                key -> SubscriberMonthlyUsage.builder().id(key).build());
+        if (incoming) {
+            monthlyUsage.addIncoming(record.getDurationInSeconds(), 1);
+        } else {
+            monthlyUsage.addOutgoing(record.getDurationInSeconds(), 1);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.example.nexignbootcamptask.dto.CDRPartitionResponse;
+import org.example.nexignbootcamptask.dto.CDRReportRow;
+import org.example.nexignbootcamptask.entity.CDRPartitionArchive;
+import org.example.nexignbootcamptask.entity.enums.CDRPartitionStatus;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.repository.CDRPartitionArchiveRepository;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
+import org.example.nexignbootcamptask.service.CDRPartitionService;
+import org.example.nexignbootcamptask.util.PeriodUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class CDRPartitionServiceImpl implements CDRPartitionService {
+
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final DateTimeFormatter archiveTimestampFormatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final CDRecordRepository cdRecordRepository;
+    private final CDRPartitionArchiveRepository archiveRepository;
+    private final SubscriberMonthlyUsageRepository usageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path archiveDirectory;
+
+    @Autowired
+    public CDRPartitionServiceImpl(CDRecordRepository cdRecordRepository,
+                                   CDRPartitionArchiveRepository archiveRepository,
+                                   SubscriberMonthlyUsageRepository usageRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${cdr.partition.archive-directory:archive}") Path archiveDirectory) {
+        this.cdRecordRepository = cdRecordRepository;
+        this.archiveRepository = archiveRepository;
+        this.usageRepository = usageRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    public List<CDRPartitionResponse> getPartitions() {
+        List<CDRPartitionResponse> partitions = new ArrayList<>();
+        cdRecordRepository.countByPartition().forEach(count -> partitions.add(CDRPartitionResponse.builder()
+                .month(PeriodUtil.monthOf(count.getPartition()))
+                .status(CDRPartitionStatus.ACTIVE)
+                .recordCount(count.getRecordCount())
+                .build()));
+        archiveRepository.findAllByOrderByCallMonthAscRemovedAtAsc().forEach(archive -> partitions.add(toResponse(archive)));
+        partitions.sort(Comparator.comparing(CDRPartitionResponse::getMonth));
+        return partitions;
+    }
+
+    /**
+     * The archive is written in a read-only transaction of its own, so the delete's transaction is not held open
+     * for the length of the export. The delete must remove exactly the archived records, so calls committed into
+     * the month in between roll the delete back and discard the archive instead of being lost.
+     */
+    public CDRPartitionResponse archivePartition(YearMonth month) {
+        int partition = checkClosed(month);
+        LocalDateTime removedAt = LocalDateTime.now();
+        Path file = archiveDirectory.resolve("cdr-" + month + "-" + archiveTimestampFormatter.format(removedAt) + ".csv");
+        try {
+            Files.createDirectories(archiveDirectory);
+            long written = readOnlyTransaction.execute(status -> writeArchive(partition, file));
+            if (written == 0) {
+                throw new ResourceNotFoundException("No CDRs found in partition " + month);
+            }
+            return transaction.execute(status -> {
+                int deleted = cdRecordRepository.deletePartition(partition);
+                if (deleted != written) {
+                    throw new IllegalStateException("CDRs were ingested into partition " + month + " while archiving it");
+                }
+                return remove(month, CDRPartitionStatus.ARCHIVED, deleted, file.toString(), removedAt);
+            });
+        } catch (IOException | UncheckedIOException e) {
+            deleteArchive(file);
+            throw new ServiceException("Error archiving CDR partition " + month, e);
+        } catch (RuntimeException e) {
+            deleteArchive(file);
+            throw e;
+        }
+    }
+
+    public CDRPartitionResponse dropPartition(YearMonth month) {
+        int partition = checkClosed(month);
+        return transaction.execute(status -> {
+            int deleted = cdRecordRepository.deletePartition(partition);
+            if (deleted == 0) {
+                throw new ResourceNotFoundException("No CDRs found in partition " + month);
+            }
+            return remove(month, CDRPartitionStatus.DROPPED, deleted, null, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Only closed months are removed, so the partition is no longer written by regular ingestion.
+     */
+    private static int checkClosed(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only partitions of past months can be archived or dropped");
+        }
+        return PeriodUtil.partitionOf(month);
+    }
+
+    private long writeArchive(int partition, Path file) {
+        try (Stream<CDRReportRow> rows = cdRecordRepository.streamReportRowsByPartition(partition);
+             BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+
+            long rowCount = 0;
+            Iterator<CDRReportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CDRReportRow row = iterator.next();
+                csvPrinter.printRecord(
+                        row.getCallType().getIndex(),
+                        row.getCallingMsisdn(),
+                        row.getReceivingMsisdn(),
+                        dateTimeFormatter.format(row.getCallStart()),
+                        dateTimeFormatter.format(row.getCallEnd())
+                );
+                rowCount++;
+            }
+            csvPrinter.flush();
+            return rowCount;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs in the transaction that deleted the CDRs. The month's rollups go with them, so UDRs of a removed month
+     * are the same whichever source they are read from and are not brought back or lost by a rollup rebuild.
+     */
+    private CDRPartitionResponse remove(YearMonth month, CDRPartitionStatus status, long recordCount,
+                                        String archiveFile, LocalDateTime removedAt) {
+        usageRepository.deleteByMonth(month.getYear(), month.getMonthValue());
+        CDRPartitionArchive archive = archiveRepository.save(CDRPartitionArchive.builder()
+                .callMonth(PeriodUtil.partitionOf(month))
+                .status(status)
+                .recordCount(recordCount)
+                .archiveFile(archiveFile)
+                .removedAt(removedAt)
+                .build());
+        eventPublisher.publishEvent(new CDRPartitionDroppedEvent(month, recordCount));
+        return toResponse(archive);
+    }
+
+    private static void deleteArchive(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // an incomplete archive is left behind, its partition is still in the database
+        }
+    }
+
+    private static CDRPartitionResponse toResponse(CDRPartitionArchive archive) {
+        return CDRPartitionResponse.builder()
+                .month(PeriodUtil.monthOf(archive.getCallMonth()))
+                .status(archive.getStatus())
+                .recordCount(archive.getRecordCount())
+                .archiveFile(archive.getArchiveFile())
+                .removedAt(archive.getRemovedAt())
+                .build();
+    }
+}
@@ -1,7 +1,11 @@
 package org.example.nexignbootcamptask.service.impl;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
-import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.dto.CDRReportRow;
 import org.example.nexignbootcamptask.entity.CDRecord;
 import org.example.nexignbootcamptask.entity.Subscriber;
 import org.example.nexignbootcamptask.entity.enums.CallType;
@@ -9,23 +13,37 @@ import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
 import org.example.nexignbootcamptask.exception.ServiceException;
 import org.example.nexignbootcamptask.repository.CDRecordRepository;
 import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.CDRIngestService;
 import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.service.CallColumnService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.PeriodUtil;
+import org.example.nexignbootcamptask.util.ReportWriter;
 import org.example.nexignbootcamptask.util.ValidationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 
 @Service
@@ -33,11 +51,16 @@ public class CDRServiceImpl implements CDRService {
 
     private final CDRecordRepository cdRecordRepository;
     private final SubscriberRepository subscriberRepository;
+    private final CDRIngestService cdrIngestService;
+    private final SubscriberDirectoryService subscriberDirectoryService;
+    private final CallColumnService callColumnService;
+    private final MeterRegistry meterRegistry;
+    private final Executor reportWriteExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchChunkSize;
 
     private static final String reportsDirectory = "reports";
 
-    private static final DateTimeFormatter dateTimeFormater = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-
     private static final String[] MSISDN_LIST = {
             "79001112233", "79002223344", "79003334455", "79004445566", "79005556677",
             "79006667788", "79007778899", "79008889900", "79009990011", "79000001122"
@@ -45,9 +68,27 @@ public class CDRServiceImpl implements CDRService {
 
     @Autowired
     public CDRServiceImpl(CDRecordRepository cdRecordRepository,
-                          SubscriberRepository subscriberRepository) {
+                          SubscriberRepository subscriberRepository,
+                          CDRIngestService cdrIngestService,
+                          SubscriberDirectoryService subscriberDirectoryService,
+                          CallColumnService callColumnService,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("reportWriteExecutor") Executor reportWriteExecutor,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${cdr.report.batch.chunk-size:1000}") int batchChunkSize) {
+        if (batchChunkSize < 1) {
+            throw new IllegalArgumentException("Report batch chunk size must be positive");
+        }
         this.cdRecordRepository = cdRecordRepository;
         this.subscriberRepository = subscriberRepository;
+        this.cdrIngestService = cdrIngestService;
+        this.subscriberDirectoryService = subscriberDirectoryService;
+        this.callColumnService = callColumnService;
+        this.meterRegistry = meterRegistry;
+        this.reportWriteExecutor = reportWriteExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchChunkSize = batchChunkSize;
 
         try {
             Path reportsPath = Paths.get(reportsDirectory);
@@ -68,7 +109,7 @@ public class CDRServiceImpl implements CDRService {
                 subscribers.add(Subscriber.builder().msisdn(msisdn).build());
             }
 
-            subscriberRepository.saveAll(subscribers);
+            subscriberRepository.bulkInsert(subscribers);
         }
     }
 
@@ -115,7 +156,7 @@ public class CDRServiceImpl implements CDRService {
 
         cdrRecords.sort(Comparator.comparing(CDRecord::getCallStart));
 
-        cdRecordRepository.saveAll(cdrRecords);
+        cdrIngestService.ingestCDRecords(cdrRecords);
     }
 
     public List<CDRecord> getCDRecordsBySubscriberAndDateRange(String msisdn, LocalDateTime startDate, LocalDateTime endDate) {
@@ -133,72 +174,347 @@ public class CDRServiceImpl implements CDRService {
         return records;
     }
 
-    public List<CDRecord> getOutgoingCallsBySubscriber(String msisdn, Integer month) {
+    public List<CDRecord> getOutgoingCallsBySubscriber(String msisdn, Integer month, Integer year) {
         ValidationUtil.validateMsisdn(msisdn);
         if (month != null) {
             ValidationUtil.validateMonth(month);
-            return cdRecordRepository.findByCallingSubscriber_MsisdnAndCallTypeAndMonth(msisdn, CallType.OUTCOMING, month);
+            ValidationUtil.validateYear(year);
+            YearMonth period = PeriodUtil.resolveMonth(month, year);
+            return cdRecordRepository.findByCallingSubscriber_MsisdnAndCallTypeAndPeriod(
+                    msisdn, CallType.OUTCOMING, PeriodUtil.startOf(period), PeriodUtil.endOf(period));
         }
         return cdRecordRepository.findByCallingSubscriber_MsisdnAndCallType(msisdn, CallType.OUTCOMING);
     }
 
-    public List<CDRecord> getIncomingCallsBySubscriber(String msisdn, Integer month) {
+    public List<CDRecord> getIncomingCallsBySubscriber(String msisdn, Integer month, Integer year) {
         ValidationUtil.validateMsisdn(msisdn);
         if (month != null) {
             ValidationUtil.validateMonth(month);
-            return cdRecordRepository.findByReceivingSubscriber_MsisdnAndCallTypeAndMonth(msisdn, CallType.INCOMING, month);
+            ValidationUtil.validateYear(year);
+            YearMonth period = PeriodUtil.resolveMonth(month, year);
+            return cdRecordRepository.findByReceivingSubscriber_MsisdnAndCallTypeAndPeriod(
+                    msisdn, CallType.INCOMING, PeriodUtil.startOf(period), PeriodUtil.endOf(period));
         }
         return cdRecordRepository.findByReceivingSubscriber_MsisdnAndCallType(msisdn, CallType.INCOMING);
     }
 
-    @Transactional
-    public CDRGenerationResponse generateCDRReport(CDRGenerationRequest request) {
+    public void validateCDRReportRequest(CDRGenerationRequest request) {
         validateCDRRequest(request);
 
-        if (!subscriberRepository.existsById(request.getMsisdn())) {
+        if (!subscriberDirectoryService.exists(request.getMsisdn())) {
             throw new ResourceNotFoundException("Subscriber", "msisdn", request.getMsisdn());
         }
+    }
+
+    @Transactional(readOnly = true)
+    public Path generateCDRReport(UUID requestId, CDRGenerationRequest request) {
+        validateCDRReportRequest(request);
 
         try {
-            UUID requestId = UUID.randomUUID();
+            ReportFormat format = Objects.requireNonNullElse(request.getFormat(), ReportFormat.CSV);
+            Path filePath = reportPath(requestId, request, format);
+
+            boolean columnar = callColumnService.isEnabled();
+            String source = columnar ? "columns" : "database";
+            long started = System.nanoTime();
+            ReportWriteResult result;
+            try (ReportWriter writer = ReportWriter.open(format, Files.newOutputStream(filePath))) {
+                if (columnar) {
+                    result = writeCDRReport(request, writer);
+                } else {
+                    try (Stream<CDRReportRow> rows = cdRecordRepository.streamReportRowsBySubscriberMsisdnAndDateRange(
+                            request.getMsisdn(), request.getStartDate(), request.getEndDate())) {
+                        result = writeCDRReport(rows, writer);
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - started;
+
+            if (!finishReport(filePath, source, format, elapsed - result.writeNanos(), result)) {
+                throw new ResourceNotFoundException(
+                        String.format("CDR records for subscriber %s in date range %s - %s",
+                                request.getMsisdn(), request.getStartDate(), request.getEndDate()));
+            }
 
-            String filename = request.getMsisdn() + "_" + requestId + ".csv";
+            return filePath;
+        } catch (Exception e) {
+            throw new ServiceException("Failed to generate CDR report: " + e.getMessage(), e);
+        }
+    }
 
-            List<CDRecord> records = getCDRecordsBySubscriberAndDateRange(
-                    request.getMsisdn(), request.getStartDate(), request.getEndDate());
+    /**
+     * Reports are written from per-subscriber call columns filled by the scan, at about 29 bytes per call,
+     * so only the calls of one chunk of subscribers are held in memory at a time. Each chunk is scanned in its
+     * own read-only transaction and its files are written outside of it. A failure deletes the batch's files.
+     */
+    public Map<UUID, Path> generateCDRReports(Map<UUID, CDRGenerationRequest> requests) {
+        if (requests.isEmpty()) {
+            return Map.of();
+        }
+        CDRGenerationRequest first = requests.values().iterator().next();
+        ReportFormat format = Objects.requireNonNullElse(first.getFormat(), ReportFormat.CSV);
+        for (CDRGenerationRequest request : requests.values()) {
+            validateCDRReportRequest(request);
+            if (!request.getStartDate().equals(first.getStartDate()) || !request.getEndDate().equals(first.getEndDate())
+                    || Objects.requireNonNullElse(request.getFormat(), ReportFormat.CSV) != format) {
+                throw new IllegalArgumentException("Batch report requests must have the same date range and format");
+            }
+        }
 
-            Path filePath = Paths.get(reportsDirectory, filename);
+        List<Map.Entry<UUID, CDRGenerationRequest>> entries = new ArrayList<>(requests.entrySet());
+        Map<UUID, Path> reports = new LinkedHashMap<>();
+        try {
+            for (int from = 0; from < entries.size(); from += batchChunkSize) {
+                Map<UUID, CDRGenerationRequest> chunk = new LinkedHashMap<>();
+                entries.subList(from, Math.min(entries.size(), from + batchChunkSize))
+                        .forEach(entry -> chunk.put(entry.getKey(), entry.getValue()));
+                reports.putAll(generateChunkReports(chunk, format, first.getStartDate(), first.getEndDate()));
+            }
+            return reports;
+        } catch (RuntimeException e) {
+            deleteReports(requests, format);
+            throw e;
+        }
+    }
 
-            writeCDRReportToCSV(records, filePath.toString());
+    /**
+     * Reports still being written when another one fails are interrupted.
+     */
+    private Map<UUID, Path> generateChunkReports(Map<UUID, CDRGenerationRequest> chunk, ReportFormat format,
+                                                 LocalDateTime startDate, LocalDateTime endDate) {
+        Map<Long, CallColumns> calls = null;
+        if (!callColumnService.isEnabled()) {
+            long started = System.nanoTime();
+            calls = readOnlyTransaction.execute(status -> scanCalls(chunk.values(), startDate, endDate));
+            reportStageTimer("query", "database", format.name().toLowerCase(Locale.ROOT))
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
 
-            return CDRGenerationResponse.builder()
-                    .requestId(requestId)
-                    .build();
-        } catch (Exception e) {
-            throw new ServiceException("Failed to generate CDR report: " + e.getMessage(), e);
+        Map<Long, CallColumns> subscriberCalls = calls;
+        Map<UUID, FutureTask<Path>> pending = new LinkedHashMap<>();
+        try {
+            chunk.forEach((requestId, request) -> {
+                FutureTask<Path> report = new FutureTask<>(
+                        () -> writeBatchReport(requestId, request, format, subscriberCalls));
+                pending.put(requestId, report);
+                reportWriteExecutor.execute(report);
+            });
+
+            Map<UUID, Path> reports = new LinkedHashMap<>();
+            for (Map.Entry<UUID, FutureTask<Path>> report : pending.entrySet()) {
+                Path file = report.getValue().get();
+                if (file != null) {
+                    reports.put(report.getKey(), file);
+                }
+            }
+            return reports;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("CDR report generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ServiceException("Failed to generate CDR report: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pending.values().forEach(report -> report.cancel(true));
         }
     }
 
-    private void writeCDRReportToCSV(List<CDRecord> records, String filePath) {
-        try (FileWriter fileWriter = new FileWriter(filePath);
-             CSVPrinter csvPrinter = new CSVPrinter(fileWriter, CSVFormat.DEFAULT)) {
+    /**
+     * Reads the calls placed or received by the subscribers of a chunk in the date range with one query,
+     * so each call of the range is read by the chunks of its two subscribers at most.
+     * A call between two subscribers of the chunk is kept for both.
+     *
+     * @return Calls ordered by call start, by MSISDN
+     */
+    private Map<Long, CallColumns> scanCalls(Collection<CDRGenerationRequest> requests,
+                                             LocalDateTime startDate, LocalDateTime endDate) {
+        Map<Long, CallColumns> calls = new HashMap<>(requests.size() * 2);
+        for (CDRGenerationRequest request : requests) {
+            calls.putIfAbsent(Long.parseLong(request.getMsisdn()), new CallColumns(16));
+        }
 
-            for (CDRecord record : records) {
-                csvPrinter.printRecord(
-                        record.getCallType().getIndex(),
-                        record.getCallingSubscriber().getMsisdn(),
-                        record.getReceivingSubscriber().getMsisdn(),
-                        dateTimeFormater.format(record.getCallStart()),
-                        dateTimeFormater.format(record.getCallEnd())
-                );
+        List<String> msisdns = requests.stream().map(CDRGenerationRequest::getMsisdn).toList();
+        try (Stream<CDRReportRow> rows = cdRecordRepository.streamReportRowsBySubscriberMsisdnsAndDateRange(
+                msisdns, startDate, endDate)) {
+            Iterator<CDRReportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CDRReportRow row = iterator.next();
+                long callingMsisdn = Long.parseLong(row.getCallingMsisdn());
+                long receivingMsisdn = Long.parseLong(row.getReceivingMsisdn());
+                CallColumns callingCalls = calls.get(callingMsisdn);
+                CallColumns receivingCalls = calls.get(receivingMsisdn);
+                if (callingCalls == null && receivingCalls == null) {
+                    continue;
+                }
+                byte callType = (byte) row.getCallType().ordinal();
+                long callStart = row.getCallStart().toEpochSecond(ZoneOffset.UTC);
+                int duration = (int) (row.getCallEnd().toEpochSecond(ZoneOffset.UTC) - callStart);
+                if (callingCalls != null) {
+                    callingCalls.add(callType, callingMsisdn, receivingMsisdn, callStart, duration);
+                }
+                if (receivingCalls != null) {
+                    receivingCalls.add(callType, callingMsisdn, receivingMsisdn, callStart, duration);
+                }
             }
+        }
+        return calls;
+    }
 
-            csvPrinter.flush();
-        } catch (IOException e) {
-            throw new ServiceException("Error writing CDR report to CSV", e);
+    /**
+     * Writes the report of one subscriber of a batch, from the scanned calls or from the in-memory call columns.
+     *
+     * @return Path of the report file, or null if the subscriber has no calls in the date range
+     */
+    private Path writeBatchReport(UUID requestId, CDRGenerationRequest request, ReportFormat format,
+                                  Map<Long, CallColumns> calls) throws IOException {
+        Path filePath = reportPath(requestId, request, format);
+        long started = System.nanoTime();
+        ReportWriteResult result;
+        try (ReportWriter writer = ReportWriter.open(format, Files.newOutputStream(filePath))) {
+            result = calls == null
+                    ? writeCDRReport(request, writer)
+                    : writeCDRReport(calls.get(Long.parseLong(request.getMsisdn())), writer);
+        }
+
+        boolean columnar = calls == null;
+        long queryNanos = columnar ? System.nanoTime() - started - result.writeNanos() : -1;
+        return finishReport(filePath, columnar ? "columns" : "database", format, queryNanos, result) ? filePath : null;
+    }
+
+    /**
+     * Deletes the report files of a failed batch; a file that cannot be deleted is left behind.
+     */
+    private static void deleteReports(Map<UUID, CDRGenerationRequest> requests, ReportFormat format) {
+        requests.forEach((requestId, request) -> {
+            try {
+                Files.deleteIfExists(reportPath(requestId, request, format));
+            } catch (IOException e) {
+                // left in the reports directory
+            }
+        });
+    }
+
+    private static Path reportPath(UUID requestId, CDRGenerationRequest request, ReportFormat format) {
+        return Paths.get(reportsDirectory, request.getMsisdn() + "_" + requestId + format.getExtension());
+    }
+
+    /**
+     * Records the metrics of a written report, and deletes its file if it has no rows.
+     *
+     * @param queryNanos Time spent reading the report's calls, or a negative value if it was read by a batch scan
+     * @return true if the report has rows
+     */
+    private boolean finishReport(Path filePath, String source, ReportFormat format, long queryNanos,
+                                 ReportWriteResult result) throws IOException {
+        String formatTag = format.name().toLowerCase(Locale.ROOT);
+        if (queryNanos >= 0) {
+            reportStageTimer("query", source, formatTag).record(queryNanos, TimeUnit.NANOSECONDS);
+        }
+        reportStageTimer("write", source, formatTag).record(result.writeNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("cdr.report.rows")
+                .description("Rows written per CDR report")
+                .baseUnit("rows")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(result.rowCount());
+
+        if (result.rowCount() == 0) {
+            Files.deleteIfExists(filePath);
+            return false;
         }
+
+        DistributionSummary.builder("cdr.report.file.size")
+                .description("Size of generated CDR report files")
+                .baseUnit("bytes")
+                .tags("source", source, "format", formatTag)
+                .register(meterRegistry)
+                .record(Files.size(filePath));
+        return true;
     }
 
+    /**
+     * Writes report rows to the file as they are read from the database,
+     * so memory use does not depend on the size of the report.
+     * Call times are written with second precision, as they are ingested.
+     *
+     * @return Number of rows written and the time spent encoding and writing them
+     */
+    private ReportWriteResult writeCDRReport(Stream<CDRReportRow> rows, ReportWriter writer) throws IOException {
+        long rowCount = 0;
+        long writeNanos = 0;
+        Iterator<CDRReportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            CDRReportRow row = iterator.next();
+            long writeStarted = System.nanoTime();
+            long callStart = row.getCallStart().toEpochSecond(ZoneOffset.UTC);
+            writer.write(
+                    (byte) row.getCallType().ordinal(),
+                    Long.parseLong(row.getCallingMsisdn()),
+                    Long.parseLong(row.getReceivingMsisdn()),
+                    callStart,
+                    (int) (row.getCallEnd().toEpochSecond(ZoneOffset.UTC) - callStart)
+            );
+            rowCount++;
+            writeNanos += System.nanoTime() - writeStarted;
+        }
+
+        long closeStarted = System.nanoTime();
+        writer.close();
+        return new ReportWriteResult(rowCount, writeNanos + System.nanoTime() - closeStarted);
+    }
+
+    /**
+     * Writes report rows from calls collected by a batch scan.
+     *
+     * @return Number of rows written and the time spent encoding and writing them
+     */
+    private ReportWriteResult writeCDRReport(CallColumns calls, ReportWriter writer) throws IOException {
+        long writeStarted = System.nanoTime();
+        for (int i = 0; i < calls.size(); i++) {
+            writer.write(calls.callType(i), calls.callingMsisdn(i), calls.receivingMsisdn(i),
+                    calls.callStart(i), calls.duration(i));
+        }
+        writer.close();
+        return new ReportWriteResult(calls.size(), System.nanoTime() - writeStarted);
+    }
+
+    /**
+     * Writes report rows from the in-memory call columns.
+     *
+     * @return Number of rows written and the time spent encoding and writing them
+     */
+    private ReportWriteResult writeCDRReport(CDRGenerationRequest request, ReportWriter writer) throws IOException {
+        long[] writeNanos = new long[1];
+        long rowCount;
+        try {
+            rowCount = callColumnService.forEachCallBySubscriber(request.getMsisdn(),
+                    request.getStartDate(), request.getEndDate(),
+                    (callType, callingMsisdn, receivingMsisdn, callStart, duration) -> {
+                        long writeStarted = System.nanoTime();
+                        try {
+                            writer.write(callType, callingMsisdn, receivingMsisdn, callStart, duration);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        writeNanos[0] += System.nanoTime() - writeStarted;
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long closeStarted = System.nanoTime();
+        writer.close();
+        return new ReportWriteResult(rowCount, writeNanos[0] + System.nanoTime() - closeStarted);
+    }
+
+    private Timer reportStageTimer(String stage, String source, String format) {
+        return Timer.builder("cdr.report.stage")
+                .description("Time spent per CDR report generation stage")
+                .tags("stage", stage, "source", source, "format", format)
+                .register(meterRegistry);
+    }
+
+    private record ReportWriteResult(long rowCount, long writeNanos) {}
+
     private void validateCDRRequest(CDRGenerationRequest request) {
         ValidationUtil.validateMsisdn(request.getMsisdn());
         ValidationUtil.validateDateRange(request.getStartDate(), request.getEndDate());
@@ -0,0 +1,163 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
+import org.example.nexignbootcamptask.dto.UDRResponse;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.event.UsageRollupRebuiltEvent;
+import org.example.nexignbootcamptask.service.UDRCacheService;
+import org.example.nexignbootcamptask.service.UDRService;
+import org.example.nexignbootcamptask.util.PeriodUtil;
+import org.example.nexignbootcamptask.util.ValidationUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Caches subscriber UDRs in front of {@link UDRServiceImpl}, keyed by MSISDN and resolved month.
+ * Entries of closed past months do not expire, entries of the current month and all-time UDRs
+ * expire after {@code cdr.udr.cache.ttl}. Entries are invalidated as soon as ingested CDRs
+ * change the usage of their subscriber month. Hit, miss and eviction counts are exported as {@code cache.*} meters.
+ */
+@Service
+@Primary
+public class CachingUDRServiceImpl implements UDRService, UDRCacheService {
+
+    private final UDRServiceImpl udrService;
+    private final boolean enabled;
+    private final Cache<UDRCacheKey, UDRResponse> cache;
+
+    @Autowired
+    public CachingUDRServiceImpl(UDRServiceImpl udrService,
+                                 @Value("${cdr.udr.cache.enabled:true}") boolean enabled,
+                                 @Value("${cdr.udr.cache.maximum-size:100000}") long maximumSize,
+                                 @Value("${cdr.udr.cache.ttl:PT5M}") Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this(udrService, enabled, maximumSize, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "udr");
+    }
+
+    CachingUDRServiceImpl(UDRServiceImpl udrService, boolean enabled, long maximumSize, Duration ttl,
+                          Ticker ticker, Executor executor) {
+        this.udrService = udrService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UDRExpiry(ttl.toNanos()))
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    public UDRResponse getUDRForSubscriber(String msisdn, Integer month, Integer year) {
+        if (!enabled) {
+            return udrService.getUDRForSubscriber(msisdn, month, year);
+        }
+
+        ValidationUtil.validateMsisdn(msisdn);
+        if (month == null) {
+            return cache.get(new UDRCacheKey(msisdn, null),
+                    key -> udrService.getUDRForSubscriber(msisdn, null, null));
+        }
+
+        ValidationUtil.validateMonth(month);
+        ValidationUtil.validateYear(year);
+        YearMonth period = PeriodUtil.resolveMonth(month, year);
+        return cache.get(new UDRCacheKey(msisdn, period),
+                key -> udrService.getUDRForSubscriber(msisdn, period.getMonthValue(), period.getYear()));
+    }
+
+    public List<UDRResponse> getAllUDRsForMonth(Integer month, Integer year) {
+        return udrService.getAllUDRsForMonth(month, year);
+    }
+
+    public UDRPageResponse getUDRsForMonthPage(Integer month, Integer year, String after, Integer limit) {
+        return udrService.getUDRsForMonthPage(month, year, after, limit);
+    }
+
+    public Stream<UDRResponse> streamAllUDRsForMonth(Integer month, Integer year) {
+        return udrService.streamAllUDRsForMonth(month, year);
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    /**
+     * Drops the month and all-time UDRs of every subscriber month changed by an ingest.
+     * Runs after the ingest commits, so a reload cannot see the data from before it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRecordsIngested(CDRecordsIngestedEvent event) {
+        for (SubscriberMonthlyUsageId id : event.getUsageIds()) {
+            cache.invalidate(new UDRCacheKey(id.getMsisdn(), YearMonth.of(id.getYear(), id.getMonth())));
+            cache.invalidate(new UDRCacheKey(id.getMsisdn(), null));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsageRollupRebuilt(UsageRollupRebuiltEvent event) {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Removing a month changes its UDRs and the subscribers' all-time UDRs; removals are rare enough
+     * not to track which cached UDRs cover the month.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRPartitionDropped(CDRPartitionDroppedEvent event) {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Keeps closed past months until evicted by size and expires everything else after the TTL.
+     */
+    private record UDRExpiry(long ttlNanos) implements Expiry<UDRCacheKey, UDRResponse> {
+        public long expireAfterCreate(UDRCacheKey key, UDRResponse value, long currentTime) {
+            return key.isClosedMonth() ? Long.MAX_VALUE : ttlNanos;
+        }
+
+        public long expireAfterUpdate(UDRCacheKey key, UDRResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        public long expireAfterRead(UDRCacheKey key, UDRResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * @param month The resolved month, or null for the all-time UDR
+     */
+    private record UDRCacheKey(String msisdn, YearMonth month) {
+        boolean isClosedMonth() {
+            return month != null && month.isBefore(YearMonth.now());
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import org.example.nexignbootcamptask.dto.CDRReportRow;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.service.CallColumnService;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.SubscriberCallTotals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps all call records in fixed-size {@link CallColumns} chunks. Ingested calls are appended
+ * once their transaction commits. Queries scan the chunks without allocating per call,
+ * concurrently with appends, and see every call appended before they started.
+ * Calls ingested while a reload reads the records are appended after it unless it read them already.
+ * Only a batch that committed before the reload read the records, but whose event arrives after the reload
+ * finished, is still appended twice.
+ */
+@Service
+public class CallColumnServiceImpl implements CallColumnService {
+
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private static final byte INCOMING = (byte) CallType.INCOMING.ordinal();
+    private static final byte OUTCOMING = (byte) CallType.OUTCOMING.ordinal();
+
+    private final CDRecordRepository cdRecordRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final Object reloadLock = new Object();
+
+    private volatile List<CallColumns> chunks = List.of();
+    private List<CDRecordsIngestedEvent> heldEvents;
+
+    @Autowired
+    public CallColumnServiceImpl(CDRecordRepository cdRecordRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${cdr.columnar.enabled:false}") boolean enabled) {
+        this.cdRecordRepository = cdRecordRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ingest events are held back while the records are read and appended to the reloaded chunks afterwards,
+     * except for those whose records were read. The loaded record ids are kept for that until then,
+     * at 8 bytes per call.
+     */
+    @PostConstruct
+    public long reload() {
+        if (!enabled) {
+            return 0;
+        }
+
+        synchronized (reloadLock) {
+            synchronized (this) {
+                heldEvents = new ArrayList<>();
+            }
+            List<CallColumns> reloaded = new ArrayList<>();
+            List<long[]> loadedIds = new ArrayList<>();
+            boolean loaded = false;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<CDRReportRow> rows = cdRecordRepository.streamAllReportRows()) {
+                        rows.forEach(row -> {
+                            CallColumns last = reloaded.isEmpty() ? null : reloaded.get(reloaded.size() - 1);
+                            if (last == null || last.size() == CHUNK_SIZE) {
+                                last = new CallColumns(CHUNK_SIZE);
+                                reloaded.add(last);
+                                loadedIds.add(new long[CHUNK_SIZE]);
+                            }
+                            loadedIds.get(loadedIds.size() - 1)[last.size()] = row.getId();
+                            last.add((byte) row.getCallType().ordinal(),
+                                    toKey(row.getCallingMsisdn()), toKey(row.getReceivingMsisdn()),
+                                    toEpochSecond(row.getCallStart()),
+                                    (int) ChronoUnit.SECONDS.between(row.getCallStart(), row.getCallEnd()));
+                        });
+                    }
+                });
+                loaded = true;
+            } finally {
+                synchronized (this) {
+                    List<CallColumns> current = loaded ? reloaded : chunks;
+                    for (CDRecordsIngestedEvent event : heldEvents) {
+                        if (!loaded || !contains(reloaded, loadedIds, event.getFirstRecordId())) {
+                            current = append(current, event.getCalls());
+                        }
+                    }
+                    chunks = List.copyOf(current);
+                    heldEvents = null;
+                }
+            }
+        }
+        return size();
+    }
+
+    /**
+     * Appends ingested calls after their transaction commits, or holds them back while a reload reads the records.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCDRecordsIngested(CDRecordsIngestedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (heldEvents != null) {
+            heldEvents.add(event);
+            return;
+        }
+        chunks = append(chunks, event.getCalls());
+    }
+
+    /**
+     * Fills the last chunk up to its capacity, so readers of that chunk never see its arrays replaced.
+     *
+     * @return The chunks with the calls appended
+     */
+    private static List<CallColumns> append(List<CallColumns> current, CallColumns calls) {
+        List<CallColumns> added = new ArrayList<>();
+        CallColumns last = current.isEmpty() ? null : current.get(current.size() - 1);
+
+        int from = 0;
+        while (from < calls.size()) {
+            if (last == null || last.size() == CHUNK_SIZE) {
+                last = new CallColumns(CHUNK_SIZE);
+                added.add(last);
+            }
+            int to = Math.min(calls.size(), from + CHUNK_SIZE - last.size());
+            last.addAll(calls, from, to);
+            from = to;
+        }
+
+        if (added.isEmpty()) {
+            return current;
+        }
+        List<CallColumns> grown = new ArrayList<>(current.size() + added.size());
+        grown.addAll(current);
+        grown.addAll(added);
+        return grown;
+    }
+
+    /**
+     * Records are loaded in id order, so the ids of each chunk are sorted and follow those of the previous one.
+     */
+    private static boolean contains(List<CallColumns> reloaded, List<long[]> loadedIds, long id) {
+        for (int c = 0; c < reloaded.size(); c++) {
+            int size = reloaded.get(c).size();
+            long[] ids = loadedIds.get(c);
+            if (size > 0 && ids[size - 1] >= id) {
+                return Arrays.binarySearch(ids, 0, size, id) >= 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chunks are append-only, so the calls left after a partition was removed are reloaded.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRPartitionDropped(CDRPartitionDroppedEvent event) {
+        reload();
+    }
+
+    public CallDurationTotals sumDurationsBySubscriber(String msisdn, LocalDateTime periodStart,
+                                                       LocalDateTime periodEnd) {
+        long key = toKey(msisdn);
+        long from = periodStart == null ? Long.MIN_VALUE : toEpochSecond(periodStart);
+        long to = periodEnd == null ? Long.MAX_VALUE : toEpochSecond(periodEnd);
+
+        long incomingSeconds = 0;
+        long outgoingSeconds = 0;
+        long callCount = 0;
+        for (CallColumns chunk : chunks) {
+            int size = chunk.size();
+            for (int i = 0; i < size; i++) {
+                long callStart = chunk.callStart(i);
+                if (callStart < from || callStart >= to) {
+                    continue;
+                }
+                byte callType = chunk.callType(i);
+                if (callType == INCOMING && chunk.receivingMsisdn(i) == key) {
+                    incomingSeconds += chunk.duration(i);
+                    callCount++;
+                } else if (callType == OUTCOMING && chunk.callingMsisdn(i) == key) {
+                    outgoingSeconds += chunk.duration(i);
+                    callCount++;
+                }
+            }
+        }
+        return new CallDurationTotals(incomingSeconds, outgoingSeconds, callCount);
+    }
+
+    public SubscriberCallTotals sumDurationsByAllSubscribers(LocalDateTime periodStart, LocalDateTime periodEnd) {
+        long from = toEpochSecond(periodStart);
+        long to = toEpochSecond(periodEnd);
+
+        SubscriberCallTotals totals = new SubscriberCallTotals(1024);
+        for (CallColumns chunk : chunks) {
+            int size = chunk.size();
+            for (int i = 0; i < size; i++) {
+                long callStart = chunk.callStart(i);
+                if (callStart < from || callStart >= to) {
+                    continue;
+                }
+                if (chunk.callType(i) == INCOMING) {
+                    totals.addIncoming(chunk.receivingMsisdn(i), chunk.duration(i));
+                } else {
+                    totals.addOutgoing(chunk.callingMsisdn(i), chunk.duration(i));
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Collects matching calls as (call start, match number) pairs packed into longs and sorts them,
+     * which orders the calls by start without boxing. Call starts must fit in 32 bits, i.e. before 2106.
+     * Calls with the same start keep their stored order.
+     */
+    public long forEachCallBySubscriber(String msisdn, LocalDateTime startDate, LocalDateTime endDate,
+                                        CallVisitor visitor) {
+        long key = toKey(msisdn);
+        long from = toEpochSecond(startDate) + (startDate.getNano() > 0 ? 1 : 0);
+        long to = toEpochSecond(endDate);
+
+        List<CallColumns> snapshot = chunks;
+        long[] matches = new long[64];
+        long[] positions = new long[64];
+        int count = 0;
+        for (int c = 0; c < snapshot.size(); c++) {
+            CallColumns chunk = snapshot.get(c);
+            int size = chunk.size();
+            for (int i = 0; i < size; i++) {
+                long callStart = chunk.callStart(i);
+                if (callStart < from || callStart > to
+                        || (chunk.callingMsisdn(i) != key && chunk.receivingMsisdn(i) != key)) {
+                    continue;
+                }
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count << 1);
+                    positions = Arrays.copyOf(positions, count << 1);
+                }
+                matches[count] = (callStart << 31) | count;
+                positions[count] = ((long) c << 32) | i;
+                count++;
+            }
+        }
+
+        Arrays.sort(matches, 0, count);
+        for (int m = 0; m < count; m++) {
+            long position = positions[(int) (matches[m] & Integer.MAX_VALUE)];
+            CallColumns chunk = snapshot.get((int) (position >>> 32));
+            int i = (int) position;
+            visitor.visit(chunk.callType(i), chunk.callingMsisdn(i), chunk.receivingMsisdn(i),
+                    chunk.callStart(i), chunk.duration(i));
+        }
+        return count;
+    }
+
+    long size() {
+        long size = 0;
+        for (CallColumns chunk : chunks) {
+            size += chunk.size();
+        }
+        return size;
+    }
+
+    /**
+     * Converts a call record for {@link CDRecordsIngestedEvent}.
+     */
+    static void addCall(CallColumns calls, CDRecord record) {
+        calls.add((byte) record.getCallType().ordinal(),
+                toKey(record.getCallingSubscriber().getMsisdn()),
+                toKey(record.getReceivingSubscriber().getMsisdn()),
+                toEpochSecond(record.getCallStart()),
+                (int) record.getDurationInSeconds());
+    }
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long toKey(String msisdn) {
+        return Long.parseLong(msisdn);
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.example.nexignbootcamptask.dto.LoadGenerationResponse;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.LoadGeneratorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class LoadGeneratorServiceImpl implements LoadGeneratorService {
+
+    /**
+     * Generated subscribers get consecutive MSISDNs starting from this number.
+     */
+    static final long FIRST_MSISDN = 79_100_000_000L;
+
+    static final int MAX_SUBSCRIBER_COUNT = 10_000_000;
+
+    private static final int SUBSCRIBER_LOOKUP_SIZE = 1_000;
+
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final CDRIngestService cdrIngestService;
+    private final SubscriberRepository subscriberRepository;
+    private final LoadGenerationRequest defaults;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public LoadGeneratorServiceImpl(CDRIngestService cdrIngestService,
+                                    SubscriberRepository subscriberRepository,
+                                    @Qualifier("loadGenerationDefaults") LoadGenerationRequest defaults) {
+        this.cdrIngestService = cdrIngestService;
+        this.subscriberRepository = subscriberRepository;
+        this.defaults = defaults;
+    }
+
+    public LoadGenerationResponse generateLoad(LoadGenerationRequest request) {
+        LoadGenerationRequest load = withDefaults(request);
+        validateLoad(load);
+
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Load generation is already running");
+        }
+        try {
+            long started = System.nanoTime();
+
+            long createdSubscribers = createSubscribers(load.getSubscriberCount());
+            int chunkCount = insertCalls(load);
+
+            long elapsedMillis = Math.max(1, Duration.ofNanos(System.nanoTime() - started).toMillis());
+            return LoadGenerationResponse.builder()
+                    .subscriberCount(load.getSubscriberCount())
+                    .createdSubscriberCount(createdSubscribers)
+                    .callCount(load.getCallCount())
+                    .chunkCount(chunkCount)
+                    .startDate(load.getStartDate())
+                    .endDate(load.getEndDate())
+                    .seed(load.getSeed())
+                    .elapsedMillis(elapsedMillis)
+                    .recordsPerSecond(load.getCallCount() * 1000 / elapsedMillis)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    static String msisdn(int index) {
+        return Long.toString(FIRST_MSISDN + index);
+    }
+
+    private LoadGenerationRequest withDefaults(LoadGenerationRequest request) {
+        LoadGenerationRequest load = request == null ? new LoadGenerationRequest() : request.toBuilder().build();
+
+        if (load.getSubscriberCount() == null) load.setSubscriberCount(defaults.getSubscriberCount());
+        if (load.getCallCount() == null) load.setCallCount(defaults.getCallCount());
+        if (load.getDurationDistribution() == null) load.setDurationDistribution(defaults.getDurationDistribution());
+        if (load.getMinDurationSeconds() == null) load.setMinDurationSeconds(defaults.getMinDurationSeconds());
+        if (load.getMaxDurationSeconds() == null) load.setMaxDurationSeconds(defaults.getMaxDurationSeconds());
+        if (load.getMeanDurationSeconds() == null) load.setMeanDurationSeconds(defaults.getMeanDurationSeconds());
+        if (load.getParallelism() == null) load.setParallelism(defaults.getParallelism());
+        if (load.getChunkSize() == null) load.setChunkSize(defaults.getChunkSize());
+        if (load.getSeed() == null) {
+            load.setSeed(defaults.getSeed() != null ? defaults.getSeed() : ThreadLocalRandom.current().nextLong());
+        }
+        if (load.getEndDate() == null) {
+            load.setEndDate(defaults.getEndDate() != null ? defaults.getEndDate() : LocalDateTime.now().withNano(0));
+        }
+        if (load.getStartDate() == null) {
+            load.setStartDate(defaults.getStartDate() != null ? defaults.getStartDate() : load.getEndDate().minusYears(1));
+        }
+        return load;
+    }
+
+    private void validateLoad(LoadGenerationRequest load) {
+        if (load.getSubscriberCount() < 2 || load.getSubscriberCount() > MAX_SUBSCRIBER_COUNT) {
+            throw new IllegalArgumentException("Subscriber count must be between 2 and " + MAX_SUBSCRIBER_COUNT);
+        }
+        if (load.getCallCount() < 0) {
+            throw new IllegalArgumentException("Call count cannot be negative");
+        }
+        if (load.getMinDurationSeconds() < 0 || load.getMinDurationSeconds() > load.getMaxDurationSeconds()) {
+            throw new IllegalArgumentException("Duration bounds must satisfy 0 <= min <= max");
+        }
+        if (load.getMeanDurationSeconds() < load.getMinDurationSeconds()
+                || load.getMeanDurationSeconds() > load.getMaxDurationSeconds()) {
+            throw new IllegalArgumentException("Mean duration must be between min and max duration");
+        }
+        if (!load.getStartDate().isBefore(load.getEndDate())) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        if (load.getParallelism() < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (load.getChunkSize() < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+    }
+
+    /**
+     * Inserts the generated subscribers that do not exist yet.
+     *
+     * @return Number of created subscribers
+     */
+    private long createSubscribers(int subscriberCount) {
+        long created = 0;
+        for (int from = 0; from < subscriberCount; from += SUBSCRIBER_LOOKUP_SIZE) {
+            int to = Math.min(subscriberCount, from + SUBSCRIBER_LOOKUP_SIZE);
+
+            List<String> msisdns = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                msisdns.add(msisdn(i));
+            }
+
+            Set<String> existing = new HashSet<>();
+            subscriberRepository.findAllById(msisdns).forEach(subscriber -> existing.add(subscriber.getMsisdn()));
+
+            List<Subscriber> missing = new ArrayList<>(msisdns.size() - existing.size());
+            for (String msisdn : msisdns) {
+                if (!existing.contains(msisdn)) {
+                    missing.add(Subscriber.builder().msisdn(msisdn).build());
+                }
+            }
+            if (!missing.isEmpty()) {
+                created += subscriberRepository.bulkInsert(missing);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Splits the time window into equal slices with one chunk of calls each. Chunks are generated
+     * by a pool of workers, while the calling thread inserts them strictly in slice order.
+     * At most twice as many chunks as there are workers are held in memory.
+     *
+     * @return Number of inserted chunks
+     */
+    private int insertCalls(LoadGenerationRequest load) {
+        int chunkCount = (int) Math.min(Integer.MAX_VALUE,
+                (load.getCallCount() + load.getChunkSize() - 1) / load.getChunkSize());
+        if (chunkCount == 0) {
+            return 0;
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(load.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "cdr-load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<List<CDRecord>>> pending = new ArrayDeque<>();
+            int maxPending = load.getParallelism() * 2;
+            int nextChunk = 0;
+
+            for (int inserted = 0; inserted < chunkCount; inserted++) {
+                while (nextChunk < chunkCount && pending.size() < maxPending) {
+                    int chunk = nextChunk++;
+                    pending.add(workers.submit(() -> generateChunk(load, chunk, chunkCount)));
+                }
+                cdrIngestService.ingestCDRecords(pending.poll().get());
+            }
+            return chunkCount;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Load generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ServiceException("Failed to generate load: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the calls of one time slice, sorted by call start.
+     * Each chunk has its own random stream derived from the seed, so runs are reproducible
+     * regardless of how chunks are scheduled across workers.
+     */
+    List<CDRecord> generateChunk(LoadGenerationRequest load, int chunk, int chunkCount) {
+        long callCount = load.getCallCount();
+        int size = (int) (callCount / chunkCount + (chunk < callCount % chunkCount ? 1 : 0));
+
+        long windowStart = load.getStartDate().toEpochSecond(ZoneOffset.UTC);
+        long windowSeconds = load.getEndDate().toEpochSecond(ZoneOffset.UTC) - windowStart;
+        long sliceStart = windowStart + windowSeconds * chunk / chunkCount;
+        long sliceEnd = windowStart + windowSeconds * (chunk + 1) / chunkCount;
+
+        SplittableRandom random = new SplittableRandom(load.getSeed() + SEED_GAMMA * (chunk + 1));
+        int subscriberCount = load.getSubscriberCount();
+
+        long[] starts = new long[size];
+        for (int i = 0; i < size; i++) {
+            starts[i] = sliceEnd > sliceStart ? random.nextLong(sliceStart, sliceEnd) : sliceStart;
+        }
+        Arrays.sort(starts);
+
+        List<CDRecord> records = new ArrayList<>(size);
+        for (long start : starts) {
+            int caller = random.nextInt(subscriberCount);
+            int receiver = (caller + 1 + random.nextInt(subscriberCount - 1)) % subscriberCount;
+            LocalDateTime callStart = LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+
+            records.add(CDRecord.builder()
+                    .callType(random.nextBoolean() ? CallType.OUTCOMING : CallType.INCOMING)
+                    .callingSubscriber(Subscriber.builder().msisdn(msisdn(caller)).build())
+                    .receivingSubscriber(Subscriber.builder().msisdn(msisdn(receiver)).build())
+                    .callStart(callStart)
+                    .callEnd(callStart.plusSeconds(nextDuration(load, random)))
+                    .build());
+        }
+        return records;
+    }
+
+    private long nextDuration(LoadGenerationRequest load, SplittableRandom random) {
+        int min = load.getMinDurationSeconds();
+        int max = load.getMaxDurationSeconds();
+        double mean = load.getMeanDurationSeconds();
+
+        double duration = switch (load.getDurationDistribution()) {
+            case UNIFORM -> random.nextInt(min, max + 1);
+            case EXPONENTIAL -> -mean * Math.log(1 - random.nextDouble());
+            // sigma = 1, mu chosen so that the distribution mean equals the configured mean
+            case LOG_NORMAL -> Math.exp(Math.log(Math.max(mean, 1)) - 0.5 + random.nextGaussian());
+        };
+        return Math.max(min, Math.min(max, Math.round(duration)));
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.service.ReportCacheService;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.PeriodUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Report files are content-addressed: a generated report is renamed to the SHA-256 of its content, so identical
+ * reports share one file. An index maps each request to its report file and is invalidated as soon as ingested
+ * or removed CDRs fall into the request's date range. Files outlive their index entries until they are evicted,
+ * least recently used first, by the disk quota {@code cdr.report.cache.max-disk-size} or after
+ * {@code cdr.report.cache.ttl} without use, so a report handed out before an invalidation stays downloadable.
+ * The newest file is never evicted by the quota, so a report is not deleted before its requester downloads it.
+ * Hit, miss and eviction counts of the index are exported as {@code cache.*} meters.
+ */
+@Service
+public class ReportCacheServiceImpl implements ReportCacheService {
+
+    private final boolean enabled;
+    private final long maxDiskBytes;
+    private final long ttlNanos;
+    private final Ticker ticker;
+    private final Cache<ReportKey, String> index;
+    private final Map<ReportKey, CompletableFuture<Path>> generations = new ConcurrentHashMap<>();
+
+    // report files by name in access order, guarded by itself
+    private final LinkedHashMap<String, StoredReport> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+
+    @Autowired
+    public ReportCacheServiceImpl(@Value("${cdr.report.cache.enabled:true}") boolean enabled,
+                                  @Value("${cdr.report.cache.maximum-size:10000}") long maximumSize,
+                                  @Value("${cdr.report.cache.max-disk-size:1GB}") DataSize maxDiskSize,
+                                  @Value("${cdr.report.cache.ttl:PT24H}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this(enabled, maximumSize, maxDiskSize, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+        CaffeineCacheMetrics.monitor(meterRegistry, index, "report");
+        Gauge.builder("cdr.report.cache.disk.usage", this, ReportCacheServiceImpl::getDiskBytes)
+                .description("Size of the report files kept by the report cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    ReportCacheServiceImpl(boolean enabled, long maximumSize, DataSize maxDiskSize, Duration ttl,
+                           Ticker ticker, Executor executor) {
+        this.enabled = enabled;
+        this.maxDiskBytes = maxDiskSize.toBytes();
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Path> getReport(CDRGenerationRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        ReportKey key = ReportKey.of(request);
+        String name = index.getIfPresent(key);
+        if (name == null) {
+            return Optional.empty();
+        }
+        Path file = touchFile(name);
+        if (file == null) {
+            index.invalidate(key);
+        }
+        return Optional.ofNullable(file);
+    }
+
+    public CompletableFuture<Path> joinGeneration(CDRGenerationRequest request, CompletableFuture<Path> generation) {
+        if (!enabled) {
+            return generation;
+        }
+        CompletableFuture<Path> current = generations.putIfAbsent(ReportKey.of(request), generation);
+        return current != null ? current : generation;
+    }
+
+    /**
+     * The generation is indexed only while it is still registered: CDR changes in its range unregister it,
+     * atomically with respect to this check.
+     */
+    public void completeGeneration(CDRGenerationRequest request, CompletableFuture<Path> generation, Path file) {
+        Path stored;
+        try {
+            stored = store(file);
+        } catch (IOException e) {
+            failGeneration(request, generation, new ServiceException("Failed to store CDR report: " + e.getMessage(), e));
+            return;
+        }
+        if (enabled) {
+            generations.computeIfPresent(ReportKey.of(request), (key, current) -> {
+                if (current != generation) {
+                    return current;
+                }
+                index.put(key, stored.getFileName().toString());
+                return null;
+            });
+        }
+        generation.complete(stored);
+    }
+
+    public void failGeneration(CDRGenerationRequest request, CompletableFuture<Path> generation, Throwable error) {
+        if (enabled) {
+            generations.remove(ReportKey.of(request), generation);
+        }
+        generation.completeExceptionally(error);
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        CacheStats stats = index.stats();
+        return CacheStatsResponse.builder()
+                .size(index.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    /**
+     * Deletes report files unused for longer than the TTL, also when no report is requested or generated.
+     */
+    @Scheduled(fixedDelayString = "${cdr.report.cache.cleanup-interval:PT5M}")
+    public void evictExpiredReports() {
+        List<Path> evicted = new ArrayList<>();
+        synchronized (files) {
+            evict(evicted);
+        }
+        evicted.forEach(ReportCacheServiceImpl::deleteFile);
+    }
+
+    long getDiskBytes() {
+        synchronized (files) {
+            return diskBytes;
+        }
+    }
+
+    /**
+     * Drops the reports of every subscriber with ingested calls whose date range overlaps those calls.
+     * Runs after the ingest commits, so a generation started afterwards sees the new calls.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRecordsIngested(CDRecordsIngestedEvent event) {
+        if (index.estimatedSize() == 0 && generations.isEmpty()) {
+            return;
+        }
+        // call start range per subscriber, as [min, max]
+        Map<Long, long[]> ranges = new HashMap<>();
+        CallColumns calls = event.getCalls();
+        for (int i = 0; i < calls.size(); i++) {
+            extend(ranges, calls.callingMsisdn(i), calls.callStart(i));
+            extend(ranges, calls.receivingMsisdn(i), calls.callStart(i));
+        }
+        invalidate(key -> {
+            long[] range = ranges.get(key.msisdn());
+            return range != null && key.overlaps(range[0], range[1]);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRPartitionDropped(CDRPartitionDroppedEvent event) {
+        long from = toEpochSecond(PeriodUtil.startOf(event.getMonth()));
+        long to = toEpochSecond(PeriodUtil.endOf(event.getMonth())) - 1;
+        invalidate(key -> key.overlaps(from, to));
+    }
+
+    /**
+     * Unregisters matching generations before dropping matching index entries, so a generation
+     * completing in between cannot index a report from before the change.
+     */
+    private void invalidate(Predicate<ReportKey> changed) {
+        generations.keySet().removeIf(changed);
+        index.asMap().keySet().removeIf(changed);
+    }
+
+    /**
+     * Moves the file to the name of its content hash, or deletes it if a file with that content is already stored.
+     *
+     * @return The stored file
+     */
+    private Path store(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        String name = sha256(file) + ReportFormat.ofFileName(fileName).getExtension();
+        Path target = file.resolveSibling(name);
+        long size = Files.size(file);
+
+        List<Path> evicted = new ArrayList<>();
+        try {
+            synchronized (files) {
+                StoredReport existing = files.get(name);
+                if (existing != null && Files.exists(existing.file)) {
+                    Files.delete(file);
+                    existing.lastAccess = ticker.read();
+                    return existing.file;
+                }
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                StoredReport replaced = files.put(name, new StoredReport(target, size, ticker.read()));
+                diskBytes += size - (replaced != null ? replaced.size : 0);
+                evict(evicted);
+                return target;
+            }
+        } finally {
+            evicted.forEach(ReportCacheServiceImpl::deleteFile);
+        }
+    }
+
+    /**
+     * @return The stored file, or null if it has been evicted
+     */
+    private Path touchFile(String name) {
+        List<Path> evicted = new ArrayList<>();
+        try {
+            synchronized (files) {
+                evict(evicted);
+                StoredReport report = files.get(name);
+                if (report == null) {
+                    return null;
+                }
+                report.lastAccess = ticker.read();
+                return report.file;
+            }
+        } finally {
+            evicted.forEach(ReportCacheServiceImpl::deleteFile);
+        }
+    }
+
+    /**
+     * Removes files unused for longer than the TTL, then the least recently used files above the quota,
+     * except the most recently used one. Must hold the lock of {@code files}; the caller deletes the evicted files.
+     */
+    private void evict(List<Path> evicted) {
+        long now = ticker.read();
+        Iterator<StoredReport> leastRecentlyUsed = files.values().iterator();
+        while (leastRecentlyUsed.hasNext()) {
+            StoredReport report = leastRecentlyUsed.next();
+            boolean expired = now - report.lastAccess > ttlNanos;
+            if (!expired && (diskBytes <= maxDiskBytes || files.size() == 1)) {
+                return;
+            }
+            leastRecentlyUsed.remove();
+            diskBytes -= report.size;
+            evicted.add(report.file);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[65_536];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void extend(Map<Long, long[]> ranges, long msisdn, long callStart) {
+        long[] range = ranges.computeIfAbsent(msisdn, key -> new long[]{callStart, callStart});
+        range[0] = Math.min(range[0], callStart);
+        range[1] = Math.max(range[1], callStart);
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // left in the reports directory, no longer counted against the quota
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static class StoredReport {
+        private final Path file;
+        private final long size;
+        private long lastAccess;
+
+        private StoredReport(Path file, long size, long lastAccess) {
+            this.file = file;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A report request, with the date range as the epoch seconds of the first and last call start it includes.
+     */
+    private record ReportKey(long msisdn, long from, long to, ReportFormat format) {
+        static ReportKey of(CDRGenerationRequest request) {
+            LocalDateTime startDate = request.getStartDate();
+            return new ReportKey(Long.parseLong(request.getMsisdn()),
+                    toEpochSecond(startDate) + (startDate.getNano() > 0 ? 1 : 0),
+                    toEpochSecond(request.getEndDate()),
+                    Objects.requireNonNullElse(request.getFormat(), ReportFormat.CSV));
+        }
+
+        boolean overlaps(long firstCallStart, long lastCallStart) {
+            return firstCallStart <= to && lastCallStart >= from;
+        }
+    }
+}
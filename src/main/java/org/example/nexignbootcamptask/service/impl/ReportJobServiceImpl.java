@@ -0,0 +1,314 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRBatchReportEntry;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse.Status;
+import org.example.nexignbootcamptask.exception.ReportNotReadyException;
+import org.example.nexignbootcamptask.exception.ReportQueueFullException;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.service.ReportCacheService;
+import org.example.nexignbootcamptask.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private final CDRService cdrService;
+    private final ReportCacheService reportCacheService;
+    private final Executor reportExecutor;
+    private final Duration jobRetention;
+    private final int maxBatchSize;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, ReportBatch> batches = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<Path>> runningGenerations = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ReportJobServiceImpl(CDRService cdrService,
+                                ReportCacheService reportCacheService,
+                                @Qualifier("reportExecutor") Executor reportExecutor,
+                                @Value("${cdr.report.job-retention:PT1H}") Duration jobRetention,
+                                @Value("${cdr.report.batch.max-size:10000}") int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Report batch size must be positive");
+        }
+        this.cdrService = cdrService;
+        this.reportCacheService = reportCacheService;
+        this.reportExecutor = reportExecutor;
+        this.jobRetention = jobRetention;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CDRGenerationResponse submitCDRReport(CDRGenerationRequest request) {
+        cdrService.validateCDRReportRequest(request);
+
+        UUID requestId = UUID.randomUUID();
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        ReportJob job = createJob(request, created);
+        if (job.generation == created) {
+            try {
+                reportExecutor.execute(() -> runGeneration(requestId, request, created));
+            } catch (RejectedExecutionException e) {
+                reportCacheService.failGeneration(request, created, e);
+                throw new ReportQueueFullException("Report queue is full, try again later", e);
+            }
+        }
+        jobs.put(requestId, job);
+
+        return CDRGenerationResponse.builder()
+                .requestId(requestId)
+                .build();
+    }
+
+    /**
+     * All subscribers are validated before any job is created, so an invalid batch queues nothing.
+     * The reports that are neither cached nor generated already are generated together by a single task.
+     */
+    public CDRBatchGenerationResponse submitCDRBatchReport(CDRBatchGenerationRequest request) {
+        if (request.getMsisdns() == null || request.getMsisdns().isEmpty()) {
+            throw new IllegalArgumentException("At least one MSISDN is required");
+        }
+        Set<String> msisdns = new LinkedHashSet<>(request.getMsisdns());
+        if (msisdns.size() > maxBatchSize) {
+            throw new IllegalArgumentException(String.format("A batch can contain at most %d MSISDNs", maxBatchSize));
+        }
+        Map<String, CDRGenerationRequest> requests = new LinkedHashMap<>();
+        for (String msisdn : msisdns) {
+            CDRGenerationRequest report = new CDRGenerationRequest(
+                    msisdn, request.getStartDate(), request.getEndDate(), request.getFormat());
+            cdrService.validateCDRReportRequest(report);
+            requests.put(msisdn, report);
+        }
+
+        Map<String, UUID> requestIds = new LinkedHashMap<>();
+        Map<UUID, ReportJob> batchJobs = new HashMap<>();
+        Map<UUID, CDRGenerationRequest> generationRequests = new LinkedHashMap<>();
+        Map<UUID, CompletableFuture<Path>> generations = new HashMap<>();
+        requests.forEach((msisdn, report) -> {
+            UUID requestId = UUID.randomUUID();
+            CompletableFuture<Path> created = new CompletableFuture<>();
+            ReportJob job = createJob(report, created);
+            if (job.generation == created) {
+                generationRequests.put(requestId, report);
+                generations.put(requestId, created);
+            }
+            requestIds.put(msisdn, requestId);
+            batchJobs.put(requestId, job);
+        });
+
+        if (!generationRequests.isEmpty()) {
+            try {
+                reportExecutor.execute(() -> runBatchGeneration(generationRequests, generations));
+            } catch (RejectedExecutionException e) {
+                generationRequests.forEach((requestId, report) ->
+                        reportCacheService.failGeneration(report, generations.get(requestId), e));
+                throw new ReportQueueFullException("Report queue is full, try again later", e);
+            }
+        }
+        jobs.putAll(batchJobs);
+
+        UUID batchId = UUID.randomUUID();
+        ReportBatch batch = new ReportBatch(request.getStartDate(), request.getEndDate(),
+                Objects.requireNonNullElse(request.getFormat(), ReportFormat.CSV), requestIds);
+        batches.put(batchId, batch);
+        return toResponse(batchId, batch);
+    }
+
+    public CDRBatchGenerationResponse getBatchReport(UUID batchId) {
+        ReportBatch batch = batches.get(batchId);
+        if (batch == null) {
+            throw new ResourceNotFoundException("Report batch", "batchId", String.valueOf(batchId));
+        }
+        return toResponse(batchId, batch);
+    }
+
+    public ReportStatusResponse getReportStatus(UUID requestId) {
+        ReportJob job = getJob(requestId);
+
+        return ReportStatusResponse.builder()
+                .requestId(requestId)
+                .status(statusOf(job))
+                .submittedAt(job.submittedAt)
+                .finishedAt(job.finishedAt)
+                .error(job.error)
+                .build();
+    }
+
+    public Path getReportFile(UUID requestId) {
+        ReportJob job = getJob(requestId);
+
+        if (job.status != Status.DONE) {
+            throw new ReportNotReadyException(
+                    String.format("Report %s is not available, status: %s", requestId, job.status));
+        }
+
+        if (!Files.exists(job.filePath)) {
+            throw new ResourceNotFoundException(
+                    String.format("Report %s has been evicted from the report cache, generate it again", requestId));
+        }
+
+        return job.filePath;
+    }
+
+    /**
+     * Forgets finished jobs once the retention period has passed, and batches once all their jobs are forgotten.
+     * Report files are left to the report cache; only the status bookkeeping is released.
+     */
+    @Scheduled(fixedDelayString = "${cdr.report.job-cleanup-interval:PT5M}")
+    public void removeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+        batches.values().removeIf(batch -> batch.requestIds().values().stream().noneMatch(jobs::containsKey));
+    }
+
+    /**
+     * A cached report completes the job right away; otherwise the job waits for the generation of an identical
+     * request in progress, or for {@code created}, which the caller then has to run.
+     */
+    private ReportJob createJob(CDRGenerationRequest request, CompletableFuture<Path> created) {
+        ReportJob job = new ReportJob();
+        Optional<Path> cached = reportCacheService.getReport(request);
+        if (cached.isPresent()) {
+            job.finish(cached.get(), null);
+        } else {
+            job.generation = reportCacheService.joinGeneration(request, created);
+            job.generation.whenComplete(job::finish);
+        }
+        return job;
+    }
+
+    private void runGeneration(UUID requestId, CDRGenerationRequest request, CompletableFuture<Path> generation) {
+        runningGenerations.add(generation);
+        try {
+            Path file = cdrService.generateCDRReport(requestId, request);
+            reportCacheService.completeGeneration(request, generation, file);
+        } catch (Exception e) {
+            reportCacheService.failGeneration(request, generation, e);
+        } finally {
+            runningGenerations.remove(generation);
+        }
+    }
+
+    /**
+     * Subscribers without calls in the date range fail like single reports do; a failure of the batch as a whole
+     * fails every report in it.
+     */
+    private void runBatchGeneration(Map<UUID, CDRGenerationRequest> requests,
+                                    Map<UUID, CompletableFuture<Path>> generations) {
+        runningGenerations.addAll(generations.values());
+        try {
+            Map<UUID, Path> files = cdrService.generateCDRReports(requests);
+            requests.forEach((requestId, request) -> {
+                Path file = files.get(requestId);
+                if (file != null) {
+                    reportCacheService.completeGeneration(request, generations.get(requestId), file);
+                } else {
+                    reportCacheService.failGeneration(request, generations.get(requestId),
+                            new ResourceNotFoundException(String.format(
+                                    "CDR records for subscriber %s in date range %s - %s",
+                                    request.getMsisdn(), request.getStartDate(), request.getEndDate())));
+                }
+            });
+        } catch (Exception e) {
+            requests.forEach((requestId, request) ->
+                    reportCacheService.failGeneration(request, generations.get(requestId), e));
+        } finally {
+            generations.values().forEach(runningGenerations::remove);
+        }
+    }
+
+    /**
+     * Lists the batch's report requests that have not expired, with their current state.
+     */
+    private CDRBatchGenerationResponse toResponse(UUID batchId, ReportBatch batch) {
+        List<CDRBatchReportEntry> reports = new ArrayList<>(batch.requestIds().size());
+        batch.requestIds().forEach((msisdn, requestId) -> {
+            ReportJob job = jobs.get(requestId);
+            if (job != null) {
+                reports.add(CDRBatchReportEntry.builder()
+                        .msisdn(msisdn)
+                        .requestId(requestId)
+                        .status(statusOf(job))
+                        .build());
+            }
+        });
+
+        return CDRBatchGenerationResponse.builder()
+                .batchId(batchId)
+                .startDate(batch.startDate())
+                .endDate(batch.endDate())
+                .format(batch.format())
+                .reports(reports)
+                .build();
+    }
+
+    private Status statusOf(ReportJob job) {
+        return job.status == Status.QUEUED && runningGenerations.contains(job.generation)
+                ? Status.RUNNING
+                : job.status;
+    }
+
+    private ReportJob getJob(UUID requestId) {
+        ReportJob job = jobs.get(requestId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Report", "requestId", String.valueOf(requestId));
+        }
+        return job;
+    }
+
+    /**
+     * @param requestIds Report request of each subscriber, in the order the MSISDNs were submitted
+     */
+    private record ReportBatch(LocalDateTime startDate, LocalDateTime endDate, ReportFormat format,
+                               Map<String, UUID> requestIds) {}
+
+    private static class ReportJob {
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile Path filePath;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        private volatile CompletableFuture<Path> generation;
+
+        private void finish(Path file, Throwable error) {
+            if (error == null) {
+                filePath = file;
+                finishedAt = LocalDateTime.now();
+                status = Status.DONE;
+            } else {
+                this.error = error.getMessage();
+                finishedAt = LocalDateTime.now();
+                status = Status.FAILED;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import org.example.nexignbootcamptask.event.SubscribersCreatedEvent;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.util.BloomFilter;
+import org.example.nexignbootcamptask.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps every subscriber MSISDN in memory as a primitive long.
+ * A lock-free Bloom filter rejects most unknown MSISDNs, the remaining lookups are answered
+ * exactly from a {@link LongHashSet}. New subscribers are added once their insert commits.
+ */
+@Service
+public class SubscriberDirectoryServiceImpl implements SubscriberDirectoryService {
+
+    private final SubscriberRepository subscriberRepository;
+    private final long expectedSubscribers;
+    private final double falsePositiveRate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile BloomFilter bloomFilter;
+    private LongHashSet msisdns;
+
+    @Autowired
+    public SubscriberDirectoryServiceImpl(SubscriberRepository subscriberRepository,
+                                          @Value("${cdr.subscriber.directory.expected-subscribers:1000000}") long expectedSubscribers,
+                                          @Value("${cdr.subscriber.directory.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedSubscribers < 1) {
+            throw new IllegalArgumentException("Expected subscriber count must be positive");
+        }
+        this.subscriberRepository = subscriberRepository;
+        this.expectedSubscribers = expectedSubscribers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    public int reload() {
+        List<String> stored = subscriberRepository.findAllMsisdns();
+
+        LongHashSet loaded = new LongHashSet(stored.size());
+        for (String msisdn : stored) {
+            loaded.add(toKey(msisdn));
+        }
+        BloomFilter filter = BloomFilter.create(Math.max(expectedSubscribers, 2L * loaded.size()), falsePositiveRate);
+        for (String msisdn : stored) {
+            filter.put(toKey(msisdn));
+        }
+
+        lock.writeLock().lock();
+        try {
+            msisdns = loaded;
+            bloomFilter = filter;
+            return loaded.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean exists(String msisdn) {
+        return exists(toKey(msisdn));
+    }
+
+    public boolean exists(long msisdn) {
+        if (!bloomFilter.mightContain(msisdn)) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            return msisdns.contains(msisdn);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registers inserted subscribers after their transaction commits, so a rolled back insert
+     * is never reported as existing. Outgrowing the Bloom filter rebuilds it at twice the size.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscribersCreated(SubscribersCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (String msisdn : event.getMsisdns()) {
+                long key = toKey(msisdn);
+                if (msisdns.add(key)) {
+                    bloomFilter.put(key);
+                }
+            }
+            if (msisdns.size() > bloomFilter.getExpectedInsertions()) {
+                rebuildBloomFilter(2L * msisdns.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildBloomFilter(long expectedInsertions) {
+        BloomFilter filter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        msisdns.forEach(filter::put);
+        bloomFilter = filter;
+    }
+
+    /**
+     * MSISDNs are 11 digits starting with 7, see {@code ValidationUtil.validateMsisdn}.
+     */
+    private static long toKey(String msisdn) {
+        return Long.parseLong(msisdn);
+    }
+}
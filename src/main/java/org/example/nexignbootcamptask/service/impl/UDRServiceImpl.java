@@ -1,87 +1,388 @@
 package org.example.nexignbootcamptask.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.nexignbootcamptask.dto.CallDurationSummary;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.MsisdnRange;
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
 import org.example.nexignbootcamptask.dto.UDRResponse;
-import org.example.nexignbootcamptask.entity.CDRecord;
-import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.enums.CallType;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
 import org.example.nexignbootcamptask.repository.SubscriberRepository;
-import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.service.CallColumnService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
 import org.example.nexignbootcamptask.service.UDRService;
+import org.example.nexignbootcamptask.service.UsageTotalsService;
+import org.example.nexignbootcamptask.util.DurationUtil;
+import org.example.nexignbootcamptask.util.PeriodUtil;
+import org.example.nexignbootcamptask.util.SubscriberCallTotals;
 import org.example.nexignbootcamptask.util.ValidationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class UDRServiceImpl implements UDRService {
-    private final CDRService cdrService;
     private final SubscriberRepository subscriberRepository;
+    private final CDRecordRepository cdRecordRepository;
+    private final SubscriberMonthlyUsageRepository usageRepository;
+    private final SubscriberDirectoryService subscriberDirectoryService;
+    private final CallColumnService callColumnService;
+    private final UsageTotalsService usageTotalsService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final Executor udrExecutor;
+    private final boolean rollupEnabled;
+    private final boolean parallelEnabled;
+    private final int chunkSize;
 
     @Autowired
-    public UDRServiceImpl(CDRService cdrService,
-                          SubscriberRepository subscriberRepository) {
-        this.cdrService = cdrService;
+    public UDRServiceImpl(SubscriberRepository subscriberRepository,
+                          CDRecordRepository cdRecordRepository,
+                          SubscriberMonthlyUsageRepository usageRepository,
+                          SubscriberDirectoryService subscriberDirectoryService,
+                          CallColumnService callColumnService,
+                          UsageTotalsService usageTotalsService,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("udrExecutor") Executor udrExecutor,
+                          @Value("${cdr.udr.rollup.enabled:true}") boolean rollupEnabled,
+                          @Value("${cdr.udr.parallel.enabled:true}") boolean parallelEnabled,
+                          @Value("${cdr.udr.parallel.chunk-size:10000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("UDR chunk size must be positive");
+        }
         this.subscriberRepository = subscriberRepository;
+        this.cdRecordRepository = cdRecordRepository;
+        this.usageRepository = usageRepository;
+        this.subscriberDirectoryService = subscriberDirectoryService;
+        this.callColumnService = callColumnService;
+        this.usageTotalsService = usageTotalsService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.udrExecutor = udrExecutor;
+        this.rollupEnabled = rollupEnabled;
+        this.parallelEnabled = parallelEnabled;
+        this.chunkSize = chunkSize;
     }
 
-    public UDRResponse getUDRForSubscriber(String msisdn, Integer month) {
+    public UDRResponse getUDRForSubscriber(String msisdn, Integer month, Integer year) {
         ValidationUtil.validateMsisdn(msisdn);
         if (month != null) {
             ValidationUtil.validateMonth(month);
+            ValidationUtil.validateYear(year);
         }
 
-        if (!subscriberRepository.existsById(msisdn)) {
+        if (!subscriberDirectoryService.exists(msisdn)) {
             throw new ResourceNotFoundException("Subscriber", "msisdn", msisdn);
         }
 
-        List<CDRecord> incomingCalls = cdrService.getIncomingCallsBySubscriber(msisdn, month);
-        List<CDRecord> outgoingCalls = cdrService.getOutgoingCallsBySubscriber(msisdn, month);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CallDurationTotals totals = computeTotals(msisdn, month, year);
+        sample.stop(computationTimer("subscriber", usageTotalsService.isEnabled() ? "live"
+                : rollupEnabled ? "rollup" : callColumnService.isEnabled() ? "columns" : "database"));
 
-        if (incomingCalls.isEmpty() && outgoingCalls.isEmpty()) {
+        if (totals == null || totals.getCallCount() == 0) {
             throw new ResourceNotFoundException("CDR records", "subscriber", msisdn);
         }
 
-        long incomingSeconds = calculateTotalCallTime(incomingCalls);
-        String incomingFormatted = formatDuration(incomingSeconds);
+        return buildUDRResponse(msisdn, totals.getIncomingSeconds(), totals.getOutgoingSeconds());
+    }
 
-        long outgoingSeconds = calculateTotalCallTime(outgoingCalls);
-        String outgoingFormatted = formatDuration(outgoingSeconds);
+    public List<UDRResponse> getAllUDRsForMonth(Integer month, Integer year) {
+        ValidationUtil.validateMonth(month);
+        ValidationUtil.validateYear(year);
 
-        return UDRResponse.builder()
-                .msisdn(msisdn)
-                .incomingCall(UDRResponse.CallStats.builder().totalTime(incomingFormatted).build())
-                .outcomingCall(UDRResponse.CallStats.builder().totalTime(outgoingFormatted).build())
-                .build();
+        YearMonth period = PeriodUtil.resolveMonth(month, year);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<UDRResponse> udrResponses = computeAllUDRsForMonth(period);
+        sample.stop(computationTimer("month", rollupEnabled ? "rollup"
+                : callColumnService.isEnabled() ? "columns" : parallelEnabled ? "parallel" : "database"));
+        return udrResponses;
+    }
+
+    public UDRPageResponse getUDRsForMonthPage(Integer month, Integer year, String after, Integer limit) {
+        ValidationUtil.validateMonth(month);
+        ValidationUtil.validateYear(year);
+        ValidationUtil.validatePageSize(limit);
+        if (after != null) {
+            ValidationUtil.validateMsisdn(after);
+        }
+
+        YearMonth period = PeriodUtil.resolveMonth(month, year);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        UDRPageResponse page = computePage(period, after, limit);
+        sample.stop(computationTimer("page", rollupEnabled ? "rollup"
+                : callColumnService.isEnabled() ? "columns" : "database"));
+        return page;
     }
 
-    public List<UDRResponse> getAllUDRsForMonth(Integer month) {
+    public Stream<UDRResponse> streamAllUDRsForMonth(Integer month, Integer year) {
         ValidationUtil.validateMonth(month);
+        ValidationUtil.validateYear(year);
+
+        YearMonth period = PeriodUtil.resolveMonth(month, year);
+        if (!rollupEnabled && callColumnService.isEnabled()) {
+            SubscriberCallTotals totals = callColumnService.sumDurationsByAllSubscribers(
+                    PeriodUtil.startOf(period), PeriodUtil.endOf(period));
+            return Arrays.stream(totals.sortedMsisdns()).mapToObj(msisdn -> buildUDRResponse(Long.toString(msisdn),
+                    totals.getIncomingSeconds(msisdn), totals.getOutgoingSeconds(msisdn)));
+        }
+
+        Iterator<List<UDRResponse>> pages = new Iterator<>() {
+            private String after;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                return !done;
+            }
+
+            @Override
+            public List<UDRResponse> next() {
+                if (done) {
+                    throw new NoSuchElementException();
+                }
+                UDRPageResponse page = computePage(period, after, ValidationUtil.MAX_PAGE_SIZE);
+                after = page.getNextCursor();
+                done = after == null;
+                return page.getUdrs();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED), false)
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Computes the UDRs of the subscribers after the cursor. The rollup and the database
+     * seek to the cursor through the MSISDN index; the call columns are summed in memory and sliced.
+     */
+    private UDRPageResponse computePage(YearMonth period, String after, int limit) {
+        String cursor = after == null ? "" : after;
+        if (rollupEnabled) {
+            List<SubscriberMonthlyUsage> usages = usageRepository.findByMonthAfterMsisdn(
+                    period.getYear(), period.getMonthValue(), cursor, Limit.of(limit));
+            List<UDRResponse> udrs = usages.stream()
+                    .map(usage -> buildUDRResponse(usage.getId().getMsisdn(),
+                            usage.getIncomingSeconds(), usage.getOutgoingSeconds()))
+                    .toList();
+            return new UDRPageResponse(udrs, usages.size() == limit ? udrs.get(limit - 1).getMsisdn() : null);
+        }
+
+        LocalDateTime periodStart = PeriodUtil.startOf(period);
+        LocalDateTime periodEnd = PeriodUtil.endOf(period);
+
+        if (callColumnService.isEnabled()) {
+            SubscriberCallTotals totals = callColumnService.sumDurationsByAllSubscribers(periodStart, periodEnd);
+            long[] msisdns = totals.sortedMsisdns();
+            int from = 0;
+            if (after != null) {
+                int index = Arrays.binarySearch(msisdns, Long.parseLong(after));
+                from = index >= 0 ? index + 1 : -index - 1;
+            }
+            int to = Math.min(from + limit, msisdns.length);
+            List<UDRResponse> udrs = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                udrs.add(buildUDRResponse(Long.toString(msisdns[i]),
+                        totals.getIncomingSeconds(msisdns[i]), totals.getOutgoingSeconds(msisdns[i])));
+            }
+            return new UDRPageResponse(udrs, to < msisdns.length ? Long.toString(msisdns[to - 1]) : null);
+        }
+
+        List<String> msisdns = subscriberRepository.findMsisdnsAfter(cursor, Limit.of(limit));
+        if (msisdns.isEmpty()) {
+            return new UDRPageResponse(List.of(), null);
+        }
+        String last = msisdns.get(msisdns.size() - 1);
+        List<UDRResponse> udrs = aggregateRange(new MsisdnRange(msisdns.get(0), last), periodStart, periodEnd);
+        return new UDRPageResponse(udrs, msisdns.size() == limit ? last : null);
+    }
+
+    private CallDurationTotals computeTotals(String msisdn, Integer month, Integer year) {
+        if (usageTotalsService.isEnabled()) {
+            return usageTotalsService.getTotals(msisdn, month == null ? null : PeriodUtil.resolveMonth(month, year));
+        }
+
+        CallDurationTotals totals;
+        if (month != null) {
+            YearMonth period = PeriodUtil.resolveMonth(month, year);
+            if (rollupEnabled) {
+                totals = getMonthlyUsageTotals(msisdn, period);
+            } else if (callColumnService.isEnabled()) {
+                totals = callColumnService.sumDurationsBySubscriber(
+                        msisdn, PeriodUtil.startOf(period), PeriodUtil.endOf(period));
+            } else {
+                totals = cdRecordRepository.sumDurationsBySubscriberAndPeriod(
+                        msisdn, PeriodUtil.startOf(period), PeriodUtil.endOf(period));
+            }
+        } else {
+            if (rollupEnabled) {
+                totals = usageRepository.sumUsageBySubscriber(msisdn);
+            } else if (callColumnService.isEnabled()) {
+                totals = callColumnService.sumDurationsBySubscriber(msisdn, null, null);
+            } else {
+                totals = cdRecordRepository.sumDurationsBySubscriber(msisdn);
+            }
+        }
+        return totals;
+    }
+
+    private List<UDRResponse> computeAllUDRsForMonth(YearMonth period) {
+        if (rollupEnabled) {
+            return usageRepository.findByMonth(period.getYear(), period.getMonthValue()).stream()
+                    .map(usage -> buildUDRResponse(usage.getId().getMsisdn(),
+                            usage.getIncomingSeconds(), usage.getOutgoingSeconds()))
+                    .toList();
+        }
+
+        LocalDateTime periodStart = PeriodUtil.startOf(period);
+        LocalDateTime periodEnd = PeriodUtil.endOf(period);
+
+        if (callColumnService.isEnabled()) {
+            return toUDRResponses(callColumnService.sumDurationsByAllSubscribers(periodStart, periodEnd));
+        }
+
+        if (parallelEnabled) {
+            List<MsisdnRange> ranges = subscriberRepository.findMsisdnRanges(chunkSize);
+            if (ranges.size() > 1) {
+                return getAllUDRsForMonthInParallel(ranges, periodStart, periodEnd);
+            }
+        }
+
+        List<CallDurationSummary> incoming = cdRecordRepository
+                .sumDurationByReceivingSubscriberAndCallTypeAndPeriod(CallType.INCOMING, periodStart, periodEnd);
+        List<CallDurationSummary> outgoing = cdRecordRepository
+                .sumDurationByCallingSubscriberAndCallTypeAndPeriod(CallType.OUTCOMING, periodStart, periodEnd);
+
+        return mergeCallDurations(incoming, outgoing);
+    }
+
+    private Timer computationTimer(String scope, String source) {
+        return Timer.builder("udr.computation")
+                .description("Time to compute the UDR of one subscriber or of all subscribers for a month")
+                .tags("scope", scope, "source", source)
+                .register(meterRegistry);
+    }
+
+    private CallDurationTotals getMonthlyUsageTotals(String msisdn, YearMonth period) {
+        return usageRepository.findById(
+                        new SubscriberMonthlyUsageId(msisdn, period.getYear(), period.getMonthValue()))
+                .map(usage -> new CallDurationTotals(
+                        usage.getIncomingSeconds(), usage.getOutgoingSeconds(), usage.getCallCount()))
+                .orElse(null);
+    }
+
+    /**
+     * Aggregates every MSISDN range on the UDR executor, each in its own read-only transaction.
+     * Ranges are disjoint and ordered, so concatenating the results keeps them ordered by MSISDN.
+     */
+    private List<UDRResponse> getAllUDRsForMonthInParallel(List<MsisdnRange> ranges,
+                                                           LocalDateTime periodStart, LocalDateTime periodEnd) {
+        List<CompletableFuture<List<UDRResponse>>> chunks = new ArrayList<>(ranges.size());
+        for (MsisdnRange range : ranges) {
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> readOnlyTransaction.execute(status -> aggregateRange(range, periodStart, periodEnd)),
+                    udrExecutor));
+        }
 
-        List<Subscriber> allSubscribers = subscriberRepository.findAll();
         List<UDRResponse> udrResponses = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<UDRResponse>> chunk : chunks) {
+                udrResponses.addAll(chunk.join());
+            }
+        } catch (CompletionException e) {
+            chunks.forEach(chunk -> chunk.cancel(false));
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return udrResponses;
+    }
+
+    private List<UDRResponse> aggregateRange(MsisdnRange range, LocalDateTime periodStart, LocalDateTime periodEnd) {
+        List<CallDurationSummary> incoming = cdRecordRepository
+                .sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                        CallType.INCOMING, periodStart, periodEnd, range.getFromMsisdn(), range.getToMsisdn());
+        List<CallDurationSummary> outgoing = cdRecordRepository
+                .sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                        CallType.OUTCOMING, periodStart, periodEnd, range.getFromMsisdn(), range.getToMsisdn());
+
+        return mergeCallDurations(incoming, outgoing);
+    }
+
+    /**
+     * Merges per-subscriber incoming and outgoing totals, both ordered by MSISDN,
+     * into one UDR per subscriber. Subscribers without calls in either list are skipped.
+     */
+    private List<UDRResponse> mergeCallDurations(List<CallDurationSummary> incoming,
+                                                 List<CallDurationSummary> outgoing) {
+        List<UDRResponse> udrResponses = new ArrayList<>(Math.max(incoming.size(), outgoing.size()));
+        int i = 0;
+        int o = 0;
+
+        while (i < incoming.size() || o < outgoing.size()) {
+            CallDurationSummary in = i < incoming.size() ? incoming.get(i) : null;
+            CallDurationSummary out = o < outgoing.size() ? outgoing.get(o) : null;
 
-        for (Subscriber subscriber : allSubscribers) {
-            try {
-                UDRResponse udr = getUDRForSubscriber(subscriber.getMsisdn(), month);
-                udrResponses.add(udr);
-            } catch (ResourceNotFoundException ignored) {}
+            int order = in == null ? 1 : out == null ? -1 : in.getMsisdn().compareTo(out.getMsisdn());
+
+            if (order < 0) {
+                udrResponses.add(buildUDRResponse(in.getMsisdn(), in.getTotalSeconds(), 0));
+                i++;
+            } else if (order > 0) {
+                udrResponses.add(buildUDRResponse(out.getMsisdn(), 0, out.getTotalSeconds()));
+                o++;
+            } else {
+                udrResponses.add(buildUDRResponse(in.getMsisdn(), in.getTotalSeconds(), out.getTotalSeconds()));
+                i++;
+                o++;
+            }
         }
 
         return udrResponses;
     }
 
-    private long calculateTotalCallTime(List<CDRecord> records) {
-        return records.stream()
-                .mapToLong(CDRecord::getDurationInSeconds)
-                .sum();
+    private List<UDRResponse> toUDRResponses(SubscriberCallTotals totals) {
+        List<UDRResponse> udrResponses = new ArrayList<>(totals.size());
+        for (long msisdn : totals.sortedMsisdns()) {
+            udrResponses.add(buildUDRResponse(Long.toString(msisdn),
+                    totals.getIncomingSeconds(msisdn), totals.getOutgoingSeconds(msisdn)));
+        }
+        return udrResponses;
+    }
+
+    private UDRResponse buildUDRResponse(String msisdn, long incomingSeconds, long outgoingSeconds) {
+        return UDRResponse.builder()
+                .msisdn(msisdn)
+                .incomingCall(UDRResponse.CallStats.builder().totalTime(formatDuration(incomingSeconds)).build())
+                .outcomingCall(UDRResponse.CallStats.builder().totalTime(formatDuration(outgoingSeconds)).build())
+                .build();
     }
 
     private String formatDuration(long seconds) {
-        long hours = seconds / 3600;
-        long minutes = (seconds % 3600) / 60;
-        long secs = seconds % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
+        return DurationUtil.formatDuration(seconds);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.MonthlyCallDurationSummary;
+import org.example.nexignbootcamptask.dto.RollupRebuildResponse;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.UsageRollupRebuiltEvent;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
+import org.example.nexignbootcamptask.service.UsageRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class UsageRollupServiceImpl implements UsageRollupService {
+
+    private final SubscriberMonthlyUsageRepository usageRepository;
+    private final CDRecordRepository cdRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public UsageRollupServiceImpl(SubscriberMonthlyUsageRepository usageRepository,
+                                  CDRecordRepository cdRecordRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.usageRepository = usageRepository;
+        this.cdRecordRepository = cdRecordRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Rollups are incremented in place by the database rather than loaded and saved,
+     * so concurrent ingests touching the same subscriber months do not conflict.
+     */
+    @Transactional
+    public void applyUsage(Collection<SubscriberMonthlyUsage> usage) {
+        usageRepository.addUsage(usage);
+    }
+
+    @Transactional
+    public RollupRebuildResponse rebuildRollups() {
+        long started = System.nanoTime();
+
+        usageRepository.deleteAllUsage();
+
+        Map<SubscriberMonthlyUsageId, SubscriberMonthlyUsage> rollups = new LinkedHashMap<>();
+        for (MonthlyCallDurationSummary summary : cdRecordRepository
+                .sumMonthlyDurationByReceivingSubscriberAndCallType(CallType.INCOMING)) {
+            rollup(rollups, summary).addIncoming(summary.getTotalSeconds(), summary.getCallCount());
+        }
+        for (MonthlyCallDurationSummary summary : cdRecordRepository
+                .sumMonthlyDurationByCallingSubscriberAndCallType(CallType.OUTCOMING)) {
+            rollup(rollups, summary).addOutgoing(summary.getTotalSeconds(), summary.getCallCount());
+        }
+
+        usageRepository.saveAll(rollups.values());
+        eventPublisher.publishEvent(new UsageRollupRebuiltEvent(rollups.size()));
+
+        return RollupRebuildResponse.builder()
+                .rollupCount(rollups.size())
+                .elapsedMillis(Duration.ofNanos(System.nanoTime() - started).toMillis())
+                .build();
+    }
+
+    private SubscriberMonthlyUsage rollup(Map<SubscriberMonthlyUsageId, SubscriberMonthlyUsage> rollups,
+                                          MonthlyCallDurationSummary summary) {
+        return rollups.computeIfAbsent(
+                new SubscriberMonthlyUsageId(summary.getMsisdn(), summary.getYear(), summary.getMonth()),
+                id -> SubscriberMonthlyUsage.builder().id(id).build());
+    }
+}
@@ -0,0 +1,297 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.MonthlyCallDurationSummary;
+import org.example.nexignbootcamptask.dto.UsageReconciliationResponse;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.event.UsageRollupRebuiltEvent;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.service.UsageTotalsService;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.ConcurrentUsageTotals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps running totals per subscriber month and per subscriber, keyed by the MSISDN as a long with the month
+ * in its low bits. Ingested calls are added once their transaction commits, concurrently with lookups and with
+ * each other. Totals are loaded from the call records on startup and after the rollup is rebuilt.
+ * A call committed while a reload reads the records may be counted twice, which reconciliation repairs.
+ */
+@Service
+public class UsageTotalsServiceImpl implements UsageTotalsService {
+
+    private static final int MONTH_BITS = 20;
+    private static final long ALL_TIME = (1L << MONTH_BITS) - 1;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private static final byte INCOMING = (byte) CallType.INCOMING.ordinal();
+
+    private final CDRecordRepository cdRecordRepository;
+    private final boolean enabled;
+    private final Counter mismatches;
+    private final Counter repairs;
+    private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+    private volatile ConcurrentUsageTotals totals = new ConcurrentUsageTotals(0);
+    private Map<Long, long[]> unconfirmedDifferences = Map.of();
+
+    @Autowired
+    public UsageTotalsServiceImpl(CDRecordRepository cdRecordRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${cdr.udr.live.enabled:false}") boolean enabled) {
+        this.cdRecordRepository = cdRecordRepository;
+        this.enabled = enabled;
+        this.mismatches = Counter.builder("udr.live.mismatches")
+                .description("Subscriber months and subscribers whose live totals differed from the call records")
+                .register(meterRegistry);
+        this.repairs = Counter.builder("udr.live.repairs")
+                .description("Live totals corrected to the call records by reconciliation")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Holds back ingested calls while the records are read, so none is applied to the totals being replaced.
+     */
+    @PostConstruct
+    public synchronized long reload() {
+        if (!enabled) {
+            return 0;
+        }
+
+        reloadLock.writeLock().lock();
+        try {
+            totals = load();
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+        unconfirmedDifferences = Map.of();
+        return countMonths(totals);
+    }
+
+    public CallDurationTotals getTotals(String msisdn, YearMonth month) {
+        long subscriber = Long.parseLong(msisdn);
+        ConcurrentUsageTotals.Totals found = totals.get(
+                month == null ? allTimeKey(subscriber) : monthKey(subscriber, month.getYear(), month.getMonthValue()));
+        return found == null ? null
+                : new CallDurationTotals(found.getIncomingSeconds(), found.getOutgoingSeconds(), found.getCallCount());
+    }
+
+    /**
+     * Adds ingested calls after their transaction commits. Calls of a batch mostly share a month,
+     * so the month of a call is only resolved when it falls outside the previous call's month.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRecordsIngested(CDRecordsIngestedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        CallColumns calls = event.getCalls();
+        reloadLock.readLock().lock();
+        try {
+            ConcurrentUsageTotals current = totals;
+            long monthStart = 0;
+            long monthEnd = 0;
+            long monthIndex = 0;
+            for (int i = 0; i < calls.size(); i++) {
+                long callStart = calls.callStart(i);
+                if (callStart < monthStart || callStart >= monthEnd) {
+                    YearMonth month = YearMonth.from(LocalDate.ofEpochDay(Math.floorDiv(callStart, SECONDS_PER_DAY)));
+                    monthStart = month.atDay(1).toEpochDay() * SECONDS_PER_DAY;
+                    monthEnd = month.plusMonths(1).atDay(1).toEpochDay() * SECONDS_PER_DAY;
+                    monthIndex = monthIndex(month.getYear(), month.getMonthValue());
+                }
+
+                if (calls.callType(i) == INCOMING) {
+                    long subscriber = calls.receivingMsisdn(i);
+                    current.addIncoming(subscriber << MONTH_BITS | monthIndex, calls.duration(i));
+                    current.addIncoming(allTimeKey(subscriber), calls.duration(i));
+                } else {
+                    long subscriber = calls.callingMsisdn(i);
+                    current.addOutgoing(subscriber << MONTH_BITS | monthIndex, calls.duration(i));
+                    current.addOutgoing(allTimeKey(subscriber), calls.duration(i));
+                }
+            }
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the totals of the dropped month and takes them away from the subscribers' all-time totals.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCDRPartitionDropped(CDRPartitionDroppedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        long monthIndex = monthIndex(event.getMonth().getYear(), event.getMonth().getMonthValue());
+        reloadLock.readLock().lock();
+        try {
+            ConcurrentUsageTotals current = totals;
+            current.forEach((key, monthTotals) -> {
+                if ((key & ALL_TIME) != monthIndex) {
+                    return;
+                }
+                ConcurrentUsageTotals.Totals removed = current.remove(key);
+                if (removed != null) {
+                    current.add(allTimeKey(key >>> MONTH_BITS), -removed.getIncomingSeconds(),
+                            -removed.getOutgoingSeconds(), -removed.getCallCount());
+                }
+            });
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The rollup is rebuilt after records were loaded bypassing ingestion, which the live totals missed too.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsageRollupRebuilt(UsageRollupRebuiltEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${cdr.udr.live.reconcile-interval:PT1H}",
+            initialDelayString = "${cdr.udr.live.reconcile-interval:PT1H}")
+    public void reconcileTotals() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Differences are expected (live minus recorded) per key. Calls committed but not yet applied, or applied
+     * after the records were read, cause differences that are gone by the next run; a repair adds the difference
+     * back instead of overwriting the totals, so calls applied meanwhile are kept.
+     */
+    public synchronized UsageReconciliationResponse reconcile() {
+        if (!enabled) {
+            throw new IllegalStateException("Live UDR totals are disabled");
+        }
+        long started = System.nanoTime();
+
+        ConcurrentUsageTotals expected = load();
+        ConcurrentUsageTotals live = totals;
+        Map<Long, long[]> differences = new HashMap<>();
+        long[] checked = {0};
+        expected.forEach((key, expectedTotals) -> {
+            checked[0]++;
+            compare(key, expectedTotals, live.get(key), differences);
+        });
+        live.forEach((key, liveTotals) -> {
+            if (expected.get(key) == null) {
+                checked[0]++;
+                compare(key, null, liveTotals, differences);
+            }
+        });
+
+        long repaired = 0;
+        Map<Long, long[]> unconfirmed = new HashMap<>();
+        for (Map.Entry<Long, long[]> difference : differences.entrySet()) {
+            long[] delta = difference.getValue();
+            if (Arrays.equals(delta, unconfirmedDifferences.get(difference.getKey()))) {
+                live.add(difference.getKey(), -delta[0], -delta[1], -delta[2]);
+                repaired++;
+            } else {
+                unconfirmed.put(difference.getKey(), delta);
+            }
+        }
+        unconfirmedDifferences = unconfirmed;
+        mismatches.increment(differences.size());
+        repairs.increment(repaired);
+
+        return UsageReconciliationResponse.builder()
+                .checkedCount(checked[0])
+                .mismatchCount(differences.size())
+                .repairedCount(repaired)
+                .elapsedMillis(Duration.ofNanos(System.nanoTime() - started).toMillis())
+                .build();
+    }
+
+    private ConcurrentUsageTotals load() {
+        List<MonthlyCallDurationSummary> incoming =
+                cdRecordRepository.sumMonthlyDurationByReceivingSubscriberAndCallType(CallType.INCOMING);
+        List<MonthlyCallDurationSummary> outgoing =
+                cdRecordRepository.sumMonthlyDurationByCallingSubscriberAndCallType(CallType.OUTCOMING);
+
+        ConcurrentUsageTotals loaded = new ConcurrentUsageTotals(incoming.size() + outgoing.size());
+        for (MonthlyCallDurationSummary summary : incoming) {
+            add(loaded, summary, summary.getTotalSeconds(), 0);
+        }
+        for (MonthlyCallDurationSummary summary : outgoing) {
+            add(loaded, summary, 0, summary.getTotalSeconds());
+        }
+        return loaded;
+    }
+
+    private static void add(ConcurrentUsageTotals totals, MonthlyCallDurationSummary summary,
+                            long incomingSeconds, long outgoingSeconds) {
+        long subscriber = Long.parseLong(summary.getMsisdn());
+        totals.add(monthKey(subscriber, summary.getYear(), summary.getMonth()),
+                incomingSeconds, outgoingSeconds, summary.getCallCount());
+        totals.add(allTimeKey(subscriber), incomingSeconds, outgoingSeconds, summary.getCallCount());
+    }
+
+    private static void compare(long key, ConcurrentUsageTotals.Totals expected, ConcurrentUsageTotals.Totals live,
+                                Map<Long, long[]> differences) {
+        long[] delta = {
+                secondsOf(live, true) - secondsOf(expected, true),
+                secondsOf(live, false) - secondsOf(expected, false),
+                (live == null ? 0 : live.getCallCount()) - (expected == null ? 0 : expected.getCallCount())
+        };
+        if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0) {
+            differences.put(key, delta);
+        }
+    }
+
+    private static long secondsOf(ConcurrentUsageTotals.Totals totals, boolean incoming) {
+        return totals == null ? 0 : incoming ? totals.getIncomingSeconds() : totals.getOutgoingSeconds();
+    }
+
+    private static long countMonths(ConcurrentUsageTotals totals) {
+        long[] months = {0};
+        totals.forEach((key, monthTotals) -> {
+            if ((key & ALL_TIME) != ALL_TIME) {
+                months[0]++;
+            }
+        });
+        return months[0];
+    }
+
+    private static long monthKey(long msisdn, int year, int month) {
+        return msisdn << MONTH_BITS | monthIndex(year, month);
+    }
+
+    private static long allTimeKey(long msisdn) {
+        return msisdn << MONTH_BITS | ALL_TIME;
+    }
+
+    private static long monthIndex(int year, int month) {
+        return year * 12L + month - 1;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.nexignbootcamptask.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache-line blocked Bloom filter of primitive longs.
+ * All probe bits of a key lie in one 512-bit block, so a lookup touches a single cache line.
+ * Never reports a false negative. Lookups and inserts are lock-free and may run concurrently.
+ */
+public class BloomFilter {
+
+    private static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+
+    private final AtomicLongArray words;
+    private final int blockCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+
+    private BloomFilter(int blockCount, int hashCount, long expectedInsertions) {
+        this.words = new AtomicLongArray(blockCount * WORDS_PER_BLOCK);
+        this.blockCount = blockCount;
+        this.hashCount = hashCount;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Sizes a filter to stay near {@code falsePositiveRate} with up to {@code expectedInsertions} keys.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long blocks = Math.max(1, (long) Math.ceil(bits / BLOCK_BITS));
+        if (blocks * WORDS_PER_BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedInsertions + " keys is too large");
+        }
+        int hashCount = Math.max(1, (int) Math.round(blocks * BLOCK_BITS / (double) expectedInsertions * Math.log(2)));
+        return new BloomFilter((int) blocks, Math.min(hashCount, 16), expectedInsertions);
+    }
+
+    public void put(long key) {
+        long hash = LongHashSet.mix(key);
+        int base = block(hash);
+        int probe = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++, probe += step) {
+            int bit = probe & (BLOCK_BITS - 1);
+            int word = base + (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * @return false if the key was certainly never put, true if it probably was
+     */
+    public boolean mightContain(long key) {
+        long hash = LongHashSet.mix(key);
+        int base = block(hash);
+        int probe = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++, probe += step) {
+            int bit = probe & (BLOCK_BITS - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    private int block(long hash) {
+        return (int) Long.remainderUnsigned(LongHashSet.mix(hash), blockCount) * WORDS_PER_BLOCK;
+    }
+}
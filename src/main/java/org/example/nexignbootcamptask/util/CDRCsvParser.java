@@ -0,0 +1,224 @@
+package org.example.nexignbootcamptask.util;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
+
+/**
+ * Parses switch CSV drops in the CDR report layout, one call per line:
+ * {@code 01,79001112233,79002223344,2025-01-01T10:00:00,2025-01-01T10:05:00}.
+ * Fields are read directly from the bytes into {@link CallColumns} without creating strings.
+ * Lines may end with CRLF or LF. Invalid lines are counted and skipped.
+ * <p>
+ * A parser reads one chunk of a file. A chunk owns every line that starts inside it,
+ * so chunks with adjacent byte ranges together read each line exactly once.
+ */
+public class CDRCsvParser {
+
+    /**
+     * Lines longer than this are rejected; a chunk reads at most one more byte than this past its end
+     * to finish its last line.
+     */
+    public static final int MAX_LINE_LENGTH = 1024;
+
+    private static final int MSISDN_LENGTH = 11;
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final LongPredicate subscriberExists;
+
+    private long rejectedCount;
+    private String firstRejection;
+    private long endOffset;
+
+    /**
+     * @param subscriberExists Tells whether a calling or receiving MSISDN belongs to a known subscriber
+     */
+    public CDRCsvParser(LongPredicate subscriberExists) {
+        this.subscriberExists = subscriberExists;
+    }
+
+    /**
+     * Parses the lines that start in {@code [start, end)} of a buffer holding the file from {@code bufferOffset}.
+     * The buffer should extend {@link #MAX_LINE_LENGTH} + 1 bytes past {@code end}, or to the end of the file.
+     * When {@code start} is not preceded by a line break, the partial line belongs to the previous chunk and is skipped.
+     *
+     * @param buffer File bytes from {@code bufferOffset}; its position and limit are not changed
+     * @param bufferOffset File offset of the buffer's first byte; below {@code start} unless the chunk starts the file
+     * @param start File offset where the chunk starts
+     * @param end File offset where the chunk ends
+     * @return Valid calls of the chunk
+     */
+    public CallColumns parse(ByteBuffer buffer, long bufferOffset, long start, long end) {
+        int limit = buffer.limit();
+        int position = (int) (start - bufferOffset);
+        int chunkEnd = (int) Math.min(limit, end - bufferOffset);
+
+        if (position > 0 && buffer.get(position - 1) != '\n') {
+            while (position < limit && buffer.get(position++) != '\n') {
+                // skip the tail of a line owned by the previous chunk
+            }
+        }
+
+        CallColumns calls = new CallColumns(Math.max(16, (chunkEnd - position) / 72));
+        while (position < chunkEnd) {
+            int lineEnd = position;
+            int scanLimit = Math.min(limit, position + MAX_LINE_LENGTH + 1);
+            while (lineEnd < scanLimit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd < limit && buffer.get(lineEnd) == '\n' ? lineEnd + 1 : lineEnd;
+            if (lineEnd == scanLimit && lineEnd < limit) {
+                // no line break within the maximum line length: reject up to the next one
+                while (next < limit && buffer.get(next++) != '\n') {
+                    // skip the rest of the overlong line
+                }
+                reject("Line longer than " + MAX_LINE_LENGTH + " bytes");
+            } else {
+                int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (contentEnd > position) {
+                    parseLine(buffer, position, contentEnd, calls);
+                }
+            }
+            position = next;
+        }
+
+        endOffset = bufferOffset + position;
+        return calls;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return Reason of the first rejected line, or null if every line was valid
+     */
+    public String getFirstRejection() {
+        return firstRejection;
+    }
+
+    /**
+     * @return File offset after the last line read by {@link #parse}, where the next chunk's first line starts
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    private void parseLine(ByteBuffer buffer, int from, int to, CallColumns calls) {
+        int expectedLength = 2 + 1 + MSISDN_LENGTH + 1 + MSISDN_LENGTH + 1 + DATE_TIME_LENGTH + 1 + DATE_TIME_LENGTH;
+        if (to - from != expectedLength) {
+            reject("Malformed line");
+            return;
+        }
+
+        int position = from;
+        byte callType;
+        if (buffer.get(position) == '0' && buffer.get(position + 1) == '1') {
+            callType = 0;
+        } else if (buffer.get(position) == '0' && buffer.get(position + 1) == '2') {
+            callType = 1;
+        } else {
+            reject("Unknown call type");
+            return;
+        }
+        position += 2;
+
+        long callingMsisdn = buffer.get(position++) == ',' ? parseMsisdn(buffer, position) : -1;
+        position += MSISDN_LENGTH;
+        long receivingMsisdn = buffer.get(position++) == ',' ? parseMsisdn(buffer, position) : -1;
+        position += MSISDN_LENGTH;
+        if (callingMsisdn < 0 || receivingMsisdn < 0) {
+            reject("MSISDN should be in format 7XXXXXXXXXX");
+            return;
+        }
+
+        long callStart = buffer.get(position++) == ',' ? parseDateTime(buffer, position) : Long.MIN_VALUE;
+        position += DATE_TIME_LENGTH;
+        long callEnd = buffer.get(position++) == ',' ? parseDateTime(buffer, position) : Long.MIN_VALUE;
+        if (callStart == Long.MIN_VALUE || callEnd == Long.MIN_VALUE) {
+            reject("Call start and end should be in format yyyy-MM-ddTHH:mm:ss");
+            return;
+        }
+        if (callEnd < callStart || callEnd - callStart > Integer.MAX_VALUE) {
+            reject("Call end cannot be before call start");
+            return;
+        }
+        if (callingMsisdn == receivingMsisdn) {
+            reject("Calling and receiving MSISDN cannot be the same");
+            return;
+        }
+        if (!subscriberExists.test(callingMsisdn) || !subscriberExists.test(receivingMsisdn)) {
+            reject("Unknown subscriber");
+            return;
+        }
+
+        calls.add(callType, callingMsisdn, receivingMsisdn, callStart, (int) (callEnd - callStart));
+    }
+
+    private void reject(String reason) {
+        if (rejectedCount++ == 0) {
+            firstRejection = reason;
+        }
+    }
+
+    /**
+     * @return The MSISDN as a number, or -1 if it is not in the {@code 7XXXXXXXXXX} format
+     */
+    private static long parseMsisdn(ByteBuffer buffer, int position) {
+        if (buffer.get(position) != '7') {
+            return -1;
+        }
+        return parseDigits(buffer, position, MSISDN_LENGTH);
+    }
+
+    /**
+     * Reads {@code yyyy-MM-ddTHH:mm:ss} as epoch seconds of the local date-time at UTC.
+     *
+     * @return Epoch seconds, or {@link Long#MIN_VALUE} if the value is not a valid date-time
+     */
+    private static long parseDateTime(ByteBuffer buffer, int position) {
+        if (buffer.get(position + 4) != '-' || buffer.get(position + 7) != '-' || buffer.get(position + 10) != 'T'
+                || buffer.get(position + 13) != ':' || buffer.get(position + 16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        long year = parseDigits(buffer, position, 4);
+        long month = parseDigits(buffer, position + 5, 2);
+        long day = parseDigits(buffer, position + 8, 2);
+        long hour = parseDigits(buffer, position + 11, 2);
+        long minute = parseDigits(buffer, position + 14, 2);
+        long second = parseDigits(buffer, position + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        boolean leapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (day > DAYS_IN_MONTH[(int) month - 1] + (month == 2 && leapYear ? 1 : 0)) {
+            return Long.MIN_VALUE;
+        }
+
+        // Days since 1970-01-01 from a civil date, see Howard Hinnant's "chrono-compatible low-level date algorithms"
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = era * 146_097 + dayOfEra - 719_468;
+
+        return epochDay * 86_400 + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * @return The decimal value of the digits, or -1 if any of them is not an ASCII digit
+     */
+    private static long parseDigits(ByteBuffer buffer, int position, int length) {
+        long value = 0;
+        for (int i = position; i < position + length; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
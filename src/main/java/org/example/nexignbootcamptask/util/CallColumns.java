@@ -0,0 +1,95 @@
+package org.example.nexignbootcamptask.util;
+
+import java.util.Arrays;
+
+/**
+ * Calls stored column by column in primitive arrays, about 29 bytes per call.
+ * MSISDNs are stored as longs, call starts as epoch seconds of the local call time at UTC,
+ * durations as seconds and call types as {@link org.example.nexignbootcamptask.entity.enums.CallType} ordinals.
+ * <p>
+ * Has a single writer. Readers that read {@link #size()} first may read all calls below it
+ * while the writer appends, as long as the appends stay within {@link #capacity()}.
+ */
+public class CallColumns {
+
+    private long[] callingMsisdns;
+    private long[] receivingMsisdns;
+    private long[] callStarts;
+    private int[] durations;
+    private byte[] callTypes;
+    private volatile int size;
+
+    public CallColumns(int capacity) {
+        callingMsisdns = new long[capacity];
+        receivingMsisdns = new long[capacity];
+        callStarts = new long[capacity];
+        durations = new int[capacity];
+        callTypes = new byte[capacity];
+    }
+
+    public void add(byte callType, long callingMsisdn, long receivingMsisdn, long callStart, int duration) {
+        int index = size;
+        if (index == callStarts.length) {
+            grow(Math.max(16, index << 1));
+        }
+        callTypes[index] = callType;
+        callingMsisdns[index] = callingMsisdn;
+        receivingMsisdns[index] = receivingMsisdn;
+        callStarts[index] = callStart;
+        durations[index] = duration;
+        size = index + 1;
+    }
+
+    /**
+     * Appends calls {@code from} (inclusive) to {@code to} (exclusive) of another batch.
+     */
+    public void addAll(CallColumns other, int from, int to) {
+        int index = size;
+        int count = to - from;
+        if (index + count > callStarts.length) {
+            grow(Math.max(index + count, index << 1));
+        }
+        System.arraycopy(other.callTypes, from, callTypes, index, count);
+        System.arraycopy(other.callingMsisdns, from, callingMsisdns, index, count);
+        System.arraycopy(other.receivingMsisdns, from, receivingMsisdns, index, count);
+        System.arraycopy(other.callStarts, from, callStarts, index, count);
+        System.arraycopy(other.durations, from, durations, index, count);
+        size = index + count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return callStarts.length;
+    }
+
+    public byte callType(int index) {
+        return callTypes[index];
+    }
+
+    public long callingMsisdn(int index) {
+        return callingMsisdns[index];
+    }
+
+    public long receivingMsisdn(int index) {
+        return receivingMsisdns[index];
+    }
+
+    public long callStart(int index) {
+        return callStarts[index];
+    }
+
+    public int duration(int index) {
+        return durations[index];
+    }
+
+    private void grow(int capacity) {
+        callTypes = Arrays.copyOf(callTypes, capacity);
+        callingMsisdns = Arrays.copyOf(callingMsisdns, capacity);
+        receivingMsisdns = Arrays.copyOf(receivingMsisdns, capacity);
+        callStarts = Arrays.copyOf(callStarts, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+    }
+}
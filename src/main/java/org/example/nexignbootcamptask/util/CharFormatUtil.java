@@ -0,0 +1,68 @@
+package org.example.nexignbootcamptask.util;
+
+/**
+ * Formats numbers and dates into a reusable char buffer, so writing a record does not allocate.
+ */
+public class CharFormatUtil {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Writes a non-negative number in decimal.
+     *
+     * @return Position after the written chars
+     */
+    public static int appendLong(char[] buffer, int position, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    /**
+     * Writes epoch seconds as a local date-time at UTC in the {@code yyyy-MM-ddTHH:mm:ss} format
+     * of {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME}, for years 0 to 9999.
+     *
+     * @return Position after the written chars
+     */
+    public static int appendIsoLocalDateTime(char[] buffer, int position, long epochSecond) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Civil date from days since 1970-01-01, see Howard Hinnant's "chrono-compatible low-level date algorithms"
+        long days = epochDay + 719_468;
+        long era = Math.floorDiv(days, 146_097);
+        int dayOfEra = (int) (days - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        position = appendPadded(buffer, position, (int) year, 4);
+        buffer[position++] = '-';
+        position = appendPadded(buffer, position, month, 2);
+        buffer[position++] = '-';
+        position = appendPadded(buffer, position, day, 2);
+        buffer[position++] = 'T';
+        position = appendPadded(buffer, position, secondOfDay / 3600, 2);
+        buffer[position++] = ':';
+        position = appendPadded(buffer, position, secondOfDay / 60 % 60, 2);
+        buffer[position++] = ':';
+        return appendPadded(buffer, position, secondOfDay % 60, 2);
+    }
+
+    private static int appendPadded(char[] buffer, int position, int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + width;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.nexignbootcamptask.util;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads CDR reports written by {@link ColumnarReportWriter} one block at a time.
+ */
+public class ColumnarReportReader implements Closeable {
+
+    private final InputStream in;
+    private long[] dictionary = new long[0];
+    private boolean finished;
+
+    public ColumnarReportReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in);
+        byte[] magic = this.in.readNBytes(ColumnarReportWriter.MAGIC.length);
+        if (!Arrays.equals(magic, ColumnarReportWriter.MAGIC)) {
+            throw new IOException("Not a columnar CDR report");
+        }
+        int version = this.in.read();
+        if (version != ColumnarReportWriter.VERSION) {
+            throw new IOException("Unsupported columnar CDR report version: " + version);
+        }
+    }
+
+    /**
+     * @return Rows of the next block, or {@code null} after the last block
+     */
+    public CallColumns readBlock() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rows = (int) readVarLong();
+        if (rows == 0) {
+            finished = true;
+            return null;
+        }
+
+        int dictionarySize = (int) readVarLong();
+        if (dictionary.length < dictionarySize) {
+            dictionary = new long[dictionarySize];
+        }
+        long previous = 0;
+        for (int i = 0; i < dictionarySize; i++) {
+            previous += readVarLong();
+            dictionary[i] = previous;
+        }
+
+        byte[] callTypes = new byte[rows];
+        for (int i = 0; i < rows; i += 8) {
+            int bits = readByte();
+            for (int j = 0; j < 8 && i + j < rows; j++) {
+                callTypes[i + j] = (byte) ((bits >>> j) & 1);
+            }
+        }
+        long[] callingMsisdns = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            callingMsisdns[i] = dictionary[(int) readVarLong()];
+        }
+        long[] receivingMsisdns = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            receivingMsisdns[i] = dictionary[(int) readVarLong()];
+        }
+        long[] callStarts = new long[rows];
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            long zigzag = readVarLong();
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            callStarts[i] = previous;
+        }
+
+        CallColumns calls = new CallColumns(rows);
+        for (int i = 0; i < rows; i++) {
+            calls.add(callTypes[i], callingMsisdns[i], receivingMsisdns[i], callStarts[i], (int) readVarLong());
+        }
+        return calls;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in columnar CDR report");
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Columnar CDR report ends within a block");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.nexignbootcamptask.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes CDR report rows in a compact binary columnar format, one block of up to {@link #BLOCK_SIZE} rows
+ * at a time, so memory use does not depend on the size of the report. Read back with {@link ColumnarReportReader}.
+ * <p>
+ * The file starts with the magic bytes {@code CDRC} and a version byte, followed by blocks and a zero byte.
+ * A block holds, with all numbers as unsigned LEB128 varints:
+ * <ol>
+ *     <li>the row count, never zero</li>
+ *     <li>the block's MSISDN dictionary: its size, then the MSISDNs in ascending order, each as the difference
+ *     to the previous one</li>
+ *     <li>the call type ordinals as one bit per row, eight rows per byte, lowest bit first</li>
+ *     <li>the dictionary indexes of the calling MSISDNs, then of the receiving MSISDNs</li>
+ *     <li>the call starts in epoch seconds at UTC, each as the zigzag-encoded difference to the previous row
+ *     of the block (to zero for the first row)</li>
+ *     <li>the durations in seconds</li>
+ * </ol>
+ * Blocks are independent of each other, so rows of a report ordered by call start take about 8 bytes each.
+ */
+public class ColumnarReportWriter implements ReportWriter {
+
+    public static final int BLOCK_SIZE = 4096;
+
+    static final byte[] MAGIC = {'C', 'D', 'R', 'C'};
+    static final int VERSION = 1;
+
+    // per row: up to two 10-byte dictionary entries, a call type bit, two 2-byte dictionary indexes
+    // (below 2 * BLOCK_SIZE), a 10-byte call start and a 5-byte duration
+    private static final int MAX_BLOCK_BYTES = 20 + BLOCK_SIZE * 40;
+
+    private final OutputStream out;
+    private final byte[] callTypes = new byte[BLOCK_SIZE];
+    private final long[] callingMsisdns = new long[BLOCK_SIZE];
+    private final long[] receivingMsisdns = new long[BLOCK_SIZE];
+    private final long[] callStarts = new long[BLOCK_SIZE];
+    private final int[] durations = new int[BLOCK_SIZE];
+    private final long[] dictionary = new long[2 * BLOCK_SIZE];
+    private final byte[] block = new byte[MAX_BLOCK_BYTES];
+    private int size;
+    private boolean closed;
+
+    public ColumnarReportWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    @Override
+    public void write(byte callType, long callingMsisdn, long receivingMsisdn, long callStart, int duration)
+            throws IOException {
+        callTypes[size] = callType;
+        callingMsisdns[size] = callingMsisdn;
+        receivingMsisdns[size] = receivingMsisdn;
+        callStarts[size] = callStart;
+        durations[size] = duration;
+        if (++size == BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            if (size > 0) {
+                writeBlock();
+            }
+            out.write(0);
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        int rows = size;
+        System.arraycopy(callingMsisdns, 0, dictionary, 0, rows);
+        System.arraycopy(receivingMsisdns, 0, dictionary, rows, rows);
+        Arrays.sort(dictionary, 0, 2 * rows);
+        int dictionarySize = 0;
+        for (int i = 0; i < 2 * rows; i++) {
+            if (dictionarySize == 0 || dictionary[i] != dictionary[dictionarySize - 1]) {
+                dictionary[dictionarySize++] = dictionary[i];
+            }
+        }
+
+        int position = putVarLong(block, 0, rows);
+        position = putVarLong(block, position, dictionarySize);
+        long previous = 0;
+        for (int i = 0; i < dictionarySize; i++) {
+            position = putVarLong(block, position, dictionary[i] - previous);
+            previous = dictionary[i];
+        }
+
+        for (int i = 0; i < rows; i += 8) {
+            int bits = 0;
+            for (int j = 0; j < 8 && i + j < rows; j++) {
+                bits |= (callTypes[i + j] & 1) << j;
+            }
+            block[position++] = (byte) bits;
+        }
+
+        for (int i = 0; i < rows; i++) {
+            position = putVarLong(block, position, Arrays.binarySearch(dictionary, 0, dictionarySize, callingMsisdns[i]));
+        }
+        for (int i = 0; i < rows; i++) {
+            position = putVarLong(block, position, Arrays.binarySearch(dictionary, 0, dictionarySize, receivingMsisdns[i]));
+        }
+
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            long delta = callStarts[i] - previous;
+            position = putVarLong(block, position, (delta << 1) ^ (delta >> 63));
+            previous = callStarts[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            position = putVarLong(block, position, Integer.toUnsignedLong(durations[i]));
+        }
+
+        out.write(block, 0, position);
+        size = 0;
+    }
+
+    /**
+     * Writes the value as an unsigned LEB128 varint, seven bits per byte, lowest bits first.
+     *
+     * @return Position after the written bytes
+     */
+    static int putVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.nexignbootcamptask.util;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Incoming and outgoing call seconds and call counts keyed by a non-zero long, safe for concurrent updates and reads.
+ * Keys are spread over lock stripes, each an open-addressing table with linear probing guarded by a
+ * {@link StampedLock}: lookups are optimistic reads, updates share the read lock, and only adding or removing
+ * a key takes the write lock. The totals of a key are {@link LongAdder}s, so concurrent updates of the same key
+ * do not contend, and since an update holds the read lock, a removed key's totals take no further updates.
+ */
+public class ConcurrentUsageTotals {
+
+    private static final long EMPTY = 0L;
+    private static final int STRIPE_BITS = 6;
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+    public ConcurrentUsageTotals(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(2, (expectedKeys >> STRIPE_BITS) * 2) - 1) << 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Adds one call billed as incoming.
+     */
+    public void addIncoming(long key, long seconds) {
+        stripeOf(key).add(key, seconds, 0, 1);
+    }
+
+    /**
+     * Adds one call billed as outgoing.
+     */
+    public void addOutgoing(long key, long seconds) {
+        stripeOf(key).add(key, 0, seconds, 1);
+    }
+
+    /**
+     * Adds already aggregated totals, which may be negative to take calls away.
+     */
+    public void add(long key, long incomingSeconds, long outgoingSeconds, long callCount) {
+        stripeOf(key).add(key, incomingSeconds, outgoingSeconds, callCount);
+    }
+
+    /**
+     * @return Totals of the key, or null if nothing was added for it
+     */
+    public Totals get(long key) {
+        return stripeOf(key).get(key);
+    }
+
+    /**
+     * @return Totals of the removed key, or null if there were none; updates of the key made before
+     *         the removal are all included, later ones go to a new entry
+     */
+    public Totals remove(long key) {
+        return stripeOf(key).remove(key);
+    }
+
+    /**
+     * Visits every key with its totals. Each stripe is copied under its read lock and visited outside it,
+     * so the visitor may update or remove keys.
+     */
+    public void forEach(TotalsVisitor visitor) {
+        for (Stripe stripe : stripes) {
+            Table table = stripe.snapshot();
+            for (int slot = 0; slot < table.keys.length; slot++) {
+                if (table.keys[slot] != EMPTY) {
+                    visitor.visit(table.keys[slot], table.totals[slot]);
+                }
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Picks the stripe by the high bits of the hash; tables probe from its low bits.
+     */
+    private Stripe stripeOf(long key) {
+        return stripes[(int) (LongHashSet.mix(key) >>> (Long.SIZE - STRIPE_BITS))];
+    }
+
+    public static final class Totals {
+        private final LongAdder incomingSeconds = new LongAdder();
+        private final LongAdder outgoingSeconds = new LongAdder();
+        private final LongAdder callCount = new LongAdder();
+
+        public long getIncomingSeconds() {
+            return incomingSeconds.sum();
+        }
+
+        public long getOutgoingSeconds() {
+            return outgoingSeconds.sum();
+        }
+
+        public long getCallCount() {
+            return callCount.sum();
+        }
+
+        private void add(long incoming, long outgoing, long calls) {
+            if (incoming != 0) {
+                incomingSeconds.add(incoming);
+            }
+            if (outgoing != 0) {
+                outgoingSeconds.add(outgoing);
+            }
+            callCount.add(calls);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TotalsVisitor {
+        void visit(long key, Totals totals);
+    }
+
+    /**
+     * Keys and totals of one stripe, replaced as a whole when the stripe grows.
+     */
+    private record Table(long[] keys, Totals[] totals) {
+        Table(int capacity) {
+            this(new long[capacity], new Totals[capacity]);
+        }
+    }
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private Table table;
+        private int size;
+
+        Stripe(int capacity) {
+            table = new Table(capacity);
+        }
+
+        Totals get(long key) {
+            long stamp = lock.tryOptimisticRead();
+            Totals totals = find(table, key);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    totals = find(table, key);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return totals;
+        }
+
+        /**
+         * Updates under the read lock, so the key cannot be removed between finding its totals and adding to them.
+         * A key seen for the first time is inserted under the write lock, converted from the read lock when no
+         * other thread holds it.
+         */
+        void add(long key, long incoming, long outgoing, long calls) {
+            long stamp = lock.readLock();
+            try {
+                Totals totals = find(table, key);
+                if (totals == null) {
+                    long writeStamp = lock.tryConvertToWriteLock(stamp);
+                    if (writeStamp == 0) {
+                        lock.unlockRead(stamp);
+                        writeStamp = lock.writeLock();
+                    }
+                    stamp = writeStamp;
+                    totals = putIfAbsent(key);
+                }
+                totals.add(incoming, outgoing, calls);
+            } finally {
+                lock.unlock(stamp);
+            }
+        }
+
+        /**
+         * Must hold the write lock.
+         */
+        private Totals putIfAbsent(long key) {
+            Totals totals = find(table, key);
+            if (totals != null) {
+                return totals;
+            }
+            if ((size + 1) * 2 > table.keys.length) {
+                table = grow(table);
+            }
+            totals = new Totals();
+            insert(table, key, totals);
+            size++;
+            return totals;
+        }
+
+        /**
+         * Removes by shifting the following entries of the probe run back, so no tombstones are left.
+         */
+        Totals remove(long key) {
+            long stamp = lock.writeLock();
+            try {
+                long[] keys = table.keys;
+                Totals[] totals = table.totals;
+                int mask = keys.length - 1;
+                int hole = slotOf(keys, key);
+                if (hole < 0) {
+                    return null;
+                }
+                Totals removed = totals[hole];
+                for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                    int home = (int) LongHashSet.mix(keys[next]) & mask;
+                    if (((next - home) & mask) >= ((next - hole) & mask)) {
+                        keys[hole] = keys[next];
+                        totals[hole] = totals[next];
+                        hole = next;
+                    }
+                }
+                keys[hole] = EMPTY;
+                totals[hole] = null;
+                size--;
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Table snapshot() {
+            long stamp = lock.readLock();
+            try {
+                return new Table(table.keys.clone(), table.totals.clone());
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * May run on a table that is being changed, under an optimistic read: probing is bounded by the
+         * table's length and the result is discarded unless the read is validated afterwards.
+         */
+        private static Totals find(Table table, long key) {
+            int slot = slotOf(table.keys, key);
+            return slot < 0 ? null : table.totals[slot];
+        }
+
+        private static int slotOf(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) LongHashSet.mix(key) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return slot;
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static Table grow(Table table) {
+            Table grown = new Table(table.keys.length << 1);
+            for (int slot = 0; slot < table.keys.length; slot++) {
+                if (table.keys[slot] != EMPTY) {
+                    insert(grown, table.keys[slot], table.totals[slot]);
+                }
+            }
+            return grown;
+        }
+
+        private static void insert(Table table, long key, Totals totals) {
+            int mask = table.keys.length - 1;
+            int slot = (int) LongHashSet.mix(key) & mask;
+            while (table.keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table.totals[slot] = totals;
+            table.keys[slot] = key;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.nexignbootcamptask.util;
+
+import org.example.nexignbootcamptask.entity.enums.CallType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes CDR report rows as CRLF-terminated CSV lines
+ * ({@code callType,callingMsisdn,receivingMsisdn,callStart,callEnd}),
+ * formatting every line into one reused buffer.
+ */
+public class CsvReportWriter implements ReportWriter {
+
+    private static final CallType[] CALL_TYPES = CallType.values();
+
+    private final Writer writer;
+    private final char[] line = new char[96];
+
+    public CsvReportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void write(byte callType, long callingMsisdn, long receivingMsisdn, long callStart, int duration)
+            throws IOException {
+        String index = CALL_TYPES[callType].getIndex();
+        index.getChars(0, index.length(), line, 0);
+        int position = index.length();
+        line[position++] = ',';
+        position = CharFormatUtil.appendLong(line, position, callingMsisdn);
+        line[position++] = ',';
+        position = CharFormatUtil.appendLong(line, position, receivingMsisdn);
+        line[position++] = ',';
+        position = CharFormatUtil.appendIsoLocalDateTime(line, position, callStart);
+        line[position++] = ',';
+        position = CharFormatUtil.appendIsoLocalDateTime(line, position, callStart + duration);
+        line[position++] = '\r';
+        line[position++] = '\n';
+        writer.write(line, 0, position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
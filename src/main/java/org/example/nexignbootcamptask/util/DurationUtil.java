@@ -0,0 +1,44 @@
+package org.example.nexignbootcamptask.util;
+
+public class DurationUtil {
+
+    /**
+     * Longest duration written by {@link #appendDuration}: 16 hour digits and {@code :mm:ss}.
+     */
+    public static final int MAX_DURATION_LENGTH = 22;
+
+    /**
+     * Formats a call duration as {@code HH:mm:ss}. Hours are not limited to 24 and may have more digits.
+     */
+    public static String formatDuration(long seconds) {
+        if (seconds < 0) {
+            return String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+        }
+        char[] buffer = new char[MAX_DURATION_LENGTH];
+        return new String(buffer, 0, appendDuration(buffer, 0, seconds));
+    }
+
+    /**
+     * Writes a non-negative call duration as {@code HH:mm:ss} into a reusable buffer,
+     * in the same format as {@link #formatDuration}.
+     *
+     * @return Position after the written chars
+     */
+    public static int appendDuration(char[] buffer, int position, long seconds) {
+        long hours = seconds / 3600;
+        if (hours < 10) {
+            buffer[position++] = '0';
+        }
+        position = CharFormatUtil.appendLong(buffer, position, hours);
+        buffer[position++] = ':';
+        position = appendTwoDigits(buffer, position, (int) (seconds % 3600 / 60));
+        buffer[position++] = ':';
+        return appendTwoDigits(buffer, position, (int) (seconds % 60));
+    }
+
+    private static int appendTwoDigits(char[] buffer, int position, int value) {
+        buffer[position] = (char) ('0' + value / 10);
+        buffer[position + 1] = (char) ('0' + value % 10);
+        return position + 2;
+    }
+}
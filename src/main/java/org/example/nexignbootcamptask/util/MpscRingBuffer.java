@@ -0,0 +1,97 @@
+package org.example.nexignbootcamptask.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producer threads and a single consumer thread.
+ * A producer claims a run of slots with one CAS on the tail and publishes each element with a release store;
+ * the consumer takes elements in claim order until it reaches a slot that is not published yet,
+ * then frees the slots by advancing the head. Neither side blocks: a full buffer rejects the offer.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 1 and 2^30");
+        }
+        this.slots = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(2, capacity) - 1) << 1);
+        this.mask = slots.length() - 1;
+    }
+
+    /**
+     * Appends all elements as one contiguous run, or none of them.
+     *
+     * @param elements Non-null elements
+     * @return false if the free slots do not fit all elements
+     * @throws IllegalArgumentException if there are more elements than slots
+     */
+    public boolean offerAll(List<? extends E> elements) {
+        int count = elements.size();
+        if (count > slots.length()) {
+            throw new IllegalArgumentException("Cannot offer more elements than the ring buffer capacity");
+        }
+
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed + count - head > slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + count));
+
+        for (int i = 0; i < count; i++) {
+            slots.setRelease((int) (claimed + i) & mask, elements.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Takes published elements in order. Must only be called from the consumer thread.
+     *
+     * @param consumer Receives each taken element
+     * @param limit Maximum number of elements to take
+     * @return Number of elements taken
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long position = head;
+        int taken = 0;
+        try {
+            while (taken < limit) {
+                int slot = (int) position & mask;
+                E element = slots.getAcquire(slot);
+                if (element == null) {
+                    break;
+                }
+                slots.setRelease(slot, null);
+                position++;
+                taken++;
+                consumer.accept(element);
+            }
+        } finally {
+            head = position;
+        }
+        return taken;
+    }
+
+    /**
+     * @return Number of claimed slots, including ones whose elements are not published yet
+     */
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.nexignbootcamptask.util;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Resolves month filters into half-open call start ranges that can use the call start indexes,
+ * and call starts into the monthly partitions of the CDR table.
+ */
+public class PeriodUtil {
+
+    /**
+     * Resolves a month and an optional year into a calendar month.
+     * Without a year the most recent such month that is not in the future is used.
+     */
+    public static YearMonth resolveMonth(Integer month, Integer year) {
+        return resolveMonth(month, year, YearMonth.now());
+    }
+
+    static YearMonth resolveMonth(Integer month, Integer year, YearMonth current) {
+        if (year != null) {
+            return YearMonth.of(year, month);
+        }
+        return month <= current.getMonthValue()
+                ? YearMonth.of(current.getYear(), month)
+                : YearMonth.of(current.getYear() - 1, month);
+    }
+
+    public static LocalDateTime startOf(YearMonth yearMonth) {
+        return yearMonth.atDay(1).atStartOfDay();
+    }
+
+    public static LocalDateTime endOf(YearMonth yearMonth) {
+        return yearMonth.plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * CDRs are partitioned by the calendar month of their call start.
+     *
+     * @return The partition key of the month, as yyyyMM
+     */
+    public static int partitionOf(YearMonth yearMonth) {
+        return yearMonth.getYear() * 100 + yearMonth.getMonthValue();
+    }
+
+    public static int partitionOf(LocalDateTime dateTime) {
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+
+    /**
+     * @return The partition key of the last month within a half-open period ending at {@code periodEnd}
+     */
+    public static int lastPartitionBefore(LocalDateTime periodEnd) {
+        return partitionOf(periodEnd.minusNanos(1));
+    }
+
+    public static YearMonth monthOf(int partition) {
+        return YearMonth.of(partition / 100, partition % 100);
+    }
+}
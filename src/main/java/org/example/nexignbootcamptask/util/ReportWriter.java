@@ -0,0 +1,34 @@
+package org.example.nexignbootcamptask.util;
+
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams CDR report rows into a file format, holding at most a fixed-size buffer of them.
+ * Takes calls in the primitive form of {@link CallColumns}. Closing writes the buffered rows
+ * and closes the output stream; closing again has no effect.
+ */
+public interface ReportWriter extends Closeable {
+
+    void write(byte callType, long callingMsisdn, long receivingMsisdn, long callStart, int duration) throws IOException;
+
+    /**
+     * Opens a writer of the format on the stream, closing the stream if that fails.
+     */
+    static ReportWriter open(ReportFormat format, OutputStream out) throws IOException {
+        try {
+            return switch (format) {
+                case CSV -> new CsvReportWriter(out);
+                case CSV_GZIP -> new CsvReportWriter(new GZIPOutputStream(out, 65_536));
+                case COLUMNAR -> new ColumnarReportWriter(out);
+            };
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+}
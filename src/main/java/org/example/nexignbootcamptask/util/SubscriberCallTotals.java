@@ -0,0 +1,120 @@
+package org.example.nexignbootcamptask.util;
+
+import java.util.Arrays;
+
+/**
+ * Incoming and outgoing call seconds per subscriber, keyed by MSISDN as a long.
+ * Open addressing with linear probing, so adding a call does not allocate. Not thread-safe.
+ */
+public class SubscriberCallTotals {
+
+    private static final long EMPTY = 0L;
+
+    private long[] msisdns;
+    private long[] incomingSeconds;
+    private long[] outgoingSeconds;
+    private int mask;
+    private int size;
+
+    public SubscriberCallTotals(int expectedSubscribers) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSubscribers * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @param msisdn Non-zero MSISDN of the billed subscriber
+     */
+    public void addIncoming(long msisdn, long seconds) {
+        int slot = slotOf(msisdn);
+        incomingSeconds[slot] += seconds;
+    }
+
+    public void addOutgoing(long msisdn, long seconds) {
+        int slot = slotOf(msisdn);
+        outgoingSeconds[slot] += seconds;
+    }
+
+    public long getIncomingSeconds(long msisdn) {
+        int slot = find(msisdn);
+        return slot < 0 ? 0 : incomingSeconds[slot];
+    }
+
+    public long getOutgoingSeconds(long msisdn) {
+        int slot = find(msisdn);
+        return slot < 0 ? 0 : outgoingSeconds[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return MSISDNs of all subscribers with calls, in ascending order.
+     * MSISDNs share one length, so this is also their order as strings.
+     */
+    public long[] sortedMsisdns() {
+        long[] sorted = new long[size];
+        int i = 0;
+        for (long msisdn : msisdns) {
+            if (msisdn != EMPTY) {
+                sorted[i++] = msisdn;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private int slotOf(long msisdn) {
+        int slot = (int) LongHashSet.mix(msisdn) & mask;
+        long current;
+        while ((current = msisdns[slot]) != EMPTY) {
+            if (current == msisdn) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        msisdns[slot] = msisdn;
+        if (++size > msisdns.length / 2) {
+            resize();
+            return find(msisdn);
+        }
+        return slot;
+    }
+
+    private int find(long msisdn) {
+        int slot = (int) LongHashSet.mix(msisdn) & mask;
+        long current;
+        while ((current = msisdns[slot]) != EMPTY) {
+            if (current == msisdn) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize() {
+        long[] oldMsisdns = msisdns;
+        long[] oldIncoming = incomingSeconds;
+        long[] oldOutgoing = outgoingSeconds;
+        allocate(oldMsisdns.length << 1);
+        for (int i = 0; i < oldMsisdns.length; i++) {
+            if (oldMsisdns[i] != EMPTY) {
+                int slot = (int) LongHashSet.mix(oldMsisdns[i]) & mask;
+                while (msisdns[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                msisdns[slot] = oldMsisdns[i];
+                incomingSeconds[slot] = oldIncoming[i];
+                outgoingSeconds[slot] = oldOutgoing[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msisdns = new long[capacity];
+        incomingSeconds = new long[capacity];
+        outgoingSeconds = new long[capacity];
+        mask = capacity - 1;
+    }
+}
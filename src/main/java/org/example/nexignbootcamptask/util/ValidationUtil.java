@@ -4,15 +4,33 @@ import java.time.LocalDateTime;
 
 public class ValidationUtil {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     public static void validateMsisdn(String msisdn) {
         if (msisdn == null || msisdn.isEmpty()) {
             throw new IllegalArgumentException("MSISDN cannot be null or empty");
         }
-        if (!msisdn.matches("^7\\d{10}$")) {
+        if (!isMsisdn(msisdn)) {
             throw new IllegalArgumentException("MSISDN should be in format 7XXXXXXXXXX");
         }
     }
 
+    /**
+     * Checks the {@code 7XXXXXXXXXX} format by scanning the chars, without compiling a pattern.
+     */
+    private static boolean isMsisdn(String msisdn) {
+        if (msisdn.length() != 11 || msisdn.charAt(0) != '7') {
+            return false;
+        }
+        for (int i = 1; i < 11; i++) {
+            char c = msisdn.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static void validateDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         if (startDate == null || endDate == null) {
             throw new IllegalArgumentException("Start date and end date cannot be null");
@@ -30,4 +48,16 @@ public class ValidationUtil {
             throw new IllegalArgumentException("Month must be between 1 and 12");
         }
     }
+
+    public static void validatePageSize(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    public static void validateYear(Integer year) {
+        if (year != null && (year < 1 || year > 9999)) {
+            throw new IllegalArgumentException("Year must be between 1 and 9999");
+        }
+    }
 }
@@ -0,0 +1,230 @@
+package org.example.nexignbootcamptask.controller.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+import org.example.nexignbootcamptask.dto.CDRPartitionResponse;
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.example.nexignbootcamptask.dto.LoadGenerationResponse;
+import org.example.nexignbootcamptask.dto.RollupRebuildResponse;
+import org.example.nexignbootcamptask.dto.UsageReconciliationResponse;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+import org.example.nexignbootcamptask.entity.enums.CDRPartitionStatus;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.service.CDRFileIngestService;
+import org.example.nexignbootcamptask.service.CDRPartitionService;
+import org.example.nexignbootcamptask.service.LoadGeneratorService;
+import org.example.nexignbootcamptask.service.ReportCacheService;
+import org.example.nexignbootcamptask.service.UDRCacheService;
+import org.example.nexignbootcamptask.service.UsageRollupService;
+import org.example.nexignbootcamptask.service.UsageTotalsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminControllerImpl.class)
+public class AdminControllerImplTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private LoadGeneratorService loadGeneratorService;
+
+    @MockitoBean
+    private UsageRollupService usageRollupService;
+
+    @MockitoBean
+    private UsageTotalsService usageTotalsService;
+
+    @MockitoBean
+    private UDRCacheService udrCacheService;
+
+    @MockitoBean
+    private ReportCacheService reportCacheService;
+
+    @MockitoBean
+    private CDRFileIngestService cdrFileIngestService;
+
+    @MockitoBean
+    private CDRPartitionService cdrPartitionService;
+
+    @Test
+    void generateLoad_Success() throws Exception {
+        LoadGenerationRequest request = LoadGenerationRequest.builder()
+                .subscriberCount(100)
+                .callCount(10_000L)
+                .seed(42L)
+                .build();
+
+        when(loadGeneratorService.generateLoad(any(LoadGenerationRequest.class)))
+                .thenReturn(LoadGenerationResponse.builder().subscriberCount(100).callCount(10_000L).seed(42L).build());
+
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.callCount").value(10_000))
+                .andExpect(jsonPath("$.seed").value(42));
+    }
+
+    @Test
+    void generateLoad_WithoutBody_UsesDefaults() throws Exception {
+        when(loadGeneratorService.generateLoad(isNull()))
+                .thenReturn(LoadGenerationResponse.builder().callCount(100_000L).build());
+
+        mockMvc.perform(post("/api/admin/load"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.callCount").value(100_000));
+    }
+
+    @Test
+    void generateLoad_InvalidParameters() throws Exception {
+        when(loadGeneratorService.generateLoad(any(LoadGenerationRequest.class)))
+                .thenThrow(new IllegalArgumentException("Chunk size must be positive"));
+
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"chunkSize\": 0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void generateLoad_AlreadyRunning() throws Exception {
+        when(loadGeneratorService.generateLoad(any(LoadGenerationRequest.class)))
+                .thenThrow(new IllegalStateException("Load generation is already running"));
+
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void rebuildRollups_Success() throws Exception {
+        when(usageRollupService.rebuildRollups())
+                .thenReturn(RollupRebuildResponse.builder().rollupCount(120).elapsedMillis(15).build());
+
+        mockMvc.perform(post("/api/admin/rollup/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rollupCount").value(120));
+    }
+
+    @Test
+    void reconcileUsageTotals_Success() throws Exception {
+        when(usageTotalsService.reconcile()).thenReturn(UsageReconciliationResponse.builder()
+                .checkedCount(2000).mismatchCount(3).repairedCount(1).elapsedMillis(40).build());
+
+        mockMvc.perform(post("/api/admin/udr/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.checkedCount").value(2000))
+                .andExpect(jsonPath("$.mismatchCount").value(3))
+                .andExpect(jsonPath("$.repairedCount").value(1));
+    }
+
+    @Test
+    void reconcileUsageTotals_Disabled_ReturnsConflict() throws Exception {
+        when(usageTotalsService.reconcile()).thenThrow(new IllegalStateException("Live UDR totals are disabled"));
+
+        mockMvc.perform(post("/api/admin/udr/reconcile"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getUDRCacheStats_Success() throws Exception {
+        when(udrCacheService.getCacheStats())
+                .thenReturn(CacheStatsResponse.builder().size(3).hitCount(8).missCount(2).hitRate(0.8).build());
+
+        mockMvc.perform(get("/api/admin/cache/udr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitCount").value(8))
+                .andExpect(jsonPath("$.missCount").value(2))
+                .andExpect(jsonPath("$.hitRate").value(0.8));
+    }
+
+    @Test
+    void getReportCacheStats_Success() throws Exception {
+        when(reportCacheService.getCacheStats())
+                .thenReturn(CacheStatsResponse.builder().size(2).hitCount(3).missCount(1).hitRate(0.75).build());
+
+        mockMvc.perform(get("/api/admin/cache/reports"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hitRate").value(0.75));
+    }
+
+    @Test
+    void getCDRFiles_Success() throws Exception {
+        when(cdrFileIngestService.getFiles()).thenReturn(List.of(CDRFileResponse.builder()
+                .fileName("switch-1.csv")
+                .status(CDRFileStatus.IN_PROGRESS)
+                .size(1000)
+                .committedBytes(250)
+                .progress(0.25)
+                .recordCount(3)
+                .build()));
+
+        mockMvc.perform(get("/api/admin/ingest/files"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fileName").value("switch-1.csv"))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$[0].progress").value(0.25));
+    }
+
+    @Test
+    void getCDRPartitions_Success() throws Exception {
+        when(cdrPartitionService.getPartitions()).thenReturn(List.of(CDRPartitionResponse.builder()
+                .month(YearMonth.of(2025, 5))
+                .status(CDRPartitionStatus.ACTIVE)
+                .recordCount(42)
+                .build()));
+
+        mockMvc.perform(get("/api/admin/partitions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].month").value("2025-05"))
+                .andExpect(jsonPath("$[0].status").value("ACTIVE"))
+                .andExpect(jsonPath("$[0].recordCount").value(42));
+    }
+
+    @Test
+    void archiveCDRPartition_Success() throws Exception {
+        when(cdrPartitionService.archivePartition(YearMonth.of(2025, 5))).thenReturn(CDRPartitionResponse.builder()
+                .month(YearMonth.of(2025, 5))
+                .status(CDRPartitionStatus.ARCHIVED)
+                .recordCount(42)
+                .archiveFile("archive/cdr-2025-05-20250601000000.csv")
+                .build());
+
+        mockMvc.perform(post("/api/admin/partitions/2025-05/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ARCHIVED"))
+                .andExpect(jsonPath("$.archiveFile").value("archive/cdr-2025-05-20250601000000.csv"));
+    }
+
+    @Test
+    void dropCDRPartition_NoCalls_NotFound() throws Exception {
+        when(cdrPartitionService.dropPartition(YearMonth.of(2025, 4)))
+                .thenThrow(new ResourceNotFoundException("No CDRs found in partition 2025-04"));
+
+        mockMvc.perform(delete("/api/admin/partitions/2025-04"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,23 +1,42 @@
 package org.example.nexignbootcamptask.controller.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRBatchReportEntry;
 import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
 import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse;
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.exception.IngestBufferFullException;
+import org.example.nexignbootcamptask.exception.ReportNotReadyException;
+import org.example.nexignbootcamptask.exception.ReportQueueFullException;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
-import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.service.CDRIngestBufferService;
+import org.example.nexignbootcamptask.service.ReportJobService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,50 +50,210 @@ public class CDRControllerImplTest {
     private ObjectMapper objectMapper;
 
     @MockitoBean
-    private CDRService cdrService;
+    private ReportJobService reportJobService;
+
+    @MockitoBean
+    private CDRIngestBufferService cdrIngestBufferService;
+
+    @TempDir
+    private Path tempDir;
 
     @Test
-    void generateCDRReport_Success() throws Exception {
-        String msisdn = "79001112233";
-        LocalDateTime startDate = LocalDateTime.now().minusMonths(1);
-        LocalDateTime endDate = LocalDateTime.now();
+    void ingestCDRecords_Committed_ReturnsOk() throws Exception {
+        when(cdrIngestBufferService.ingest(any())).thenReturn(CDRIngestResponse.builder()
+                .recordCount(1).durability(CDRIngestResponse.Durability.COMMIT).build());
 
-        CDRGenerationRequest request = new CDRGenerationRequest();
-        request.setMsisdn(msisdn);
-        request.setStartDate(startDate);
-        request.setEndDate(endDate);
+        mockMvc.perform(post("/api/cdr/records")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createRecord()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recordCount").value(1))
+                .andExpect(jsonPath("$.durability").value("COMMIT"));
+    }
+
+    @Test
+    void ingestCDRecords_Enqueued_ReturnsAccepted() throws Exception {
+        when(cdrIngestBufferService.ingest(any())).thenReturn(CDRIngestResponse.builder()
+                .recordCount(1).durability(CDRIngestResponse.Durability.ENQUEUE).build());
+
+        mockMvc.perform(post("/api/cdr/records")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createRecord()))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.durability").value("ENQUEUE"));
+    }
+
+    @Test
+    void ingestCDRecords_BufferFull_ReturnsServiceUnavailable() throws Exception {
+        when(cdrIngestBufferService.ingest(any()))
+                .thenThrow(new IngestBufferFullException("CDR ingest buffer is full, try again later"));
+
+        mockMvc.perform(post("/api/cdr/records")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createRecord()))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("CDR ingest buffer is full, try again later"));
+    }
+
+    @Test
+    void generateCDRReport_Success() throws Exception {
+        CDRGenerationRequest request = createRequest();
 
         UUID requestId = UUID.randomUUID();
         CDRGenerationResponse response = CDRGenerationResponse.builder()
                 .requestId(requestId)
                 .build();
 
-        when(cdrService.generateCDRReport(any(CDRGenerationRequest.class))).thenReturn(response);
+        when(reportJobService.submitCDRReport(any(CDRGenerationRequest.class))).thenReturn(response);
 
         mockMvc.perform(post("/api/cdr/generate")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andExpect(jsonPath("$.requestId").value(requestId.toString()));
     }
 
     @Test
     void generateCDRReport_SubscriberNotFound() throws Exception {
-        String msisdn = "79001112233";
-        LocalDateTime startDate = LocalDateTime.now().minusMonths(1);
-        LocalDateTime endDate = LocalDateTime.now();
+        CDRGenerationRequest request = createRequest();
 
-        CDRGenerationRequest request = new CDRGenerationRequest();
-        request.setMsisdn(msisdn);
-        request.setStartDate(startDate);
-        request.setEndDate(endDate);
+        when(reportJobService.submitCDRReport(any(CDRGenerationRequest.class)))
+                .thenThrow(new ResourceNotFoundException("Subscriber", "msisdn", request.getMsisdn()));
 
-        when(cdrService.generateCDRReport(any(CDRGenerationRequest.class)))
-                .thenThrow(new ResourceNotFoundException("Subscriber", "msisdn", msisdn));
+        mockMvc.perform(post("/api/cdr/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void generateCDRReport_QueueFull() throws Exception {
+        CDRGenerationRequest request = createRequest();
+
+        when(reportJobService.submitCDRReport(any(CDRGenerationRequest.class)))
+                .thenThrow(new ReportQueueFullException("Report queue is full, try again later",
+                        new RejectedExecutionException()));
 
         mockMvc.perform(post("/api/cdr/generate")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void generateCDRBatchReport_ReturnsManifestWithLocations() throws Exception {
+        CDRBatchGenerationRequest request = new CDRBatchGenerationRequest(List.of("79001112233", "79002223344"),
+                LocalDateTime.of(2025, 5, 1, 0, 0), LocalDateTime.of(2025, 5, 31, 23, 59, 59), null);
+        UUID batchId = UUID.randomUUID();
+        UUID requestId = UUID.randomUUID();
+        CDRBatchGenerationResponse response = CDRBatchGenerationResponse.builder()
+                .batchId(batchId)
+                .reports(List.of(CDRBatchReportEntry.builder()
+                        .msisdn("79001112233")
+                        .requestId(requestId)
+                        .status(ReportStatusResponse.Status.QUEUED)
+                        .build()))
+                .build();
+
+        when(reportJobService.submitCDRBatchReport(any(CDRBatchGenerationRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/cdr/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.batchId").value(batchId.toString()))
+                .andExpect(jsonPath("$.reports[0].requestId").value(requestId.toString()))
+                .andExpect(jsonPath("$.reports[0].location").value("/api/cdr/report/" + requestId + "/download"));
+    }
+
+    @Test
+    void getBatchReport_NotFound() throws Exception {
+        UUID batchId = UUID.randomUUID();
+
+        when(reportJobService.getBatchReport(batchId))
+                .thenThrow(new ResourceNotFoundException("Report batch", "batchId", batchId.toString()));
+
+        mockMvc.perform(get("/api/cdr/batch/{batchId}", batchId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getReportStatus_Success() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        ReportStatusResponse response = ReportStatusResponse.builder()
+                .requestId(requestId)
+                .status(ReportStatusResponse.Status.RUNNING)
+                .build();
+
+        when(reportJobService.getReportStatus(requestId)).thenReturn(response);
+
+        mockMvc.perform(get("/api/cdr/report/{requestId}", requestId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requestId").value(requestId.toString()))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    void getReportStatus_NotFound() throws Exception {
+        UUID requestId = UUID.randomUUID();
+
+        when(reportJobService.getReportStatus(requestId))
+                .thenThrow(new ResourceNotFoundException("Report", "requestId", requestId.toString()));
+
+        mockMvc.perform(get("/api/cdr/report/{requestId}", requestId))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void downloadReport_Success() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        Path reportFile = Files.writeString(tempDir.resolve("79001112233_" + requestId + ".csv"),
+                "01,79001112233,79002223344,2025-05-01T10:00:00,2025-05-01T10:05:00\n");
+
+        when(reportJobService.getReportFile(requestId)).thenReturn(reportFile);
+
+        mockMvc.perform(get("/api/cdr/report/{requestId}/download", requestId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(Files.readString(reportFile)));
+    }
+
+    @Test
+    void downloadReport_GzipFormat() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        Path reportFile = Files.write(tempDir.resolve("79001112233_" + requestId + ".csv.gz"), new byte[]{0x1f, (byte) 0x8b});
+
+        when(reportJobService.getReportFile(requestId)).thenReturn(reportFile);
+
+        mockMvc.perform(get("/api/cdr/report/{requestId}/download", requestId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"" + requestId + ".csv.gz\""));
+    }
+
+    @Test
+    void downloadReport_NotReady() throws Exception {
+        UUID requestId = UUID.randomUUID();
+
+        when(reportJobService.getReportFile(requestId))
+                .thenThrow(new ReportNotReadyException("Report is not available, status: QUEUED"));
+
+        mockMvc.perform(get("/api/cdr/report/{requestId}/download", requestId))
+                .andExpect(status().isConflict());
+    }
+
+    private CDRGenerationRequest createRequest() {
+        CDRGenerationRequest request = new CDRGenerationRequest();
+        request.setMsisdn("79001112233");
+        request.setStartDate(LocalDateTime.now().minusMonths(1));
+        request.setEndDate(LocalDateTime.now());
+        return request;
+    }
+
+    private CDRecordRequest createRecord() {
+        LocalDateTime callStart = LocalDateTime.of(2025, 5, 1, 10, 0);
+        return new CDRecordRequest(CallType.OUTCOMING, "79001112233", "79002223344",
+                callStart, callStart.plusMinutes(5));
+    }
 }
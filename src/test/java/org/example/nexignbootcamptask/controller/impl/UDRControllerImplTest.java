@@ -1,5 +1,6 @@
 package org.example.nexignbootcamptask.controller.impl;
 
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
 import org.example.nexignbootcamptask.dto.UDRResponse;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
 import org.example.nexignbootcamptask.service.UDRService;
@@ -8,17 +9,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UDRControllerImpl.class)
 public class UDRControllerImplTest {
@@ -39,7 +42,7 @@ public class UDRControllerImplTest {
                 .outcomingCall(UDRResponse.CallStats.builder().totalTime("00:15:00").build())
                 .build();
 
-        when(udrService.getUDRForSubscriber(eq(msisdn), any())).thenReturn(response);
+        when(udrService.getUDRForSubscriber(eq(msisdn), any(), any())).thenReturn(response);
 
         mockMvc.perform(get("/api/udr/subscriber/{msisdn}", msisdn))
                 .andExpect(status().isOk())
@@ -59,7 +62,7 @@ public class UDRControllerImplTest {
                 .outcomingCall(UDRResponse.CallStats.builder().totalTime("00:08:00").build())
                 .build();
 
-        when(udrService.getUDRForSubscriber(eq(msisdn), eq(month))).thenReturn(response);
+        when(udrService.getUDRForSubscriber(eq(msisdn), eq(month), any())).thenReturn(response);
 
         mockMvc.perform(get("/api/udr/subscriber/{msisdn}", msisdn)
                         .param("month", month.toString()))
@@ -73,7 +76,7 @@ public class UDRControllerImplTest {
     void getUDRForSubscriber_NotFound() throws Exception {
         String msisdn = "79999999999";
 
-        when(udrService.getUDRForSubscriber(eq(msisdn), any()))
+        when(udrService.getUDRForSubscriber(eq(msisdn), any(), any()))
                 .thenThrow(new ResourceNotFoundException("Subscriber", "msisdn", msisdn));
 
         mockMvc.perform(get("/api/udr/subscriber/{msisdn}", msisdn))
@@ -98,7 +101,7 @@ public class UDRControllerImplTest {
 
         List<UDRResponse> responses = Arrays.asList(response1, response2);
 
-        when(udrService.getAllUDRsForMonth(month)).thenReturn(responses);
+        when(udrService.getAllUDRsForMonth(eq(month), any())).thenReturn(responses);
 
         mockMvc.perform(get("/api/udr/month/{month}", month))
                 .andExpect(status().isOk())
@@ -112,11 +115,77 @@ public class UDRControllerImplTest {
     void getAllUDRsForMonth_EmptyList() throws Exception {
         Integer month = 5;
 
-        when(udrService.getAllUDRsForMonth(month)).thenReturn(Collections.emptyList());
+        when(udrService.getAllUDRsForMonth(eq(month), any())).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/udr/month/{month}", month))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$").isEmpty());
     }
+
+    @Test
+    void getUDRsForMonthPage_Success() throws Exception {
+        UDRResponse response = UDRResponse.builder()
+                .msisdn("79002223344")
+                .incomingCall(UDRResponse.CallStats.builder().totalTime("00:05:00").build())
+                .outcomingCall(UDRResponse.CallStats.builder().totalTime("00:08:00").build())
+                .build();
+
+        when(udrService.getUDRsForMonthPage(eq(5), any(), eq("79001112233"), eq(1)))
+                .thenReturn(new UDRPageResponse(List.of(response), "79002223344"));
+
+        mockMvc.perform(get("/api/udr/month/{month}/page", 5)
+                        .param("after", "79001112233")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.udrs[0].msisdn").value("79002223344"))
+                .andExpect(jsonPath("$.nextCursor").value("79002223344"));
+    }
+
+    @Test
+    void getUDRsForMonthPage_InvalidLimit() throws Exception {
+        when(udrService.getUDRsForMonthPage(eq(5), any(), any(), eq(0)))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 1000"));
+
+        mockMvc.perform(get("/api/udr/month/{month}/page", 5).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllUDRsForMonth_WritesNdjson() throws Exception {
+        UDRResponse response1 = UDRResponse.builder()
+                .msisdn("79001112233")
+                .incomingCall(UDRResponse.CallStats.builder().totalTime("00:10:00").build())
+                .outcomingCall(UDRResponse.CallStats.builder().totalTime("00:15:00").build())
+                .build();
+        UDRResponse response2 = UDRResponse.builder()
+                .msisdn("79002223344")
+                .incomingCall(UDRResponse.CallStats.builder().totalTime("00:05:00").build())
+                .outcomingCall(UDRResponse.CallStats.builder().totalTime("00:08:00").build())
+                .build();
+
+        when(udrService.streamAllUDRsForMonth(eq(5), any())).thenReturn(Stream.of(response1, response2));
+
+        MvcResult result = mockMvc.perform(get("/api/udr/month/{month}/stream", 5))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"msisdn\":\"79001112233\",\"incomingCall\":{\"totalTime\":\"00:10:00\"}," +
+                                "\"outcomingCall\":{\"totalTime\":\"00:15:00\"}}\n" +
+                                "{\"msisdn\":\"79002223344\",\"incomingCall\":{\"totalTime\":\"00:05:00\"}," +
+                                "\"outcomingCall\":{\"totalTime\":\"00:08:00\"}}\n"));
+    }
+
+    @Test
+    void streamAllUDRsForMonth_InvalidMonth() throws Exception {
+        when(udrService.streamAllUDRsForMonth(eq(13), any()))
+                .thenThrow(new IllegalArgumentException("Month must be between 1 and 12"));
+
+        mockMvc.perform(get("/api/udr/month/{month}/stream", 13))
+                .andExpect(status().isBadRequest());
+    }
 }
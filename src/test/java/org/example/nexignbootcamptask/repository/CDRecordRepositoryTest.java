@@ -0,0 +1,360 @@
+package org.example.nexignbootcamptask.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.nexignbootcamptask.dto.CallDurationSummary;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.CDRPartitionCount;
+import org.example.nexignbootcamptask.dto.CDRReportRow;
+import org.example.nexignbootcamptask.dto.MsisdnRange;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CDRecordRepositoryTest {
+
+    @Autowired
+    private CDRecordRepository cdRecordRepository;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Subscriber subscriber1;
+    private Subscriber subscriber2;
+    private LocalDateTime mayStart;
+    private LocalDateTime juneStart;
+
+    @BeforeEach
+    void setUp() {
+        subscriber1 = subscriberRepository.save(Subscriber.builder().msisdn("79001112233").build());
+        subscriber2 = subscriberRepository.save(Subscriber.builder().msisdn("79002223344").build());
+        mayStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+        juneStart = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+        cdRecordRepository.saveAll(Arrays.asList(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart, 300),
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart.plusDays(1), 60),
+                record(CallType.OUTCOMING, subscriber2, subscriber1, mayStart.plusDays(2), 45),
+                record(CallType.INCOMING, subscriber2, subscriber1, mayStart.plusDays(3), 120),
+                record(CallType.OUTCOMING, subscriber1, subscriber2, juneStart, 1000),
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart.minusYears(1), 500)
+        ));
+    }
+
+    @Test
+    void sumDurationByCallingSubscriberAndCallTypeAndPeriod_GroupsPerSubscriber() {
+        List<CallDurationSummary> result = cdRecordRepository
+                .sumDurationByCallingSubscriberAndCallTypeAndPeriod(CallType.OUTCOMING, mayStart, juneStart);
+
+        assertEquals(2, result.size());
+        assertEquals("79001112233", result.get(0).getMsisdn());
+        assertEquals(360L, result.get(0).getTotalSeconds());
+        assertEquals("79002223344", result.get(1).getMsisdn());
+        assertEquals(45L, result.get(1).getTotalSeconds());
+    }
+
+    @Test
+    void sumDurationByReceivingSubscriberAndCallTypeAndPeriod_GroupsPerSubscriber() {
+        List<CallDurationSummary> result = cdRecordRepository
+                .sumDurationByReceivingSubscriberAndCallTypeAndPeriod(CallType.INCOMING, mayStart, juneStart);
+
+        assertEquals(1, result.size());
+        assertEquals("79001112233", result.get(0).getMsisdn());
+        assertEquals(120L, result.get(0).getTotalSeconds());
+    }
+
+    @Test
+    void findMsisdnRanges_SplitsSubscribersIntoOrderedChunks() {
+        subscriberRepository.save(Subscriber.builder().msisdn("79003334455").build());
+
+        List<MsisdnRange> ranges = subscriberRepository.findMsisdnRanges(2);
+
+        assertEquals(2, ranges.size());
+        assertEquals(new MsisdnRange("79001112233", "79002223344"), ranges.get(0));
+        assertEquals(new MsisdnRange("79003334455", "79003334455"), ranges.get(1));
+    }
+
+    @Test
+    void findAllMsisdns_ReturnsEverySubscriber() {
+        List<String> msisdns = subscriberRepository.findAllMsisdns();
+
+        assertEquals(2, msisdns.size());
+        assertTrue(msisdns.containsAll(List.of("79001112233", "79002223344")));
+    }
+
+    @Test
+    void findMsisdnsAfter_ReturnsNextMsisdnsInOrder() {
+        assertEquals(List.of("79001112233"), subscriberRepository.findMsisdnsAfter("", Limit.of(1)));
+        assertEquals(List.of("79002223344"), subscriberRepository.findMsisdnsAfter("79001112233", Limit.of(10)));
+        assertTrue(subscriberRepository.findMsisdnsAfter("79002223344", Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange_LimitsToRange() {
+        List<CallDurationSummary> result = cdRecordRepository
+                .sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                        CallType.OUTCOMING, mayStart, juneStart, "79002223344", "79009999999");
+
+        assertEquals(1, result.size());
+        assertEquals("79002223344", result.get(0).getMsisdn());
+        assertEquals(45L, result.get(0).getTotalSeconds());
+    }
+
+    @Test
+    void sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange_LimitsToRange() {
+        assertEquals(1, cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.INCOMING, mayStart, juneStart, "79001112233", "79001112233").size());
+        assertTrue(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.INCOMING, mayStart, juneStart, "79002223344", "79002223344").isEmpty());
+    }
+
+    @Test
+    void sumDurationsBySubscriber_SplitsByCallType() {
+        CallDurationTotals totals = cdRecordRepository.sumDurationsBySubscriber("79001112233");
+
+        assertEquals(120L, totals.getIncomingSeconds());
+        assertEquals(1860L, totals.getOutgoingSeconds());
+        assertEquals(5L, totals.getCallCount());
+    }
+
+    @Test
+    void sumDurationsBySubscriberAndPeriod_SplitsByCallTypeWithinYear() {
+        CallDurationTotals totals = cdRecordRepository
+                .sumDurationsBySubscriberAndPeriod("79001112233", mayStart, juneStart);
+
+        assertEquals(120L, totals.getIncomingSeconds());
+        assertEquals(360L, totals.getOutgoingSeconds());
+        assertEquals(3L, totals.getCallCount());
+    }
+
+    @Test
+    void sumDurationsBySubscriberAndPeriod_NoCalls_ReturnsZeroTotals() {
+        CallDurationTotals totals = cdRecordRepository
+                .sumDurationsBySubscriberAndPeriod("79001112233", mayStart.minusMonths(1), mayStart);
+
+        assertEquals(0L, totals.getIncomingSeconds());
+        assertEquals(0L, totals.getOutgoingSeconds());
+        assertEquals(0L, totals.getCallCount());
+    }
+
+    @Test
+    void callingSubscriberPeriodFilter_UsesIndexRangeScan() {
+        String plan = explain("SELECT SUM(DATEDIFF(SECOND, call_start, call_end)) FROM cdrecord " +
+                "WHERE calling_subscriber_msisdn = '79001112233' AND call_type = 'OUTCOMING' " +
+                "AND call_month BETWEEN 202505 AND 202505 " +
+                "AND call_start >= TIMESTAMP '2025-05-01 00:00:00' AND call_start < TIMESTAMP '2025-06-01 00:00:00'");
+
+        assertTrue(plan.contains("IDX_CDR_CALLING_MONTH_TYPE_START"), plan);
+        assertTrue(plan.contains("CALL_START >= "), plan);
+    }
+
+    @Test
+    void receivingSubscriberPeriodFilter_UsesIndexRangeScan() {
+        String plan = explain("SELECT SUM(DATEDIFF(SECOND, call_start, call_end)) FROM cdrecord " +
+                "WHERE receiving_subscriber_msisdn = '79001112233' AND call_type = 'INCOMING' " +
+                "AND call_month BETWEEN 202505 AND 202505 " +
+                "AND call_start >= TIMESTAMP '2025-05-01 00:00:00' AND call_start < TIMESTAMP '2025-06-01 00:00:00'");
+
+        assertTrue(plan.contains("IDX_CDR_RECEIVING_MONTH_TYPE_START"), plan);
+        assertTrue(plan.contains("CALL_START >= "), plan);
+    }
+
+    @Test
+    void monthPeriodFilter_ReadsOnlyItsPartition() {
+        String plan = explain("SELECT calling_subscriber_msisdn, SUM(DATEDIFF(SECOND, call_start, call_end)) " +
+                "FROM cdrecord WHERE call_month BETWEEN 202505 AND 202505 AND call_type = 'OUTCOMING' " +
+                "AND call_start >= TIMESTAMP '2025-05-01 00:00:00' AND call_start < TIMESTAMP '2025-06-01 00:00:00' " +
+                "GROUP BY calling_subscriber_msisdn");
+
+        assertTrue(plan.contains("IDX_CDR_MONTH_TYPE"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void findAllBySubscriberMsisdnAndDateRange_ReturnsBothDirectionsOrderedByStart() {
+        List<CDRecord> result = cdRecordRepository.findAllBySubscriberMsisdnAndDateRange(
+                "79001112233", mayStart, juneStart);
+
+        assertEquals(5, result.size());
+        for (int i = 1; i < result.size(); i++) {
+            assertFalse(result.get(i).getCallStart().isBefore(result.get(i - 1).getCallStart()));
+        }
+    }
+
+    @Test
+    void subscriberDateRangeFilter_UsesBothSubscriberIndexes() {
+        String plan = explain("SELECT * FROM cdrecord WHERE id IN (" +
+                "SELECT id FROM cdrecord WHERE calling_subscriber_msisdn = '79001112233' " +
+                "AND call_month BETWEEN 202505 AND 202506 " +
+                "AND call_start >= TIMESTAMP '2025-05-01 00:00:00' AND call_start <= TIMESTAMP '2025-06-01 00:00:00' " +
+                "UNION ALL " +
+                "SELECT id FROM cdrecord WHERE receiving_subscriber_msisdn = '79001112233' " +
+                "AND call_month BETWEEN 202505 AND 202506 " +
+                "AND call_start >= TIMESTAMP '2025-05-01 00:00:00' AND call_start <= TIMESTAMP '2025-06-01 00:00:00') " +
+                "ORDER BY call_start");
+
+        assertTrue(plan.contains("IDX_CDR_CALLING_MONTH_TYPE_START"), plan);
+        assertTrue(plan.contains("IDX_CDR_RECEIVING_MONTH_TYPE_START"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void streamReportRowsBySubscriberMsisdnAndDateRange_RunsSingleStatement() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<CDRReportRow> rows;
+        try (Stream<CDRReportRow> stream = cdRecordRepository.streamReportRowsBySubscriberMsisdnAndDateRange(
+                "79001112233", mayStart, juneStart)) {
+            rows = stream.toList();
+        }
+
+        assertEquals(5, rows.size());
+        assertEquals("79001112233", rows.get(0).getCallingMsisdn());
+        assertEquals("79002223344", rows.get(0).getReceivingMsisdn());
+        assertEquals(mayStart, rows.get(0).getCallStart());
+        assertEquals(juneStart, rows.get(4).getCallStart());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void streamReportRowsBySubscriberMsisdnsAndDateRange_ReadsOnlyCallsOfSubscribersInSingleStatement() {
+        Subscriber subscriber3 = subscriberRepository.save(Subscriber.builder().msisdn("79003334455").build());
+        cdRecordRepository.save(record(CallType.OUTCOMING, subscriber3, subscriber2, mayStart.plusDays(4), 90));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<CDRReportRow> rows;
+        try (Stream<CDRReportRow> stream = cdRecordRepository.streamReportRowsBySubscriberMsisdnsAndDateRange(
+                List.of("79001112233", "79009999999"), mayStart.plusDays(1), juneStart)) {
+            rows = stream.toList();
+        }
+
+        assertEquals(4, rows.size());
+        assertEquals(mayStart.plusDays(1), rows.get(0).getCallStart());
+        assertEquals("79002223344", rows.get(1).getCallingMsisdn());
+        assertEquals(juneStart, rows.get(3).getCallStart());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        try (Stream<CDRReportRow> stream = cdRecordRepository.streamReportRowsBySubscriberMsisdnsAndDateRange(
+                List.of("79001112233", "79002223344"), mayStart.plusDays(1), juneStart)) {
+            assertEquals(5, stream.count());
+        }
+    }
+
+    @Test
+    void findAllBySubscriberMsisdnAndDateRange_FetchesSubscribersInSameStatement() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<CDRecord> records = cdRecordRepository.findAllBySubscriberMsisdnAndDateRange(
+                "79001112233", mayStart, juneStart);
+        records.forEach(record -> {
+            record.getCallingSubscriber().toString();
+            record.getReceivingSubscriber().toString();
+        });
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bulkInsert_BatchesInsertsAndClearsPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<CDRecord> records = IntStream.range(0, 2500)
+                .mapToObj(i -> record(CallType.OUTCOMING, subscriber1, subscriber2, juneStart.plusMinutes(i), 30))
+                .toList();
+
+        long inserted = cdRecordRepository.bulkInsert(records);
+
+        assertEquals(2500, inserted);
+        assertEquals(2500, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 25,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        assertEquals(2500, records.stream().map(CDRecord::getId).distinct().count());
+        assertEquals(2506, cdRecordRepository.count());
+    }
+
+    @Test
+    void save_AssignsPartitionOfCallStart() {
+        CDRecord record = cdRecordRepository.save(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, LocalDateTime.of(2024, 12, 31, 23, 59), 120));
+
+        assertEquals(202412, record.getCallMonth());
+    }
+
+    @Test
+    void countByPartition_CountsRecordsPerMonth() {
+        List<CDRPartitionCount> counts = cdRecordRepository.countByPartition();
+
+        assertEquals(List.of(new CDRPartitionCount(202405, 1L), new CDRPartitionCount(202505, 4L),
+                new CDRPartitionCount(202506, 1L)), counts);
+    }
+
+    @Test
+    void deletePartition_RemovesOnlyThatMonth() {
+        List<CDRReportRow> rows;
+        try (Stream<CDRReportRow> stream = cdRecordRepository.streamReportRowsByPartition(202505)) {
+            rows = stream.toList();
+        }
+
+        int deleted = cdRecordRepository.deletePartition(202505);
+
+        assertEquals(4, rows.size());
+        assertEquals(mayStart, rows.get(0).getCallStart());
+        assertEquals(4, deleted);
+        assertEquals(2, cdRecordRepository.count());
+        assertEquals(0, cdRecordRepository.sumDurationsBySubscriberAndPeriod("79001112233", mayStart, juneStart)
+                .getCallCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+
+    private CDRecord record(CallType callType, Subscriber caller, Subscriber receiver,
+                            LocalDateTime callStart, int durationSeconds) {
+        return CDRecord.builder()
+                .callType(callType)
+                .callingSubscriber(caller)
+                .receivingSubscriber(receiver)
+                .callStart(callStart)
+                .callEnd(callStart.plusSeconds(durationSeconds))
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.nexignbootcamptask.dto.CDRFileResponse;
+import org.example.nexignbootcamptask.entity.CDRFile;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.enums.CDRFileStatus;
+import org.example.nexignbootcamptask.repository.CDRFileRepository;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs without a test transaction, since every chunk commits on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CDRIngestServiceImpl.class, UsageRollupServiceImpl.class, SimpleMeterRegistry.class})
+public class CDRFileIngestServiceImplTest {
+
+    private static final Set<Long> SUBSCRIBERS = Set.of(79001112233L, 79002223344L);
+
+    @Autowired
+    private CDRIngestService cdrIngestService;
+
+    @Autowired
+    private CDRFileRepository cdrFileRepository;
+
+    @Autowired
+    private CDRecordRepository cdRecordRepository;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Autowired
+    private SubscriberMonthlyUsageRepository usageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private SubscriberDirectoryService subscriberDirectoryService;
+
+    @TempDir
+    private Path directory;
+
+    private ExecutorService parseExecutor;
+
+    private CDRFileIngestServiceImpl cdrFileIngestService;
+
+    @BeforeEach
+    void setUp() {
+        subscriberRepository.saveAll(List.of(
+                Subscriber.builder().msisdn("79001112233").build(),
+                Subscriber.builder().msisdn("79002223344").build()));
+        when(subscriberDirectoryService.exists(anyLong()))
+                .thenAnswer(invocation -> SUBSCRIBERS.contains(invocation.<Long>getArgument(0)));
+
+        // chunks of about two lines, parsed by three workers
+        parseExecutor = Executors.newFixedThreadPool(3);
+        cdrFileIngestService = new CDRFileIngestServiceImpl(cdrIngestService, cdrFileRepository,
+                subscriberDirectoryService, transactionManager, parseExecutor, DataSize.ofBytes(150), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parseExecutor.shutdownNow();
+        cdRecordRepository.deleteAll();
+        usageRepository.deleteAll();
+        cdrFileRepository.deleteAll();
+        subscriberRepository.deleteAll();
+    }
+
+    @Test
+    void ingestFile_StoresValidLinesInParallelChunks() throws IOException {
+        Path file = write("switch-1.csv", 20, "01,79001112233,79009999999,2025-05-01T00:00:00,2025-05-01T00:01:00\r\n");
+
+        CDRFileResponse response = cdrFileIngestService.ingestFile(file);
+
+        assertEquals(CDRFileStatus.DONE, response.getStatus());
+        assertEquals(20, response.getRecordCount());
+        assertEquals(1, response.getRejectedCount());
+        assertEquals("Unknown subscriber", response.getFirstRejection());
+        assertEquals(Files.size(file), response.getCommittedBytes());
+        assertEquals(1.0, response.getProgress());
+        assertEquals(20, cdRecordRepository.count());
+        assertEquals((2 + 4 + 6 + 8 + 10 + 12 + 14 + 16 + 18 + 20) * 60, usageRepository.findById(new SubscriberMonthlyUsageId("79001112233", 2025, 5))
+                .orElseThrow().getOutgoingSeconds());
+    }
+
+    @Test
+    void ingestFile_SameContentTwice_IngestsOnce() throws IOException {
+        Path file = write("switch-1.csv", 10, "");
+        Path copy = Files.copy(file, directory.resolve("switch-1-resent.csv"));
+
+        cdrFileIngestService.ingestFile(file);
+        CDRFileResponse response = cdrFileIngestService.ingestFile(copy);
+
+        assertEquals(CDRFileStatus.DONE, response.getStatus());
+        assertEquals("switch-1.csv", response.getFileName());
+        assertEquals(10, cdRecordRepository.count());
+        assertEquals(1, cdrFileIngestService.getFiles().size());
+    }
+
+    @Test
+    void ingestFile_Interrupted_ResumesAfterCommittedOffset() throws IOException {
+        Path file = write("switch-1.csv", 10, "");
+        CDRFileResponse first = cdrFileIngestService.ingestFile(file);
+        cdRecordRepository.deleteAll();
+        usageRepository.deleteAll();
+
+        long lineLength = Files.size(file) / 10;
+        CDRFile cdrFile = cdrFileRepository.findById(first.getChecksum()).orElseThrow();
+        cdrFile.setStatus(CDRFileStatus.FAILED);
+        cdrFile.setCommittedBytes(4 * lineLength);
+        cdrFile.setRecordCount(4);
+        cdrFileRepository.save(cdrFile);
+
+        CDRFileResponse response = cdrFileIngestService.ingestFile(file);
+
+        assertEquals(CDRFileStatus.DONE, response.getStatus());
+        assertEquals(10, response.getRecordCount());
+        assertEquals(6, cdRecordRepository.count());
+        assertNull(response.getError());
+    }
+
+    @Test
+    void ingestFile_MissingFile_ThrowsException() {
+        assertThrows(RuntimeException.class, () -> cdrFileIngestService.ingestFile(directory.resolve("missing.csv")));
+    }
+
+    /**
+     * Writes calls of one to {@code count} minutes, alternating between both subscribers, followed by an extra line.
+     */
+    private Path write(String name, int count, String extraLine) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            String caller = i % 2 == 0 ? "79001112233" : "79002223344";
+            String receiver = i % 2 == 0 ? "79002223344" : "79001112233";
+            csv.append("01,").append(caller).append(',').append(receiver)
+                    .append(",2025-05-01T10:00:00,2025-05-01T10:").append(String.format("%02d", i)).append(":00\r\n");
+        }
+        csv.append(extraLine);
+        return Files.writeString(directory.resolve(name), csv);
+    }
+}
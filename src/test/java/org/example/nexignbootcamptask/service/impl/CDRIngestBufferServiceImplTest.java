@@ -0,0 +1,294 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse;
+import org.example.nexignbootcamptask.dto.CDRIngestResponse.Durability;
+import org.example.nexignbootcamptask.dto.CDRecordRequest;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.exception.IngestBufferFullException;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CDRIngestBufferServiceImplTest {
+
+    private static final LocalDateTime CALL_START = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    @Mock
+    private CDRIngestService cdrIngestService;
+
+    @Mock
+    private SubscriberDirectoryService subscriberDirectoryService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CDRIngestBufferServiceImpl bufferService;
+
+    private final List<List<CDRecord>> groups = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (bufferService != null) {
+            bufferService.stop();
+        }
+    }
+
+    @Test
+    void ingest_ConcurrentProducers_GroupCommitsEveryRecordOnce() throws Exception {
+        start(1024, 100, Duration.ofMillis(5), Durability.COMMIT);
+        recordGroups();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CDRIngestResponse>> producers = new ArrayList<>();
+            for (int p = 0; p < 8; p++) {
+                producers.add(executor.submit(() -> {
+                    CDRIngestResponse response = null;
+                    for (int i = 0; i < 20; i++) {
+                        response = bufferService.ingest(records(7));
+                    }
+                    return response;
+                }));
+            }
+            for (Future<CDRIngestResponse> producer : producers) {
+                assertEquals(Durability.COMMIT, producer.get(10, TimeUnit.SECONDS).getDurability());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8 * 20 * 7, groups.stream().mapToInt(List::size).sum());
+        groups.forEach(group -> assertEquals(0, group.size() % 7));
+        assertEquals(groups.size(), meterRegistry.get("cdr.ingest.buffer.group").summary().count());
+    }
+
+    @Test
+    void ingest_Enqueue_ReturnsBeforeCommit() throws Exception {
+        start(16, 1, Duration.ZERO, Durability.ENQUEUE);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return 1L;
+        }).when(cdrIngestService).ingestCDRecords(any());
+
+        CDRIngestResponse response = bufferService.ingest(records(1));
+
+        assertEquals(Durability.ENQUEUE, response.getDurability());
+        assertTrue(committing.await(10, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void ingest_BufferStaysFull_ThrowsAfterOfferTimeout() throws Exception {
+        start(2, 1, Duration.ZERO, Durability.ENQUEUE);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return 1L;
+        }).when(cdrIngestService).ingestCDRecords(any());
+
+        bufferService.ingest(records(1));
+        assertTrue(committing.await(10, TimeUnit.SECONDS));
+        bufferService.ingest(records(2));
+
+        assertThrows(IngestBufferFullException.class, () -> bufferService.ingest(records(1)));
+        assertEquals(1, meterRegistry.get("cdr.ingest.buffer.rejected").counter().count());
+        assertEquals(2, meterRegistry.get("cdr.ingest.buffer.size").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void ingest_CommitFails_ThrowsServiceException() {
+        start(16, 10, Duration.ZERO, Durability.COMMIT);
+        when(cdrIngestService.ingestCDRecords(any())).thenThrow(new IllegalStateException("connection lost"));
+
+        ServiceException e = assertThrows(ServiceException.class, () -> bufferService.ingest(records(3)));
+
+        assertEquals("connection lost", e.getCause().getMessage());
+        assertEquals(3, meterRegistry.get("cdr.ingest.buffer.failed").counter().count());
+    }
+
+    @Test
+    void ingest_CommitOutlastsTimeout_ThrowsServiceException() throws Exception {
+        start(16, 1, Duration.ZERO, Duration.ofMillis(50), Durability.COMMIT);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return 1L;
+        }).when(cdrIngestService).ingestCDRecords(any());
+
+        ServiceException e = assertThrows(ServiceException.class, () -> bufferService.ingest(records(1)));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        release.countDown();
+    }
+
+    @Test
+    void ingest_WriterDies_FailsHeldAndBufferedRecordsAndStops() throws Exception {
+        start(16, 1, Duration.ZERO, Durability.COMMIT);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            throw new OutOfMemoryError("Java heap space");
+        }).when(cdrIngestService).ingestCDRecords(any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CDRIngestResponse> held = executor.submit(() -> bufferService.ingest(records(1)));
+            assertTrue(committing.await(10, TimeUnit.SECONDS));
+            Future<CDRIngestResponse> buffered = executor.submit(() -> bufferService.ingest(records(2)));
+            while (meterRegistry.get("cdr.ingest.buffer.size").gauge().value() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<CDRIngestResponse> producer : List.of(held, buffered)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> producer.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(ServiceException.class, e.getCause());
+                assertInstanceOf(OutOfMemoryError.class, e.getCause().getCause().getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(3, meterRegistry.get("cdr.ingest.buffer.failed").counter().count());
+        assertThrows(IllegalStateException.class, () -> bufferService.ingest(records(1)));
+    }
+
+    @Test
+    void ingest_StopRacesWithProducers_EveryCallIsStoredOrFailedPromptly() throws Exception {
+        recordGroups();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                groups.clear();
+                meterRegistry = new SimpleMeterRegistry();
+                start(1024, 8, Duration.ZERO, Duration.ofSeconds(30), Durability.COMMIT);
+                CountDownLatch producing = new CountDownLatch(4);
+                List<Future<Integer>> producers = new ArrayList<>();
+                for (int p = 0; p < 4; p++) {
+                    producers.add(executor.submit(() -> {
+                        int stored = 0;
+                        producing.countDown();
+                        while (true) {
+                            try {
+                                bufferService.ingest(records(2));
+                                stored += 2;
+                            } catch (IllegalStateException | ServiceException e) {
+                                return stored;
+                            }
+                        }
+                    }));
+                }
+                assertTrue(producing.await(10, TimeUnit.SECONDS));
+                bufferService.stop();
+
+                int stored = 0;
+                for (Future<Integer> producer : producers) {
+                    stored += producer.get(5, TimeUnit.SECONDS);
+                }
+                assertEquals(groups.stream().mapToInt(List::size).sum(), stored);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void ingest_UnknownSubscriber_ThrowsNotFound() {
+        start(16, 10, Duration.ZERO, Durability.COMMIT);
+        when(subscriberDirectoryService.exists("79001112233")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> bufferService.ingest(records(1)));
+        verifyNoInteractions(cdrIngestService);
+    }
+
+    @Test
+    void ingest_InvalidRecords_ThrowsException() {
+        start(4, 10, Duration.ZERO, Durability.COMMIT);
+        CDRecordRequest reversed = new CDRecordRequest(CallType.OUTCOMING, "79001112233", "79002223344",
+                CALL_START, CALL_START.minusMinutes(1));
+
+        assertThrows(IllegalArgumentException.class, () -> bufferService.ingest(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> bufferService.ingest(List.of(reversed)));
+        assertThrows(IllegalArgumentException.class,
+                () -> bufferService.ingest(Collections.nCopies(5, reversed)));
+        verifyNoInteractions(cdrIngestService);
+    }
+
+    @Test
+    void ingest_Disabled_ThrowsIllegalState() {
+        bufferService = new CDRIngestBufferServiceImpl(cdrIngestService, subscriberDirectoryService, meterRegistry,
+                false, 16, 10, Duration.ZERO, Duration.ZERO, Duration.ZERO, Durability.COMMIT);
+        bufferService.start();
+
+        assertThrows(IllegalStateException.class, () -> bufferService.ingest(records(1)));
+        verifyNoInteractions(cdrIngestService, subscriberDirectoryService);
+    }
+
+    private void start(int capacity, int batchSize, Duration maxDelay, Durability durability) {
+        start(capacity, batchSize, maxDelay, Duration.ofSeconds(10), durability);
+    }
+
+    private void start(int capacity, int batchSize, Duration maxDelay, Duration commitTimeout, Durability durability) {
+        lenient().when(subscriberDirectoryService.exists(any())).thenReturn(true);
+        bufferService = new CDRIngestBufferServiceImpl(cdrIngestService, subscriberDirectoryService, meterRegistry,
+                true, capacity, batchSize, maxDelay, Duration.ofMillis(20), commitTimeout, durability);
+        bufferService.start();
+    }
+
+    private void recordGroups() {
+        doAnswer(invocation -> {
+            List<CDRecord> group = new ArrayList<>();
+            invocation.<Iterable<CDRecord>>getArgument(0).forEach(group::add);
+            groups.add(group);
+            return (long) group.size();
+        }).when(cdrIngestService).ingestCDRecords(any());
+    }
+
+    private List<CDRecordRequest> records(int count) {
+        List<CDRecordRequest> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new CDRecordRequest(CallType.OUTCOMING, "79001112233", "79002223344",
+                    CALL_START.plusMinutes(i), CALL_START.plusMinutes(i).plusSeconds(30)));
+        }
+        return records;
+    }
+}
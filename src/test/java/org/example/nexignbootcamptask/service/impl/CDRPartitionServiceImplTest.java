@@ -0,0 +1,185 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.CDRPartitionResponse;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.enums.CDRPartitionStatus;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.repository.CDRPartitionArchiveRepository;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+public class CDRPartitionServiceImplTest {
+
+    @Autowired
+    private CDRecordRepository cdRecordRepository;
+
+    @Autowired
+    private CDRPartitionArchiveRepository archiveRepository;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Autowired
+    private SubscriberMonthlyUsageRepository usageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private CDRPartitionServiceImpl cdrPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        Subscriber subscriber1 = subscriberRepository.save(Subscriber.builder().msisdn("79001112233").build());
+        Subscriber subscriber2 = subscriberRepository.save(Subscriber.builder().msisdn("79002223344").build());
+        cdRecordRepository.saveAll(List.of(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, LocalDateTime.of(2025, 5, 2, 10, 0), 300),
+                record(CallType.INCOMING, subscriber2, subscriber1, LocalDateTime.of(2025, 5, 1, 9, 30), 60),
+                record(CallType.OUTCOMING, subscriber2, subscriber1, LocalDateTime.of(2025, 6, 1, 0, 0), 45)));
+
+        usageRepository.saveAll(List.of(
+                usage("79001112233", 2025, 5),
+                usage("79002223344", 2025, 5),
+                usage("79002223344", 2025, 6)));
+
+        cdrPartitionService = new CDRPartitionServiceImpl(cdRecordRepository, archiveRepository, usageRepository,
+                eventPublisher, transactionManager, archiveDirectory.resolve("archive"));
+    }
+
+    @Test
+    void archivePartition_WritesCallsAsCsvAndDeletesThem() throws IOException {
+        CDRPartitionResponse response = cdrPartitionService.archivePartition(YearMonth.of(2025, 5));
+
+        assertEquals(CDRPartitionStatus.ARCHIVED, response.getStatus());
+        assertEquals(YearMonth.of(2025, 5), response.getMonth());
+        assertEquals(2, response.getRecordCount());
+        assertEquals(List.of(
+                "02,79002223344,79001112233,2025-05-01T09:30:00,2025-05-01T09:31:00",
+                "01,79001112233,79002223344,2025-05-02T10:00:00,2025-05-02T10:05:00"),
+                Files.readAllLines(Path.of(response.getArchiveFile())));
+        assertEquals(1, cdRecordRepository.count());
+        assertEquals(List.of(new SubscriberMonthlyUsageId("79002223344", 2025, 6)),
+                usageRepository.findAll().stream().map(SubscriberMonthlyUsage::getId).toList());
+
+        ArgumentCaptor<CDRPartitionDroppedEvent> event = ArgumentCaptor.forClass(CDRPartitionDroppedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(YearMonth.of(2025, 5), event.getValue().getMonth());
+        assertEquals(2, event.getValue().getRecordCount());
+    }
+
+    @Test
+    void dropPartition_DeletesCallsWithoutArchive() {
+        CDRPartitionResponse response = cdrPartitionService.dropPartition(YearMonth.of(2025, 6));
+
+        assertEquals(CDRPartitionStatus.DROPPED, response.getStatus());
+        assertEquals(1, response.getRecordCount());
+        assertNull(response.getArchiveFile());
+        assertEquals(2, cdRecordRepository.count());
+        assertFalse(Files.exists(archiveDirectory.resolve("archive")));
+        assertTrue(usageRepository.findByMonth(2025, 6).isEmpty());
+        assertEquals(2, usageRepository.findByMonth(2025, 5).size());
+    }
+
+    @Test
+    void getPartitions_ListsActiveAndRemovedMonths() {
+        cdrPartitionService.dropPartition(YearMonth.of(2025, 6));
+
+        List<CDRPartitionResponse> partitions = cdrPartitionService.getPartitions();
+
+        assertEquals(2, partitions.size());
+        assertEquals(YearMonth.of(2025, 5), partitions.get(0).getMonth());
+        assertEquals(CDRPartitionStatus.ACTIVE, partitions.get(0).getStatus());
+        assertEquals(2, partitions.get(0).getRecordCount());
+        assertEquals(YearMonth.of(2025, 6), partitions.get(1).getMonth());
+        assertEquals(CDRPartitionStatus.DROPPED, partitions.get(1).getStatus());
+    }
+
+    @Test
+    void archivePartition_EmptyMonth_ThrowsExceptionAndLeavesNoFile() throws IOException {
+        assertThrows(ResourceNotFoundException.class, () -> cdrPartitionService.archivePartition(YearMonth.of(2025, 4)));
+
+        try (var files = Files.list(archiveDirectory.resolve("archive"))) {
+            assertEquals(0, files.count());
+        }
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void archivePartition_CallsIngestedAfterExport_ThrowsExceptionAndDiscardsArchive() throws IOException {
+        CDRecordRepository repository = mock(CDRecordRepository.class, delegatesTo(cdRecordRepository));
+        doAnswer(invocation -> {
+            cdRecordRepository.saveAndFlush(record(CallType.OUTCOMING,
+                    subscriberRepository.getReferenceById("79001112233"),
+                    subscriberRepository.getReferenceById("79002223344"), LocalDateTime.of(2025, 5, 3, 8, 0), 30));
+            return cdRecordRepository.deletePartition(invocation.getArgument(0));
+        }).when(repository).deletePartition(anyInt());
+        cdrPartitionService = new CDRPartitionServiceImpl(repository, archiveRepository, usageRepository,
+                eventPublisher, transactionManager, archiveDirectory.resolve("archive"));
+
+        assertThrows(IllegalStateException.class, () -> cdrPartitionService.archivePartition(YearMonth.of(2025, 5)));
+
+        try (var files = Files.list(archiveDirectory.resolve("archive"))) {
+            assertEquals(0, files.count());
+        }
+        assertEquals(0, archiveRepository.count());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void archivePartition_CurrentMonth_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> cdrPartitionService.archivePartition(YearMonth.now()));
+        assertThrows(IllegalArgumentException.class, () -> cdrPartitionService.dropPartition(YearMonth.now()));
+        assertEquals(3, cdRecordRepository.count());
+        assertEquals(3, usageRepository.count());
+    }
+
+    private SubscriberMonthlyUsage usage(String msisdn, int year, int month) {
+        return SubscriberMonthlyUsage.builder()
+                .id(new SubscriberMonthlyUsageId(msisdn, year, month))
+                .outgoingSeconds(60)
+                .outgoingCallCount(1)
+                .build();
+    }
+
+    private CDRecord record(CallType callType, Subscriber caller, Subscriber receiver,
+                            LocalDateTime callStart, int durationSeconds) {
+        return CDRecord.builder()
+                .callType(callType)
+                .callingSubscriber(caller)
+                .receivingSubscriber(receiver)
+                .callStart(callStart)
+                .callEnd(callStart.plusSeconds(durationSeconds))
+                .build();
+    }
+}
@@ -1,27 +1,51 @@
 package org.example.nexignbootcamptask.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.dto.CDRReportRow;
 import org.example.nexignbootcamptask.entity.CDRecord;
 import org.example.nexignbootcamptask.entity.Subscriber;
 import org.example.nexignbootcamptask.entity.enums.CallType;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.exception.ServiceException;
 import org.example.nexignbootcamptask.repository.CDRecordRepository;
 import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.example.nexignbootcamptask.service.CallColumnService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.ColumnarReportReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +57,23 @@ public class CDRServiceImplTest {
     @Mock
     private SubscriberRepository subscriberRepository;
 
-    @InjectMocks
+    @Mock
+    private CDRIngestService cdrIngestService;
+
+    @Mock
+    private SubscriberDirectoryService subscriberDirectoryService;
+
+    @Mock
+    private CallColumnService callColumnService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Executor reportWriteExecutor = runnable -> new Thread(runnable).start();
+
     private CDRServiceImpl cdrService;
 
     private Subscriber testSubscriber1;
@@ -45,6 +85,8 @@ public class CDRServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        cdrService = newCDRService(1000);
+
         startDate = LocalDateTime.now().minusMonths(1);
         endDate = LocalDateTime.now();
 
@@ -76,7 +118,7 @@ public class CDRServiceImplTest {
 
         verify(subscriberRepository).count();
         ArgumentCaptor<List<Subscriber>> subscriberCaptor = ArgumentCaptor.forClass(List.class);
-        verify(subscriberRepository).saveAll(subscriberCaptor.capture());
+        verify(subscriberRepository).bulkInsert(subscriberCaptor.capture());
 
         List<Subscriber> savedSubscribers = subscriberCaptor.getValue();
         assertEquals(10, savedSubscribers.size());
@@ -89,7 +131,7 @@ public class CDRServiceImplTest {
         cdrService.initializeSubscribers();
 
         verify(subscriberRepository).count();
-        verify(subscriberRepository, never()).saveAll(any());
+        verify(subscriberRepository, never()).bulkInsert(any());
     }
 
     @Test
@@ -100,7 +142,7 @@ public class CDRServiceImplTest {
         cdrService.generateCDRecords();
 
         verify(subscriberRepository).findAll();
-        verify(cdRecordRepository).saveAll(any());
+        verify(cdrIngestService).ingestCDRecords(any());
     }
 
     @Test
@@ -109,7 +151,7 @@ public class CDRServiceImplTest {
 
         assertThrows(IllegalStateException.class, () -> cdrService.generateCDRecords());
         verify(subscriberRepository).findAll();
-        verify(cdRecordRepository, never()).saveAll(any());
+        verify(cdrIngestService, never()).ingestCDRecords(any());
     }
 
     @Test
@@ -143,25 +185,27 @@ public class CDRServiceImplTest {
         when(cdRecordRepository.findByCallingSubscriber_MsisdnAndCallType(msisdn, CallType.OUTCOMING))
                 .thenReturn(expectedRecords);
 
-        List<CDRecord> result = cdrService.getOutgoingCallsBySubscriber(msisdn, null);
+        List<CDRecord> result = cdrService.getOutgoingCallsBySubscriber(msisdn, null, null);
 
         assertEquals(1, result.size());
         verify(cdRecordRepository).findByCallingSubscriber_MsisdnAndCallType(msisdn, CallType.OUTCOMING);
-        verify(cdRecordRepository, never()).findByCallingSubscriber_MsisdnAndCallTypeAndMonth(any(), any(), any());
+        verify(cdRecordRepository, never()).findByCallingSubscriber_MsisdnAndCallTypeAndPeriod(any(), any(), any(), any());
     }
 
     @Test
     void getOutgoingCallsBySubscriber_WithMonth() {
         String msisdn = "79001112233";
         Integer month = 5;
+        LocalDateTime periodStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+        LocalDateTime periodEnd = LocalDateTime.of(2025, 6, 1, 0, 0);
         List<CDRecord> expectedRecords = Arrays.asList(testRecord1);
-        when(cdRecordRepository.findByCallingSubscriber_MsisdnAndCallTypeAndMonth(msisdn, CallType.OUTCOMING, month))
+        when(cdRecordRepository.findByCallingSubscriber_MsisdnAndCallTypeAndPeriod(msisdn, CallType.OUTCOMING, periodStart, periodEnd))
                 .thenReturn(expectedRecords);
 
-        List<CDRecord> result = cdrService.getOutgoingCallsBySubscriber(msisdn, month);
+        List<CDRecord> result = cdrService.getOutgoingCallsBySubscriber(msisdn, month, 2025);
 
         assertEquals(1, result.size());
-        verify(cdRecordRepository).findByCallingSubscriber_MsisdnAndCallTypeAndMonth(msisdn, CallType.OUTCOMING, month);
+        verify(cdRecordRepository).findByCallingSubscriber_MsisdnAndCallTypeAndPeriod(msisdn, CallType.OUTCOMING, periodStart, periodEnd);
         verify(cdRecordRepository, never()).findByCallingSubscriber_MsisdnAndCallType(any(), any());
     }
 
@@ -172,25 +216,27 @@ public class CDRServiceImplTest {
         when(cdRecordRepository.findByReceivingSubscriber_MsisdnAndCallType(msisdn, CallType.INCOMING))
                 .thenReturn(expectedRecords);
 
-        List<CDRecord> result = cdrService.getIncomingCallsBySubscriber(msisdn, null);
+        List<CDRecord> result = cdrService.getIncomingCallsBySubscriber(msisdn, null, null);
 
         assertEquals(1, result.size());
         verify(cdRecordRepository).findByReceivingSubscriber_MsisdnAndCallType(msisdn, CallType.INCOMING);
-        verify(cdRecordRepository, never()).findByReceivingSubscriber_MsisdnAndCallTypeAndMonth(any(), any(), any());
+        verify(cdRecordRepository, never()).findByReceivingSubscriber_MsisdnAndCallTypeAndPeriod(any(), any(), any(), any());
     }
 
     @Test
     void getIncomingCallsBySubscriber_WithMonth() {
         String msisdn = "79001112233";
         Integer month = 5;
+        LocalDateTime periodStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+        LocalDateTime periodEnd = LocalDateTime.of(2025, 6, 1, 0, 0);
         List<CDRecord> expectedRecords = Arrays.asList(testRecord2);
-        when(cdRecordRepository.findByReceivingSubscriber_MsisdnAndCallTypeAndMonth(msisdn, CallType.INCOMING, month))
+        when(cdRecordRepository.findByReceivingSubscriber_MsisdnAndCallTypeAndPeriod(msisdn, CallType.INCOMING, periodStart, periodEnd))
                 .thenReturn(expectedRecords);
 
-        List<CDRecord> result = cdrService.getIncomingCallsBySubscriber(msisdn, month);
+        List<CDRecord> result = cdrService.getIncomingCallsBySubscriber(msisdn, month, 2025);
 
         assertEquals(1, result.size());
-        verify(cdRecordRepository).findByReceivingSubscriber_MsisdnAndCallTypeAndMonth(msisdn, CallType.INCOMING, month);
+        verify(cdRecordRepository).findByReceivingSubscriber_MsisdnAndCallTypeAndPeriod(msisdn, CallType.INCOMING, periodStart, periodEnd);
         verify(cdRecordRepository, never()).findByReceivingSubscriber_MsisdnAndCallType(any(), any());
     }
 
@@ -202,10 +248,256 @@ public class CDRServiceImplTest {
         request.setStartDate(startDate);
         request.setEndDate(endDate);
 
-        when(subscriberRepository.existsById(msisdn)).thenReturn(false);
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> cdrService.generateCDRReport(UUID.randomUUID(), request));
+        verify(subscriberDirectoryService).exists(msisdn);
+        verify(cdRecordRepository, never()).streamReportRowsBySubscriberMsisdnAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void validateCDRReportRequest_SubscriberNotFound_ShouldThrowException() {
+        String msisdn = "79001112233";
+        CDRGenerationRequest request = new CDRGenerationRequest(msisdn, startDate, endDate);
+
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> cdrService.validateCDRReportRequest(request));
+    }
+
+    @Test
+    void validateCDRReportRequest_InvalidDateRange_ShouldThrowException() {
+        CDRGenerationRequest request = new CDRGenerationRequest("79001112233", endDate, startDate);
+
+        assertThrows(IllegalArgumentException.class, () -> cdrService.validateCDRReportRequest(request));
+        verify(subscriberDirectoryService, never()).exists(any());
+    }
+
+    @Test
+    void generateCDRReport_Success_WritesRowsToCsv() throws Exception {
+        String msisdn = "79001112233";
+        CDRGenerationRequest request = new CDRGenerationRequest(msisdn, startDate, endDate);
+
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(cdRecordRepository.streamReportRowsBySubscriberMsisdnAndDateRange(msisdn, startDate, endDate))
+                .thenReturn(Stream.of(
+                        new CDRReportRow(CallType.OUTCOMING, "79001112233", "79002223344",
+                                testRecord1.getCallStart(), testRecord1.getCallEnd()),
+                        new CDRReportRow(CallType.INCOMING, "79002223344", "79001112233",
+                                testRecord2.getCallStart(), testRecord2.getCallEnd())));
+
+        UUID requestId = UUID.randomUUID();
+        Path report = cdrService.generateCDRReport(requestId, request);
+
+        try {
+            assertEquals(Paths.get("reports", msisdn + "_" + requestId + ".csv"), report);
+            List<String> lines = Files.readAllLines(report);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).startsWith("01,79001112233,79002223344,"));
+            assertTrue(lines.get(1).startsWith("02,79002223344,79001112233,"));
+            assertEquals(2, meterRegistry.get("cdr.report.rows").tag("source", "database").summary().totalAmount());
+            assertEquals(Files.size(report),
+                    meterRegistry.get("cdr.report.file.size").tag("source", "database").summary().totalAmount());
+            assertEquals(1, meterRegistry.get("cdr.report.stage")
+                    .tags("stage", "write", "source", "database").timer().count());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    void generateCDRReport_Columnar_WritesSameCsvFormat() throws Exception {
+        String msisdn = "79001112233";
+        CDRGenerationRequest request = new CDRGenerationRequest(msisdn, startDate, endDate);
+        LocalDateTime callStart = LocalDateTime.of(2025, 2, 28, 23, 59, 30);
+
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(callColumnService.isEnabled()).thenReturn(true);
+        when(callColumnService.forEachCallBySubscriber(eq(msisdn), eq(startDate), eq(endDate), any()))
+                .thenAnswer(invocation -> {
+                    CallColumnService.CallVisitor visitor = invocation.getArgument(3);
+                    visitor.visit((byte) CallType.INCOMING.ordinal(), 79002223344L, 79001112233L,
+                            callStart.toEpochSecond(ZoneOffset.UTC), 45);
+                    return 1L;
+                });
+
+        UUID requestId = UUID.randomUUID();
+        Path report = cdrService.generateCDRReport(requestId, request);
+
+        try {
+            assertEquals("02,79002223344,79001112233,2025-02-28T23:59:30,2025-03-01T00:00:15\r\n",
+                    Files.readString(report));
+            verify(cdRecordRepository, never()).streamReportRowsBySubscriberMsisdnAndDateRange(any(), any(), any());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    void generateCDRReport_GzipFormat_WritesCompressedCsv() throws Exception {
+        String msisdn = "79001112233";
+        CDRGenerationRequest request = new CDRGenerationRequest(msisdn, startDate, endDate, ReportFormat.CSV_GZIP);
+        LocalDateTime callStart = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(cdRecordRepository.streamReportRowsBySubscriberMsisdnAndDateRange(msisdn, startDate, endDate))
+                .thenReturn(Stream.of(new CDRReportRow(CallType.OUTCOMING, "79001112233", "79002223344",
+                        callStart, callStart.plusMinutes(5))));
+
+        UUID requestId = UUID.randomUUID();
+        Path report = cdrService.generateCDRReport(requestId, request);
+
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(report))) {
+            assertEquals(Paths.get("reports", msisdn + "_" + requestId + ".csv.gz"), report);
+            assertEquals("01,79001112233,79002223344,2025-05-01T10:00:00,2025-05-01T10:05:00\r\n",
+                    new String(in.readAllBytes(), StandardCharsets.US_ASCII));
+            assertEquals(Files.size(report), meterRegistry.get("cdr.report.file.size")
+                    .tags("source", "database", "format", "csv_gzip").summary().totalAmount());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    void generateCDRReport_ColumnarFormat_WritesBinaryColumns() throws Exception {
+        String msisdn = "79001112233";
+        CDRGenerationRequest request = new CDRGenerationRequest(msisdn, startDate, endDate, ReportFormat.COLUMNAR);
+        long callStart = LocalDateTime.of(2025, 5, 1, 10, 0).toEpochSecond(ZoneOffset.UTC);
+
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(callColumnService.isEnabled()).thenReturn(true);
+        when(callColumnService.forEachCallBySubscriber(eq(msisdn), eq(startDate), eq(endDate), any()))
+                .thenAnswer(invocation -> {
+                    CallColumnService.CallVisitor visitor = invocation.getArgument(3);
+                    visitor.visit((byte) CallType.OUTCOMING.ordinal(), 79001112233L, 79002223344L, callStart, 300);
+                    visitor.visit((byte) CallType.INCOMING.ordinal(), 79003334455L, 79001112233L, callStart + 900, 45);
+                    return 2L;
+                });
+
+        Path report = cdrService.generateCDRReport(UUID.randomUUID(), request);
+
+        try (ColumnarReportReader reader = new ColumnarReportReader(Files.newInputStream(report))) {
+            assertTrue(report.toString().endsWith(".cdrc"));
+            CallColumns calls = reader.readBlock();
+            assertEquals(2, calls.size());
+            assertEquals(79003334455L, calls.callingMsisdn(1));
+            assertEquals(callStart + 900, calls.callStart(1));
+            assertEquals(45, calls.duration(1));
+            assertNull(reader.readBlock());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    void generateCDRReport_NoRecords_ShouldThrowException() {
+        String msisdn = "79001112233";
+        CDRGenerationRequest request = new CDRGenerationRequest(msisdn, startDate, endDate);
+
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(cdRecordRepository.streamReportRowsBySubscriberMsisdnAndDateRange(msisdn, startDate, endDate))
+                .thenReturn(Stream.empty());
+
+        assertThrows(ServiceException.class, () -> cdrService.generateCDRReport(UUID.randomUUID(), request));
+    }
+
+    @Test
+    void generateCDRReports_ScansRangeOnceAndWritesReportPerSubscriber() throws Exception {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        UUID withoutCallsId = UUID.randomUUID();
+        Map<UUID, CDRGenerationRequest> requests = new LinkedHashMap<>();
+        requests.put(firstId, new CDRGenerationRequest("79001112233", startDate, endDate));
+        requests.put(secondId, new CDRGenerationRequest("79002223344", startDate, endDate));
+        requests.put(withoutCallsId, new CDRGenerationRequest("79003334455", startDate, endDate));
+
+        when(subscriberDirectoryService.exists(any())).thenReturn(true);
+        when(cdRecordRepository.streamReportRowsBySubscriberMsisdnsAndDateRange(
+                List.of("79001112233", "79002223344", "79003334455"), startDate, endDate))
+                .thenReturn(Stream.of(
+                        new CDRReportRow(CallType.OUTCOMING, "79001112233", "79002223344",
+                                testRecord1.getCallStart(), testRecord1.getCallEnd()),
+                        new CDRReportRow(CallType.OUTCOMING, "79002223344", "79009999999",
+                                testRecord2.getCallStart(), testRecord2.getCallEnd()),
+                        new CDRReportRow(CallType.OUTCOMING, "79008889900", "79009999999",
+                                testRecord2.getCallStart(), testRecord2.getCallEnd())));
+
+        Map<UUID, Path> reports = cdrService.generateCDRReports(requests);
+
+        try {
+            assertEquals(Set.of(firstId, secondId), reports.keySet());
+            assertEquals(Paths.get("reports", "79001112233_" + firstId + ".csv"), reports.get(firstId));
+            List<String> first = Files.readAllLines(reports.get(firstId));
+            assertEquals(1, first.size());
+            assertTrue(first.get(0).startsWith("01,79001112233,79002223344,"));
+            List<String> second = Files.readAllLines(reports.get(secondId));
+            assertEquals(2, second.size());
+            assertTrue(second.get(1).startsWith("01,79002223344,79009999999,"));
+            assertFalse(Files.exists(Paths.get("reports", "79003334455_" + withoutCallsId + ".csv")));
+            verify(cdRecordRepository, times(1))
+                    .streamReportRowsBySubscriberMsisdnsAndDateRange(any(), any(), any());
+            verify(cdRecordRepository, never()).streamReportRowsBySubscriberMsisdnAndDateRange(any(), any(), any());
+            assertEquals(1, meterRegistry.get("cdr.report.stage")
+                    .tags("stage", "query", "source", "database").timer().count());
+        } finally {
+            for (Path report : reports.values()) {
+                Files.deleteIfExists(report);
+            }
+        }
+    }
+
+    @Test
+    void generateCDRReports_DifferentDateRanges_ShouldThrowException() {
+        Map<UUID, CDRGenerationRequest> requests = new LinkedHashMap<>();
+        requests.put(UUID.randomUUID(), new CDRGenerationRequest("79001112233", startDate, endDate));
+        requests.put(UUID.randomUUID(), new CDRGenerationRequest("79002223344", startDate.minusDays(1), endDate));
+
+        when(subscriberDirectoryService.exists(any())).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> cdrService.generateCDRReports(requests));
+        verify(cdRecordRepository, never()).streamReportRowsBySubscriberMsisdnsAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void generateCDRReports_ReadsOnlyCallsOfEachChunkOfSubscribers() throws Exception {
+        CDRServiceImpl chunkedService = newCDRService(2);
+        Map<UUID, CDRGenerationRequest> requests = new LinkedHashMap<>();
+        for (String msisdn : List.of("79001112233", "79002223344", "79003334455")) {
+            requests.put(UUID.randomUUID(), new CDRGenerationRequest(msisdn, startDate, endDate));
+        }
+
+        when(subscriberDirectoryService.exists(any())).thenReturn(true);
+        when(cdRecordRepository.streamReportRowsBySubscriberMsisdnsAndDateRange(
+                List.of("79001112233", "79002223344"), startDate, endDate))
+                .thenReturn(Stream.of(new CDRReportRow(CallType.OUTCOMING, "79001112233", "79002223344",
+                        testRecord1.getCallStart(), testRecord1.getCallEnd())));
+        when(cdRecordRepository.streamReportRowsBySubscriberMsisdnsAndDateRange(
+                List.of("79003334455"), startDate, endDate))
+                .thenReturn(Stream.of(new CDRReportRow(CallType.OUTCOMING, "79003334455", "79009999999",
+                        testRecord2.getCallStart(), testRecord2.getCallEnd())));
+
+        Map<UUID, Path> reports = chunkedService.generateCDRReports(requests);
+
+        try {
+            assertEquals(3, reports.size());
+            for (Map.Entry<UUID, CDRGenerationRequest> request : requests.entrySet()) {
+                assertTrue(Files.readAllLines(reports.get(request.getKey())).stream()
+                        .allMatch(line -> line.contains(request.getValue().getMsisdn())));
+            }
+            verify(cdRecordRepository, times(2))
+                    .streamReportRowsBySubscriberMsisdnsAndDateRange(any(), eq(startDate), eq(endDate));
+            assertEquals(2, meterRegistry.get("cdr.report.stage")
+                    .tags("stage", "query", "source", "database").timer().count());
+        } finally {
+            for (Path report : reports.values()) {
+                Files.deleteIfExists(report);
+            }
+        }
+    }
 
-        assertThrows(ResourceNotFoundException.class, () -> cdrService.generateCDRReport(request));
-        verify(subscriberRepository).existsById(msisdn);
-        verify(cdRecordRepository, never()).findAllBySubscriberMsisdnAndDateRange(any(), any(), any());
+    private CDRServiceImpl newCDRService(int batchChunkSize) {
+        return new CDRServiceImpl(cdRecordRepository, subscriberRepository, cdrIngestService,
+                subscriberDirectoryService, callColumnService, meterRegistry, reportWriteExecutor,
+                transactionManager, batchChunkSize);
     }
 }
@@ -0,0 +1,170 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.CacheStatsResponse;
+import org.example.nexignbootcamptask.dto.UDRResponse;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.event.UsageRollupRebuiltEvent;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingUDRServiceImplTest {
+
+    private static final String MSISDN = "79001112233";
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private UDRServiceImpl udrService;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private CachingUDRServiceImpl cachingUdrService;
+
+    @BeforeEach
+    void setUp() {
+        cachingUdrService = new CachingUDRServiceImpl(udrService, true, 100, TTL, nanos::get, Runnable::run);
+    }
+
+    @Test
+    void getUDRForSubscriber_RepeatedCall_IsServedFromCache() {
+        when(udrService.getUDRForSubscriber(MSISDN, 1, 2024)).thenReturn(udr(MSISDN));
+
+        UDRResponse first = cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+        UDRResponse second = cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+
+        assertSame(first, second);
+        verify(udrService, times(1)).getUDRForSubscriber(MSISDN, 1, 2024);
+        CacheStatsResponse stats = cachingUdrService.getCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void getUDRForSubscriber_InvalidMsisdn_IsNotCached() {
+        assertThrows(IllegalArgumentException.class, () -> cachingUdrService.getUDRForSubscriber("123", 1, 2024));
+
+        verifyNoInteractions(udrService);
+        assertEquals(0, cachingUdrService.getCacheStats().getMissCount());
+    }
+
+    @Test
+    void getUDRForSubscriber_NotFound_IsNotCached() {
+        when(udrService.getUDRForSubscriber(MSISDN, 1, 2024))
+                .thenThrow(new ResourceNotFoundException("CDR records", "subscriber", MSISDN));
+
+        assertThrows(ResourceNotFoundException.class, () -> cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024));
+        assertThrows(ResourceNotFoundException.class, () -> cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024));
+
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, 1, 2024);
+    }
+
+    @Test
+    void getUDRForSubscriber_ClosedMonth_DoesNotExpire() {
+        when(udrService.getUDRForSubscriber(MSISDN, 1, 2024)).thenReturn(udr(MSISDN));
+
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+        nanos.addAndGet(Duration.ofDays(365).toNanos());
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+
+        verify(udrService, times(1)).getUDRForSubscriber(MSISDN, 1, 2024);
+    }
+
+    @Test
+    void getUDRForSubscriber_CurrentMonthAndAllTime_ExpireAfterTtl() {
+        YearMonth current = YearMonth.now();
+        when(udrService.getUDRForSubscriber(MSISDN, current.getMonthValue(), current.getYear()))
+                .thenReturn(udr(MSISDN));
+        when(udrService.getUDRForSubscriber(MSISDN, null, null)).thenReturn(udr(MSISDN));
+
+        cachingUdrService.getUDRForSubscriber(MSISDN, current.getMonthValue(), current.getYear());
+        cachingUdrService.getUDRForSubscriber(MSISDN, null, null);
+        nanos.addAndGet(TTL.plusSeconds(1).toNanos());
+        cachingUdrService.getUDRForSubscriber(MSISDN, current.getMonthValue(), current.getYear());
+        cachingUdrService.getUDRForSubscriber(MSISDN, null, null);
+
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, current.getMonthValue(), current.getYear());
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, null, null);
+    }
+
+    @Test
+    void onCDRecordsIngested_InvalidatesOnlyAffectedMonthAndAllTime() {
+        String other = "79009998877";
+        when(udrService.getUDRForSubscriber(any(), any(), any()))
+                .thenAnswer(invocation -> udr(invocation.getArgument(0)));
+
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+        cachingUdrService.getUDRForSubscriber(MSISDN, 2, 2024);
+        cachingUdrService.getUDRForSubscriber(MSISDN, null, null);
+        cachingUdrService.getUDRForSubscriber(other, 1, 2024);
+
+        cachingUdrService.onCDRecordsIngested(new CDRecordsIngestedEvent(1,
+                Set.of(new SubscriberMonthlyUsageId(MSISDN, 2024, 1)), new CallColumns(0), 1));
+
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+        cachingUdrService.getUDRForSubscriber(MSISDN, 2, 2024);
+        cachingUdrService.getUDRForSubscriber(MSISDN, null, null);
+        cachingUdrService.getUDRForSubscriber(other, 1, 2024);
+
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, 1, 2024);
+        verify(udrService, times(1)).getUDRForSubscriber(MSISDN, 2, 2024);
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, null, null);
+        verify(udrService, times(1)).getUDRForSubscriber(other, 1, 2024);
+    }
+
+    @Test
+    void onUsageRollupRebuilt_InvalidatesEverything() {
+        when(udrService.getUDRForSubscriber(MSISDN, 1, 2024)).thenReturn(udr(MSISDN));
+
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+        cachingUdrService.onUsageRollupRebuilt(new UsageRollupRebuiltEvent(10));
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, 1, 2024);
+    }
+
+    @Test
+    void getUDRForSubscriber_OverMaximumSize_EvictsEntries() {
+        cachingUdrService = new CachingUDRServiceImpl(udrService, true, 2, TTL, nanos::get, Runnable::run);
+        when(udrService.getUDRForSubscriber(any(), any(), any()))
+                .thenAnswer(invocation -> udr(invocation.getArgument(0)));
+
+        for (int month = 1; month <= 5; month++) {
+            cachingUdrService.getUDRForSubscriber(MSISDN, month, 2024);
+        }
+
+        CacheStatsResponse stats = cachingUdrService.getCacheStats();
+        assertEquals(3, stats.getEvictionCount());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void getUDRForSubscriber_Disabled_AlwaysDelegates() {
+        cachingUdrService = new CachingUDRServiceImpl(udrService, false, 100, TTL, nanos::get, Runnable::run);
+        when(udrService.getUDRForSubscriber(MSISDN, 1, 2024)).thenReturn(udr(MSISDN));
+
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+        cachingUdrService.getUDRForSubscriber(MSISDN, 1, 2024);
+
+        verify(udrService, times(2)).getUDRForSubscriber(MSISDN, 1, 2024);
+    }
+
+    private UDRResponse udr(String msisdn) {
+        return UDRResponse.builder().msisdn(msisdn).build();
+    }
+}
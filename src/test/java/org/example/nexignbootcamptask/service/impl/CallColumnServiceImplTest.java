@@ -0,0 +1,180 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.CDRReportRow;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.example.nexignbootcamptask.util.SubscriberCallTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallColumnServiceImplTest {
+
+    private static final long SUBSCRIBER_1 = 79001112233L;
+    private static final long SUBSCRIBER_2 = 79002223344L;
+    private static final byte INCOMING = (byte) CallType.INCOMING.ordinal();
+    private static final byte OUTCOMING = (byte) CallType.OUTCOMING.ordinal();
+
+    @Mock
+    private CDRecordRepository cdRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CallColumnServiceImpl callColumnService;
+
+    private final LocalDateTime mayStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+    private final LocalDateTime juneStart = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        callColumnService = new CallColumnServiceImpl(cdRecordRepository, transactionManager, true);
+    }
+
+    @Test
+    void sumDurationsBySubscriber_CountsOnlyBilledCallsInPeriod() {
+        CallColumns calls = new CallColumns(4);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(mayStart), 300);
+        calls.add(INCOMING, SUBSCRIBER_2, SUBSCRIBER_1, epoch(mayStart.plusDays(3)), 120);
+        calls.add(INCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(mayStart.plusDays(4)), 20);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(juneStart), 45);
+        ingest(calls);
+
+        CallDurationTotals may = callColumnService.sumDurationsBySubscriber("79001112233", mayStart, juneStart);
+        assertEquals(120, may.getIncomingSeconds());
+        assertEquals(300, may.getOutgoingSeconds());
+        assertEquals(2, may.getCallCount());
+
+        CallDurationTotals allTime = callColumnService.sumDurationsBySubscriber("79001112233", null, null);
+        assertEquals(345, allTime.getOutgoingSeconds());
+        assertEquals(3, allTime.getCallCount());
+    }
+
+    @Test
+    void sumDurationsByAllSubscribers_AcrossChunks() {
+        int callCount = CallColumnServiceImpl.CHUNK_SIZE + 10;
+        CallColumns calls = new CallColumns(16);
+        for (int i = 0; i < callCount; i++) {
+            calls.add(i % 2 == 0 ? OUTCOMING : INCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(mayStart.plusSeconds(i)), 2);
+        }
+        ingest(calls);
+        ingest(calls);
+
+        SubscriberCallTotals totals = callColumnService.sumDurationsByAllSubscribers(mayStart, juneStart);
+
+        assertEquals(2L * callCount, callColumnService.size());
+        assertArrayEquals(new long[]{SUBSCRIBER_1, SUBSCRIBER_2}, totals.sortedMsisdns());
+        assertEquals(2L * callCount, totals.getOutgoingSeconds(SUBSCRIBER_1));
+        assertEquals(2L * callCount, totals.getIncomingSeconds(SUBSCRIBER_2));
+        assertEquals(0, totals.getIncomingSeconds(SUBSCRIBER_1));
+    }
+
+    @Test
+    void forEachCallBySubscriber_OrdersByCallStartWithInclusiveRange() {
+        CallColumns calls = new CallColumns(4);
+        calls.add(INCOMING, SUBSCRIBER_2, SUBSCRIBER_1, epoch(mayStart.plusDays(3)), 120);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(mayStart), 300);
+        calls.add(OUTCOMING, SUBSCRIBER_2, 79003334455L, epoch(mayStart.plusDays(1)), 10);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(juneStart), 45);
+        ingest(calls);
+
+        List<Long> callStarts = new ArrayList<>();
+        long count = callColumnService.forEachCallBySubscriber("79001112233", mayStart, mayStart.plusDays(3),
+                (callType, caller, receiver, callStart, duration) -> callStarts.add(callStart));
+
+        assertEquals(2, count);
+        assertEquals(List.of(epoch(mayStart), epoch(mayStart.plusDays(3))), callStarts);
+
+        long skipped = callColumnService.forEachCallBySubscriber("79001112233", mayStart.plusNanos(1),
+                mayStart.plusDays(3), (callType, caller, receiver, callStart, duration) -> {});
+        assertEquals(1, skipped);
+    }
+
+    @Test
+    void reload_LoadsAllRecordsFromDatabase() {
+        when(cdRecordRepository.streamAllReportRows()).thenReturn(Stream.of(
+                new CDRReportRow(1L, CallType.OUTCOMING, "79001112233", "79002223344",
+                        mayStart, mayStart.plusMinutes(5)),
+                new CDRReportRow(2L, CallType.INCOMING, "79002223344", "79001112233",
+                        juneStart, juneStart.plusSeconds(30))));
+
+        assertEquals(2, callColumnService.reload());
+
+        CallDurationTotals totals = callColumnService.sumDurationsBySubscriber("79001112233", null, null);
+        assertEquals(300, totals.getOutgoingSeconds());
+        assertEquals(30, totals.getIncomingSeconds());
+    }
+
+    @Test
+    void reload_CallsIngestedMeanwhile_AppendsOnlyThoseNotRead() {
+        callColumnService.onCDRecordsIngested(event(1, mayStart.plusDays(1), 100));
+        when(cdRecordRepository.streamAllReportRows()).thenAnswer(invocation -> Stream.of(
+                new CDRReportRow(1L, CallType.OUTCOMING, "79001112233", "79002223344",
+                        mayStart.plusDays(1), mayStart.plusDays(1).plusSeconds(100)),
+                new CDRReportRow(5L, CallType.OUTCOMING, "79001112233", "79002223344",
+                        mayStart.plusDays(5), mayStart.plusDays(5).plusSeconds(500)))
+                .peek(row -> {
+                    if (row.getId() == 1L) {
+                        // batches committed around the read: one it reads, two it does not
+                        callColumnService.onCDRecordsIngested(event(5, mayStart.plusDays(5), 500));
+                        callColumnService.onCDRecordsIngested(event(3, mayStart.plusDays(3), 30));
+                        callColumnService.onCDRecordsIngested(event(9, mayStart.plusDays(9), 9));
+                        assertEquals(1, callColumnService.size());
+                    }
+                }));
+
+        assertEquals(4, callColumnService.reload());
+
+        CallDurationTotals totals = callColumnService.sumDurationsBySubscriber("79001112233", null, null);
+        assertEquals(639, totals.getOutgoingSeconds());
+        assertEquals(4, totals.getCallCount());
+
+        callColumnService.onCDRecordsIngested(event(10, mayStart.plusDays(10), 1));
+        assertEquals(5, callColumnService.size());
+    }
+
+    @Test
+    void onCDRecordsIngested_Disabled_KeepsNothing() {
+        callColumnService = new CallColumnServiceImpl(cdRecordRepository, transactionManager, false);
+        CallColumns calls = new CallColumns(1);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(mayStart), 300);
+
+        ingest(calls);
+
+        assertFalse(callColumnService.isEnabled());
+        assertEquals(0, callColumnService.size());
+        assertEquals(0, callColumnService.reload());
+        verifyNoInteractions(cdRecordRepository);
+    }
+
+    private void ingest(CallColumns calls) {
+        callColumnService.onCDRecordsIngested(new CDRecordsIngestedEvent(calls.size(), Set.of(), calls, 1));
+    }
+
+    private CDRecordsIngestedEvent event(long firstRecordId, LocalDateTime callStart, int duration) {
+        CallColumns calls = new CallColumns(1);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(callStart), duration);
+        return new CDRecordsIngestedEvent(1, Set.of(), calls, firstRecordId);
+    }
+
+    private long epoch(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
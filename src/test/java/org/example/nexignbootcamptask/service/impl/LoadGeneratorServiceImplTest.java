@@ -0,0 +1,165 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.LoadGenerationRequest;
+import org.example.nexignbootcamptask.dto.LoadGenerationResponse;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.example.nexignbootcamptask.service.CDRIngestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoadGeneratorServiceImplTest {
+
+    @Mock
+    private CDRIngestService cdrIngestService;
+
+    @Mock
+    private SubscriberRepository subscriberRepository;
+
+    private LoadGeneratorServiceImpl loadGeneratorService;
+
+    private final List<List<CDRecord>> insertedChunks = new ArrayList<>();
+
+    private final LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime endDate = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        LoadGenerationRequest defaults = LoadGenerationRequest.builder()
+                .subscriberCount(50)
+                .callCount(1_000L)
+                .durationDistribution(LoadGenerationRequest.DurationDistribution.LOG_NORMAL)
+                .minDurationSeconds(10)
+                .maxDurationSeconds(1800)
+                .meanDurationSeconds(180)
+                .parallelism(4)
+                .chunkSize(100)
+                .build();
+        loadGeneratorService = new LoadGeneratorServiceImpl(cdrIngestService, subscriberRepository, defaults);
+    }
+
+    @Test
+    void generateLoad_InsertsTimeOrderedChunks() {
+        stubRepositories();
+
+        LoadGenerationResponse response = loadGeneratorService.generateLoad(request(1_050L, 42L));
+
+        assertEquals(1_050, response.getCallCount());
+        assertEquals(11, response.getChunkCount());
+        assertEquals(50, response.getCreatedSubscriberCount());
+        assertEquals(11, insertedChunks.size());
+
+        List<CDRecord> records = insertedChunks.stream().flatMap(List::stream).toList();
+        assertEquals(1_050, records.size());
+        for (int i = 1; i < records.size(); i++) {
+            assertFalse(records.get(i).getCallStart().isBefore(records.get(i - 1).getCallStart()));
+        }
+        for (CDRecord record : records) {
+            assertFalse(record.getCallStart().isBefore(startDate));
+            assertTrue(record.getCallStart().isBefore(endDate));
+            assertNotEquals(record.getCallingSubscriber().getMsisdn(), record.getReceivingSubscriber().getMsisdn());
+            assertTrue(record.getDurationInSeconds() >= 10 && record.getDurationInSeconds() <= 1800);
+            assertTrue(record.getCallingSubscriber().getMsisdn().matches("^7\\d{10}$"));
+        }
+    }
+
+    @Test
+    void generateLoad_SameSeed_IsReproducible() {
+        stubRepositories();
+
+        loadGeneratorService.generateLoad(request(500L, 7L));
+        List<CDRecord> first = insertedChunks.stream().flatMap(List::stream).toList();
+        insertedChunks.clear();
+        loadGeneratorService.generateLoad(request(500L, 7L));
+        List<CDRecord> second = insertedChunks.stream().flatMap(List::stream).toList();
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void generateLoad_UniformDistribution_StaysWithinBounds() {
+        stubRepositories();
+        LoadGenerationRequest request = request(300L, 1L).toBuilder()
+                .durationDistribution(LoadGenerationRequest.DurationDistribution.UNIFORM)
+                .minDurationSeconds(60)
+                .maxDurationSeconds(120)
+                .meanDurationSeconds(90)
+                .build();
+
+        loadGeneratorService.generateLoad(request);
+
+        insertedChunks.stream().flatMap(List::stream).forEach(record ->
+                assertTrue(record.getDurationInSeconds() >= 60 && record.getDurationInSeconds() <= 120));
+    }
+
+    @Test
+    void generateLoad_ExistingSubscribers_AreNotInsertedAgain() {
+        when(subscriberRepository.findAllById(any())).thenReturn(List.of(
+                Subscriber.builder().msisdn(LoadGeneratorServiceImpl.msisdn(0)).build(),
+                Subscriber.builder().msisdn(LoadGeneratorServiceImpl.msisdn(1)).build()));
+        when(subscriberRepository.bulkInsert(any())).thenAnswer(invocation -> {
+            List<Subscriber> subscribers = new ArrayList<>();
+            invocation.<Iterable<Subscriber>>getArgument(0).forEach(subscribers::add);
+            assertFalse(subscribers.stream().anyMatch(s -> s.getMsisdn().equals(LoadGeneratorServiceImpl.msisdn(0))));
+            return (long) subscribers.size();
+        });
+
+        LoadGenerationResponse response = loadGeneratorService.generateLoad(request(0L, 1L));
+
+        assertEquals(48, response.getCreatedSubscriberCount());
+        assertEquals(0, response.getChunkCount());
+        verify(cdrIngestService, never()).ingestCDRecords(any());
+    }
+
+    @Test
+    void generateLoad_InvalidParameters_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> loadGeneratorService.generateLoad(
+                request(100L, 1L).toBuilder().subscriberCount(1).build()));
+        assertThrows(IllegalArgumentException.class, () -> loadGeneratorService.generateLoad(
+                request(100L, 1L).toBuilder().startDate(endDate).build()));
+        assertThrows(IllegalArgumentException.class, () -> loadGeneratorService.generateLoad(
+                request(100L, 1L).toBuilder().minDurationSeconds(2000).build()));
+        assertThrows(IllegalArgumentException.class, () -> loadGeneratorService.generateLoad(
+                request(100L, 1L).toBuilder().chunkSize(0).build()));
+
+        verifyNoInteractions(subscriberRepository, cdrIngestService);
+    }
+
+    private LoadGenerationRequest request(long callCount, long seed) {
+        return LoadGenerationRequest.builder()
+                .callCount(callCount)
+                .seed(seed)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+
+    private void stubRepositories() {
+        when(subscriberRepository.findAllById(any())).thenReturn(List.of());
+        when(subscriberRepository.bulkInsert(any())).thenAnswer(invocation -> {
+            long count = 0;
+            for (Subscriber ignored : invocation.<Iterable<Subscriber>>getArgument(0)) {
+                count++;
+            }
+            return count;
+        });
+        when(cdrIngestService.ingestCDRecords(any())).thenAnswer(invocation -> {
+            List<CDRecord> chunk = invocation.getArgument(0);
+            insertedChunks.add(chunk);
+            return (long) chunk.size();
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportCacheServiceImplTest {
+
+    private static final String MSISDN = "79001112233";
+    private static final LocalDateTime MAY = LocalDateTime.of(2025, 5, 1, 0, 0);
+    private static final String REPORT = "01,79001112233,79002223344,2025-05-01T10:00:00,2025-05-01T10:05:00\r\n";
+
+    @TempDir
+    private Path reports;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ReportCacheServiceImpl reportCacheService;
+
+    private final CDRGenerationRequest request = new CDRGenerationRequest(MSISDN, MAY, MAY.plusMonths(1));
+
+    @BeforeEach
+    void setUp() {
+        reportCacheService = new ReportCacheServiceImpl(true, 100, DataSize.ofKilobytes(1), Duration.ofHours(1),
+                nanos::get, Runnable::run);
+    }
+
+    @Test
+    void getReport_IdenticalRequest_ReusesFileNamedByContentHash() throws IOException {
+        Path file = generate(request, REPORT);
+
+        Optional<Path> cached = reportCacheService.getReport(
+                new CDRGenerationRequest(MSISDN, MAY, MAY.plusMonths(1), ReportFormat.CSV));
+
+        assertEquals(Optional.of(file), cached);
+        assertTrue(file.getFileName().toString().matches("[0-9a-f]{64}\\.csv"));
+        assertEquals(REPORT, Files.readString(file));
+        assertEquals(Optional.empty(), reportCacheService.getReport(
+                new CDRGenerationRequest(MSISDN, MAY, MAY.plusMonths(1), ReportFormat.CSV_GZIP)));
+        assertEquals(1, reportCacheService.getCacheStats().getHitCount());
+    }
+
+    @Test
+    void completeGeneration_SameContent_SharesOneFile() throws IOException {
+        Path first = generate(request, REPORT);
+        Path second = generate(new CDRGenerationRequest(MSISDN, MAY.minusDays(1), MAY.plusMonths(1)), REPORT);
+
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.list(reports)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void joinGeneration_IdenticalRequestInProgress_ReturnsThatGeneration() {
+        CompletableFuture<Path> first = new CompletableFuture<>();
+
+        assertSame(first, reportCacheService.joinGeneration(request, first));
+        assertSame(first, reportCacheService.joinGeneration(request, new CompletableFuture<>()));
+
+        CompletableFuture<Path> otherRange = new CompletableFuture<>();
+        assertSame(otherRange, reportCacheService.joinGeneration(
+                new CDRGenerationRequest(MSISDN, MAY, MAY.plusDays(1)), otherRange));
+    }
+
+    @Test
+    void onCDRecordsIngested_CallInRange_InvalidatesReportButKeepsFile() throws IOException {
+        Path file = generate(request, REPORT);
+
+        reportCacheService.onCDRecordsIngested(ingested(79002223344L, 79001112233L, MAY.plusMonths(1).plusSeconds(1)));
+        reportCacheService.onCDRecordsIngested(ingested(79002223344L, 79003334455L, MAY.plusDays(3)));
+        assertTrue(reportCacheService.getReport(request).isPresent());
+
+        reportCacheService.onCDRecordsIngested(ingested(79002223344L, 79001112233L, MAY.plusDays(3)));
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void completeGeneration_InvalidatedWhileRunning_IsNotReused() throws IOException {
+        CompletableFuture<Path> generation = new CompletableFuture<>();
+        reportCacheService.joinGeneration(request, generation);
+
+        reportCacheService.onCDRecordsIngested(ingested(79001112233L, 79003334455L, MAY.plusDays(3)));
+        reportCacheService.completeGeneration(request, generation, write(REPORT));
+
+        assertTrue(Files.exists(generation.join()));
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+        CompletableFuture<Path> next = new CompletableFuture<>();
+        assertSame(next, reportCacheService.joinGeneration(request, next));
+    }
+
+    @Test
+    void onCDRPartitionDropped_OverlappingMonth_InvalidatesReport() throws IOException {
+        generate(request, REPORT);
+
+        reportCacheService.onCDRPartitionDropped(new CDRPartitionDroppedEvent(YearMonth.of(2025, 4), 10));
+        assertTrue(reportCacheService.getReport(request).isPresent());
+
+        reportCacheService.onCDRPartitionDropped(new CDRPartitionDroppedEvent(YearMonth.of(2025, 5), 10));
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+    }
+
+    @Test
+    void completeGeneration_OverDiskQuota_EvictsLeastRecentlyUsedFile() throws IOException {
+        CDRGenerationRequest otherRequest = new CDRGenerationRequest(MSISDN, MAY, MAY.plusDays(1));
+        Path first = generate(request, "a".repeat(600));
+        Path second = generate(otherRequest, "b".repeat(600));
+
+        assertFalse(Files.exists(first));
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+        assertEquals(Optional.of(second), reportCacheService.getReport(otherRequest));
+    }
+
+    @Test
+    void getReport_UnusedLongerThanTtl_DeletesFile() throws IOException {
+        Path file = generate(request, REPORT);
+
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void failGeneration_LetsLaterRequestsGenerateAgain() {
+        CompletableFuture<Path> generation = new CompletableFuture<>();
+        reportCacheService.joinGeneration(request, generation);
+
+        reportCacheService.failGeneration(request, generation, new IllegalStateException("disk full"));
+
+        assertTrue(generation.isCompletedExceptionally());
+        CompletableFuture<Path> next = new CompletableFuture<>();
+        assertSame(next, reportCacheService.joinGeneration(request, next));
+    }
+
+    private Path generate(CDRGenerationRequest request, String content) throws IOException {
+        CompletableFuture<Path> generation = new CompletableFuture<>();
+        assertSame(generation, reportCacheService.joinGeneration(request, generation));
+        reportCacheService.completeGeneration(request, generation, write(content));
+        return generation.join();
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(reports.resolve(MSISDN + "_" + System.nanoTime() + ".csv"), content);
+    }
+
+    private static CDRecordsIngestedEvent ingested(long callingMsisdn, long receivingMsisdn, LocalDateTime callStart) {
+        CallColumns calls = new CallColumns(1);
+        calls.add((byte) 0, callingMsisdn, receivingMsisdn, callStart.toEpochSecond(ZoneOffset.UTC), 60);
+        return new CDRecordsIngestedEvent(1, Set.of(), calls, 1);
+    }
+}
@@ -0,0 +1,283 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRBatchGenerationResponse;
+import org.example.nexignbootcamptask.dto.CDRBatchReportEntry;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest;
+import org.example.nexignbootcamptask.dto.CDRGenerationRequest.ReportFormat;
+import org.example.nexignbootcamptask.dto.CDRGenerationResponse;
+import org.example.nexignbootcamptask.dto.ReportStatusResponse;
+import org.example.nexignbootcamptask.exception.ReportNotReadyException;
+import org.example.nexignbootcamptask.exception.ReportQueueFullException;
+import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.exception.ServiceException;
+import org.example.nexignbootcamptask.service.CDRService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportJobServiceImplTest {
+
+    private static final String REPORT = "01,79001112233,79002223344,2025-05-01T10:00:00,2025-05-01T10:05:00\r\n";
+
+    @Mock
+    private CDRService cdrService;
+
+    @TempDir
+    private Path reports;
+
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+
+    private ReportCacheServiceImpl reportCacheService;
+
+    private ReportJobServiceImpl reportJobService;
+
+    private CDRGenerationRequest request;
+
+    @BeforeEach
+    void setUp() {
+        Executor queueingExecutor = queuedTasks::add;
+        reportCacheService = new ReportCacheServiceImpl(true, 100, DataSize.ofMegabytes(1), Duration.ofHours(1),
+                Ticker.systemTicker(), Runnable::run);
+        reportJobService = new ReportJobServiceImpl(cdrService, reportCacheService, queueingExecutor,
+                Duration.ofHours(1), 100);
+        request = new CDRGenerationRequest("79001112233",
+                LocalDateTime.now().minusMonths(1), LocalDateTime.now());
+    }
+
+    @Test
+    void submitCDRReport_ReturnsImmediatelyWithQueuedJob() {
+        CDRGenerationResponse response = reportJobService.submitCDRReport(request);
+
+        assertNotNull(response.getRequestId());
+        assertEquals(ReportStatusResponse.Status.QUEUED,
+                reportJobService.getReportStatus(response.getRequestId()).getStatus());
+        assertEquals(1, queuedTasks.size());
+        verify(cdrService).validateCDRReportRequest(request);
+        verify(cdrService, never()).generateCDRReport(any(), any());
+    }
+
+    @Test
+    void submitCDRReport_InvalidRequest_IsRejectedBeforeQueueing() {
+        doThrow(new ResourceNotFoundException("Subscriber", "msisdn", request.getMsisdn()))
+                .when(cdrService).validateCDRReportRequest(request);
+
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.submitCDRReport(request));
+        assertTrue(queuedTasks.isEmpty());
+    }
+
+    @Test
+    void submitCDRReport_QueueFull_ThrowsException() {
+        reportJobService = new ReportJobServiceImpl(cdrService, reportCacheService,
+                task -> { throw new RejectedExecutionException("full"); }, Duration.ofHours(1), 100);
+
+        assertThrows(ReportQueueFullException.class, () -> reportJobService.submitCDRReport(request));
+    }
+
+    @Test
+    void completedJob_IsDoneAndFileIsAvailable() throws IOException {
+        UUID requestId = reportJobService.submitCDRReport(request).getRequestId();
+        Path reportFile = writeReport(requestId);
+        when(cdrService.generateCDRReport(eq(requestId), eq(request))).thenReturn(reportFile);
+
+        queuedTasks.get(0).run();
+
+        ReportStatusResponse status = reportJobService.getReportStatus(requestId);
+        assertEquals(ReportStatusResponse.Status.DONE, status.getStatus());
+        assertNotNull(status.getFinishedAt());
+        Path cachedFile = reportJobService.getReportFile(requestId);
+        assertEquals(reports, cachedFile.getParent());
+        assertEquals(REPORT, Files.readString(cachedFile));
+    }
+
+    @Test
+    void submitCDRReport_IdenticalRequestInProgress_SharesGeneration() throws IOException {
+        UUID first = reportJobService.submitCDRReport(request).getRequestId();
+        UUID second = reportJobService.submitCDRReport(request).getRequestId();
+        when(cdrService.generateCDRReport(eq(first), eq(request))).thenReturn(writeReport(first));
+
+        assertEquals(1, queuedTasks.size());
+        queuedTasks.get(0).run();
+
+        assertEquals(ReportStatusResponse.Status.DONE, reportJobService.getReportStatus(second).getStatus());
+        assertEquals(reportJobService.getReportFile(first), reportJobService.getReportFile(second));
+        verify(cdrService, times(1)).generateCDRReport(any(), any());
+    }
+
+    @Test
+    void submitCDRReport_CachedReport_IsDoneWithoutGeneration() throws IOException {
+        UUID first = reportJobService.submitCDRReport(request).getRequestId();
+        when(cdrService.generateCDRReport(eq(first), eq(request))).thenReturn(writeReport(first));
+        queuedTasks.get(0).run();
+
+        UUID second = reportJobService.submitCDRReport(request).getRequestId();
+
+        assertEquals(1, queuedTasks.size());
+        assertEquals(ReportStatusResponse.Status.DONE, reportJobService.getReportStatus(second).getStatus());
+        assertEquals(reportJobService.getReportFile(first), reportJobService.getReportFile(second));
+    }
+
+    @Test
+    void getReportFile_EvictedFile_ThrowsNotFound() throws IOException {
+        UUID requestId = reportJobService.submitCDRReport(request).getRequestId();
+        when(cdrService.generateCDRReport(eq(requestId), eq(request))).thenReturn(writeReport(requestId));
+        queuedTasks.get(0).run();
+
+        Files.delete(reportJobService.getReportFile(requestId));
+
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.getReportFile(requestId));
+    }
+
+    @Test
+    void failedJob_IsFailedWithError() {
+        UUID requestId = reportJobService.submitCDRReport(request).getRequestId();
+        when(cdrService.generateCDRReport(eq(requestId), eq(request)))
+                .thenThrow(new ServiceException("Failed to generate CDR report: disk full", null));
+
+        queuedTasks.get(0).run();
+
+        ReportStatusResponse status = reportJobService.getReportStatus(requestId);
+        assertEquals(ReportStatusResponse.Status.FAILED, status.getStatus());
+        assertEquals("Failed to generate CDR report: disk full", status.getError());
+        assertThrows(ReportNotReadyException.class, () -> reportJobService.getReportFile(requestId));
+    }
+
+    @Test
+    void getReportFile_QueuedJob_ThrowsNotReady() {
+        UUID requestId = reportJobService.submitCDRReport(request).getRequestId();
+
+        assertThrows(ReportNotReadyException.class, () -> reportJobService.getReportFile(requestId));
+    }
+
+    @Test
+    void getReportStatus_UnknownRequest_ThrowsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.getReportStatus(UUID.randomUUID()));
+    }
+
+    @Test
+    void removeExpiredJobs_ForgetsFinishedJobsOnly() throws IOException {
+        reportJobService = new ReportJobServiceImpl(cdrService, reportCacheService, queuedTasks::add,
+                Duration.ZERO, 100);
+        UUID finished = reportJobService.submitCDRReport(request).getRequestId();
+        UUID queued = reportJobService.submitCDRReport(new CDRGenerationRequest(request.getMsisdn(),
+                request.getStartDate(), request.getEndDate(), ReportFormat.CSV_GZIP)).getRequestId();
+        when(cdrService.generateCDRReport(eq(finished), eq(request))).thenReturn(writeReport(finished));
+        queuedTasks.get(0).run();
+
+        reportJobService.removeExpiredJobs();
+
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.getReportStatus(finished));
+        assertEquals(ReportStatusResponse.Status.QUEUED, reportJobService.getReportStatus(queued).getStatus());
+    }
+
+    @Test
+    void submitCDRBatchReport_GeneratesUncachedReportsInOneTask() throws IOException {
+        UUID cached = reportJobService.submitCDRReport(request).getRequestId();
+        when(cdrService.generateCDRReport(eq(cached), eq(request))).thenReturn(writeReport(cached));
+        queuedTasks.remove(0).run();
+
+        CDRBatchGenerationResponse batch = reportJobService.submitCDRBatchReport(new CDRBatchGenerationRequest(
+                List.of("79001112233", "79002223344", "79003334455", "79002223344"),
+                request.getStartDate(), request.getEndDate(), null));
+
+        assertEquals(3, batch.getReports().size());
+        assertEquals(List.of("79001112233", "79002223344", "79003334455"),
+                batch.getReports().stream().map(CDRBatchReportEntry::getMsisdn).toList());
+        assertEquals(ReportStatusResponse.Status.DONE, batch.getReports().get(0).getStatus());
+        assertEquals(ReportStatusResponse.Status.QUEUED, batch.getReports().get(1).getStatus());
+        assertEquals(ReportFormat.CSV, batch.getFormat());
+        assertEquals(1, queuedTasks.size());
+
+        UUID second = batch.getReports().get(1).getRequestId();
+        UUID third = batch.getReports().get(2).getRequestId();
+        when(cdrService.generateCDRReports(any())).thenAnswer(invocation -> {
+            Map<UUID, CDRGenerationRequest> requests = invocation.getArgument(0);
+            assertEquals(Set.of(second, third), requests.keySet());
+            return Map.of(second, Files.writeString(reports.resolve("79002223344_" + second + ".csv"), REPORT));
+        });
+        queuedTasks.get(0).run();
+
+        CDRBatchGenerationResponse manifest = reportJobService.getBatchReport(batch.getBatchId());
+        assertEquals(ReportStatusResponse.Status.DONE, manifest.getReports().get(1).getStatus());
+        assertEquals(REPORT, Files.readString(reportJobService.getReportFile(second)));
+        assertEquals(ReportStatusResponse.Status.FAILED, manifest.getReports().get(2).getStatus());
+        assertTrue(reportJobService.getReportStatus(third).getError().startsWith("CDR records for subscriber 79003334455"));
+        verify(cdrService, times(1)).generateCDRReports(any());
+    }
+
+    @Test
+    void submitCDRBatchReport_UnknownSubscriber_QueuesNothing() {
+        doAnswer(invocation -> {
+            if (invocation.<CDRGenerationRequest>getArgument(0).getMsisdn().equals("79009999999")) {
+                throw new ResourceNotFoundException("Subscriber", "msisdn", "79009999999");
+            }
+            return null;
+        }).when(cdrService).validateCDRReportRequest(any());
+
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.submitCDRBatchReport(
+                new CDRBatchGenerationRequest(List.of("79001112233", "79009999999"),
+                        request.getStartDate(), request.getEndDate(), null)));
+        assertTrue(queuedTasks.isEmpty());
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+    }
+
+    @Test
+    void submitCDRBatchReport_NoOrTooManyMsisdns_ThrowsException() {
+        reportJobService = new ReportJobServiceImpl(cdrService, reportCacheService, queuedTasks::add,
+                Duration.ofHours(1), 2);
+
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submitCDRBatchReport(
+                new CDRBatchGenerationRequest(List.of(), request.getStartDate(), request.getEndDate(), null)));
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submitCDRBatchReport(
+                new CDRBatchGenerationRequest(List.of("79001112233", "79002223344", "79003334455"),
+                        request.getStartDate(), request.getEndDate(), null)));
+        assertTrue(queuedTasks.isEmpty());
+    }
+
+    @Test
+    void submitCDRBatchReport_GenerationFails_FailsEveryReport() {
+        CDRBatchGenerationResponse batch = reportJobService.submitCDRBatchReport(new CDRBatchGenerationRequest(
+                List.of("79001112233", "79002223344"), request.getStartDate(), request.getEndDate(), null));
+        when(cdrService.generateCDRReports(any()))
+                .thenThrow(new ServiceException("Failed to generate CDR report: disk full", null));
+
+        queuedTasks.get(0).run();
+
+        assertTrue(reportJobService.getBatchReport(batch.getBatchId()).getReports().stream()
+                .allMatch(report -> report.getStatus() == ReportStatusResponse.Status.FAILED));
+        assertTrue(reportCacheService.getReport(request).isEmpty());
+    }
+
+    @Test
+    void getBatchReport_UnknownBatch_ThrowsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.getBatchReport(UUID.randomUUID()));
+    }
+
+    private Path writeReport(UUID requestId) throws IOException {
+        return Files.writeString(reports.resolve("79001112233_" + requestId + ".csv"), REPORT);
+    }
+}
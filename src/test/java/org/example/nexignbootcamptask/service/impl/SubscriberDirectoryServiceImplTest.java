@@ -0,0 +1,74 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import org.example.nexignbootcamptask.event.SubscribersCreatedEvent;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SubscriberDirectoryServiceImplTest {
+
+    @Mock
+    private SubscriberRepository subscriberRepository;
+
+    private SubscriberDirectoryServiceImpl subscriberDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        when(subscriberRepository.findAllMsisdns()).thenReturn(List.of("79001112233", "79002223344"));
+        subscriberDirectoryService = new SubscriberDirectoryServiceImpl(subscriberRepository, 100, 0.01);
+        assertEquals(2, subscriberDirectoryService.reload());
+    }
+
+    @Test
+    void exists_LoadedSubscribers_WithoutQueryingRepository() {
+        assertTrue(subscriberDirectoryService.exists("79001112233"));
+        assertTrue(subscriberDirectoryService.exists("79002223344"));
+        assertFalse(subscriberDirectoryService.exists("79003334455"));
+
+        verify(subscriberRepository, times(1)).findAllMsisdns();
+        verifyNoMoreInteractions(subscriberRepository);
+    }
+
+    @Test
+    void onSubscribersCreated_RegistersNewSubscribers() {
+        subscriberDirectoryService.onSubscribersCreated(new SubscribersCreatedEvent(List.of("79003334455")));
+
+        assertTrue(subscriberDirectoryService.exists("79003334455"));
+        assertTrue(subscriberDirectoryService.exists("79001112233"));
+    }
+
+    @Test
+    void onSubscribersCreated_BeyondExpectedSubscribers_KeepsAllSubscribers() {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            created.add(String.valueOf(79_100_000_000L + i));
+        }
+
+        subscriberDirectoryService.onSubscribersCreated(new SubscribersCreatedEvent(created));
+
+        for (String msisdn : created) {
+            assertTrue(subscriberDirectoryService.exists(msisdn));
+        }
+        assertFalse(subscriberDirectoryService.exists("79200000000"));
+    }
+
+    @Test
+    void reload_PicksUpSubscribersInsertedDirectly() {
+        when(subscriberRepository.findAllMsisdns()).thenReturn(List.of("79001112233", "79009990011"));
+
+        assertEquals(2, subscriberDirectoryService.reload());
+
+        assertTrue(subscriberDirectoryService.exists("79009990011"));
+        assertFalse(subscriberDirectoryService.exists("79002223344"));
+    }
+}
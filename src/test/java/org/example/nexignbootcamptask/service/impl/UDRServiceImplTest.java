@@ -1,22 +1,39 @@
 package org.example.nexignbootcamptask.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.nexignbootcamptask.dto.CallDurationSummary;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.MsisdnRange;
+import org.example.nexignbootcamptask.dto.UDRPageResponse;
 import org.example.nexignbootcamptask.dto.UDRResponse;
-import org.example.nexignbootcamptask.entity.CDRecord;
-import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.enums.CallType;
 import org.example.nexignbootcamptask.exception.ResourceNotFoundException;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
 import org.example.nexignbootcamptask.repository.SubscriberRepository;
-import org.example.nexignbootcamptask.service.CDRService;
+import org.example.nexignbootcamptask.service.CallColumnService;
+import org.example.nexignbootcamptask.service.SubscriberDirectoryService;
+import org.example.nexignbootcamptask.service.UsageTotalsService;
+import org.example.nexignbootcamptask.util.SubscriberCallTotals;
+import org.example.nexignbootcamptask.util.ValidationUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,113 +42,425 @@ import static org.mockito.Mockito.*;
 public class UDRServiceImplTest {
 
     @Mock
-    private CDRService cdrService;
+    private SubscriberRepository subscriberRepository;
 
     @Mock
-    private SubscriberRepository subscriberRepository;
+    private CDRecordRepository cdRecordRepository;
+
+    @Mock
+    private SubscriberMonthlyUsageRepository usageRepository;
+
+    @Mock
+    private SubscriberDirectoryService subscriberDirectoryService;
+
+    @Mock
+    private CallColumnService callColumnService;
+
+    @Mock
+    private UsageTotalsService usageTotalsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
 
-    @InjectMocks
     private UDRServiceImpl udrService;
 
     private String msisdn;
     private Integer month;
-    private CDRecord incomingCall;
-    private CDRecord outgoingCall;
+    private Integer year;
+    private LocalDateTime periodStart;
+    private LocalDateTime periodEnd;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        udrService = new UDRServiceImpl(subscriberRepository, cdRecordRepository, usageRepository,
+                subscriberDirectoryService, callColumnService, usageTotalsService, transactionManager, meterRegistry, Runnable::run, false, false, 2);
         msisdn = "79001112233";
         month = 5;
-
-        Subscriber subscriber1 = Subscriber.builder().msisdn(msisdn).build();
-        Subscriber subscriber2 = Subscriber.builder().msisdn("79002223344").build();
-
-        LocalDateTime now = LocalDateTime.now();
-
-        incomingCall = CDRecord.builder()
-                .callingSubscriber(subscriber2)
-                .receivingSubscriber(subscriber1)
-                .callStart(now.minusHours(1))
-                .callEnd(now.minusHours(1).plusMinutes(2))
-                .build();
-
-        outgoingCall = CDRecord.builder()
-                .callingSubscriber(subscriber1)
-                .receivingSubscriber(subscriber2)
-                .callStart(now.minusHours(2))
-                .callEnd(now.minusHours(2).plusMinutes(5))
-                .build();
+        year = 2025;
+        periodStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+        periodEnd = LocalDateTime.of(2025, 6, 1, 0, 0);
     }
 
     @Test
     void getUDRForSubscriber_Success() {
-        when(subscriberRepository.existsById(msisdn)).thenReturn(true);
-        when(cdrService.getIncomingCallsBySubscriber(msisdn, month)).thenReturn(Collections.singletonList(incomingCall));
-        when(cdrService.getOutgoingCallsBySubscriber(msisdn, month)).thenReturn(Collections.singletonList(outgoingCall));
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(cdRecordRepository.sumDurationsBySubscriberAndPeriod(msisdn, periodStart, periodEnd))
+                .thenReturn(new CallDurationTotals(120L, 300L, 2L));
 
-        UDRResponse response = udrService.getUDRForSubscriber(msisdn, month);
+        UDRResponse response = udrService.getUDRForSubscriber(msisdn, month, year);
 
         assertNotNull(response);
         assertEquals(msisdn, response.getMsisdn());
         assertEquals("00:02:00", response.getIncomingCall().getTotalTime());
         assertEquals("00:05:00", response.getOutcomingCall().getTotalTime());
 
-        verify(subscriberRepository).existsById(msisdn);
-        verify(cdrService).getIncomingCallsBySubscriber(msisdn, month);
-        verify(cdrService).getOutgoingCallsBySubscriber(msisdn, month);
+        verify(subscriberDirectoryService).exists(msisdn);
+        verify(cdRecordRepository).sumDurationsBySubscriberAndPeriod(msisdn, periodStart, periodEnd);
+        assertEquals(1, meterRegistry.get("udr.computation")
+                .tags("scope", "subscriber", "source", "database").timer().count());
     }
 
     @Test
     void getUDRForSubscriber_WithNullMonth() {
-        when(subscriberRepository.existsById(msisdn)).thenReturn(true);
-        when(cdrService.getIncomingCallsBySubscriber(msisdn, null)).thenReturn(Collections.singletonList(incomingCall));
-        when(cdrService.getOutgoingCallsBySubscriber(msisdn, null)).thenReturn(Collections.singletonList(outgoingCall));
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(cdRecordRepository.sumDurationsBySubscriber(msisdn))
+                .thenReturn(new CallDurationTotals(120L, 300L, 2L));
 
-        UDRResponse response = udrService.getUDRForSubscriber(msisdn, null);
+        UDRResponse response = udrService.getUDRForSubscriber(msisdn, null, null);
 
         assertNotNull(response);
-        verify(subscriberRepository).existsById(msisdn);
-        verify(cdrService).getIncomingCallsBySubscriber(msisdn, null);
-        verify(cdrService).getOutgoingCallsBySubscriber(msisdn, null);
+        verify(subscriberDirectoryService).exists(msisdn);
+        verify(cdRecordRepository).sumDurationsBySubscriber(msisdn);
+        verify(cdRecordRepository, never()).sumDurationsBySubscriberAndPeriod(any(), any(), any());
     }
 
     @Test
     void getUDRForSubscriber_SubscriberNotFound() {
-        when(subscriberRepository.existsById(msisdn)).thenReturn(false);
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> udrService.getUDRForSubscriber(msisdn, month));
+        assertThrows(ResourceNotFoundException.class, () -> udrService.getUDRForSubscriber(msisdn, month, year));
 
-        verify(subscriberRepository).existsById(msisdn);
-        verify(cdrService, never()).getIncomingCallsBySubscriber(any(), any());
-        verify(cdrService, never()).getOutgoingCallsBySubscriber(any(), any());
+        verify(subscriberDirectoryService).exists(msisdn);
+        verify(cdRecordRepository, never()).sumDurationsBySubscriberAndPeriod(any(), any(), any());
+        verify(cdRecordRepository, never()).sumDurationsBySubscriber(any());
     }
 
     @Test
     void getUDRForSubscriber_NoCallRecords() {
-        when(subscriberRepository.existsById(msisdn)).thenReturn(true);
-        when(cdrService.getIncomingCallsBySubscriber(msisdn, month)).thenReturn(Collections.emptyList());
-        when(cdrService.getOutgoingCallsBySubscriber(msisdn, month)).thenReturn(Collections.emptyList());
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(cdRecordRepository.sumDurationsBySubscriberAndPeriod(msisdn, periodStart, periodEnd))
+                .thenReturn(new CallDurationTotals(0L, 0L, 0L));
 
-        assertThrows(ResourceNotFoundException.class, () -> udrService.getUDRForSubscriber(msisdn, month));
+        assertThrows(ResourceNotFoundException.class, () -> udrService.getUDRForSubscriber(msisdn, month, year));
 
-        verify(subscriberRepository).existsById(msisdn);
-        verify(cdrService).getIncomingCallsBySubscriber(msisdn, month);
-        verify(cdrService).getOutgoingCallsBySubscriber(msisdn, month);
+        verify(subscriberDirectoryService).exists(msisdn);
+        verify(cdRecordRepository).sumDurationsBySubscriberAndPeriod(msisdn, periodStart, periodEnd);
     }
 
     @Test
     void getAllUDRsForMonth_NoCallRecords() {
-        List<Subscriber> subscribers = Collections.singletonList(
-                Subscriber.builder().msisdn(msisdn).build());
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriod(CallType.INCOMING, periodStart, periodEnd))
+                .thenReturn(Collections.emptyList());
+        when(cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriod(CallType.OUTCOMING, periodStart, periodEnd))
+                .thenReturn(Collections.emptyList());
 
-        when(subscriberRepository.findAll()).thenReturn(subscribers);
-
-        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month);
+        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month, year);
 
         assertNotNull(responses);
         assertTrue(responses.isEmpty());
 
-        verify(subscriberRepository).findAll();
+        verify(subscriberRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllUDRsForMonth_MergesIncomingAndOutgoingTotals() {
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriod(CallType.INCOMING, periodStart, periodEnd))
+                .thenReturn(Arrays.asList(
+                        new CallDurationSummary("79001112233", 120L),
+                        new CallDurationSummary("79003334455", 60L)));
+        when(cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriod(CallType.OUTCOMING, periodStart, periodEnd))
+                .thenReturn(Arrays.asList(
+                        new CallDurationSummary("79001112233", 300L),
+                        new CallDurationSummary("79002223344", 3600L)));
+
+        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month, year);
+
+        assertEquals(3, responses.size());
+
+        assertEquals("79001112233", responses.get(0).getMsisdn());
+        assertEquals("00:02:00", responses.get(0).getIncomingCall().getTotalTime());
+        assertEquals("00:05:00", responses.get(0).getOutcomingCall().getTotalTime());
+
+        assertEquals("79002223344", responses.get(1).getMsisdn());
+        assertEquals("00:00:00", responses.get(1).getIncomingCall().getTotalTime());
+        assertEquals("01:00:00", responses.get(1).getOutcomingCall().getTotalTime());
+
+        assertEquals("79003334455", responses.get(2).getMsisdn());
+        assertEquals("00:01:00", responses.get(2).getIncomingCall().getTotalTime());
+        assertEquals("00:00:00", responses.get(2).getOutcomingCall().getTotalTime());
+    }
+
+    @Test
+    void getAllUDRsForMonth_Columnar_ReturnsTotalsOrderedByMsisdn() {
+        SubscriberCallTotals totals = new SubscriberCallTotals(4);
+        totals.addOutgoing(79002223344L, 3600);
+        totals.addIncoming(79001112233L, 120);
+        totals.addOutgoing(79001112233L, 300);
+        when(callColumnService.isEnabled()).thenReturn(true);
+        when(callColumnService.sumDurationsByAllSubscribers(periodStart, periodEnd)).thenReturn(totals);
+
+        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month, year);
+
+        assertEquals(2, responses.size());
+        assertEquals("79001112233", responses.get(0).getMsisdn());
+        assertEquals("00:02:00", responses.get(0).getIncomingCall().getTotalTime());
+        assertEquals("00:05:00", responses.get(0).getOutcomingCall().getTotalTime());
+        assertEquals("79002223344", responses.get(1).getMsisdn());
+        assertEquals("01:00:00", responses.get(1).getOutcomingCall().getTotalTime());
+        verifyNoInteractions(cdRecordRepository);
+        assertEquals(1, meterRegistry.get("udr.computation")
+                .tags("scope", "month", "source", "columns").timer().count());
+    }
+
+    @Test
+    void getAllUDRsForMonth_Parallel_AggregatesRangesInReadOnlyTransactions() {
+        udrService = new UDRServiceImpl(subscriberRepository, cdRecordRepository, usageRepository,
+                subscriberDirectoryService, callColumnService, usageTotalsService, transactionManager, meterRegistry, Runnable::run, false, true, 2);
+
+        when(subscriberRepository.findMsisdnRanges(2)).thenReturn(Arrays.asList(
+                new MsisdnRange("79001112233", "79002223344"),
+                new MsisdnRange("79003334455", "79003334455")));
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.INCOMING, periodStart, periodEnd, "79001112233", "79002223344"))
+                .thenReturn(List.of(new CallDurationSummary("79001112233", 120L)));
+        when(cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.OUTCOMING, periodStart, periodEnd, "79001112233", "79002223344"))
+                .thenReturn(List.of(new CallDurationSummary("79002223344", 3600L)));
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.INCOMING, periodStart, periodEnd, "79003334455", "79003334455"))
+                .thenReturn(List.of(new CallDurationSummary("79003334455", 60L)));
+        when(cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.OUTCOMING, periodStart, periodEnd, "79003334455", "79003334455"))
+                .thenReturn(Collections.emptyList());
+
+        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month, year);
+
+        assertEquals(3, responses.size());
+        assertEquals("79001112233", responses.get(0).getMsisdn());
+        assertEquals("00:02:00", responses.get(0).getIncomingCall().getTotalTime());
+        assertEquals("79002223344", responses.get(1).getMsisdn());
+        assertEquals("01:00:00", responses.get(1).getOutcomingCall().getTotalTime());
+        assertEquals("79003334455", responses.get(2).getMsisdn());
+
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(cdRecordRepository, never())
+                .sumDurationByReceivingSubscriberAndCallTypeAndPeriod(any(), any(), any());
+    }
+
+    @Test
+    void getAllUDRsForMonth_ParallelWithSingleRange_RunsSequentially() {
+        udrService = new UDRServiceImpl(subscriberRepository, cdRecordRepository, usageRepository,
+                subscriberDirectoryService, callColumnService, usageTotalsService, transactionManager, meterRegistry, Runnable::run, false, true, 2);
+
+        when(subscriberRepository.findMsisdnRanges(2))
+                .thenReturn(List.of(new MsisdnRange("79001112233", "79002223344")));
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriod(CallType.INCOMING, periodStart, periodEnd))
+                .thenReturn(List.of(new CallDurationSummary("79001112233", 120L)));
+        when(cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriod(CallType.OUTCOMING, periodStart, periodEnd))
+                .thenReturn(Collections.emptyList());
+
+        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month, year);
+
+        assertEquals(1, responses.size());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void getAllUDRsForMonth_ParallelChunkFails_ThrowsCause() {
+        udrService = new UDRServiceImpl(subscriberRepository, cdRecordRepository, usageRepository,
+                subscriberDirectoryService, callColumnService, usageTotalsService, transactionManager, meterRegistry, Runnable::run, false, true, 2);
+
+        when(subscriberRepository.findMsisdnRanges(2)).thenReturn(Arrays.asList(
+                new MsisdnRange("79001112233", "79002223344"),
+                new MsisdnRange("79003334455", "79003334455")));
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> udrService.getAllUDRsForMonth(month, year));
+        assertEquals("connection lost", e.getMessage());
+    }
+
+    @Test
+    void getUDRForSubscriber_Rollup_ReadsMonthlyUsage() {
+        udrService = rollupUdrService();
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(usageRepository.findById(new SubscriberMonthlyUsageId(msisdn, 2025, 5)))
+                .thenReturn(Optional.of(usage(msisdn, 120L, 1L, 300L, 2L)));
+
+        UDRResponse response = udrService.getUDRForSubscriber(msisdn, month, year);
+
+        assertEquals("00:02:00", response.getIncomingCall().getTotalTime());
+        assertEquals("00:05:00", response.getOutcomingCall().getTotalTime());
+        verifyNoInteractions(cdRecordRepository);
+    }
+
+    @Test
+    void getUDRForSubscriber_LiveTotals_LooksUpMonth() {
+        udrService = rollupUdrService();
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(usageTotalsService.isEnabled()).thenReturn(true);
+        when(usageTotalsService.getTotals(msisdn, YearMonth.of(2025, 5)))
+                .thenReturn(new CallDurationTotals(120L, 300L, 3L));
+
+        UDRResponse response = udrService.getUDRForSubscriber(msisdn, month, year);
+
+        assertEquals("00:02:00", response.getIncomingCall().getTotalTime());
+        assertEquals("00:05:00", response.getOutcomingCall().getTotalTime());
+        assertEquals(1, meterRegistry.get("udr.computation").tag("source", "live").timer().count());
+        verifyNoInteractions(usageRepository, cdRecordRepository);
+    }
+
+    @Test
+    void getUDRForSubscriber_RollupWithoutUsage_ThrowsNotFound() {
+        udrService = rollupUdrService();
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(usageRepository.findById(new SubscriberMonthlyUsageId(msisdn, 2025, 5))).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> udrService.getUDRForSubscriber(msisdn, month, year));
+    }
+
+    @Test
+    void getUDRForSubscriber_RollupAllTime_SumsMonthlyUsage() {
+        udrService = rollupUdrService();
+        when(subscriberDirectoryService.exists(msisdn)).thenReturn(true);
+        when(usageRepository.sumUsageBySubscriber(msisdn)).thenReturn(new CallDurationTotals(60L, 3600L, 4L));
+
+        UDRResponse response = udrService.getUDRForSubscriber(msisdn, null, null);
+
+        assertEquals("00:01:00", response.getIncomingCall().getTotalTime());
+        assertEquals("01:00:00", response.getOutcomingCall().getTotalTime());
+        verifyNoInteractions(cdRecordRepository);
+    }
+
+    @Test
+    void getAllUDRsForMonth_Rollup_ReadsMonthlyUsage() {
+        udrService = rollupUdrService();
+        when(usageRepository.findByMonth(2025, 5)).thenReturn(Arrays.asList(
+                usage("79001112233", 120L, 1L, 300L, 1L),
+                usage("79002223344", 0L, 0L, 3600L, 1L)));
+
+        List<UDRResponse> responses = udrService.getAllUDRsForMonth(month, year);
+
+        assertEquals(2, responses.size());
+        assertEquals("79001112233", responses.get(0).getMsisdn());
+        assertEquals("00:05:00", responses.get(0).getOutcomingCall().getTotalTime());
+        assertEquals("79002223344", responses.get(1).getMsisdn());
+        assertEquals("00:00:00", responses.get(1).getIncomingCall().getTotalTime());
+        verifyNoInteractions(cdRecordRepository);
+        verify(subscriberRepository, never()).findMsisdnRanges(anyLong());
+    }
+
+    @Test
+    void getUDRsForMonthPage_Rollup_SeeksAfterCursor() {
+        udrService = rollupUdrService();
+        when(usageRepository.findByMonthAfterMsisdn(2025, 5, "79001112233", Limit.of(2))).thenReturn(Arrays.asList(
+                usage("79002223344", 0L, 0L, 3600L, 1L),
+                usage("79003334455", 60L, 1L, 0L, 0L)));
+
+        UDRPageResponse page = udrService.getUDRsForMonthPage(month, year, "79001112233", 2);
+
+        assertEquals(2, page.getUdrs().size());
+        assertEquals("79002223344", page.getUdrs().get(0).getMsisdn());
+        assertEquals("01:00:00", page.getUdrs().get(0).getOutcomingCall().getTotalTime());
+        assertEquals("79003334455", page.getNextCursor());
+        verifyNoInteractions(cdRecordRepository);
+    }
+
+    @Test
+    void getUDRsForMonthPage_RollupLastPage_HasNoCursor() {
+        udrService = rollupUdrService();
+        when(usageRepository.findByMonthAfterMsisdn(2025, 5, "", Limit.of(2)))
+                .thenReturn(List.of(usage("79001112233", 120L, 1L, 300L, 1L)));
+
+        UDRPageResponse page = udrService.getUDRsForMonthPage(month, year, null, 2);
+
+        assertEquals(1, page.getUdrs().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUDRsForMonthPage_Database_AggregatesNextSubscriberRange() {
+        when(subscriberRepository.findMsisdnsAfter("79001112233", Limit.of(2)))
+                .thenReturn(List.of("79002223344", "79003334455"));
+        when(cdRecordRepository.sumDurationByReceivingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.INCOMING, periodStart, periodEnd, "79002223344", "79003334455"))
+                .thenReturn(List.of(new CallDurationSummary("79003334455", 60L)));
+        when(cdRecordRepository.sumDurationByCallingSubscriberAndCallTypeAndPeriodAndMsisdnRange(
+                CallType.OUTCOMING, periodStart, periodEnd, "79002223344", "79003334455"))
+                .thenReturn(Collections.emptyList());
+
+        UDRPageResponse page = udrService.getUDRsForMonthPage(month, year, "79001112233", 2);
+
+        assertEquals(1, page.getUdrs().size());
+        assertEquals("79003334455", page.getUdrs().get(0).getMsisdn());
+        assertEquals("79003334455", page.getNextCursor());
+    }
+
+    @Test
+    void getUDRsForMonthPage_Columnar_SlicesAfterCursor() {
+        SubscriberCallTotals totals = new SubscriberCallTotals(4);
+        totals.addIncoming(79001112233L, 120);
+        totals.addOutgoing(79002223344L, 3600);
+        totals.addIncoming(79003334455L, 60);
+        when(callColumnService.isEnabled()).thenReturn(true);
+        when(callColumnService.sumDurationsByAllSubscribers(periodStart, periodEnd)).thenReturn(totals);
+
+        UDRPageResponse first = udrService.getUDRsForMonthPage(month, year, null, 2);
+        UDRPageResponse second = udrService.getUDRsForMonthPage(month, year, first.getNextCursor(), 2);
+
+        assertEquals(List.of("79001112233", "79002223344"),
+                first.getUdrs().stream().map(UDRResponse::getMsisdn).toList());
+        assertEquals("79002223344", first.getNextCursor());
+        assertEquals(List.of("79003334455"), second.getUdrs().stream().map(UDRResponse::getMsisdn).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getUDRsForMonthPage_InvalidLimitOrCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> udrService.getUDRsForMonthPage(month, year, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> udrService.getUDRsForMonthPage(month, year, null, 1001));
+        assertThrows(IllegalArgumentException.class, () -> udrService.getUDRsForMonthPage(month, year, "123", 10));
+
+        verifyNoInteractions(usageRepository, subscriberRepository, cdRecordRepository);
+    }
+
+    @Test
+    void streamAllUDRsForMonth_Rollup_ReadsPagesLazily() {
+        udrService = rollupUdrService();
+        when(usageRepository.findByMonthAfterMsisdn(2025, 5, "", Limit.of(ValidationUtil.MAX_PAGE_SIZE)))
+                .thenReturn(Arrays.asList(
+                        usage("79001112233", 120L, 1L, 300L, 1L),
+                        usage("79002223344", 0L, 0L, 3600L, 1L)));
+
+        try (Stream<UDRResponse> udrs = udrService.streamAllUDRsForMonth(month, year)) {
+            verifyNoInteractions(usageRepository);
+
+            assertEquals(List.of("79001112233", "79002223344"), udrs.map(UDRResponse::getMsisdn).toList());
+        }
+        verify(usageRepository, never()).findByMonth(anyInt(), anyInt());
+    }
+
+    @Test
+    void streamAllUDRsForMonth_InvalidMonth_ThrowsBeforeStreaming() {
+        assertThrows(IllegalArgumentException.class, () -> udrService.streamAllUDRsForMonth(13, year));
+    }
+
+    @Test
+    void getAllUDRsForMonth_InvalidYear_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> udrService.getAllUDRsForMonth(month, 0));
+
+        verifyNoInteractions(cdRecordRepository);
+    }
+
+    private UDRServiceImpl rollupUdrService() {
+        return new UDRServiceImpl(subscriberRepository, cdRecordRepository, usageRepository,
+                subscriberDirectoryService, callColumnService, usageTotalsService, transactionManager, meterRegistry, Runnable::run, true, false, 2);
+    }
+
+    private SubscriberMonthlyUsage usage(String msisdn, long incomingSeconds, long incomingCalls,
+                                         long outgoingSeconds, long outgoingCalls) {
+        return SubscriberMonthlyUsage.builder()
+                .id(new SubscriberMonthlyUsageId(msisdn, 2025, 5))
+                .incomingSeconds(incomingSeconds)
+                .incomingCallCount(incomingCalls)
+                .outgoingSeconds(outgoingSeconds)
+                .outgoingCallCount(outgoingCalls)
+                .build();
     }
 
     @Test
@@ -0,0 +1,207 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.nexignbootcamptask.dto.RollupRebuildResponse;
+import org.example.nexignbootcamptask.entity.CDRecord;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsage;
+import org.example.nexignbootcamptask.entity.SubscriberMonthlyUsageId;
+import org.example.nexignbootcamptask.entity.Subscriber;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.repository.SubscriberMonthlyUsageRepository;
+import org.example.nexignbootcamptask.repository.SubscriberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({CDRIngestServiceImpl.class, UsageRollupServiceImpl.class, SimpleMeterRegistry.class})
+public class UsageRollupServiceImplTest {
+
+    @Autowired
+    private CDRIngestServiceImpl cdrIngestService;
+
+    @Autowired
+    private UsageRollupServiceImpl usageRollupService;
+
+    @Autowired
+    private CDRecordRepository cdRecordRepository;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Autowired
+    private SubscriberMonthlyUsageRepository usageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Subscriber subscriber1;
+    private Subscriber subscriber2;
+    private final LocalDateTime mayStart = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        subscriber1 = subscriberRepository.save(Subscriber.builder().msisdn("79001112233").build());
+        subscriber2 = subscriberRepository.save(Subscriber.builder().msisdn("79002223344").build());
+    }
+
+    @Test
+    void ingestCDRecords_AddsUsageOfBilledSubscriberPerMonth() {
+        cdrIngestService.ingestCDRecords(List.of(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart, 300),
+                record(CallType.INCOMING, subscriber2, subscriber1, mayStart.plusDays(3), 120),
+                record(CallType.OUTCOMING, subscriber2, subscriber1, mayStart.plusMonths(1), 45)));
+
+        SubscriberMonthlyUsage may = usage("79001112233", 2025, 5);
+        assertEquals(120, may.getIncomingSeconds());
+        assertEquals(1, may.getIncomingCallCount());
+        assertEquals(300, may.getOutgoingSeconds());
+        assertEquals(1, may.getOutgoingCallCount());
+
+        SubscriberMonthlyUsage june = usage("79002223344", 2025, 6);
+        assertEquals(45, june.getOutgoingSeconds());
+        assertEquals(0, june.getIncomingCallCount());
+
+        assertTrue(usageRepository.findById(new SubscriberMonthlyUsageId("79002223344", 2025, 5)).isEmpty());
+    }
+
+    @Test
+    void ingestCDRecords_RepeatedIngest_UpdatesExistingUsage() {
+        cdrIngestService.ingestCDRecords(List.of(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart, 300)));
+        cdrIngestService.ingestCDRecords(List.of(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart.plusDays(1), 60),
+                record(CallType.INCOMING, subscriber2, subscriber1, mayStart.plusDays(2), 30)));
+
+        SubscriberMonthlyUsage may = usage("79001112233", 2025, 5);
+        assertEquals(360, may.getOutgoingSeconds());
+        assertEquals(2, may.getOutgoingCallCount());
+        assertEquals(30, may.getIncomingSeconds());
+        assertEquals(1, usageRepository.count());
+    }
+
+    /**
+     * Runs without the test transaction, so every ingest commits on its own and new subscriber months race.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void ingestCDRecords_ConcurrentIngestsOfNewMonths_AddUpWithoutConflicts() throws Exception {
+        int ingests = 8;
+        int months = 12;
+        ExecutorService executor = Executors.newFixedThreadPool(ingests);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < ingests; i++) {
+                results.add(executor.submit(() -> {
+                    List<CDRecord> records = new ArrayList<>();
+                    for (int month = 0; month < months; month++) {
+                        records.add(record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart.plusMonths(month), 60));
+                        records.add(record(CallType.INCOMING, subscriber1, subscriber2, mayStart.plusMonths(month), 30));
+                    }
+                    start.await();
+                    return cdrIngestService.ingestCDRecords(records);
+                }));
+            }
+            start.countDown();
+            for (Future<Long> result : results) {
+                assertEquals(2 * months, result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertEquals(2 * months, usageRepository.count());
+            for (int month = 0; month < months; month++) {
+                LocalDateTime callStart = mayStart.plusMonths(month);
+                SubscriberMonthlyUsage outgoing = usage("79001112233", callStart.getYear(), callStart.getMonthValue());
+                assertEquals(ingests * 60, outgoing.getOutgoingSeconds());
+                assertEquals(ingests, outgoing.getOutgoingCallCount());
+                SubscriberMonthlyUsage incoming = usage("79002223344", callStart.getYear(), callStart.getMonthValue());
+                assertEquals(ingests * 30, incoming.getIncomingSeconds());
+                assertEquals(ingests, incoming.getIncomingCallCount());
+            }
+        } finally {
+            executor.shutdownNow();
+            cdRecordRepository.deleteAll();
+            usageRepository.deleteAll();
+            subscriberRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void rebuildRollups_MatchesIncrementalUsage() {
+        cdrIngestService.ingestCDRecords(List.of(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart, 300),
+                record(CallType.INCOMING, subscriber2, subscriber1, mayStart.plusDays(3), 120),
+                record(CallType.INCOMING, subscriber1, subscriber2, mayStart.plusDays(4), 20),
+                record(CallType.OUTCOMING, subscriber2, subscriber1, mayStart.plusMonths(1), 45)));
+        entityManager.flush();
+        entityManager.clear();
+        List<SubscriberMonthlyUsage> incremental = sortedUsage();
+
+        RollupRebuildResponse response = usageRollupService.rebuildRollups();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(3, response.getRollupCount());
+        List<SubscriberMonthlyUsage> rebuilt = sortedUsage();
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            assertEquals(incremental.get(i).getId(), rebuilt.get(i).getId());
+            assertEquals(incremental.get(i).getIncomingSeconds(), rebuilt.get(i).getIncomingSeconds());
+            assertEquals(incremental.get(i).getIncomingCallCount(), rebuilt.get(i).getIncomingCallCount());
+            assertEquals(incremental.get(i).getOutgoingSeconds(), rebuilt.get(i).getOutgoingSeconds());
+            assertEquals(incremental.get(i).getOutgoingCallCount(), rebuilt.get(i).getOutgoingCallCount());
+        }
+    }
+
+    @Test
+    void rebuildRollups_RepairsRecordsLoadedBypassingIngest() {
+        cdRecordRepository.saveAll(List.of(
+                record(CallType.OUTCOMING, subscriber1, subscriber2, mayStart, 300)));
+        assertEquals(0, usageRepository.count());
+
+        usageRollupService.rebuildRollups();
+
+        assertEquals(300, usage("79001112233", 2025, 5).getOutgoingSeconds());
+    }
+
+    private SubscriberMonthlyUsage usage(String msisdn, int year, int month) {
+        return usageRepository.findById(new SubscriberMonthlyUsageId(msisdn, year, month)).orElseThrow();
+    }
+
+    private List<SubscriberMonthlyUsage> sortedUsage() {
+        return usageRepository.findAll().stream()
+                .sorted(Comparator.comparing((SubscriberMonthlyUsage u) -> u.getId().getMsisdn())
+                        .thenComparing(u -> u.getId().getYear())
+                        .thenComparing(u -> u.getId().getMonth()))
+                .toList();
+    }
+
+    private CDRecord record(CallType callType, Subscriber caller, Subscriber receiver,
+                            LocalDateTime callStart, int durationSeconds) {
+        return CDRecord.builder()
+                .callType(callType)
+                .callingSubscriber(caller)
+                .receivingSubscriber(receiver)
+                .callStart(callStart)
+                .callEnd(callStart.plusSeconds(durationSeconds))
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.nexignbootcamptask.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.nexignbootcamptask.dto.CallDurationTotals;
+import org.example.nexignbootcamptask.dto.MonthlyCallDurationSummary;
+import org.example.nexignbootcamptask.dto.UsageReconciliationResponse;
+import org.example.nexignbootcamptask.entity.enums.CallType;
+import org.example.nexignbootcamptask.event.CDRPartitionDroppedEvent;
+import org.example.nexignbootcamptask.event.CDRecordsIngestedEvent;
+import org.example.nexignbootcamptask.repository.CDRecordRepository;
+import org.example.nexignbootcamptask.util.CallColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UsageTotalsServiceImplTest {
+
+    private static final long SUBSCRIBER_1 = 79001112233L;
+    private static final long SUBSCRIBER_2 = 79002223344L;
+    private static final byte INCOMING = (byte) CallType.INCOMING.ordinal();
+    private static final byte OUTCOMING = (byte) CallType.OUTCOMING.ordinal();
+    private static final YearMonth MAY = YearMonth.of(2025, 5);
+    private static final YearMonth JUNE = YearMonth.of(2025, 6);
+
+    @Mock
+    private CDRecordRepository cdRecordRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UsageTotalsServiceImpl usageTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usageTotalsService = new UsageTotalsServiceImpl(cdRecordRepository, meterRegistry, true);
+    }
+
+    @Test
+    void onCDRecordsIngested_AddsBilledCallsPerMonthAndAllTime() {
+        CallColumns calls = new CallColumns(4);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(MAY, 1), 300);
+        calls.add(INCOMING, SUBSCRIBER_2, SUBSCRIBER_1, epoch(MAY, 31), 120);
+        calls.add(INCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(MAY, 4), 20);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(JUNE, 1), 45);
+        ingest(calls);
+
+        CallDurationTotals may = usageTotalsService.getTotals("79001112233", MAY);
+        assertEquals(120, may.getIncomingSeconds());
+        assertEquals(300, may.getOutgoingSeconds());
+        assertEquals(2, may.getCallCount());
+
+        CallDurationTotals allTime = usageTotalsService.getTotals("79001112233", null);
+        assertEquals(345, allTime.getOutgoingSeconds());
+        assertEquals(3, allTime.getCallCount());
+
+        assertNull(usageTotalsService.getTotals("79001112233", YearMonth.of(2025, 4)));
+    }
+
+    @Test
+    void onCDRPartitionDropped_RemovesMonthFromAllTimeTotals() {
+        CallColumns calls = new CallColumns(2);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(MAY, 1), 300);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(JUNE, 1), 45);
+        ingest(calls);
+
+        usageTotalsService.onCDRPartitionDropped(new CDRPartitionDroppedEvent(MAY, 1));
+
+        assertNull(usageTotalsService.getTotals("79001112233", MAY));
+        CallDurationTotals allTime = usageTotalsService.getTotals("79001112233", null);
+        assertEquals(45, allTime.getOutgoingSeconds());
+        assertEquals(1, allTime.getCallCount());
+    }
+
+    @Test
+    void reload_LoadsMonthlyTotalsFromDatabase() {
+        stubRecordedTotals();
+
+        assertEquals(2, usageTotalsService.reload());
+
+        CallDurationTotals allTime = usageTotalsService.getTotals("79001112233", null);
+        assertEquals(30, allTime.getIncomingSeconds());
+        assertEquals(300, allTime.getOutgoingSeconds());
+        assertEquals(2, allTime.getCallCount());
+    }
+
+    @Test
+    void reconcile_RepairsOnlyDifferenceSeenTwice() {
+        stubRecordedTotals();
+        usageTotalsService.reload();
+        CallColumns missed = new CallColumns(1);
+        missed.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(MAY, 2), 60);
+        ingest(missed);
+
+        UsageReconciliationResponse first = usageTotalsService.reconcile();
+        assertEquals(3, first.getCheckedCount());
+        assertEquals(2, first.getMismatchCount());
+        assertEquals(0, first.getRepairedCount());
+        assertEquals(360, usageTotalsService.getTotals("79001112233", MAY).getOutgoingSeconds());
+
+        UsageReconciliationResponse second = usageTotalsService.reconcile();
+        assertEquals(2, second.getRepairedCount());
+        assertEquals(300, usageTotalsService.getTotals("79001112233", MAY).getOutgoingSeconds());
+        assertEquals(1, usageTotalsService.getTotals("79001112233", MAY).getCallCount());
+
+        assertEquals(0, usageTotalsService.reconcile().getMismatchCount());
+        assertEquals(4, meterRegistry.get("udr.live.mismatches").counter().count());
+        assertEquals(2, meterRegistry.get("udr.live.repairs").counter().count());
+    }
+
+    @Test
+    void reconcile_DifferenceGoneByNextRun_IsNotRepaired() {
+        when(cdRecordRepository.sumMonthlyDurationByReceivingSubscriberAndCallType(CallType.INCOMING))
+                .thenReturn(List.of());
+        when(cdRecordRepository.sumMonthlyDurationByCallingSubscriberAndCallType(CallType.OUTCOMING))
+                .thenReturn(List.of(), List.of(new MonthlyCallDurationSummary("79001112233", 2025, 5, 300L, 1L)));
+        usageTotalsService.reload();
+
+        CallColumns calls = new CallColumns(1);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(MAY, 1), 300);
+        ingest(calls);
+
+        UsageReconciliationResponse response = usageTotalsService.reconcile();
+
+        assertEquals(0, response.getMismatchCount());
+        assertEquals(300, usageTotalsService.getTotals("79001112233", null).getOutgoingSeconds());
+    }
+
+    @Test
+    void disabled_KeepsNothingAndRejectsReconciliation() {
+        usageTotalsService = new UsageTotalsServiceImpl(cdRecordRepository, meterRegistry, false);
+        CallColumns calls = new CallColumns(1);
+        calls.add(OUTCOMING, SUBSCRIBER_1, SUBSCRIBER_2, epoch(MAY, 1), 300);
+
+        ingest(calls);
+        usageTotalsService.reconcileTotals();
+
+        assertFalse(usageTotalsService.isEnabled());
+        assertNull(usageTotalsService.getTotals("79001112233", null));
+        assertEquals(0, usageTotalsService.reload());
+        assertThrows(IllegalStateException.class, () -> usageTotalsService.reconcile());
+        verifyNoInteractions(cdRecordRepository);
+    }
+
+    private void stubRecordedTotals() {
+        when(cdRecordRepository.sumMonthlyDurationByReceivingSubscriberAndCallType(CallType.INCOMING))
+                .thenReturn(List.of(new MonthlyCallDurationSummary("79001112233", 2025, 6, 30L, 1L)));
+        when(cdRecordRepository.sumMonthlyDurationByCallingSubscriberAndCallType(CallType.OUTCOMING))
+                .thenReturn(List.of(new MonthlyCallDurationSummary("79001112233", 2025, 5, 300L, 1L)));
+    }
+
+    private void ingest(CallColumns calls) {
+        usageTotalsService.onCDRecordsIngested(new CDRecordsIngestedEvent(calls.size(), Set.of(), calls, 1));
+    }
+
+    private long epoch(YearMonth month, int day) {
+        return LocalDateTime.of(month.getYear(), month.getMonthValue(), day, 12, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void mightContain_PutKeys_NoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (long key = 79_000_000_000L; key < 79_000_010_000L; key++) {
+            filter.put(key);
+        }
+
+        for (long key = 79_000_000_000L; key < 79_000_010_000L; key++) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    void mightContain_UnknownKeys_FalsePositiveRateNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (long key = 79_000_000_000L; key < 79_000_010_000L; key++) {
+            filter.put(key);
+        }
+
+        int falsePositives = 0;
+        for (long key = 79_100_000_000L; key < 79_100_100_000L; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void create_InvalidParameters_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CDRCsvParserTest {
+
+    private static final Set<Long> SUBSCRIBERS = Set.of(79001112233L, 79002223344L, 79003334455L);
+
+    private final CDRCsvParser parser = new CDRCsvParser(SUBSCRIBERS::contains);
+
+    @Test
+    void parse_ReadsCallsWithCrlfAndLf() {
+        ByteBuffer buffer = bytes("01,79001112233,79002223344,2025-02-28T23:59:30,2025-03-01T00:00:15\r\n" +
+                "02,79002223344,79001112233,2024-02-29T10:00:00,2024-02-29T10:05:00\n");
+
+        CallColumns calls = parser.parse(buffer, 0, 0, buffer.limit());
+
+        assertEquals(2, calls.size());
+        assertEquals(0, calls.callType(0));
+        assertEquals(79001112233L, calls.callingMsisdn(0));
+        assertEquals(79002223344L, calls.receivingMsisdn(0));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 23, 59, 30).toEpochSecond(ZoneOffset.UTC), calls.callStart(0));
+        assertEquals(45, calls.duration(0));
+        assertEquals(1, calls.callType(1));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 10, 0).toEpochSecond(ZoneOffset.UTC), calls.callStart(1));
+        assertEquals(300, calls.duration(1));
+        assertEquals(0, parser.getRejectedCount());
+        assertEquals(buffer.limit(), parser.getEndOffset());
+    }
+
+    @Test
+    void parse_LastLineWithoutLineBreak() {
+        ByteBuffer buffer = bytes("01,79001112233,79002223344,2025-01-01T00:00:00,2025-01-01T00:01:00");
+
+        assertEquals(1, parser.parse(buffer, 0, 0, buffer.limit()).size());
+        assertEquals(buffer.limit(), parser.getEndOffset());
+    }
+
+    @Test
+    void parse_RejectsInvalidLines() {
+        ByteBuffer buffer = bytes(String.join("\r\n",
+                "03,79001112233,79002223344,2025-01-01T00:00:00,2025-01-01T00:01:00",
+                "01,89001112233,79002223344,2025-01-01T00:00:00,2025-01-01T00:01:00",
+                "01,79001112233,79002223344,2025-02-29T00:00:00,2025-02-29T00:01:00",
+                "01,79001112233,79002223344,2025-01-01T00:01:00,2025-01-01T00:00:00",
+                "01,79001112233,79001112233,2025-01-01T00:00:00,2025-01-01T00:01:00",
+                "01,79001112233,79009999999,2025-01-01T00:00:00,2025-01-01T00:01:00",
+                "01;79001112233;79002223344",
+                "",
+                "02,79003334455,79001112233,2025-01-01T00:00:00,2025-01-01T00:01:00"));
+
+        CallColumns calls = parser.parse(buffer, 0, 0, buffer.limit());
+
+        assertEquals(1, calls.size());
+        assertEquals(79003334455L, calls.callingMsisdn(0));
+        assertEquals(7, parser.getRejectedCount());
+        assertEquals("Unknown call type", parser.getFirstRejection());
+    }
+
+    @Test
+    void parse_AdjacentChunksReadEveryLineOnce() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            csv.append(i % 2 == 0 ? "01" : "02").append(",79001112233,79002223344,2025-01-01T00:00:00,")
+                    .append(String.format("2025-01-01T00:%02d:00", i)).append("\r\n");
+        }
+        ByteBuffer buffer = bytes(csv.toString());
+
+        for (int chunkSize : new int[]{1, 50, 73, 75, 100, 1000, 10_000}) {
+            List<Integer> durations = new ArrayList<>();
+            long committed = 0;
+            for (long start = 0; start < buffer.limit(); start += chunkSize) {
+                CDRCsvParser chunkParser = new CDRCsvParser(SUBSCRIBERS::contains);
+                long bufferOffset = Math.max(0, start - 1);
+                ByteBuffer chunk = buffer.slice((int) bufferOffset, (int) (buffer.limit() - bufferOffset));
+                CallColumns calls = chunkParser.parse(chunk, bufferOffset, start, Math.min(buffer.limit(), start + chunkSize));
+                for (int i = 0; i < calls.size(); i++) {
+                    durations.add(calls.duration(i));
+                }
+                assertTrue(chunkParser.getEndOffset() >= committed);
+                committed = chunkParser.getEndOffset();
+            }
+
+            assertEquals(50, durations.size(), "chunk size " + chunkSize);
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i * 60, durations.get(i));
+            }
+            assertEquals(buffer.limit(), committed);
+        }
+    }
+
+    private static ByteBuffer bytes(String csv) {
+        return ByteBuffer.wrap(csv.getBytes(StandardCharsets.US_ASCII));
+    }
+}
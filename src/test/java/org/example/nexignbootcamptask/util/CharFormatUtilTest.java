@@ -0,0 +1,47 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CharFormatUtilTest {
+
+    private final char[] buffer = new char[32];
+
+    @Test
+    void appendLong_WritesDecimalDigits() {
+        assertEquals("0", new String(buffer, 0, CharFormatUtil.appendLong(buffer, 0, 0)));
+        assertEquals("79001112233", new String(buffer, 0, CharFormatUtil.appendLong(buffer, 0, 79001112233L)));
+    }
+
+    @Test
+    void appendIsoLocalDateTime_MatchesDateTimeFormatter() {
+        SplittableRandom random = new SplittableRandom(42);
+        long min = LocalDateTime.of(1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long max = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+
+        for (int i = 0; i < 10_000; i++) {
+            long epochSecond = random.nextLong(min, max + 1);
+            String expected = DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                    .format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+
+            int end = CharFormatUtil.appendIsoLocalDateTime(buffer, 0, epochSecond);
+
+            assertEquals(expected, new String(buffer, 0, end));
+        }
+    }
+
+    @Test
+    void appendIsoLocalDateTime_LeapDayAndMidnight() {
+        long epochSecond = LocalDateTime.of(2024, 2, 29, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+        int end = CharFormatUtil.appendIsoLocalDateTime(buffer, 0, epochSecond);
+
+        assertEquals("2024-02-29T00:00:00", new String(buffer, 0, end));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarReportWriterTest {
+
+    private static final long START = 1_746_057_600L; // 2025-05-01T00:00:00
+
+    @Test
+    void write_ReadsBackEveryRowAcrossBlocks() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        int rows = 2 * ColumnarReportWriter.BLOCK_SIZE + 100;
+        CallColumns expected = new CallColumns(rows);
+        long callStart = START;
+        for (int i = 0; i < rows; i++) {
+            // mostly ordered by call start, with an occasional step back
+            callStart += random.nextInt(-60, 600);
+            long counterpart = 79_000_000_000L + random.nextInt(5000);
+            boolean outgoing = random.nextBoolean();
+            expected.add((byte) (outgoing ? 0 : 1),
+                    outgoing ? 79_001_112_233L : counterpart,
+                    outgoing ? counterpart : 79_001_112_233L,
+                    callStart, random.nextInt(0, 7200));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ColumnarReportWriter writer = new ColumnarReportWriter(out)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(expected.callType(i), expected.callingMsisdn(i), expected.receivingMsisdn(i),
+                        expected.callStart(i), expected.duration(i));
+            }
+        }
+
+        List<CallColumns> blocks = readAll(out.toByteArray());
+        assertEquals(3, blocks.size());
+        int index = 0;
+        for (CallColumns block : blocks) {
+            for (int i = 0; i < block.size(); i++, index++) {
+                assertEquals(expected.callType(index), block.callType(i));
+                assertEquals(expected.callingMsisdn(index), block.callingMsisdn(i));
+                assertEquals(expected.receivingMsisdn(index), block.receivingMsisdn(i));
+                assertEquals(expected.callStart(index), block.callStart(i));
+                assertEquals(expected.duration(index), block.duration(i));
+            }
+        }
+        assertEquals(rows, index);
+        assertTrue(out.size() < rows * 10, "bytes per row: " + (double) out.size() / rows);
+    }
+
+    @Test
+    void write_NoRows_WritesHeaderAndEnd() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ColumnarReportWriter(out).close();
+
+        assertEquals(6, out.size());
+        assertTrue(readAll(out.toByteArray()).isEmpty());
+    }
+
+    @Test
+    void read_OtherFormat_ThrowsException() {
+        byte[] csv = "01,79001112233,79002223344,2025-05-01T10:00:00,2025-05-01T10:05:00\r\n"
+                .getBytes(StandardCharsets.US_ASCII);
+
+        assertThrows(IOException.class, () -> new ColumnarReportReader(new ByteArrayInputStream(csv)));
+    }
+
+    private static List<CallColumns> readAll(byte[] report) throws IOException {
+        List<CallColumns> blocks = new ArrayList<>();
+        try (ColumnarReportReader reader = new ColumnarReportReader(new ByteArrayInputStream(report))) {
+            for (CallColumns block = reader.readBlock(); block != null; block = reader.readBlock()) {
+                blocks.add(block);
+            }
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentUsageTotalsTest {
+
+    @Test
+    void add_GrowsBeyondExpectedKeys() {
+        ConcurrentUsageTotals totals = new ConcurrentUsageTotals(2);
+        for (long key = 79_000_000_000L; key < 79_000_010_000L; key++) {
+            totals.addIncoming(key, 10);
+            totals.addOutgoing(key, 5);
+        }
+
+        assertEquals(10_000, totals.size());
+        for (long key = 79_000_000_000L; key < 79_000_010_000L; key++) {
+            ConcurrentUsageTotals.Totals found = totals.get(key);
+            assertEquals(10, found.getIncomingSeconds());
+            assertEquals(5, found.getOutgoingSeconds());
+            assertEquals(2, found.getCallCount());
+        }
+        assertNull(totals.get(79_999_999_999L));
+    }
+
+    @Test
+    void remove_KeepsOtherKeysOfProbeRunReachable() {
+        ConcurrentUsageTotals totals = new ConcurrentUsageTotals(0);
+        for (long key = 1; key <= 2_000; key++) {
+            totals.add(key, key, 0, 1);
+        }
+
+        for (long key = 1; key <= 2_000; key += 2) {
+            assertEquals(key, totals.remove(key).getIncomingSeconds());
+        }
+
+        assertEquals(1_000, totals.size());
+        assertNull(totals.remove(1));
+        for (long key = 1; key <= 2_000; key++) {
+            ConcurrentUsageTotals.Totals found = totals.get(key);
+            if (key % 2 == 0) {
+                assertEquals(key, found.getIncomingSeconds());
+            } else {
+                assertNull(found);
+            }
+        }
+    }
+
+    @Test
+    void addOutgoing_ConcurrentWritersLoseNoCalls() throws Exception {
+        ConcurrentUsageTotals totals = new ConcurrentUsageTotals(16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        totals.addOutgoing(79_000_000_000L + i % 500, 3);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] calls = {0, 0};
+        totals.forEach((key, found) -> {
+            calls[0] += found.getCallCount();
+            calls[1] += found.getOutgoingSeconds();
+        });
+        assertEquals(500, totals.size());
+        assertEquals(40_000, calls[0]);
+        assertEquals(120_000, calls[1]);
+    }
+
+    @Test
+    void remove_ConcurrentWithWriters_EveryCallIsEitherRemovedOrKept() throws Exception {
+        ConcurrentUsageTotals totals = new ConcurrentUsageTotals(16);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        long removed = 0;
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        totals.addIncoming(79_000_000_000L + i % 8, 1);
+                    }
+                }));
+            }
+            Future<Long> remover = executor.submit(() -> {
+                long count = 0;
+                while (writing.get()) {
+                    for (long key = 79_000_000_000L; key < 79_000_000_008L; key++) {
+                        ConcurrentUsageTotals.Totals found = totals.remove(key);
+                        if (found != null) {
+                            count += found.getCallCount();
+                        }
+                    }
+                }
+                return count;
+            });
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            writing.set(false);
+            removed = remover.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] kept = {0};
+        totals.forEach((key, found) -> kept[0] += found.getCallCount());
+        assertEquals(400_000, removed + kept[0]);
+    }
+}
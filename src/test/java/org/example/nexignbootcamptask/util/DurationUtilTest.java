@@ -0,0 +1,40 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurationUtilTest {
+
+    @Test
+    void formatDuration_PadsHoursMinutesAndSeconds() {
+        assertEquals("00:00:00", DurationUtil.formatDuration(0));
+        assertEquals("00:01:05", DurationUtil.formatDuration(65));
+        assertEquals("01:00:00", DurationUtil.formatDuration(3600));
+        assertEquals("23:59:59", DurationUtil.formatDuration(86_399));
+    }
+
+    @Test
+    void formatDuration_MoreThan99Hours() {
+        assertEquals("100:00:01", DurationUtil.formatDuration(360_001));
+    }
+
+    @Test
+    void formatDuration_MatchesStringFormat() {
+        for (long seconds : new long[]{59, 599, 35_999, 36_000, 359_999, Long.MAX_VALUE, -65}) {
+            assertEquals(String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60),
+                    DurationUtil.formatDuration(seconds));
+        }
+    }
+
+    @Test
+    void appendDuration_WritesAtPosition() {
+        char[] buffer = new char[2 + DurationUtil.MAX_DURATION_LENGTH];
+        buffer[0] = '[';
+        buffer[1] = '[';
+
+        int end = DurationUtil.appendDuration(buffer, 2, 7_384);
+
+        assertEquals("[[02:03:04", new String(buffer, 0, end));
+    }
+}
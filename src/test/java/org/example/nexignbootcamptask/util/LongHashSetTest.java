@@ -0,0 +1,61 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void add_GrowsBeyondInitialCapacity() {
+        LongHashSet set = new LongHashSet(4);
+        for (long key = 79_000_000_000L; key < 79_000_010_000L; key++) {
+            assertTrue(set.add(key));
+        }
+
+        assertEquals(10_000, set.size());
+        assertTrue(set.contains(79_000_000_000L));
+        assertTrue(set.contains(79_000_009_999L));
+        assertFalse(set.contains(79_000_010_000L));
+    }
+
+    @Test
+    void add_Duplicate_ReturnsFalse() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertTrue(set.add(79001112233L));
+        assertFalse(set.add(79001112233L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void add_Zero_IsSupported() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void forEach_VisitsEveryKey() {
+        LongHashSet set = new LongHashSet(16);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long key = random.nextLong();
+            set.add(key);
+            expected.add(key);
+        }
+
+        Set<Long> visited = new HashSet<>();
+        set.forEach(visited::add);
+
+        assertEquals(expected, visited);
+    }
+}
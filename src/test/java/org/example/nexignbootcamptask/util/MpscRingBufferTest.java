@@ -0,0 +1,70 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MpscRingBufferTest {
+
+    @Test
+    void offerAll_FullBuffer_RejectsWholeRun() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.offerAll(List.of(1, 2, 3)));
+        assertFalse(buffer.offerAll(List.of(4, 5)));
+        assertEquals(3, buffer.size());
+        assertThrows(IllegalArgumentException.class, () -> buffer.offerAll(List.of(1, 2, 3, 4, 5)));
+
+        List<Integer> taken = new ArrayList<>();
+        assertEquals(2, buffer.drain(taken::add, 2));
+        assertTrue(buffer.offerAll(List.of(4, 5)));
+        assertEquals(3, buffer.drain(taken::add, 10));
+        assertEquals(List.of(1, 2, 3, 4, 5), taken);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void drain_ConcurrentProducers_KeepsEachProducersOrder() throws Exception {
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i += 2) {
+                        while (!buffer.offerAll(List.of(new long[]{producer, i}, new long[]{producer, i + 1}))) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+
+            long[] next = new long[producers];
+            int taken = 0;
+            while (taken < producers * perProducer) {
+                taken += buffer.drain(element -> {
+                    assertEquals(next[(int) element[0]], element[1]);
+                    next[(int) element[0]]++;
+                }, 16);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            for (long count : next) {
+                assertEquals(perProducer, count);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeriodUtilTest {
+
+    private final YearMonth current = YearMonth.of(2025, 5);
+
+    @Test
+    void resolveMonth_WithYear_UsesGivenYear() {
+        assertEquals(YearMonth.of(2023, 11), PeriodUtil.resolveMonth(11, 2023, current));
+    }
+
+    @Test
+    void resolveMonth_WithoutYear_PastOrCurrentMonth_UsesCurrentYear() {
+        assertEquals(YearMonth.of(2025, 5), PeriodUtil.resolveMonth(5, null, current));
+        assertEquals(YearMonth.of(2025, 1), PeriodUtil.resolveMonth(1, null, current));
+    }
+
+    @Test
+    void resolveMonth_WithoutYear_FutureMonth_UsesPreviousYear() {
+        assertEquals(YearMonth.of(2024, 6), PeriodUtil.resolveMonth(6, null, current));
+    }
+
+    @Test
+    void startAndEndOf_AreHalfOpenMonthBounds() {
+        YearMonth february = YearMonth.of(2024, 2);
+
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), PeriodUtil.startOf(february));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), PeriodUtil.endOf(february));
+    }
+
+    @Test
+    void partitionOf_IsMonthOfCallStart() {
+        assertEquals(202402, PeriodUtil.partitionOf(YearMonth.of(2024, 2)));
+        assertEquals(202412, PeriodUtil.partitionOf(LocalDateTime.of(2024, 12, 31, 23, 59, 59)));
+        assertEquals(YearMonth.of(2024, 12), PeriodUtil.monthOf(202412));
+    }
+
+    @Test
+    void lastPartitionBefore_ExcludesPeriodEnd() {
+        assertEquals(202402, PeriodUtil.lastPartitionBefore(PeriodUtil.endOf(YearMonth.of(2024, 2))));
+        assertEquals(202403, PeriodUtil.lastPartitionBefore(LocalDateTime.of(2024, 3, 1, 0, 0, 1)));
+    }
+}
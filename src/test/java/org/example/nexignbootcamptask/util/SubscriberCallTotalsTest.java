@@ -0,0 +1,35 @@
+package org.example.nexignbootcamptask.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubscriberCallTotalsTest {
+
+    @Test
+    void add_GrowsBeyondExpectedSubscribers() {
+        SubscriberCallTotals totals = new SubscriberCallTotals(2);
+        for (long msisdn = 79_000_000_000L; msisdn < 79_000_001_000L; msisdn++) {
+            totals.addIncoming(msisdn, 10);
+            totals.addOutgoing(msisdn, 5);
+            totals.addIncoming(msisdn, 1);
+        }
+
+        assertEquals(1000, totals.size());
+        for (long msisdn = 79_000_000_000L; msisdn < 79_000_001_000L; msisdn++) {
+            assertEquals(11, totals.getIncomingSeconds(msisdn));
+            assertEquals(5, totals.getOutgoingSeconds(msisdn));
+        }
+    }
+
+    @Test
+    void sortedMsisdns_ReturnsAscendingMsisdns() {
+        SubscriberCallTotals totals = new SubscriberCallTotals(4);
+        totals.addOutgoing(79003334455L, 1);
+        totals.addIncoming(79001112233L, 1);
+        totals.addOutgoing(79002223344L, 0);
+
+        assertArrayEquals(new long[]{79001112233L, 79002223344L, 79003334455L}, totals.sortedMsisdns());
+        assertEquals(0, totals.getIncomingSeconds(79009999999L));
+    }
+}
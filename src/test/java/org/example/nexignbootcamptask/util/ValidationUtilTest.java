@@ -17,7 +17,8 @@ public class ValidationUtilTest {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = {"123", "7900111223", "790011122334", "7900111223a", "89001112233"})
+    @ValueSource(strings = {"123", "7900111223", "790011122334", "7900111223a", "89001112233",
+            "7900111223\n", "7900111223\u0663"})
     void validateMsisdn_InvalidMsisdn_ThrowsException(String msisdn) {
         Exception exception = assertThrows(IllegalArgumentException.class,
                 () -> ValidationUtil.validateMsisdn(msisdn));
@@ -102,4 +103,24 @@ public class ValidationUtilTest {
     void validateMonth_NullMonth_NoException() {
         assertDoesNotThrow(() -> ValidationUtil.validateMonth(null));
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2025, 9999})
+    void validateYear_ValidYear_NoException(int year) {
+        assertDoesNotThrow(() -> ValidationUtil.validateYear(year));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 10000})
+    void validateYear_InvalidYear_ThrowsException(int year) {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> ValidationUtil.validateYear(year));
+
+        assertEquals("Year must be between 1 and 9999", exception.getMessage());
+    }
+
+    @Test
+    void validateYear_NullYear_NoException() {
+        assertDoesNotThrow(() -> ValidationUtil.validateYear(null));
+    }
 }